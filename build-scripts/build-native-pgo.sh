@@ -0,0 +1,74 @@
+#!/bin/bash
+
+# Profile-guided native image build with a startup/throughput report against the JIT build
+#
+# Requires Oracle GraalVM (PGO is not available in GraalVM Community Edition).
+# Usage: build-scripts/build-native-pgo.sh [training-iterations] [benchmark-iterations]
+
+set -e
+
+TRAIN_ITERATIONS=${1:-200000}
+BENCH_ITERATIONS=${2:-500000}
+STARTUP_RUNS=20
+JAR=target/sbe-encoder-decoder-1.0.0.jar
+PROFILE=pgo/sbe-encoder-decoder.iprof
+REPORT=target/pgo-report.txt
+
+echo "Building SBE Encoder/Decoder Native Application with PGO..."
+
+if ! command -v native-image &> /dev/null; then
+    echo "Error: native-image not found. Please install Oracle GraalVM 21+."
+    exit 1
+fi
+
+# JIT build, also used as the report baseline
+./mvnw clean package
+
+# Step 1: instrumented image
+echo "Building instrumented native image..."
+./mvnw package -Pnative-pgo-instrument -DskipTests
+
+# Step 2: collect a profile from the training workload
+echo "Running training workload ($TRAIN_ITERATIONS iterations)..."
+mkdir -p pgo
+./target/sbe-encoder-decoder-instrumented -XX:ProfilesDumpFile="$PROFILE" train "$TRAIN_ITERATIONS"
+
+# Step 3: optimized image
+echo "Building optimized native image from $PROFILE..."
+./mvnw package -Pnative-pgo -DskipTests -Dpgo.profile="$(pwd)/$PROFILE"
+
+# Mean wall-clock milliseconds to run the help command
+startup_ms() {
+    local start end
+    start=$(date +%s%N)
+    for _ in $(seq "$STARTUP_RUNS"); do
+        "$@" help > /dev/null
+    done
+    end=$(date +%s%N)
+    echo $(( (end - start) / STARTUP_RUNS / 1000000 ))
+}
+
+# Messages per second reported by the train command
+throughput() {
+    "$@" train "$BENCH_ITERATIONS" | sed -n 's/.*(\([0-9]*\) msg\/s).*/\1/p'
+}
+
+echo "Measuring startup and throughput..."
+JIT_STARTUP=$(startup_ms java -jar "$JAR")
+NATIVE_STARTUP=$(startup_ms ./target/sbe-encoder-decoder)
+JIT_THROUGHPUT=$(throughput java -jar "$JAR")
+NATIVE_THROUGHPUT=$(throughput ./target/sbe-encoder-decoder)
+
+{
+    echo "PGO native image report ($(date -u +%Y-%m-%dT%H:%M:%SZ))"
+    echo "Training iterations:  $TRAIN_ITERATIONS"
+    echo "Benchmark iterations: $BENCH_ITERATIONS"
+    echo
+    printf "%-12s %14s %18s\n" "build" "startup (ms)" "throughput (msg/s)"
+    printf "%-12s %14s %18s\n" "jit" "$JIT_STARTUP" "$JIT_THROUGHPUT"
+    printf "%-12s %14s %18s\n" "native-pgo" "$NATIVE_STARTUP" "$NATIVE_THROUGHPUT"
+} | tee "$REPORT"
+
+echo "PGO native build completed successfully!"
+echo "Native executable: target/sbe-encoder-decoder"
+echo "Report: $REPORT"
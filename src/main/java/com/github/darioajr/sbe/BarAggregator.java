@@ -0,0 +1,249 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.BitUtil;
+import org.agrona.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Streaming OHLC/VWAP bars per symbol over fixed time intervals, emitted as {@link BarEncoder} frames
+ *
+ * Trade frames are read in place through a {@link TradeDecoder} flyweight; other templates are
+ * ignored. Each symbol owns one cache-line sized off-heap slot holding the open bar's interval
+ * start, open, high, low, close, volume, notional, trade count and overflow flag, so aggregation neither
+ * decodes to records nor allocates. Intervals are aligned to multiples of the interval length
+ * in trade timestamp units (e.g. 1000 for 1s bars over millisecond timestamps).
+ *
+ * A bar is emitted when the first trade of a later interval arrives for its symbol, or by
+ * {@link #flush(long)} once the interval has ended, so quiet symbols still close their bars.
+ * Trades older than the symbol's open bar are counted as late and skipped. VWAP is notional
+ * divided by volume, rounded down. Notional is checked for overflow as it is summed; a bar whose
+ * notional does not fit in a long is emitted with a null vwap ({@link BarEncoder#vwapNullValue()})
+ * and counted by {@link #notionalOverflows()}, rather than with a wrapped value.
+ *
+ * Not thread safe; feed it from a single thread.
+ */
+public class BarAggregator implements FrameHandler {
+    
+    private static final long MISSING_SLOT = -1;
+    private static final int SLOT_LENGTH = BitUtil.CACHE_LINE_LENGTH;
+    private static final int START_OFFSET = 0;
+    private static final int OPEN_OFFSET = 8;
+    private static final int HIGH_OFFSET = 16;
+    private static final int LOW_OFFSET = 24;
+    private static final int CLOSE_OFFSET = 32;
+    private static final int VOLUME_OFFSET = 40;
+    private static final int NOTIONAL_OFFSET = 48;
+    private static final int COUNT_OFFSET = 56;
+    private static final int OVERFLOW_OFFSET = 60;
+    
+    private final FrameHandler downstream;
+    private final long interval;
+    private final int maxSymbols;
+    private final UnsafeBuffer slots;
+    private final long[] slotSymbols;
+    private final Long2LongHashMap slotBySymbol;
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final TradeDecoder tradeDecoder = new TradeDecoder();
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BarEncoder barEncoder = new BarEncoder();
+    private final UnsafeBuffer barBuffer = new UnsafeBuffer(new byte[MessageHeaderEncoder.ENCODED_LENGTH + BarEncoder.BLOCK_LENGTH]);
+    private int symbolCount;
+    
+    private long trades;
+    private long barsEmitted;
+    private long lateTrades;
+    private long rejected;
+    private long notionalOverflows;
+    
+    /**
+     * @param downstream receives each completed Bar frame; the buffer is only valid during the call
+     * @param interval   bar length in trade timestamp units
+     * @param maxSymbols distinct symbols the aggregator can hold
+     */
+    public BarAggregator(FrameHandler downstream, long interval, int maxSymbols) {
+        if (interval <= 0 || maxSymbols <= 0) {
+            throw new IllegalArgumentException("Invalid bars: interval=" + interval + ", maxSymbols=" + maxSymbols);
+        }
+        
+        this.downstream = downstream;
+        this.interval = interval;
+        this.maxSymbols = maxSymbols;
+        this.slots = new UnsafeBuffer(BufferUtil.allocateDirectAligned(maxSymbols * SLOT_LENGTH, BitUtil.CACHE_LINE_LENGTH));
+        this.slotSymbols = new long[maxSymbols];
+        this.slotBySymbol = new Long2LongHashMap(maxSymbols * 2, 0.65f, MISSING_SLOT);
+        
+        headerEncoder.wrap(barBuffer, 0)
+                .blockLength(BarEncoder.BLOCK_LENGTH)
+                .templateId(BarEncoder.TEMPLATE_ID)
+                .schemaId(BarEncoder.SCHEMA_ID)
+                .version(BarEncoder.SCHEMA_VERSION);
+        barEncoder.wrap(barBuffer, MessageHeaderEncoder.ENCODED_LENGTH)
+                .interval(interval);
+    }
+    
+    /**
+     * Fold a Trade frame into its symbol's open bar; other templates are ignored
+     */
+    @Override
+    public void onFrame(DirectBuffer buffer, int offset, int length) {
+        headerDecoder.wrap(buffer, offset);
+        if (headerDecoder.templateId() != TradeDecoder.TEMPLATE_ID) {
+            return;
+        }
+        
+        final int body = MessageFrames.bodyOffset(offset);
+        tradeDecoder.wrap(buffer, body, headerDecoder.blockLength(), headerDecoder.version());
+        onTrade(Symbols.read(buffer, body + TradeDecoder.symbolEncodingOffset()),
+                tradeDecoder.price(), tradeDecoder.quantity(), tradeDecoder.timestamp());
+    }
+    
+    /**
+     * Fold one trade into its symbol's open bar, emitting the previous bar when the trade starts a new interval
+     */
+    public void onTrade(long symbol, long price, long quantity, long timestamp) {
+        int slot = (int) slotBySymbol.get(symbol);
+        if (slot == MISSING_SLOT) {
+            if (symbolCount == maxSymbols) {
+                rejected++;
+                return;
+            }
+            slot = symbolCount++;
+            slotBySymbol.put(symbol, slot);
+            slotSymbols[slot] = symbol;
+        }
+        
+        final int slotOffset = slot * SLOT_LENGTH;
+        final long start = Math.floorDiv(timestamp, interval) * interval;
+        final int count = slots.getInt(slotOffset + COUNT_OFFSET);
+        if (count > 0) {
+            final long openStart = slots.getLong(slotOffset + START_OFFSET);
+            if (start < openStart) {
+                lateTrades++;
+                return;
+            }
+            if (start > openStart) {
+                emit(slot);
+            }
+        }
+        
+        trades++;
+        if (slots.getInt(slotOffset + COUNT_OFFSET) == 0) {
+            slots.putLong(slotOffset + START_OFFSET, start);
+            slots.putLong(slotOffset + OPEN_OFFSET, price);
+            slots.putLong(slotOffset + HIGH_OFFSET, price);
+            slots.putLong(slotOffset + LOW_OFFSET, price);
+        } else {
+            if (price > slots.getLong(slotOffset + HIGH_OFFSET)) {
+                slots.putLong(slotOffset + HIGH_OFFSET, price);
+            }
+            if (price < slots.getLong(slotOffset + LOW_OFFSET)) {
+                slots.putLong(slotOffset + LOW_OFFSET, price);
+            }
+        }
+        slots.putLong(slotOffset + CLOSE_OFFSET, price);
+        slots.putLong(slotOffset + VOLUME_OFFSET, slots.getLong(slotOffset + VOLUME_OFFSET) + quantity);
+        addNotional(slotOffset, price, quantity);
+        slots.putInt(slotOffset + COUNT_OFFSET, slots.getInt(slotOffset + COUNT_OFFSET) + 1);
+    }
+    
+    /**
+     * Emit every open bar whose interval ended at or before the timestamp
+     *
+     * @return the number of bars emitted
+     */
+    public int flush(long timestamp) {
+        int emitted = 0;
+        for (int slot = 0; slot < symbolCount; slot++) {
+            final int slotOffset = slot * SLOT_LENGTH;
+            if (slots.getInt(slotOffset + COUNT_OFFSET) > 0
+                    && slots.getLong(slotOffset + START_OFFSET) + interval <= timestamp) {
+                emit(slot);
+                emitted++;
+            }
+        }
+        return emitted;
+    }
+    
+    /**
+     * Emit every open bar, e.g. at the end of a capture
+     */
+    public int flushAll() {
+        return flush(Long.MAX_VALUE);
+    }
+    
+    public long interval() {
+        return interval;
+    }
+    
+    public long trades() {
+        return trades;
+    }
+    
+    public long barsEmitted() {
+        return barsEmitted;
+    }
+    
+    /**
+     * Trades skipped because their interval was before their symbol's open bar
+     */
+    public long lateTrades() {
+        return lateTrades;
+    }
+    
+    /**
+     * Trades skipped because their symbol was new and all slots were taken
+     */
+    public long rejected() {
+        return rejected;
+    }
+    
+    /**
+     * Bars emitted with a null vwap because their notional overflowed a long
+     */
+    public long notionalOverflows() {
+        return notionalOverflows;
+    }
+    
+    /**
+     * Add price * quantity to the slot's notional, marking the slot instead when either the
+     * product or the sum does not fit in a long
+     */
+    private void addNotional(int slotOffset, long price, long quantity) {
+        if (slots.getInt(slotOffset + OVERFLOW_OFFSET) != 0) {
+            return;
+        }
+        
+        final long product = price * quantity;
+        final long notional = slots.getLong(slotOffset + NOTIONAL_OFFSET);
+        final long sum = notional + product;
+        if (Math.multiplyHigh(price, quantity) != (product >> 63) || ((notional ^ sum) & (product ^ sum)) < 0) {
+            slots.putInt(slotOffset + OVERFLOW_OFFSET, 1);
+        } else {
+            slots.putLong(slotOffset + NOTIONAL_OFFSET, sum);
+        }
+    }
+    
+    private void emit(int slot) {
+        final int slotOffset = slot * SLOT_LENGTH;
+        final long volume = slots.getLong(slotOffset + VOLUME_OFFSET);
+        final boolean overflow = slots.getInt(slotOffset + OVERFLOW_OFFSET) != 0;
+        if (overflow) {
+            notionalOverflows++;
+        }
+        barEncoder.symbol(slotSymbols[slot])
+                .startTimestamp(slots.getLong(slotOffset + START_OFFSET))
+                .open(slots.getLong(slotOffset + OPEN_OFFSET))
+                .high(slots.getLong(slotOffset + HIGH_OFFSET))
+                .low(slots.getLong(slotOffset + LOW_OFFSET))
+                .close(slots.getLong(slotOffset + CLOSE_OFFSET))
+                .volume(volume)
+                .vwap(overflow ? BarEncoder.vwapNullValue()
+                        : volume == 0 ? slots.getLong(slotOffset + CLOSE_OFFSET) : slots.getLong(slotOffset + NOTIONAL_OFFSET) / volume)
+                .tradeCount(slots.getInt(slotOffset + COUNT_OFFSET));
+        slots.setMemory(slotOffset, SLOT_LENGTH, (byte) 0);
+        barsEmitted++;
+        downstream.onFrame(barBuffer, 0, barBuffer.capacity());
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class BarDecoder {
+    public static final int TEMPLATE_ID = 7;
+    public static final int SCHEMA_ID = 1;
+    public static final int SCHEMA_VERSION = 1;
+    public static final int BLOCK_LENGTH = 76;
+    
+    private DirectBuffer buffer;
+    private int offset;
+    private int blockLength;
+    private int version;
+    
+    public BarDecoder wrap(final DirectBuffer buffer, final int offset, final int blockLength, final int version) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.blockLength = blockLength;
+        this.version = version;
+        return this;
+    }
+    
+    public static int symbolEncodingOffset() {
+        return 0;
+    }
+    
+    public String symbol() {
+        final byte[] dst = new byte[8];
+        buffer.getBytes(offset + 0, dst, 0, 8);
+        int end = 0;
+        for (; end < 8 && dst[end] != 0; ++end);
+        return new String(dst, 0, end, StandardCharsets.US_ASCII);
+    }
+    
+    public long symbolKey() {
+        return buffer.getLong(offset + 0, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int startTimestampEncodingOffset() {
+        return 8;
+    }
+    
+    public long startTimestamp() {
+        return buffer.getLong(offset + 8, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int intervalEncodingOffset() {
+        return 16;
+    }
+    
+    public long interval() {
+        return buffer.getLong(offset + 16, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int openEncodingOffset() {
+        return 24;
+    }
+    
+    public long open() {
+        return buffer.getLong(offset + 24, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int highEncodingOffset() {
+        return 32;
+    }
+    
+    public long high() {
+        return buffer.getLong(offset + 32, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int lowEncodingOffset() {
+        return 40;
+    }
+    
+    public long low() {
+        return buffer.getLong(offset + 40, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int closeEncodingOffset() {
+        return 48;
+    }
+    
+    public long close() {
+        return buffer.getLong(offset + 48, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int volumeEncodingOffset() {
+        return 56;
+    }
+    
+    public long volume() {
+        return buffer.getLong(offset + 56, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int vwapEncodingOffset() {
+        return 64;
+    }
+    
+    public static long vwapNullValue() {
+        return 0xffffffffffffffffL;
+    }
+    
+    public long vwap() {
+        return buffer.getLong(offset + 64, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int tradeCountEncodingOffset() {
+        return 72;
+    }
+    
+    public int tradeCount() {
+        return buffer.getInt(offset + 72, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public int encodedLength() {
+        return blockLength;
+    }
+}
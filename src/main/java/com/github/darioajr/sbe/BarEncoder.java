@@ -0,0 +1,99 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.MutableDirectBuffer;
+
+public class BarEncoder {
+    public static final int TEMPLATE_ID = 7;
+    public static final int SCHEMA_ID = 1;
+    public static final int SCHEMA_VERSION = 1;
+    public static final int BLOCK_LENGTH = 76;
+    
+    private MutableDirectBuffer buffer;
+    private int offset;
+    private int position;
+
+    public BarEncoder wrap(final MutableDirectBuffer buffer, final int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.position = offset;
+        return this;
+    }
+
+    public int sbeBlockLength() { return BLOCK_LENGTH; }
+    public int sbeTemplateId() { return TEMPLATE_ID; }
+    public int sbeSchemaId() { return SCHEMA_ID; }
+    public int sbeSchemaVersion() { return SCHEMA_VERSION; }
+
+    public BarEncoder symbol(final String value) {
+        int length = 0;
+        for (int i = 0; i < value.length() && length < 8; i++) {
+            final char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                i++;
+            }
+            buffer.putByte(position + 0 + length++, c < 0x80 ? (byte)c : (byte)'?');
+        }
+        for (; length < 8; length++) {
+            buffer.putByte(position + 0 + length, (byte)0);
+        }
+        return this;
+    }
+
+    public BarEncoder symbol(final long value) {
+        buffer.putLong(position + 0, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public BarEncoder startTimestamp(final long value) {
+        buffer.putLong(position + 8, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public BarEncoder interval(final long value) {
+        buffer.putLong(position + 16, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public BarEncoder open(final long value) {
+        buffer.putLong(position + 24, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public BarEncoder high(final long value) {
+        buffer.putLong(position + 32, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public BarEncoder low(final long value) {
+        buffer.putLong(position + 40, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public BarEncoder close(final long value) {
+        buffer.putLong(position + 48, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public BarEncoder volume(final long value) {
+        buffer.putLong(position + 56, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public static long vwapNullValue() {
+        return 0xffffffffffffffffL;
+    }
+
+    public BarEncoder vwap(final long value) {
+        buffer.putLong(position + 64, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public BarEncoder tradeCount(final int value) {
+        buffer.putInt(position + 72, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public int encodedLength() {
+        return BLOCK_LENGTH;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.darioajr.sbe;
+
+/**
+ * Throughput, latency percentiles and allocation for one benchmarked operation on one template
+ *
+ * allocatedBytesPerOp is negative when the runtime cannot report thread allocation.
+ */
+public record BenchmarkResult(
+        String template,
+        String operation,
+        long operations,
+        double opsPerSecond,
+        long p50Ns,
+        long p99Ns,
+        long p999Ns,
+        long maxNs,
+        double allocatedBytesPerOp
+) {
+}
@@ -0,0 +1,43 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Frame source over an archive already in memory
+ *
+ * Archive files are read through {@link MappedArchive}, which is also a {@link FrameSource} and
+ * is not limited to 2 GB.
+ */
+public class BufferFrameSource implements FrameSource {
+    
+    private final DirectBuffer buffer;
+    private final int limit;
+    private int position;
+    
+    public BufferFrameSource(DirectBuffer buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+    
+    @Override
+    public int poll(FrameHandler handler, int limit) {
+        int frames = 0;
+        int length;
+        while (frames < limit && (length = MessageFrames.frameLength(buffer, position, this.limit)) > 0) {
+            handler.onFrame(buffer, position, length);
+            position += length;
+            frames++;
+        }
+        
+        if (frames == 0 && limit > 0 && position < this.limit) {
+            throw new IllegalStateException("Archive ends with a partial frame at offset " + position);
+        }
+        return frames;
+    }
+    
+    @Override
+    public boolean isEndOfStream() {
+        return position >= limit;
+    }
+}
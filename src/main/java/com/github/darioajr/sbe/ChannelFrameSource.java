@@ -0,0 +1,108 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Frame source reading a stream of frames from a file or socket channel
+ *
+ * Reads into a direct buffer and moves a partial frame at the end of the buffer to the front
+ * before the next read, so frames may span reads. A poll that has already delivered frames
+ * returns instead of reading again, which keeps a blocking socket from holding up delivery.
+ * A non-blocking channel with nothing to read yields a poll of 0.
+ */
+public class ChannelFrameSource implements FrameSource {
+    
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    
+    private final ReadableByteChannel channel;
+    private final String channelKind;
+    private final ByteBuffer byteBuffer;
+    private final UnsafeBuffer buffer;
+    private final boolean closeChannel;
+    private int position;
+    private int dataLimit;
+    private boolean channelEnded;
+    
+    public ChannelFrameSource(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE, false);
+    }
+    
+    /**
+     * @param bufferSize   must be at least as large as the largest frame
+     * @param closeChannel whether {@link #close()} also closes the channel
+     */
+    public ChannelFrameSource(ReadableByteChannel channel, int bufferSize, boolean closeChannel) {
+        this.channel = channel;
+        this.channelKind = CodecEvents.channel(channel);
+        this.byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+        this.buffer = new UnsafeBuffer(byteBuffer);
+        this.closeChannel = closeChannel;
+    }
+    
+    @Override
+    public int poll(FrameHandler handler, int limit) {
+        int frames = 0;
+        while (frames < limit) {
+            final int length = MessageFrames.frameLength(buffer, position, dataLimit);
+            if (length > 0) {
+                handler.onFrame(buffer, position, length);
+                position += length;
+                frames++;
+            } else if (frames > 0 || channelEnded || read() <= 0) {
+                break;
+            }
+        }
+        
+        if (channelEnded && frames == 0 && position < dataLimit) {
+            throw new IllegalStateException("Stream ends with a partial frame of " + (dataLimit - position) + " bytes");
+        }
+        return frames;
+    }
+    
+    @Override
+    public boolean isEndOfStream() {
+        return channelEnded && position >= dataLimit;
+    }
+    
+    @Override
+    public void close() {
+        if (closeChannel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+    
+    private int read() {
+        if (position > 0) {
+            buffer.putBytes(0, buffer, position, dataLimit - position);
+            dataLimit -= position;
+            position = 0;
+        }
+        if (dataLimit == buffer.capacity()) {
+            throw new IllegalStateException("Frame larger than the " + buffer.capacity() + " byte read buffer");
+        }
+        
+        final CodecEvents.FrameIo event = CodecEvents.beginFrameIo();
+        try {
+            byteBuffer.limit(buffer.capacity()).position(dataLimit);
+            final int read = channel.read(byteBuffer);
+            CodecEvents.commitFrameIo(event, "read", channelKind, Math.max(read, 0), CodecEvents.DIRECT);
+            if (read < 0) {
+                channelEnded = true;
+            } else {
+                dataLimit += read;
+            }
+            return read;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Frame handler that copies raw frames into a direct batch buffer and writes them to a channel
+ * 
+ * Batching turns many small frames into few large writes, for files and sockets alike.
+ */
+public class ChannelFrameWriter implements FrameHandler, AutoCloseable {
+    
+    public static final int DEFAULT_BATCH_SIZE = 64 * 1024;
+    
+    private final WritableByteChannel channel;
+    private final String channelKind;
+    private final ByteBuffer byteBuffer;
+    private final UnsafeBuffer batchBuffer;
+    private int position;
+    private long bytesWritten;
+    private long framesWritten;
+    
+    public ChannelFrameWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BATCH_SIZE);
+    }
+    
+    public ChannelFrameWriter(WritableByteChannel channel, int batchSize) {
+        this.channel = channel;
+        this.channelKind = CodecEvents.channel(channel);
+        this.byteBuffer = ByteBuffer.allocateDirect(batchSize);
+        this.batchBuffer = new UnsafeBuffer(byteBuffer);
+    }
+    
+    @Override
+    public void onFrame(DirectBuffer buffer, int offset, int length) {
+        if (position + length > batchBuffer.capacity()) {
+            flush();
+        }
+        
+        if (length > batchBuffer.capacity()) {
+            final byte[] frame = new byte[length];
+            buffer.getBytes(offset, frame);
+            write(ByteBuffer.wrap(frame));
+        } else {
+            batchBuffer.putBytes(position, buffer, offset, length);
+            position += length;
+        }
+        framesWritten++;
+    }
+    
+    /**
+     * Write any batched frames to the channel
+     */
+    public void flush() {
+        if (position > 0) {
+            byteBuffer.limit(position).position(0);
+            write(byteBuffer);
+            byteBuffer.clear();
+            position = 0;
+        }
+    }
+    
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+    
+    public long framesWritten() {
+        return framesWritten;
+    }
+    
+    /**
+     * Flush batched frames; the channel itself is owned and closed by the caller
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+    
+    private void write(ByteBuffer src) {
+        final CodecEvents.FrameIo event = CodecEvents.beginFrameIo();
+        final int bytes = src.remaining();
+        try {
+            while (src.hasRemaining()) {
+                bytesWritten += channel.write(src);
+            }
+            CodecEvents.commitFrameIo(event, "write", channelKind, bytes, src.isDirect() ? CodecEvents.DIRECT : CodecEvents.HEAP);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write frames", e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.IntArrayList;
+
+import java.nio.ByteOrder;
+
+/**
+ * Reads frames from CRC32C-protected blocks written by {@link ChecksumFrameWriter}
+ *
+ * Checksums are computed directly over the block payload in the source buffer, e.g. a mapped
+ * archive or a receive buffer, without copying. When blocks are checked is set by the
+ * {@link Verification} mode, trading detection latency for throughput:
+ * <ul>
+ *   <li>EAGER verifies every block before any of its frames is delivered</li>
+ *   <li>LAZY delivers immediately and remembers the blocks; {@link #verifyPending()} checks them
+ *       later, e.g. before results derived from them are committed</li>
+ *   <li>SAMPLED verifies every sampleInterval-th block, catching systematic corruption cheaply</li>
+ * </ul>
+ * Block structure (lengths and whole frames) is always checked, whatever the mode.
+ *
+ * A {@link MappedArchive} of any size is read window by window with positions reported from the
+ * start of the file; LAZY blocks are then verified as each window is finished, before it is
+ * unmapped.
+ *
+ * Not thread safe.
+ */
+public class ChecksumFrameReader {
+    
+    public enum Verification {
+        EAGER,
+        LAZY,
+        SAMPLED
+    }
+    
+    public static final int DEFAULT_SAMPLE_INTERVAL = 64;
+    
+    private final Verification verification;
+    private final int sampleInterval;
+    private final FrameChecksum checksum = new FrameChecksum();
+    private final IntArrayList pendingBlocks = new IntArrayList();
+    private DirectBuffer pendingBuffer;
+    private long basePosition;
+    private long blocksRead;
+    private long blocksVerified;
+    private long framesRead;
+    
+    public ChecksumFrameReader(Verification verification) {
+        this(verification, DEFAULT_SAMPLE_INTERVAL);
+    }
+    
+    /**
+     * @param sampleInterval verify one block in this many when sampling
+     */
+    public ChecksumFrameReader(Verification verification, int sampleInterval) {
+        if (sampleInterval <= 0) {
+            throw new IllegalArgumentException("sampleInterval must be positive: " + sampleInterval);
+        }
+        this.verification = verification;
+        this.sampleInterval = sampleInterval;
+    }
+    
+    /**
+     * Deliver the frames of each complete block in the archive
+     *
+     * @return the position just past the last complete block
+     * @throws IllegalArgumentException when a block fails its checksum or does not hold whole frames
+     */
+    public long forEach(MappedArchive archive, FrameHandler handler) {
+        verifyPending();
+        try {
+            return archive.scan((window, offset, limit) -> {
+                final int end = forEach(window, offset, limit, handler);
+                verifyPending();
+                pendingBuffer = null;
+                basePosition += end;
+                return end;
+            });
+        } finally {
+            // Blocks left pending by a failed window cannot be checked once it is unmapped
+            pendingBlocks.clear();
+            pendingBuffer = null;
+            basePosition = 0;
+        }
+    }
+    
+    /**
+     * Deliver the frames of each complete block between offset and limit
+     *
+     * In LAZY mode the buffer must stay valid, and unchanged, until {@link #verifyPending()}.
+     *
+     * @return the offset just past the last complete block
+     * @throws IllegalArgumentException when a block fails its checksum or does not hold whole frames
+     */
+    public int forEach(DirectBuffer buffer, int offset, int limit, FrameHandler handler) {
+        if (verification == Verification.LAZY && pendingBuffer != buffer) {
+            verifyPending();
+            pendingBuffer = buffer;
+        }
+        
+        int position = offset;
+        while (limit - position >= ChecksumFrameWriter.HEADER_LENGTH) {
+            final int payloadLength = buffer.getInt(position, ByteOrder.LITTLE_ENDIAN);
+            if (payloadLength < 0) {
+                throw new IllegalArgumentException("Invalid block length " + payloadLength + " at offset " + (basePosition + position));
+            }
+            final int payload = position + ChecksumFrameWriter.HEADER_LENGTH;
+            if (limit - payload < payloadLength) {
+                break;
+            }
+            
+            switch (verification) {
+                case EAGER -> verifyBlock(buffer, position);
+                case SAMPLED -> {
+                    if (blocksRead % sampleInterval == 0) {
+                        verifyBlock(buffer, position);
+                    }
+                }
+                case LAZY -> pendingBlocks.addInt(position);
+            }
+            
+            final int end = payload + payloadLength;
+            int frame = payload;
+            int length;
+            while ((length = MessageFrames.frameLength(buffer, frame, end)) > 0) {
+                handler.onFrame(buffer, frame, length);
+                frame += length;
+                framesRead++;
+            }
+            if (frame != end) {
+                throw new IllegalArgumentException("Block at offset " + (basePosition + position) + " ends with a partial frame");
+            }
+            blocksRead++;
+            position = end;
+        }
+        return position;
+    }
+    
+    /**
+     * Verify the blocks delivered in LAZY mode since the last call
+     *
+     * @return the number of blocks verified
+     * @throws IllegalArgumentException on the first block that fails its checksum
+     */
+    public int verifyPending() {
+        final int count = pendingBlocks.size();
+        try {
+            for (int i = 0; i < count; i++) {
+                verifyBlock(pendingBuffer, pendingBlocks.getInt(i));
+            }
+        } finally {
+            pendingBlocks.clear();
+        }
+        return count;
+    }
+    
+    public long blocksRead() {
+        return blocksRead;
+    }
+    
+    public long blocksVerified() {
+        return blocksVerified;
+    }
+    
+    public long framesRead() {
+        return framesRead;
+    }
+    
+    private void verifyBlock(DirectBuffer buffer, int blockOffset) {
+        final int payloadLength = buffer.getInt(blockOffset, ByteOrder.LITTLE_ENDIAN);
+        final int expected = buffer.getInt(blockOffset + 4, ByteOrder.LITTLE_ENDIAN);
+        final int actual = checksum.compute(buffer, blockOffset + ChecksumFrameWriter.HEADER_LENGTH, payloadLength);
+        if (actual != expected) {
+            throw new IllegalArgumentException(String.format(
+                    "CRC32C mismatch in block at offset %d: expected %08x, computed %08x", basePosition + blockOffset, expected, actual));
+        }
+        blocksVerified++;
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Frame handler that writes frames to a channel in CRC32C-protected blocks
+ *
+ * Each block is [payload length int32][CRC32C of payload int32][payload], little-endian, with a
+ * payload of one or more whole frames. maxBlockLength sets the granularity: 0 gives one block
+ * per frame, larger values amortise the 8-byte header and checksum over several frames. A torn
+ * or corrupted write then fails verification in {@link ChecksumFrameReader} instead of decoding
+ * as a garbage message. Blocks are batched into large channel writes as in {@link ChannelFrameWriter}.
+ */
+public class ChecksumFrameWriter implements FrameHandler, AutoCloseable {
+    
+    public static final int HEADER_LENGTH = 8;
+    public static final int DEFAULT_MAX_BLOCK_LENGTH = 16 * 1024;
+    public static final int DEFAULT_BATCH_SIZE = 64 * 1024;
+    
+    private final WritableByteChannel channel;
+    private final int maxBlockLength;
+    private final ByteBuffer byteBuffer;
+    private final UnsafeBuffer batchBuffer;
+    private final FrameChecksum checksum = new FrameChecksum();
+    private int position;
+    private int blockStart = -1;
+    private long bytesWritten;
+    private long framesWritten;
+    private long blocksWritten;
+    
+    public ChecksumFrameWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_MAX_BLOCK_LENGTH, DEFAULT_BATCH_SIZE);
+    }
+    
+    /**
+     * @param maxBlockLength largest payload to checksum as one block; 0 for one block per frame
+     * @param batchSize      size of the direct buffer blocks are batched in before writing
+     */
+    public ChecksumFrameWriter(WritableByteChannel channel, int maxBlockLength, int batchSize) {
+        if (maxBlockLength < 0 || batchSize < HEADER_LENGTH) {
+            throw new IllegalArgumentException("Invalid sizes: maxBlockLength=" + maxBlockLength + ", batchSize=" + batchSize);
+        }
+        this.channel = channel;
+        this.maxBlockLength = maxBlockLength;
+        this.byteBuffer = ByteBuffer.allocateDirect(batchSize);
+        this.batchBuffer = new UnsafeBuffer(byteBuffer);
+    }
+    
+    @Override
+    public void onFrame(DirectBuffer buffer, int offset, int length) {
+        if (blockStart >= 0 && position - blockStart - HEADER_LENGTH + length > maxBlockLength) {
+            closeBlock();
+        }
+        
+        final int required = (blockStart < 0 ? HEADER_LENGTH : 0) + length;
+        if (position + required > batchBuffer.capacity()) {
+            flush();
+        }
+        
+        if (HEADER_LENGTH + length > batchBuffer.capacity()) {
+            writeStandaloneBlock(buffer, offset, length);
+        } else {
+            if (blockStart < 0) {
+                blockStart = position;
+                position += HEADER_LENGTH;
+            }
+            batchBuffer.putBytes(position, buffer, offset, length);
+            position += length;
+        }
+        framesWritten++;
+    }
+    
+    /**
+     * Close the current block and write all batched blocks to the channel
+     */
+    public void flush() {
+        closeBlock();
+        if (position > 0) {
+            byteBuffer.limit(position).position(0);
+            write(byteBuffer);
+            byteBuffer.clear();
+            position = 0;
+        }
+    }
+    
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+    
+    public long framesWritten() {
+        return framesWritten;
+    }
+    
+    public long blocksWritten() {
+        return blocksWritten;
+    }
+    
+    /**
+     * Flush batched blocks; the channel itself is owned and closed by the caller
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+    
+    private void closeBlock() {
+        if (blockStart >= 0) {
+            final int payloadLength = position - blockStart - HEADER_LENGTH;
+            batchBuffer.putInt(blockStart, payloadLength, ByteOrder.LITTLE_ENDIAN);
+            batchBuffer.putInt(blockStart + 4, checksum.compute(batchBuffer, blockStart + HEADER_LENGTH, payloadLength), ByteOrder.LITTLE_ENDIAN);
+            blockStart = -1;
+            blocksWritten++;
+        }
+    }
+    
+    private void writeStandaloneBlock(DirectBuffer buffer, int offset, int length) {
+        final byte[] block = new byte[HEADER_LENGTH + length];
+        final UnsafeBuffer blockBuffer = new UnsafeBuffer(block);
+        blockBuffer.putInt(0, length, ByteOrder.LITTLE_ENDIAN);
+        blockBuffer.putInt(4, checksum.compute(buffer, offset, length), ByteOrder.LITTLE_ENDIAN);
+        blockBuffer.putBytes(HEADER_LENGTH, buffer, offset, length);
+        write(ByteBuffer.wrap(block));
+        blocksWritten++;
+    }
+    
+    private void write(ByteBuffer src) {
+        try {
+            while (src.hasRemaining()) {
+                bytesWritten += channel.write(src);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write frames", e);
+        }
+    }
+}
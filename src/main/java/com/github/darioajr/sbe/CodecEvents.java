@@ -0,0 +1,224 @@
+package com.github.darioajr.sbe;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.agrona.DirectBuffer;
+
+import java.nio.channels.Channel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NetworkChannel;
+
+/**
+ * Java Flight Recorder events for encode, decode and frame I/O, to line codec latency up with
+ * GC and safepoints in one recording
+ *
+ * Events are only wired in when the {@value #JFR_PROP_NAME} system property is true; otherwise
+ * every check folds to a constant false and the instrumented paths are unchanged. Even then
+ * the events are disabled by default, so a recording has to enable them, and their threshold
+ * is set the usual JFR way, e.g.
+ * {@code -XX:StartFlightRecording:sbe.Decode#enabled=true,sbe.Decode#threshold=10us}.
+ * Setting {@value #SAMPLE_INTERVAL_PROP_NAME} to N records only every Nth operation of each
+ * kind; the sample counters are not synchronized, so under contention the rate is approximate.
+ *
+ * An event object is only allocated for operations that will be recorded.
+ */
+public class CodecEvents {
+    
+    public static final String JFR_PROP_NAME = "sbe.jfr";
+    public static final String SAMPLE_INTERVAL_PROP_NAME = "sbe.jfr.sampleInterval";
+    
+    public static final String HEAP = "heap";
+    public static final String DIRECT = "direct";
+    public static final String MAPPED = "mapped";
+    public static final String FILE = "file";
+    public static final String SOCKET = "socket";
+    public static final String CHANNEL = "channel";
+    
+    private static final boolean JFR = Boolean.getBoolean(JFR_PROP_NAME);
+    private static final int SAMPLE_INTERVAL = Math.max(1, Integer.getInteger(SAMPLE_INTERVAL_PROP_NAME, 1));
+    private static final EventType ENCODE_TYPE = JFR ? EventType.getEventType(Encode.class) : null;
+    private static final EventType DECODE_TYPE = JFR ? EventType.getEventType(Decode.class) : null;
+    private static final EventType FRAME_IO_TYPE = JFR ? EventType.getEventType(FrameIo.class) : null;
+    
+    private static int encodeSamples;
+    private static int decodeSamples;
+    private static int frameIoSamples;
+    
+    private CodecEvents() {
+    }
+    
+    @Name("sbe.Encode")
+    @Label("SBE Encode")
+    @Description("Serialization of one message")
+    @Category({"SBE Codec"})
+    @Enabled(false)
+    @StackTrace(false)
+    @Threshold("0 ms")
+    public static final class Encode extends Event {
+        
+        @Label("Template ID")
+        int templateId;
+        
+        @Label("Encoded Length")
+        @DataAmount
+        int encodedLength;
+        
+        @Label("Buffer Source")
+        @Description("heap or direct")
+        String bufferSource;
+    }
+    
+    @Name("sbe.Decode")
+    @Label("SBE Decode")
+    @Description("Deserialization of one message")
+    @Category({"SBE Codec"})
+    @Enabled(false)
+    @StackTrace(false)
+    @Threshold("0 ms")
+    public static final class Decode extends Event {
+        
+        @Label("Template ID")
+        int templateId;
+        
+        @Label("Encoded Length")
+        @DataAmount
+        int encodedLength;
+        
+        @Label("Buffer Source")
+        @Description("heap or direct")
+        String bufferSource;
+    }
+    
+    @Name("sbe.FrameIo")
+    @Label("SBE Frame I/O")
+    @Description("Read, write or mapping of a batch of frames")
+    @Category({"SBE Codec"})
+    @Enabled(false)
+    @StackTrace(false)
+    @Threshold("0 ms")
+    public static final class FrameIo extends Event {
+        
+        @Label("Operation")
+        String operation;
+        
+        @Label("Channel")
+        @Description("file, socket or channel")
+        String channel;
+        
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+        
+        @Label("Buffer Source")
+        @Description("heap, direct or mapped")
+        String bufferSource;
+    }
+    
+    public static boolean isEncodeEnabled() {
+        return JFR && ENCODE_TYPE.isEnabled();
+    }
+    
+    public static boolean isDecodeEnabled() {
+        return JFR && DECODE_TYPE.isEnabled();
+    }
+    
+    public static boolean isFrameIoEnabled() {
+        return JFR && FRAME_IO_TYPE.isEnabled();
+    }
+    
+    /**
+     * Started event for an encode about to run, or null when it is not recorded
+     */
+    public static Encode beginEncode() {
+        if (!isEncodeEnabled() || (SAMPLE_INTERVAL > 1 && ++encodeSamples % SAMPLE_INTERVAL != 0)) {
+            return null;
+        }
+        final Encode event = new Encode();
+        event.begin();
+        return event;
+    }
+    
+    public static void commitEncode(Encode event, int templateId, int encodedLength, String bufferSource) {
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.templateId = templateId;
+                event.encodedLength = encodedLength;
+                event.bufferSource = bufferSource;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * Started event for a decode about to run, or null when it is not recorded
+     */
+    public static Decode beginDecode() {
+        if (!isDecodeEnabled() || (SAMPLE_INTERVAL > 1 && ++decodeSamples % SAMPLE_INTERVAL != 0)) {
+            return null;
+        }
+        final Decode event = new Decode();
+        event.begin();
+        return event;
+    }
+    
+    public static void commitDecode(Decode event, int templateId, int encodedLength, String bufferSource) {
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.templateId = templateId;
+                event.encodedLength = encodedLength;
+                event.bufferSource = bufferSource;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * Started event for an I/O operation about to run, or null when it is not recorded
+     */
+    public static FrameIo beginFrameIo() {
+        if (!isFrameIoEnabled() || (SAMPLE_INTERVAL > 1 && ++frameIoSamples % SAMPLE_INTERVAL != 0)) {
+            return null;
+        }
+        final FrameIo event = new FrameIo();
+        event.begin();
+        return event;
+    }
+    
+    public static void commitFrameIo(FrameIo event, String operation, String channel, long bytes, String bufferSource) {
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.channel = channel;
+                event.bytes = bytes;
+                event.bufferSource = bufferSource;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * Kind of channel frames move over: {@link #FILE}, {@link #SOCKET} or {@link #CHANNEL}
+     */
+    public static String channel(Channel channel) {
+        return channel instanceof FileChannel ? FILE : channel instanceof NetworkChannel ? SOCKET : CHANNEL;
+    }
+    
+    /**
+     * Where a buffer's bytes live: {@link #HEAP} or {@link #DIRECT}; mapped files also report
+     * direct, since a mapping cannot be told apart from other direct memory
+     */
+    public static String source(DirectBuffer buffer) {
+        return buffer.byteArray() != null ? HEAP : DIRECT;
+    }
+}
@@ -0,0 +1,171 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersManager;
+import org.agrona.concurrent.status.CountersReader;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Off-heap codec instrumentation stored in a memory-mapped stats file
+ *
+ * Per-template message, byte and error counts live in an Agrona {@link CountersManager}
+ * layout, followed by one {@link LatencyHistogram} per template and operation. Any process
+ * can map the same file with {@link CodecStatsReader} and read live values without
+ * attaching to the JVM.
+ *
+ * File layout:
+ *   header (64 bytes) | counter metadata | counter values | histograms
+ */
+public class CodecStats implements AutoCloseable {
+    
+    public static final String STATS_FILE_PROP_NAME = "sbe.stats.file";
+    
+    public static final int ENCODE = 0;
+    public static final int DECODE = 1;
+    public static final int OPERATION_COUNT = 2;
+    
+    /**
+     * Template slots: 0 collects unknown template IDs, 1-3 are Order, Trade and MarketData
+     */
+    public static final int TEMPLATE_SLOTS = 4;
+    
+    public static final int MESSAGES_TYPE_ID = 1001;
+    public static final int BYTES_TYPE_ID = 1002;
+    public static final int ERRORS_TYPE_ID = 1003;
+    
+    static final int MAGIC = 0x53424553; // "SBES"
+    static final int LAYOUT_VERSION = 1;
+    static final int MAGIC_OFFSET = 0;
+    static final int LAYOUT_VERSION_OFFSET = 4;
+    static final int METADATA_LENGTH_OFFSET = 8;
+    static final int VALUES_LENGTH_OFFSET = 12;
+    static final int HISTOGRAM_COUNT_OFFSET = 16;
+    static final int START_TIMESTAMP_OFFSET = 24;
+    static final int PID_OFFSET = 32;
+    static final int HEADER_LENGTH = 64;
+    
+    static final int HISTOGRAM_COUNT = TEMPLATE_SLOTS * OPERATION_COUNT;
+    static final int COUNTER_COUNT = HISTOGRAM_COUNT * 3;
+    static final int VALUES_LENGTH = COUNTER_COUNT * CountersReader.COUNTER_LENGTH;
+    static final int METADATA_LENGTH = COUNTER_COUNT * CountersReader.METADATA_LENGTH;
+    static final int FILE_LENGTH = HEADER_LENGTH + METADATA_LENGTH + VALUES_LENGTH + HISTOGRAM_COUNT * LatencyHistogram.LENGTH;
+    
+    private final MappedByteBuffer mappedBuffer;
+    private final AtomicCounter[] messages = new AtomicCounter[HISTOGRAM_COUNT];
+    private final AtomicCounter[] bytes = new AtomicCounter[HISTOGRAM_COUNT];
+    private final AtomicCounter[] errors = new AtomicCounter[HISTOGRAM_COUNT];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[HISTOGRAM_COUNT];
+    
+    private CodecStats(MappedByteBuffer mappedBuffer) {
+        this.mappedBuffer = mappedBuffer;
+        
+        final UnsafeBuffer header = new UnsafeBuffer(mappedBuffer, 0, HEADER_LENGTH);
+        final AtomicBuffer metaData = new UnsafeBuffer(mappedBuffer, HEADER_LENGTH, METADATA_LENGTH);
+        final AtomicBuffer values = new UnsafeBuffer(mappedBuffer, HEADER_LENGTH + METADATA_LENGTH, VALUES_LENGTH);
+        final AtomicBuffer histograms = new UnsafeBuffer(
+                mappedBuffer, HEADER_LENGTH + METADATA_LENGTH + VALUES_LENGTH, HISTOGRAM_COUNT * LatencyHistogram.LENGTH);
+        
+        final CountersManager countersManager = new CountersManager(metaData, values);
+        
+        for (int template = 0; template < TEMPLATE_SLOTS; template++) {
+            for (int op = 0; op < OPERATION_COUNT; op++) {
+                final int slot = slot(template, op);
+                
+                messages[slot] = newCounter(countersManager, MESSAGES_TYPE_ID, "messages", template, op);
+                bytes[slot] = newCounter(countersManager, BYTES_TYPE_ID, "bytes", template, op);
+                errors[slot] = newCounter(countersManager, ERRORS_TYPE_ID, "errors", template, op);
+                latencies[slot] = new LatencyHistogram().wrap(histograms, slot * LatencyHistogram.LENGTH);
+            }
+        }
+        
+        header.putInt(METADATA_LENGTH_OFFSET, METADATA_LENGTH);
+        header.putInt(VALUES_LENGTH_OFFSET, VALUES_LENGTH);
+        header.putInt(HISTOGRAM_COUNT_OFFSET, HISTOGRAM_COUNT);
+        header.putLong(START_TIMESTAMP_OFFSET, System.currentTimeMillis());
+        header.putLong(PID_OFFSET, ProcessHandle.current().pid());
+        header.putInt(LAYOUT_VERSION_OFFSET, LAYOUT_VERSION);
+        header.putIntOrdered(MAGIC_OFFSET, MAGIC);
+    }
+    
+    /**
+     * Create (or truncate) a stats file and map it for recording
+     */
+    public static CodecStats create(Path file) {
+        final File statsFile = file.toFile();
+        if (statsFile.exists() && !statsFile.delete()) {
+            throw new IllegalStateException("Unable to replace stats file: " + file);
+        }
+        
+        return new CodecStats(IoUtil.mapNewFile(statsFile, FILE_LENGTH));
+    }
+    
+    /**
+     * Create stats from the {@value #STATS_FILE_PROP_NAME} system property, or null when it is not set
+     */
+    public static CodecStats fromSystemProperty() {
+        final String file = System.getProperty(STATS_FILE_PROP_NAME);
+        return file == null || file.isEmpty() ? null : create(Path.of(file));
+    }
+    
+    /**
+     * Record a successfully encoded or decoded message
+     */
+    public void record(int op, int templateId, int length, long latencyNs) {
+        final int slot = slot(templateSlot(templateId), op);
+        messages[slot].increment();
+        bytes[slot].getAndAdd(length);
+        latencies[slot].record(latencyNs);
+    }
+    
+    /**
+     * Record a failed encode or decode
+     */
+    public void recordError(int op, int templateId) {
+        errors[slot(templateSlot(templateId), op)].increment();
+    }
+    
+    public LatencyHistogram latency(int op, int templateId) {
+        return latencies[slot(templateSlot(templateId), op)];
+    }
+    
+    @Override
+    public void close() {
+        IoUtil.unmap(mappedBuffer);
+    }
+    
+    static int slot(int templateSlot, int op) {
+        return templateSlot * OPERATION_COUNT + op;
+    }
+    
+    static int templateSlot(int templateId) {
+        return templateId > 0 && templateId < TEMPLATE_SLOTS ? templateId : 0;
+    }
+    
+    static String templateName(int templateSlot) {
+        return switch (templateSlot) {
+            case OrderDecoder.TEMPLATE_ID -> "Order";
+            case TradeDecoder.TEMPLATE_ID -> "Trade";
+            case MarketDataDecoder.TEMPLATE_ID -> "MarketData";
+            default -> "Unknown";
+        };
+    }
+    
+    static String operationName(int op) {
+        return op == ENCODE ? "encode" : "decode";
+    }
+    
+    private static AtomicCounter newCounter(
+            CountersManager countersManager, int typeId, String name, int templateSlot, int op) {
+        final String label = operationName(op) + " " + name + ": " + templateName(templateSlot) + " templateId=" + templateSlot;
+        return countersManager.newCounter(label, typeId, key -> {
+            key.putInt(0, templateSlot);
+            key.putInt(4, op);
+        });
+    }
+}
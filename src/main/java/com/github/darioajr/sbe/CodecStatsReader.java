@@ -0,0 +1,118 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.CountersReader;
+
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Reads a stats file written by {@link CodecStats} from any process
+ *
+ * The file is mapped read-only so live values can be sampled while the codec keeps recording.
+ */
+public class CodecStatsReader implements AutoCloseable {
+    
+    private final Path file;
+    private final MappedByteBuffer mappedBuffer;
+    private final UnsafeBuffer header;
+    private final CountersReader countersReader;
+    private final LatencyHistogram[] latencies;
+    
+    public CodecStatsReader(Path file) {
+        this.file = file;
+        this.mappedBuffer = IoUtil.mapExistingFile(file.toFile(), FileChannel.MapMode.READ_ONLY, "codec stats");
+        this.header = new UnsafeBuffer(mappedBuffer, 0, CodecStats.HEADER_LENGTH);
+        
+        if (header.getIntVolatile(CodecStats.MAGIC_OFFSET) != CodecStats.MAGIC) {
+            IoUtil.unmap(mappedBuffer);
+            throw new IllegalArgumentException("Not a codec stats file: " + file);
+        }
+        if (header.getInt(CodecStats.LAYOUT_VERSION_OFFSET) != CodecStats.LAYOUT_VERSION) {
+            IoUtil.unmap(mappedBuffer);
+            throw new IllegalArgumentException("Unsupported stats layout version: " + header.getInt(CodecStats.LAYOUT_VERSION_OFFSET));
+        }
+        
+        final int metaDataLength = header.getInt(CodecStats.METADATA_LENGTH_OFFSET);
+        final int valuesLength = header.getInt(CodecStats.VALUES_LENGTH_OFFSET);
+        final int histogramCount = header.getInt(CodecStats.HISTOGRAM_COUNT_OFFSET);
+        final int histogramsOffset = CodecStats.HEADER_LENGTH + metaDataLength + valuesLength;
+        
+        final AtomicBuffer metaData = new UnsafeBuffer(mappedBuffer, CodecStats.HEADER_LENGTH, metaDataLength);
+        final AtomicBuffer values = new UnsafeBuffer(mappedBuffer, CodecStats.HEADER_LENGTH + metaDataLength, valuesLength);
+        final AtomicBuffer histograms = new UnsafeBuffer(
+                mappedBuffer, histogramsOffset, histogramCount * LatencyHistogram.LENGTH);
+        
+        this.countersReader = new CountersReader(metaData, values);
+        this.latencies = new LatencyHistogram[histogramCount];
+        for (int i = 0; i < histogramCount; i++) {
+            latencies[i] = new LatencyHistogram().wrap(histograms, i * LatencyHistogram.LENGTH);
+        }
+    }
+    
+    public CountersReader countersReader() {
+        return countersReader;
+    }
+    
+    public LatencyHistogram latency(int op, int templateId) {
+        return latencies[CodecStats.slot(CodecStats.templateSlot(templateId), op)];
+    }
+    
+    /**
+     * Current value of the counter with the given type for a template and operation
+     */
+    public long counterValue(int typeId, int op, int templateId) {
+        final int templateSlot = CodecStats.templateSlot(templateId);
+        final long[] value = { 0 };
+        countersReader.forEach((counterId, counterTypeId, keyBuffer, label) -> {
+            if (counterTypeId == typeId && keyBuffer.getInt(0) == templateSlot && keyBuffer.getInt(4) == op) {
+                value[0] = countersReader.getCounterValue(counterId);
+            }
+        });
+        return value[0];
+    }
+    
+    /**
+     * Print a table of counters and latency percentiles for every template and operation that saw traffic
+     */
+    public void print(PrintStream out) {
+        out.println("Codec stats: " + file
+                + " (pid " + header.getLong(CodecStats.PID_OFFSET)
+                + ", started " + Instant.ofEpochMilli(header.getLong(CodecStats.START_TIMESTAMP_OFFSET)) + ")");
+        out.printf("%-7s %-11s %12s %14s %8s %10s %10s %10s %10s %10s%n",
+                "op", "template", "messages", "bytes", "errors", "mean(ns)", "p50(ns)", "p99(ns)", "p99.9(ns)", "max(ns)");
+        
+        for (int template = 0; template < CodecStats.TEMPLATE_SLOTS; template++) {
+            for (int op = 0; op < CodecStats.OPERATION_COUNT; op++) {
+                final long messages = counterValue(CodecStats.MESSAGES_TYPE_ID, op, template);
+                final long errors = counterValue(CodecStats.ERRORS_TYPE_ID, op, template);
+                if (messages == 0 && errors == 0) {
+                    continue;
+                }
+                
+                final LatencyHistogram latency = latency(op, template);
+                out.printf("%-7s %-11s %12d %14d %8d %10.0f %10d %10d %10d %10d%n",
+                        CodecStats.operationName(op),
+                        CodecStats.templateName(template),
+                        messages,
+                        counterValue(CodecStats.BYTES_TYPE_ID, op, template),
+                        errors,
+                        latency.mean(),
+                        latency.valueAtPercentile(50.0),
+                        latency.valueAtPercentile(99.0),
+                        latency.valueAtPercentile(99.9),
+                        latency.max());
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        IoUtil.unmap(mappedBuffer);
+    }
+}
@@ -0,0 +1,347 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Staged SBE-to-JSON conversion with reading, decoding and writing overlapped
+ *
+ * A reader thread fills direct buffers from the input channel, the calling thread validates,
+ * decodes and formats the frames in them, and a writer thread drains the formatted JSON to the
+ * output channel. Stages hand buffers to each other over bounded single-producer/single-consumer
+ * queues and return them through free queues, so with the default of two buffers per side each
+ * stage works on one buffer while the next stage works on the other. Throughput is then bound
+ * by the slowest stage rather than the sum of all three.
+ *
+ * Frames may straddle input buffers; the tail of a partial frame is carried over and completed
+ * from the next buffer, copying only the bytes the frame needs. The output is a JSON array in
+ * the same layout as the deserialize command.
+ */
+public class ConversionPipeline {
+    
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+    public static final int DEFAULT_BUFFER_COUNT = 2;
+    
+    private static final class Chunk {
+        final ByteBuffer byteBuffer;
+        final UnsafeBuffer buffer;
+        int length;
+        
+        Chunk(int capacity) {
+            this.byteBuffer = ByteBuffer.allocateDirect(capacity);
+            this.buffer = new UnsafeBuffer(byteBuffer);
+        }
+    }
+    
+    private final int bufferSize;
+    private final OneToOneConcurrentArrayQueue<Chunk> freeInput;
+    private final OneToOneConcurrentArrayQueue<Chunk> filledInput;
+    private final OneToOneConcurrentArrayQueue<Chunk> freeOutput;
+    private final OneToOneConcurrentArrayQueue<Chunk> filledOutput;
+    private final IdleStrategy decodeIdle = new BackoffIdleStrategy();
+    
+    private final SbeValidator validator = new SbeValidator();
+    private final ProjectedJsonFormatter formatter;
+    private final StringBuilder json = new StringBuilder(1024);
+    private final ExpandableArrayBuffer carry = new ExpandableArrayBuffer(4096);
+    private int carryLength;
+    private long carryStreamOffset;
+    private Chunk output;
+    
+    private volatile boolean inputComplete;
+    private volatile boolean outputComplete;
+    private volatile Throwable failure;
+    private long frames;
+    private long bytesRead;
+    private long bytesWritten;
+    
+    public ConversionPipeline(FieldProjection projection) {
+        this(projection, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_COUNT);
+    }
+    
+    /**
+     * @param bufferSize  size of each input and output buffer
+     * @param bufferCount buffers per side; 2 gives double buffering
+     */
+    public ConversionPipeline(FieldProjection projection, int bufferSize, int bufferCount) {
+        if (bufferSize < 64 || bufferCount < 1) {
+            throw new IllegalArgumentException("Invalid buffers: size=" + bufferSize + ", count=" + bufferCount);
+        }
+        
+        this.formatter = new ProjectedJsonFormatter(projection);
+        this.bufferSize = bufferSize;
+        this.freeInput = new OneToOneConcurrentArrayQueue<>(bufferCount);
+        this.filledInput = new OneToOneConcurrentArrayQueue<>(bufferCount);
+        this.freeOutput = new OneToOneConcurrentArrayQueue<>(bufferCount);
+        this.filledOutput = new OneToOneConcurrentArrayQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            freeInput.offer(new Chunk(bufferSize));
+            freeOutput.offer(new Chunk(bufferSize));
+        }
+    }
+    
+    /**
+     * Convert every frame read from input to JSON written to output; channels are not closed
+     *
+     * A pipeline can run several conversions in turn, but should be discarded after one fails.
+     *
+     * @throws IllegalArgumentException when a frame fails validation or the input ends mid-frame
+     */
+    public ConversionReport run(ReadableByteChannel input, WritableByteChannel output) {
+        frames = 0;
+        bytesRead = 0;
+        bytesWritten = 0;
+        carryLength = 0;
+        inputComplete = false;
+        outputComplete = false;
+        failure = null;
+        
+        final long start = System.nanoTime();
+        final Thread reader = new Thread(() -> read(input), "sbe-pipeline-reader");
+        final Thread writer = new Thread(() -> write(output), "sbe-pipeline-writer");
+        reader.start();
+        writer.start();
+        
+        try {
+            convert();
+        } catch (RuntimeException | Error e) {
+            fail(e);
+        } finally {
+            outputComplete = true;
+            join(reader);
+            join(writer);
+        }
+        
+        final Throwable error = failure;
+        if (error instanceof RuntimeException e) {
+            throw e;
+        } else if (error instanceof Error e) {
+            throw e;
+        }
+        
+        return new ConversionReport(frames, bytesRead, bytesWritten, System.nanoTime() - start);
+    }
+    
+    private void convert() {
+        emit("[\n");
+        
+        long chunkStreamOffset = 0;
+        Chunk chunk;
+        while ((chunk = takeInput()) != null) {
+            int position = completeCarry(chunk.buffer, 0, chunk.length);
+            int length;
+            while ((length = MessageFrames.frameLength(chunk.buffer, position, chunk.length)) > 0) {
+                format(chunk.buffer, position, length, chunkStreamOffset + position);
+                position += length;
+            }
+            
+            if (position < chunk.length) {
+                if (carryLength == 0) {
+                    carryStreamOffset = chunkStreamOffset + position;
+                }
+                carry.putBytes(carryLength, chunk.buffer, position, chunk.length - position);
+                carryLength += chunk.length - position;
+            }
+            chunkStreamOffset += chunk.length;
+            recycle(freeInput, chunk);
+        }
+        
+        if (carryLength > 0) {
+            throw new IllegalArgumentException("Input ends with a partial frame of " + carryLength + " bytes");
+        }
+        
+        emit(frames == 0 ? "]" : "\n]");
+        if (output != null && output.length > 0) {
+            recycle(filledOutput, output);
+            output = null;
+        }
+    }
+    
+    /**
+     * Complete a frame carried over from the previous buffer, returning where this buffer's own frames start
+     */
+    private int completeCarry(DirectBuffer buffer, int offset, int limit) {
+        int position = offset;
+        while (carryLength > 0 && position < limit) {
+            final long required = MessageFrames.requiredLength(carry, 0, carryLength);
+            final int copy = (int) Math.min(required - carryLength, limit - position);
+            carry.putBytes(carryLength, buffer, position, copy);
+            carryLength += copy;
+            position += copy;
+            
+            final int length = MessageFrames.frameLength(carry, 0, carryLength);
+            if (length > 0) {
+                format(carry, 0, length, carryStreamOffset);
+                carryLength = 0;
+            }
+        }
+        return position;
+    }
+    
+    private void format(DirectBuffer buffer, int offset, int length, long streamOffset) {
+        if (validator.validate(buffer, offset, length) != SbeValidator.Verdict.VALID) {
+            throw new IllegalArgumentException("Invalid SBE message: " + validator.verdict()
+                    + " at offset " + (streamOffset + validator.errorOffset() - offset));
+        }
+        
+        json.setLength(0);
+        if (frames++ > 0) {
+            json.append(",\n");
+        }
+        formatter.format(buffer, offset, json);
+        emit(json);
+    }
+    
+    /**
+     * Copy ASCII text into output buffers, handing each full buffer to the writer
+     */
+    private void emit(CharSequence text) {
+        int index = 0;
+        while (index < text.length()) {
+            if (output == null) {
+                output = takeFree(freeOutput);
+                output.length = 0;
+            }
+            
+            final int count = Math.min(text.length() - index, bufferSize - output.length);
+            output.buffer.putStringWithoutLengthAscii(output.length, text, index, count);
+            output.length += count;
+            index += count;
+            
+            if (output.length == bufferSize) {
+                recycle(filledOutput, output);
+                output = null;
+            }
+        }
+    }
+    
+    private Chunk takeInput() {
+        decodeIdle.reset();
+        while (true) {
+            final Chunk chunk = filledInput.poll();
+            if (chunk != null) {
+                return chunk;
+            }
+            if (inputComplete) {
+                final Chunk last = filledInput.poll();
+                if (last != null || failure == null) {
+                    return last;
+                }
+                throw new IllegalStateException("Reader failed", failure);
+            }
+            checkFailure();
+            decodeIdle.idle();
+        }
+    }
+    
+    private Chunk takeFree(OneToOneConcurrentArrayQueue<Chunk> queue) {
+        decodeIdle.reset();
+        Chunk chunk;
+        while ((chunk = queue.poll()) == null) {
+            checkFailure();
+            decodeIdle.idle();
+        }
+        return chunk;
+    }
+    
+    private void recycle(OneToOneConcurrentArrayQueue<Chunk> queue, Chunk chunk) {
+        // Queues are sized to hold every buffer, so offer only fails if a buffer is handed over twice
+        if (!queue.offer(chunk)) {
+            throw new IllegalStateException("Pipeline queue overflow");
+        }
+    }
+    
+    private void read(ReadableByteChannel input) {
+        final IdleStrategy idle = new BackoffIdleStrategy();
+        try {
+            boolean endOfStream = false;
+            while (!endOfStream && !outputComplete) {
+                Chunk chunk;
+                while ((chunk = freeInput.poll()) == null) {
+                    if (outputComplete) {
+                        return;
+                    }
+                    idle.idle();
+                }
+                idle.reset();
+                
+                final ByteBuffer byteBuffer = chunk.byteBuffer.clear();
+                while (byteBuffer.hasRemaining()) {
+                    if (input.read(byteBuffer) < 0) {
+                        endOfStream = true;
+                        break;
+                    }
+                }
+                
+                chunk.length = byteBuffer.position();
+                bytesRead += chunk.length;
+                // Even an empty buffer goes to the convert thread, the only producer on freeInput
+                recycle(filledInput, chunk);
+            }
+        } catch (IOException e) {
+            fail(new UncheckedIOException(e));
+        } catch (RuntimeException | Error e) {
+            fail(e);
+        } finally {
+            inputComplete = true;
+        }
+    }
+    
+    private void write(WritableByteChannel output) {
+        final IdleStrategy idle = new BackoffIdleStrategy();
+        try {
+            while (true) {
+                final Chunk chunk = filledOutput.poll();
+                if (chunk == null) {
+                    if (outputComplete && filledOutput.isEmpty()) {
+                        return;
+                    }
+                    idle.idle();
+                    continue;
+                }
+                idle.reset();
+                
+                final ByteBuffer byteBuffer = chunk.byteBuffer.limit(chunk.length).position(0);
+                while (byteBuffer.hasRemaining()) {
+                    bytesWritten += output.write(byteBuffer);
+                }
+                chunk.byteBuffer.clear();
+                recycle(freeOutput, chunk);
+            }
+        } catch (IOException e) {
+            fail(new UncheckedIOException(e));
+        } catch (RuntimeException | Error e) {
+            fail(e);
+        }
+    }
+    
+    private void checkFailure() {
+        if (failure != null) {
+            throw new IllegalStateException("Pipeline stage failed", failure);
+        }
+    }
+    
+    private void fail(Throwable error) {
+        if (failure == null) {
+            failure = error;
+        }
+    }
+    
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
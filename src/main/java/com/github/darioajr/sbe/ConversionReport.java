@@ -0,0 +1,18 @@
+package com.github.darioajr.sbe;
+
+/**
+ * Outcome of a staged conversion: frames converted, bytes moved and elapsed time
+ */
+public record ConversionReport(
+        long frames,
+        long bytesRead,
+        long bytesWritten,
+        long durationNs
+) {
+    /**
+     * Input consumed per second, in megabytes
+     */
+    public double inputMegabytesPerSecond() {
+        return durationNs == 0 ? 0.0 : bytesRead * 1e3 / durationNs;
+    }
+}
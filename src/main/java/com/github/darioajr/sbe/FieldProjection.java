@@ -0,0 +1,96 @@
+package com.github.darioajr.sbe;
+
+/**
+ * Compiled field selection used to decode and format only the columns a consumer needs
+ * 
+ * A projection spec such as {@code "symbol,price,quantity,timestamp"} is parsed once into a
+ * bit mask; field names are the JSON keys used by {@link JsonFormatter}. Fields that do not
+ * exist in a template are simply absent from its output.
+ */
+public class FieldProjection {
+    
+    public static final int ORDER_ID = 0;
+    public static final int TRADE_ID = 1;
+    public static final int SYMBOL = 2;
+    public static final int SIDE = 3;
+    public static final int QUANTITY = 4;
+    public static final int PRICE = 5;
+    public static final int TIMESTAMP = 6;
+    public static final int IS_ACTIVE = 7;
+    public static final int CLIENT_ORDER_ID = 8;
+    public static final int VENUE = 9;
+    public static final int BID_PRICE = 10;
+    public static final int BID_SIZE = 11;
+    public static final int ASK_PRICE = 12;
+    public static final int ASK_SIZE = 13;
+    public static final int LAST_PRICE = 14;
+    public static final int LAST_SIZE = 15;
+    public static final int LEVELS = 16;
+    
+    private static final String[] FIELD_NAMES = {
+            "orderId", "tradeId", "symbol", "side", "quantity", "price", "timestamp", "isActive",
+            "clientOrderId", "venue", "bidPrice", "bidSize", "askPrice", "askSize", "lastPrice",
+            "lastSize", "levels"
+    };
+    
+    public static final FieldProjection ALL = new FieldProjection((1L << FIELD_NAMES.length) - 1);
+    
+    private final long mask;
+    
+    private FieldProjection(long mask) {
+        this.mask = mask;
+    }
+    
+    /**
+     * Compile a comma-separated list of field names, or "*" for all fields
+     */
+    public static FieldProjection parse(String spec) {
+        if (spec == null || spec.isBlank() || spec.trim().equals("*")) {
+            return ALL;
+        }
+        
+        long mask = 0;
+        for (String name : spec.split(",")) {
+            mask |= 1L << field(name.trim());
+        }
+        return new FieldProjection(mask);
+    }
+    
+    /**
+     * Field constant for a JSON field name
+     */
+    public static int field(String name) {
+        for (int i = 0; i < FIELD_NAMES.length; i++) {
+            if (FIELD_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+    
+    public static String fieldName(int field) {
+        return FIELD_NAMES[field];
+    }
+    
+    public boolean includes(int field) {
+        return (mask & (1L << field)) != 0;
+    }
+    
+    public long mask() {
+        return mask;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < FIELD_NAMES.length; i++) {
+            if (includes(i)) {
+                if (sb.length() > 0) {
+                    sb.append(',');
+                }
+                sb.append(FIELD_NAMES[i]);
+            }
+        }
+        return sb.toString();
+    }
+}
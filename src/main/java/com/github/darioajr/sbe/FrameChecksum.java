@@ -0,0 +1,58 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * CRC32C over a region of a {@link DirectBuffer} without copying it
+ *
+ * {@link CRC32C} is a JIT intrinsic on x86 and AArch64. Direct buffers are checksummed through
+ * a reused view of their underlying ByteBuffer and array-backed buffers through their array, so
+ * the common cases neither copy nor allocate; only buffers wrapping a raw address are copied
+ * through a small scratch array.
+ *
+ * Not thread safe; use one instance per thread.
+ */
+public class FrameChecksum {
+    
+    private static final int SCRATCH_LENGTH = 4096;
+    
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer viewSource;
+    private ByteBuffer view;
+    private byte[] scratch;
+    
+    /**
+     * CRC32C of length bytes starting at offset
+     */
+    public int compute(DirectBuffer buffer, int offset, int length) {
+        crc.reset();
+        
+        final byte[] array = buffer.byteArray();
+        final ByteBuffer byteBuffer = buffer.byteBuffer();
+        if (array != null) {
+            crc.update(array, buffer.wrapAdjustment() + offset, length);
+        } else if (byteBuffer != null) {
+            if (byteBuffer != viewSource) {
+                viewSource = byteBuffer;
+                view = byteBuffer.duplicate();
+            }
+            final int start = buffer.wrapAdjustment() + offset;
+            view.limit(start + length).position(start);
+            crc.update(view);
+        } else {
+            if (scratch == null) {
+                scratch = new byte[SCRATCH_LENGTH];
+            }
+            for (int position = 0; position < length; position += SCRATCH_LENGTH) {
+                final int chunk = Math.min(SCRATCH_LENGTH, length - position);
+                buffer.getBytes(offset + position, scratch, 0, chunk);
+                crc.update(scratch, 0, chunk);
+            }
+        }
+        
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,292 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.BitUtil;
+import org.agrona.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.LongHashSet;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteOrder;
+
+/**
+ * Drops duplicate Order and Trade frames, e.g. when merging redundant A/B feeds, with fixed memory
+ *
+ * Trade frames are keyed by tradeId, read at its fixed offset in the raw frame. Order frames
+ * are keyed by a 64-bit fingerprint of the whole frame except its timestamp, so a repeat of an
+ * Order is dropped while a cancel or replace that reuses its orderId, with a different
+ * isActive, quantity or price, is forwarded. MarketData and any other template pass straight
+ * through. Keys are remembered for a time window measured in frame timestamps, using two
+ * generations: new keys go into the current generation and a frame is a duplicate when either
+ * generation has seen its key. Once the current generation is older than the window the
+ * previous one is cleared and the two swap, so a key is remembered for at least one window
+ * while memory stays at two pre-allocated generations. A generation that fills up with
+ * maxIdsPerWindow keys within the window is rotated early instead, which may forget keys
+ * before their window has passed; a repeat of one of those is forwarded, and the keys cleared
+ * this way are counted by {@link #earlyEvictions()}.
+ *
+ * Each generation has an off-heap blocked Bloom filter: every key sets its bits inside a single
+ * 64-byte block, so a lookup touches one cache line. With a falseDropRate of {@link #EXACT} the
+ * filter is backed by exact primitive sets, so a filter hit is confirmed before a frame is
+ * dropped; no unique Trade is lost, nor a unique Order short of a 64-bit fingerprint collision.
+ * A positive falseDropRate uses the filter alone, sized for roughly that rate, which saves the
+ * sets but may occasionally drop a unique frame.
+ *
+ * Not thread safe; feed it from a single thread.
+ */
+public class FrameDeduplicator implements FrameHandler {
+    
+    public static final double EXACT = 0.0;
+    
+    private static final double EXACT_FILTER_RATE = 0.01;
+    private static final int BLOCK_LENGTH = BitUtil.CACHE_LINE_LENGTH;
+    private static final int BLOCK_BITS_MASK = BLOCK_LENGTH * Byte.SIZE - 1;
+    private static final int MAX_HASHES = 16;
+    private static final float SET_LOAD_FACTOR = 0.65f;
+    private static final long TRADE_SEED = 0x9E3779B97F4A7C15L;
+    
+    private final FrameHandler downstream;
+    private final long window;
+    private final int maxIdsPerWindow;
+    private final boolean exact;
+    private final int hashes;
+    private final int blockMask;
+    
+    private Generation current;
+    private Generation previous;
+    private long forwarded;
+    private long duplicates;
+    private long rotations;
+    private long earlyEvictions;
+    
+    /**
+     * @param downstream      receives every frame that is not a duplicate
+     * @param window          how long keys are remembered, in the units of the frame timestamps
+     * @param maxIdsPerWindow keys a generation holds before it is rotated early
+     * @param falseDropRate   {@link #EXACT} for no false drops, otherwise the tolerated rate of unique frames dropped
+     */
+    public FrameDeduplicator(FrameHandler downstream, long window, int maxIdsPerWindow, double falseDropRate) {
+        if (window <= 0 || maxIdsPerWindow <= 0) {
+            throw new IllegalArgumentException("Invalid window: window=" + window + ", maxIdsPerWindow=" + maxIdsPerWindow);
+        }
+        if (!(falseDropRate >= 0 && falseDropRate < 1)) {
+            throw new IllegalArgumentException("falseDropRate must be in [0, 1): " + falseDropRate);
+        }
+        
+        this.downstream = downstream;
+        this.window = window;
+        this.maxIdsPerWindow = maxIdsPerWindow;
+        this.exact = falseDropRate == EXACT;
+        
+        final double filterRate = exact ? EXACT_FILTER_RATE : falseDropRate;
+        final double bitsPerId = -Math.log(filterRate) / (Math.log(2) * Math.log(2));
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerId * Math.log(2))));
+        final long filterBits = (long) Math.ceil(bitsPerId * maxIdsPerWindow);
+        final long blocks = Math.max(1, (filterBits + BLOCK_BITS_MASK) / (BLOCK_LENGTH * Byte.SIZE));
+        if (blocks > (1 << 30) / BLOCK_LENGTH) {
+            throw new IllegalArgumentException("Filter for " + maxIdsPerWindow + " ids at rate " + falseDropRate + " is too large");
+        }
+        this.blockMask = BitUtil.findNextPositivePowerOfTwo((int) blocks) - 1;
+        
+        final int setCapacity = (int) Math.ceil(maxIdsPerWindow / SET_LOAD_FACTOR) + 1;
+        this.current = new Generation(filterLength(blockMask), hashes, exact, setCapacity);
+        this.previous = new Generation(filterLength(blockMask), hashes, exact, setCapacity);
+    }
+    
+    /**
+     * Forward the frame unless it is an Order or Trade whose key was seen within the window
+     */
+    @Override
+    public void onFrame(DirectBuffer buffer, int offset, int length) {
+        final int templateId = MessageFrames.templateId(buffer, offset);
+        final boolean trade;
+        final long key;
+        switch (templateId) {
+            case OrderDecoder.TEMPLATE_ID -> {
+                trade = false;
+                key = orderKey(buffer, offset, length);
+            }
+            case TradeDecoder.TEMPLATE_ID -> {
+                trade = true;
+                key = buffer.getLong(MessageFrames.bodyOffset(offset) + TradeDecoder.tradeIdEncodingOffset(), ByteOrder.LITTLE_ENDIAN);
+            }
+            default -> {
+                forwarded++;
+                downstream.onFrame(buffer, offset, length);
+                return;
+            }
+        }
+        
+        advance(MessageFrames.timestamp(buffer, offset));
+        final long hash = hash(trade ? key ^ TRADE_SEED : key);
+        if (current.contains(hash, trade, key) || previous.contains(hash, trade, key)) {
+            duplicates++;
+            return;
+        }
+        
+        current.add(hash, trade, key);
+        forwarded++;
+        downstream.onFrame(buffer, offset, length);
+    }
+    
+    /**
+     * Frames passed downstream, including templates that are not deduplicated
+     */
+    public long forwarded() {
+        return forwarded;
+    }
+    
+    public long duplicates() {
+        return duplicates;
+    }
+    
+    /**
+     * Generation swaps, whether the window elapsed or a generation filled up
+     */
+    public long rotations() {
+        return rotations;
+    }
+    
+    /**
+     * Keys cleared by early rotations, any of which may have been forgotten before its window passed
+     */
+    public long earlyEvictions() {
+        return earlyEvictions;
+    }
+    
+    /**
+     * Bytes of off-heap filter per generation
+     */
+    public int filterLength() {
+        return filterLength(blockMask);
+    }
+    
+    public int hashCount() {
+        return hashes;
+    }
+    
+    /**
+     * Forget every id seen so far
+     */
+    public void clear() {
+        current.clear(Long.MIN_VALUE);
+        previous.clear(Long.MIN_VALUE);
+    }
+    
+    private void advance(long timestamp) {
+        if (current.startTimestamp == Long.MIN_VALUE) {
+            current.startTimestamp = timestamp;
+        } else if (timestamp - current.startTimestamp >= window || current.keys == maxIdsPerWindow) {
+            if (timestamp - current.startTimestamp < window) {
+                earlyEvictions += previous.keys;
+            } else if (timestamp - current.startTimestamp - window >= window) {
+                current.clear(timestamp);
+            }
+            final Generation expired = previous;
+            expired.clear(timestamp);
+            previous = current;
+            current = expired;
+            rotations++;
+        }
+    }
+    
+    /**
+     * Fingerprint of the Order frame with its timestamp left out, so a copy retransmitted with a
+     * later timestamp still matches
+     */
+    private static long orderKey(DirectBuffer buffer, int offset, int length) {
+        final int timestamp = MessageFrames.bodyOffset(offset) + OrderDecoder.timestampEncodingOffset();
+        final long head = fingerprint(buffer, offset, timestamp, length);
+        return fingerprint(buffer, timestamp + Long.BYTES, offset + length, head);
+    }
+    
+    private static long fingerprint(DirectBuffer buffer, int from, int to, long seed) {
+        long h = seed;
+        int position = from;
+        for (; position + Long.BYTES <= to; position += Long.BYTES) {
+            h = hash(h ^ buffer.getLong(position, ByteOrder.LITTLE_ENDIAN));
+        }
+        for (; position < to; position++) {
+            h = hash(h ^ (buffer.getByte(position) & 0xFF));
+        }
+        return h;
+    }
+    
+    private static int filterLength(int blockMask) {
+        return (blockMask + 1) * BLOCK_LENGTH;
+    }
+    
+    private static long hash(long value) {
+        long h = value;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+    
+    private static final class Generation {
+        
+        private final UnsafeBuffer filter;
+        private final int blockMask;
+        private final int hashes;
+        private final boolean exact;
+        private final LongHashSet orderKeys;
+        private final LongHashSet tradeKeys;
+        private long startTimestamp = Long.MIN_VALUE;
+        private int keys;
+        
+        /**
+         * @param filterLength bytes of filter, a power of two number of blocks
+         * @param setCapacity  initial capacity of each exact key set, unused unless exact
+         */
+        Generation(int filterLength, int hashes, boolean exact, int setCapacity) {
+            this.filter = new UnsafeBuffer(BufferUtil.allocateDirectAligned(filterLength, BLOCK_LENGTH));
+            this.blockMask = filterLength / BLOCK_LENGTH - 1;
+            this.hashes = hashes;
+            this.exact = exact;
+            if (exact) {
+                orderKeys = new LongHashSet(setCapacity, SET_LOAD_FACTOR, false);
+                tradeKeys = new LongHashSet(setCapacity, SET_LOAD_FACTOR, false);
+            } else {
+                orderKeys = null;
+                tradeKeys = null;
+            }
+        }
+        
+        boolean contains(long hash, boolean trade, long key) {
+            final int block = ((int) (hash >>> 32) & blockMask) * BLOCK_LENGTH;
+            final int h1 = (int) hash;
+            final int h2 = (h1 >>> 16) | 1;
+            for (int i = 0; i < hashes; i++) {
+                final int bit = (h1 + i * h2) & BLOCK_BITS_MASK;
+                if ((filter.getLong(block + (bit >>> 6) * Long.BYTES) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return !exact || (trade ? tradeKeys : orderKeys).contains(key);
+        }
+        
+        void add(long hash, boolean trade, long key) {
+            final int block = ((int) (hash >>> 32) & blockMask) * BLOCK_LENGTH;
+            final int h1 = (int) hash;
+            final int h2 = (h1 >>> 16) | 1;
+            for (int i = 0; i < hashes; i++) {
+                final int bit = (h1 + i * h2) & BLOCK_BITS_MASK;
+                final int word = block + (bit >>> 6) * Long.BYTES;
+                filter.putLong(word, filter.getLong(word) | (1L << bit));
+            }
+            if (exact) {
+                (trade ? tradeKeys : orderKeys).add(key);
+            }
+            keys++;
+        }
+        
+        void clear(long startTimestamp) {
+            filter.setMemory(0, filter.capacity(), (byte) 0);
+            if (exact) {
+                orderKeys.clear();
+                tradeKeys.clear();
+            }
+            this.startTimestamp = startTimestamp;
+            keys = 0;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+
+import java.nio.ByteOrder;
+
+/**
+ * Header-only predicate filter over archives of raw SBE frames ("grep for SBE")
+ * 
+ * Predicates on templateId, symbol, timestamp and id ranges are evaluated by reading the
+ * message header and fixed-offset fields directly from the buffer. Non-matching frames are
+ * skipped by their encoded length and matching frames are passed on untouched, so nothing is
+ * decoded and nothing is allocated per message. All configured predicates must match.
+ */
+public class FrameFilter {
+    
+    private static final int MAX_TEMPLATE_ID = MarketDataDecoder.TEMPLATE_ID;
+    private static final int ALL_TEMPLATES =
+            (1 << OrderDecoder.TEMPLATE_ID) | (1 << TradeDecoder.TEMPLATE_ID) | (1 << MarketDataDecoder.TEMPLATE_ID);
+    
+    private static final int[] SYMBOL_OFFSETS = new int[MAX_TEMPLATE_ID + 1];
+    private static final int[] TIMESTAMP_OFFSETS = new int[MAX_TEMPLATE_ID + 1];
+    private static final int[] ORDER_ID_OFFSETS = new int[MAX_TEMPLATE_ID + 1];
+    private static final int[] TRADE_ID_OFFSETS = new int[MAX_TEMPLATE_ID + 1];
+    
+    static {
+        SYMBOL_OFFSETS[OrderDecoder.TEMPLATE_ID] = OrderDecoder.symbolEncodingOffset();
+        SYMBOL_OFFSETS[TradeDecoder.TEMPLATE_ID] = TradeDecoder.symbolEncodingOffset();
+        SYMBOL_OFFSETS[MarketDataDecoder.TEMPLATE_ID] = MarketDataDecoder.symbolEncodingOffset();
+        
+        TIMESTAMP_OFFSETS[OrderDecoder.TEMPLATE_ID] = OrderDecoder.timestampEncodingOffset();
+        TIMESTAMP_OFFSETS[TradeDecoder.TEMPLATE_ID] = TradeDecoder.timestampEncodingOffset();
+        TIMESTAMP_OFFSETS[MarketDataDecoder.TEMPLATE_ID] = MarketDataDecoder.timestampEncodingOffset();
+        
+        ORDER_ID_OFFSETS[OrderDecoder.TEMPLATE_ID] = OrderDecoder.orderIdEncodingOffset();
+        ORDER_ID_OFFSETS[TradeDecoder.TEMPLATE_ID] = TradeDecoder.orderIdEncodingOffset();
+        ORDER_ID_OFFSETS[MarketDataDecoder.TEMPLATE_ID] = -1;
+        
+        TRADE_ID_OFFSETS[OrderDecoder.TEMPLATE_ID] = -1;
+        TRADE_ID_OFFSETS[TradeDecoder.TEMPLATE_ID] = TradeDecoder.tradeIdEncodingOffset();
+        TRADE_ID_OFFSETS[MarketDataDecoder.TEMPLATE_ID] = -1;
+    }
+    
+    private int templateMask = ALL_TEMPLATES;
+    private boolean matchSymbol;
+    private long symbol;
+    private boolean matchTimestamp;
+    private long minTimestamp = Long.MIN_VALUE;
+    private long maxTimestamp = Long.MAX_VALUE;
+    private boolean matchOrderId;
+    private long minOrderId = Long.MIN_VALUE;
+    private long maxOrderId = Long.MAX_VALUE;
+    private boolean matchTradeId;
+    private long minTradeId = Long.MIN_VALUE;
+    private long maxTradeId = Long.MAX_VALUE;
+    
+    private long framesScanned;
+    private long framesMatched;
+    
+    /**
+     * Restrict to the given template IDs (the default matches Order, Trade and MarketData)
+     */
+    public FrameFilter templateIds(int... templateIds) {
+        int mask = 0;
+        for (int templateId : templateIds) {
+            if (templateId < 1 || templateId > MAX_TEMPLATE_ID) {
+                throw new IllegalArgumentException("Unknown template ID: " + templateId);
+            }
+            mask |= 1 << templateId;
+        }
+        this.templateMask = mask;
+        return this;
+    }
+    
+    public FrameFilter symbol(String symbol) {
+        this.symbol = Symbols.encode(symbol);
+        this.matchSymbol = true;
+        return this;
+    }
+    
+    /**
+     * Inclusive timestamp range
+     */
+    public FrameFilter timestampRange(long minTimestamp, long maxTimestamp) {
+        this.minTimestamp = minTimestamp;
+        this.maxTimestamp = maxTimestamp;
+        this.matchTimestamp = true;
+        return this;
+    }
+    
+    /**
+     * Inclusive orderId range, matching Order and Trade messages
+     */
+    public FrameFilter orderIdRange(long minOrderId, long maxOrderId) {
+        this.minOrderId = minOrderId;
+        this.maxOrderId = maxOrderId;
+        this.matchOrderId = true;
+        return this;
+    }
+    
+    /**
+     * Inclusive tradeId range, matching Trade messages
+     */
+    public FrameFilter tradeIdRange(long minTradeId, long maxTradeId) {
+        this.minTradeId = minTradeId;
+        this.maxTradeId = maxTradeId;
+        this.matchTradeId = true;
+        return this;
+    }
+    
+    /**
+     * Evaluate all predicates against the frame at offset using only header and fixed-offset reads
+     */
+    public boolean matches(DirectBuffer buffer, int offset) {
+        final int templateId = MessageFrames.templateId(buffer, offset);
+        if (templateId > MAX_TEMPLATE_ID || (templateMask & (1 << templateId)) == 0) {
+            return false;
+        }
+        
+        final int body = MessageFrames.bodyOffset(offset);
+        if (matchSymbol && Symbols.read(buffer, body + SYMBOL_OFFSETS[templateId]) != symbol) {
+            return false;
+        }
+        if (matchTimestamp && !inRange(buffer, body, TIMESTAMP_OFFSETS[templateId], minTimestamp, maxTimestamp)) {
+            return false;
+        }
+        if (matchOrderId && !inRange(buffer, body, ORDER_ID_OFFSETS[templateId], minOrderId, maxOrderId)) {
+            return false;
+        }
+        return !matchTradeId || inRange(buffer, body, TRADE_ID_OFFSETS[templateId], minTradeId, maxTradeId);
+    }
+    
+    /**
+     * Scan the frames between offset and limit, passing matching raw frames to the handler
+     * 
+     * @return the offset just past the last complete frame scanned
+     */
+    public int filter(DirectBuffer buffer, int offset, int limit, FrameHandler handler) {
+        int position = offset;
+        int length;
+        while ((length = MessageFrames.frameLength(buffer, position, limit)) > 0) {
+            framesScanned++;
+            if (matches(buffer, position)) {
+                framesMatched++;
+                handler.onFrame(buffer, position, length);
+            }
+            position += length;
+        }
+        return position;
+    }
+    
+    public long framesScanned() {
+        return framesScanned;
+    }
+    
+    public long framesMatched() {
+        return framesMatched;
+    }
+    
+    private static boolean inRange(DirectBuffer buffer, int body, int fieldOffset, long min, long max) {
+        if (fieldOffset < 0) {
+            return false;
+        }
+        
+        final long value = buffer.getLong(body + fieldOffset, ByteOrder.LITTLE_ENDIAN);
+        return value >= min && value <= max;
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Callback for a complete raw SBE frame (message header included) held in a buffer
+ * 
+ * The buffer region is only valid for the duration of the call.
+ */
+@FunctionalInterface
+public interface FrameHandler {
+    
+    void onFrame(DirectBuffer buffer, int offset, int length);
+}
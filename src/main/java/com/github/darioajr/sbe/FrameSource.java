@@ -0,0 +1,27 @@
+package com.github.darioajr.sbe;
+
+/**
+ * Pull-based source of complete SBE frames
+ *
+ * Implementations deliver frames to a {@link FrameHandler} in order, at most limit per poll, so
+ * a consumer can take exactly as many frames as it has demand for. Frame buffers are only valid
+ * for the duration of the handler call.
+ */
+public interface FrameSource extends AutoCloseable {
+    
+    /**
+     * Deliver up to limit available frames to the handler
+     *
+     * @return the number of frames delivered, 0 when none are available yet
+     */
+    int poll(FrameHandler handler, int limit);
+    
+    /**
+     * True once every frame has been delivered and no more will arrive
+     */
+    boolean isEndOfStream();
+    
+    @Override
+    default void close() {
+    }
+}
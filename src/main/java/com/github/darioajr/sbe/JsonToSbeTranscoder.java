@@ -0,0 +1,540 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-pass JSON to SBE transcoder that writes each field straight into the wrapped encoder
+ *
+ * The JSON bytes are tokenized in place: keys are matched against the template's field names
+ * byte by byte, numbers are accumulated digit by digit, and each recognized value is written at
+ * its offset in the block as soon as it is read. MarketData levels are written into the
+ * repeating group while the array is read, with the group count written at the end, and var
+ * data is copied from the JSON bytes unchanged once the block is complete. No Strings, enums
+ * or records are created, so transcoding does not allocate.
+ *
+ * Accepts the objects {@link JsonFormatter} writes, with fields in any order; unknown fields
+ * are skipped. Every block field is required, as in {@link JsonParser}, while levels may be
+ * left out. Strings the transcoder reads must not contain escape sequences.
+ *
+ * Like {@link SbeSerializer}, each transcoded message is recorded in the optional
+ * {@link CodecStats} and as an sbe.Encode JFR event when those are enabled.
+ *
+ * Not thread safe; use one instance per thread.
+ */
+public class JsonToSbeTranscoder {
+    
+    private static final int END_OF_OBJECT = -2;
+    private static final int UNKNOWN_FIELD = -1;
+    private static final int LEVEL_LENGTH = 17;
+    private static final int MAX_LEVELS = 65535;
+    
+    private static final byte[][] ORDER_FIELDS = names(
+            "orderId", "symbol", "side", "quantity", "price", "timestamp", "isActive", "clientOrderId");
+    private static final byte[][] TRADE_FIELDS = names(
+            "tradeId", "orderId", "symbol", "side", "quantity", "price", "timestamp", "venue");
+    private static final byte[][] MARKET_DATA_FIELDS = names(
+            "symbol", "timestamp", "bidPrice", "bidSize", "askPrice", "askSize", "lastPrice", "lastSize", "levels");
+    private static final byte[][] LEVEL_FIELDS = names("price", "size", "side");
+    private static final int MARKET_DATA_LEVELS = 8;
+    
+    private static final byte[] BUY = bytes("BUY");
+    private static final byte[] SELL = bytes("SELL");
+    private static final byte[] TRUE = bytes("TRUE");
+    private static final byte[] FALSE = bytes("FALSE");
+    
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final OrderEncoder orderEncoder = new OrderEncoder();
+    private final TradeEncoder tradeEncoder = new TradeEncoder();
+    private final MarketDataEncoder marketDataEncoder = new MarketDataEncoder();
+    
+    private final CodecStats stats;
+    
+    private DirectBuffer json;
+    private int start;
+    private int position;
+    private int limit;
+    private int stringOffset;
+    private int stringLength;
+    
+    public JsonToSbeTranscoder() {
+        this(null);
+    }
+    
+    /**
+     * Create a transcoder that records encode counts and latencies into the given stats, which may be null
+     */
+    public JsonToSbeTranscoder(CodecStats stats) {
+        this.stats = stats;
+    }
+    
+    /**
+     * Transcode one JSON object into an SBE frame of the given template at dstOffset
+     *
+     * dst must be able to hold the frame; an expandable buffer grows as needed.
+     *
+     * @return the encoded length of the frame
+     * @throws IllegalArgumentException if the JSON is malformed, misses a field or has an invalid value
+     */
+    public int transcode(int templateId, DirectBuffer json, int offset, int length, MutableDirectBuffer dst, int dstOffset) {
+        if (stats == null && !CodecEvents.isEncodeEnabled()) {
+            return encode(templateId, json, offset, length, dst, dstOffset);
+        }
+        
+        final CodecEvents.Encode event = CodecEvents.beginEncode();
+        final long start = System.nanoTime();
+        try {
+            final int encodedLength = encode(templateId, json, offset, length, dst, dstOffset);
+            if (stats != null) {
+                stats.record(CodecStats.ENCODE, templateId, encodedLength, System.nanoTime() - start);
+            }
+            CodecEvents.commitEncode(event, templateId, encodedLength, CodecEvents.source(dst));
+            return encodedLength;
+        } catch (RuntimeException e) {
+            if (stats != null) {
+                stats.recordError(CodecStats.ENCODE, templateId);
+            }
+            throw e;
+        }
+    }
+    
+    private int encode(int templateId, DirectBuffer json, int offset, int length, MutableDirectBuffer dst, int dstOffset) {
+        this.json = json;
+        this.start = offset;
+        this.position = offset;
+        this.limit = offset + length;
+        
+        final int body = MessageFrames.bodyOffset(dstOffset);
+        final int bodyLength = switch (templateId) {
+            case OrderEncoder.TEMPLATE_ID -> {
+                header(dst, dstOffset, OrderEncoder.BLOCK_LENGTH, OrderEncoder.TEMPLATE_ID);
+                yield order(dst, body);
+            }
+            case TradeEncoder.TEMPLATE_ID -> {
+                header(dst, dstOffset, TradeEncoder.BLOCK_LENGTH, TradeEncoder.TEMPLATE_ID);
+                yield trade(dst, body);
+            }
+            case MarketDataEncoder.TEMPLATE_ID -> {
+                header(dst, dstOffset, MarketDataEncoder.BLOCK_LENGTH, MarketDataEncoder.TEMPLATE_ID);
+                yield marketData(dst, body);
+            }
+            default -> throw new IllegalArgumentException("Unsupported template for JSON: " + templateId);
+        };
+        
+        skipWhitespace();
+        if (position != limit) {
+            throw error("trailing data after the object");
+        }
+        return MessageHeaderEncoder.ENCODED_LENGTH + bodyLength;
+    }
+    
+    private void header(MutableDirectBuffer dst, int offset, int blockLength, int templateId) {
+        headerEncoder.wrap(dst, offset)
+                .blockLength(blockLength)
+                .templateId(templateId)
+                .schemaId(OrderEncoder.SCHEMA_ID)
+                .version(OrderEncoder.SCHEMA_VERSION);
+    }
+    
+    private int order(MutableDirectBuffer dst, int body) {
+        orderEncoder.wrap(dst, body);
+        int seen = 0;
+        int clientOrderIdOffset = 0;
+        int clientOrderIdLength = 0;
+        
+        expect('{');
+        for (int field = nextField(ORDER_FIELDS, true); field != END_OF_OBJECT; field = nextField(ORDER_FIELDS, false)) {
+            switch (field) {
+                case 0 -> orderEncoder.orderId(readLong());
+                case 1 -> orderEncoder.symbol(readSymbol());
+                case 2 -> orderEncoder.side(readSide());
+                case 3 -> orderEncoder.quantity(readLong());
+                case 4 -> orderEncoder.price(readLong());
+                case 5 -> orderEncoder.timestamp(readLong());
+                case 6 -> orderEncoder.isActive(readBoolean());
+                case 7 -> {
+                    readString();
+                    clientOrderIdOffset = stringOffset;
+                    clientOrderIdLength = stringLength;
+                }
+                default -> skipValue();
+            }
+            seen = mark(seen, field);
+        }
+        require(seen, ORDER_FIELDS, ORDER_FIELDS.length);
+        
+        orderEncoder.putClientOrderId(json, clientOrderIdOffset, clientOrderIdLength);
+        return orderEncoder.encodedLength();
+    }
+    
+    private int trade(MutableDirectBuffer dst, int body) {
+        tradeEncoder.wrap(dst, body);
+        int seen = 0;
+        int venueOffset = 0;
+        int venueLength = 0;
+        
+        expect('{');
+        for (int field = nextField(TRADE_FIELDS, true); field != END_OF_OBJECT; field = nextField(TRADE_FIELDS, false)) {
+            switch (field) {
+                case 0 -> tradeEncoder.tradeId(readLong());
+                case 1 -> tradeEncoder.orderId(readLong());
+                case 2 -> tradeEncoder.symbol(readSymbol());
+                case 3 -> tradeEncoder.side(readSide());
+                case 4 -> tradeEncoder.quantity(readLong());
+                case 5 -> tradeEncoder.price(readLong());
+                case 6 -> tradeEncoder.timestamp(readLong());
+                case 7 -> {
+                    readString();
+                    venueOffset = stringOffset;
+                    venueLength = stringLength;
+                }
+                default -> skipValue();
+            }
+            seen = mark(seen, field);
+        }
+        require(seen, TRADE_FIELDS, TRADE_FIELDS.length);
+        
+        tradeEncoder.putVenue(json, venueOffset, venueLength);
+        return tradeEncoder.encodedLength();
+    }
+    
+    private int marketData(MutableDirectBuffer dst, int body) {
+        marketDataEncoder.wrap(dst, body);
+        final int group = body + MarketDataEncoder.BLOCK_LENGTH;
+        int seen = 0;
+        int count = 0;
+        
+        expect('{');
+        for (int field = nextField(MARKET_DATA_FIELDS, true); field != END_OF_OBJECT; field = nextField(MARKET_DATA_FIELDS, false)) {
+            switch (field) {
+                case 0 -> marketDataEncoder.symbol(readSymbol());
+                case 1 -> marketDataEncoder.timestamp(readLong());
+                case 2 -> marketDataEncoder.bidPrice(readLong());
+                case 3 -> marketDataEncoder.bidSize(readLong());
+                case 4 -> marketDataEncoder.askPrice(readLong());
+                case 5 -> marketDataEncoder.askSize(readLong());
+                case 6 -> marketDataEncoder.lastPrice(readLong());
+                case 7 -> marketDataEncoder.lastSize(readLong());
+                case MARKET_DATA_LEVELS -> count = readLevels(dst, group + 4);
+                default -> skipValue();
+            }
+            seen = mark(seen, field);
+        }
+        require(seen, MARKET_DATA_FIELDS, MARKET_DATA_LEVELS);
+        
+        dst.putShort(group, (short) LEVEL_LENGTH, ByteOrder.LITTLE_ENDIAN);
+        dst.putShort(group + 2, (short) count, ByteOrder.LITTLE_ENDIAN);
+        return MarketDataEncoder.BLOCK_LENGTH + 4 + count * LEVEL_LENGTH;
+    }
+    
+    /**
+     * Stream a levels array into consecutive group entries
+     *
+     * @return the number of levels written
+     */
+    private int readLevels(MutableDirectBuffer dst, int entry) {
+        expect('[');
+        skipWhitespace();
+        if (consume(']')) {
+            return 0;
+        }
+        
+        int count = 0;
+        do {
+            if (count == MAX_LEVELS) {
+                throw error("more than " + MAX_LEVELS + " levels");
+            }
+            int seen = 0;
+            expect('{');
+            for (int field = nextField(LEVEL_FIELDS, true); field != END_OF_OBJECT; field = nextField(LEVEL_FIELDS, false)) {
+                switch (field) {
+                    case 0 -> dst.putLong(entry, readLong(), ByteOrder.LITTLE_ENDIAN);
+                    case 1 -> dst.putLong(entry + 8, readLong(), ByteOrder.LITTLE_ENDIAN);
+                    case 2 -> dst.putByte(entry + 16, readSide().value());
+                    default -> skipValue();
+                }
+                seen = mark(seen, field);
+            }
+            require(seen, LEVEL_FIELDS, LEVEL_FIELDS.length);
+            entry += LEVEL_LENGTH;
+            count++;
+            skipWhitespace();
+        } while (consume(','));
+        expect(']');
+        return count;
+    }
+    
+    /**
+     * Read the next key of the current object and the colon after it
+     *
+     * @return the key's index in fields, {@link #UNKNOWN_FIELD}, or {@link #END_OF_OBJECT} after the closing brace
+     */
+    private int nextField(byte[][] fields, boolean first) {
+        skipWhitespace();
+        if (consume('}')) {
+            return END_OF_OBJECT;
+        }
+        if (!first) {
+            expect(',');
+        }
+        
+        readString();
+        expect(':');
+        for (int i = 0; i < fields.length; i++) {
+            if (stringEquals(fields[i])) {
+                return i;
+            }
+        }
+        return UNKNOWN_FIELD;
+    }
+    
+    private long readLong() {
+        skipWhitespace();
+        final boolean negative = consume('-');
+        final int digits = position;
+        // Accumulate negatively so Long.MIN_VALUE, which has no positive counterpart, can be read
+        final long min = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        while (position < limit) {
+            final int digit = json.getByte(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (value < (min + digit) / 10) {
+                throw error("number out of range");
+            }
+            value = value * 10 - digit;
+            position++;
+        }
+        if (position == digits) {
+            throw error("expected a number");
+        }
+        if (position < limit) {
+            final byte next = json.getByte(position);
+            if (next == '.' || next == 'e' || next == 'E') {
+                throw error("expected an integer");
+            }
+        }
+        return negative ? value : -value;
+    }
+    
+    /**
+     * Read a string of up to 8 ASCII characters as the symbol field's little-endian long
+     */
+    private long readSymbol() {
+        readString();
+        if (stringLength > Symbols.LENGTH) {
+            throw error("symbol must be max 8 characters");
+        }
+        long value = 0;
+        for (int i = stringLength - 1; i >= 0; i--) {
+            final byte b = json.getByte(stringOffset + i);
+            if (b < 0) {
+                throw error("symbol must be ASCII");
+            }
+            value = (value << 8) | b;
+        }
+        return value;
+    }
+    
+    private Side readSide() {
+        readString();
+        if (stringEquals(BUY)) {
+            return Side.BUY;
+        }
+        if (stringEquals(SELL)) {
+            return Side.SELL;
+        }
+        throw error("unknown side");
+    }
+    
+    /**
+     * Read "TRUE"/"FALSE" as written by {@link JsonFormatter}, or a JSON true/false literal
+     */
+    private BooleanType readBoolean() {
+        skipWhitespace();
+        if (position < limit && json.getByte(position) == '"') {
+            readString();
+            if (stringEquals(TRUE)) {
+                return BooleanType.TRUE;
+            }
+            if (stringEquals(FALSE)) {
+                return BooleanType.FALSE;
+            }
+        } else if (consumeLiteral("true")) {
+            return BooleanType.TRUE;
+        } else if (consumeLiteral("false")) {
+            return BooleanType.FALSE;
+        }
+        throw error("expected TRUE or FALSE");
+    }
+    
+    /**
+     * Read a string, leaving its content span in stringOffset and stringLength
+     */
+    private void readString() {
+        expect('"');
+        final int content = position;
+        while (true) {
+            if (position == limit) {
+                throw error("unterminated string");
+            }
+            final byte b = json.getByte(position);
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\') {
+                throw error("escape sequences are not supported");
+            }
+            position++;
+        }
+        stringOffset = content;
+        stringLength = position - content;
+        position++;
+    }
+    
+    /**
+     * Skip the value of an unknown field, including nested objects and arrays
+     */
+    private void skipValue() {
+        skipWhitespace();
+        if (position == limit) {
+            throw error("expected a value");
+        }
+        
+        final byte first = json.getByte(position);
+        if (first == '"') {
+            skipString();
+        } else if (first == '{' || first == '[') {
+            int depth = 0;
+            do {
+                if (position == limit) {
+                    throw error("unterminated " + (first == '{' ? "object" : "array"));
+                }
+                final byte b = json.getByte(position);
+                if (b == '"') {
+                    skipString();
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                }
+                position++;
+            } while (depth > 0);
+        } else {
+            final int value = position;
+            while (position < limit && !isDelimiter(json.getByte(position))) {
+                position++;
+            }
+            if (position == value) {
+                throw error("expected a value");
+            }
+        }
+    }
+    
+    private void skipString() {
+        position++;
+        while (true) {
+            if (position >= limit) {
+                throw error("unterminated string");
+            }
+            final byte b = json.getByte(position++);
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                position++;
+            }
+        }
+    }
+    
+    private boolean stringEquals(byte[] expected) {
+        if (stringLength != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < stringLength; i++) {
+            if (json.getByte(stringOffset + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean consumeLiteral(String literal) {
+        if (limit - position < literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (json.getByte(position + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        position += literal.length();
+        return true;
+    }
+    
+    private void expect(char c) {
+        skipWhitespace();
+        if (!consume(c)) {
+            throw error("expected '" + c + "'");
+        }
+    }
+    
+    private boolean consume(char c) {
+        if (position < limit && json.getByte(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+    
+    private void skipWhitespace() {
+        while (position < limit) {
+            final byte b = json.getByte(position);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+    
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+    
+    private static int mark(int seen, int field) {
+        return field >= 0 ? seen | (1 << field) : seen;
+    }
+    
+    /**
+     * Check that the first count fields were all present
+     */
+    private static void require(int seen, byte[][] fields, int count) {
+        for (int i = 0; i < count; i++) {
+            if ((seen & (1 << i)) == 0) {
+                throw new IllegalArgumentException("Field not found: " + new String(fields[i], StandardCharsets.US_ASCII));
+            }
+        }
+    }
+    
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid JSON at offset " + (position - start) + ": " + message);
+    }
+    
+    private static byte[][] names(String... names) {
+        final byte[][] bytes = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            bytes[i] = bytes(names[i]);
+        }
+        return bytes;
+    }
+    
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
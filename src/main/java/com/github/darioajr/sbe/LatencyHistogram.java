@@ -0,0 +1,128 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.concurrent.AtomicBuffer;
+
+/**
+ * HDR-style log-linear latency histogram laid out over an {@link AtomicBuffer}
+ *
+ * Each power of two is split into {@link #SUB_BUCKET_COUNT} linear sub-buckets, giving a
+ * worst-case relative error of 1/8 while keeping a fixed, pre-allocated footprint of
+ * {@link #LENGTH} bytes. Recording is allocation-free and safe for concurrent writers;
+ * readers in other processes can compute percentiles from a shared memory-mapped region.
+ */
+public class LatencyHistogram {
+    
+    public static final int SUB_BUCKET_BITS = 3;
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    public static final int MAX_MAGNITUDE = 47;
+    public static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+    
+    private static final int TOTAL_COUNT_OFFSET = 0;
+    private static final int MAX_VALUE_OFFSET = 8;
+    private static final int TOTAL_VALUE_OFFSET = 16;
+    private static final int BUCKETS_OFFSET = 64;
+    
+    public static final int LENGTH = BUCKETS_OFFSET + BUCKET_COUNT * Long.BYTES;
+    
+    private AtomicBuffer buffer;
+    private int offset;
+    
+    /**
+     * Wrap a histogram region of {@link #LENGTH} bytes starting at the given offset
+     */
+    public LatencyHistogram wrap(AtomicBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+    
+    /**
+     * Record a single value, negative values are recorded as zero
+     */
+    public void record(long value) {
+        final long v = Math.max(value, 0);
+        buffer.getAndAddLong(offset + BUCKETS_OFFSET + (bucketIndex(v) << 3), 1);
+        buffer.getAndAddLong(offset + TOTAL_COUNT_OFFSET, 1);
+        buffer.getAndAddLong(offset + TOTAL_VALUE_OFFSET, v);
+        
+        long max;
+        while (v > (max = buffer.getLongVolatile(offset + MAX_VALUE_OFFSET))) {
+            if (buffer.compareAndSetLong(offset + MAX_VALUE_OFFSET, max, v)) {
+                break;
+            }
+        }
+    }
+    
+    public long count() {
+        return buffer.getLongVolatile(offset + TOTAL_COUNT_OFFSET);
+    }
+    
+    public long max() {
+        return buffer.getLongVolatile(offset + MAX_VALUE_OFFSET);
+    }
+    
+    public double mean() {
+        final long count = count();
+        return count == 0 ? 0.0 : (double) buffer.getLongVolatile(offset + TOTAL_VALUE_OFFSET) / count;
+    }
+    
+    /**
+     * Value at the given percentile (0-100), reported as the highest value equivalent to its bucket
+     */
+    public long valueAtPercentile(double percentile) {
+        final long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        
+        final long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buffer.getLongVolatile(offset + BUCKETS_OFFSET + (i << 3));
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), max());
+            }
+        }
+        
+        return max();
+    }
+    
+    /**
+     * Zero all buckets and totals
+     */
+    public void reset() {
+        buffer.setMemory(offset, LENGTH, (byte) 0);
+    }
+    
+    /**
+     * Bucket index for a non-negative value
+     */
+    public static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        
+        final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKET_COUNT - 1;
+        }
+        
+        final int shift = magnitude - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return ((shift + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+    
+    public static long lowestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        
+        final int shift = (index >> SUB_BUCKET_BITS) - 1;
+        final long subBucket = index & (SUB_BUCKET_COUNT - 1);
+        return (SUB_BUCKET_COUNT + subBucket) << shift;
+    }
+    
+    public static long highestEquivalentValue(int index) {
+        return index == BUCKET_COUNT - 1 ? Long.MAX_VALUE : lowestEquivalentValue(index + 1) - 1;
+    }
+}
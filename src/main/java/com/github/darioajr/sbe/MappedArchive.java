@@ -0,0 +1,239 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.CloseHelper;
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only memory mapping of an archive of any size, addressed with long positions
+ *
+ * MappedByteBuffer and the Agrona buffers are indexed by int, which caps a single mapping at
+ * 2 GB. This reads the file through windows instead: each is its own {@link MappedByteBuffer}
+ * chunk from {@link FileChannel#map}, mapped at a long file position, at most
+ * {@link #DEFAULT_WINDOW_SIZE} bytes long and wrapped in an {@link UnsafeBuffer}. Windows
+ * always start on a frame boundary and a new one is mapped where the last complete frame of
+ * the previous one ended, so no frame is split and the codecs, {@link FrameFilter} and
+ * {@link MessageFrames} run on each window unchanged, with the same memory access as any other
+ * mapped buffer. The chunk a window leaves behind is unmapped when the next one is mapped.
+ *
+ * As a {@link FrameSource} the archive delivers every frame in order, and {@link #scan} hands
+ * whole windows to a batch stage that reports how far it got. The mapping is released on
+ * {@link #close()}, after which no window may be used.
+ */
+public class MappedArchive implements FrameSource {
+    
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+    
+    /**
+     * Batch stage run over one window, e.g. {@link FrameFilter#filter} or {@link MessageFrames#forEach}
+     */
+    @FunctionalInterface
+    public interface WindowScanner {
+        
+        /**
+         * @return the offset just past the last complete frame scanned
+         */
+        int scan(DirectBuffer window, int offset, int limit);
+    }
+    
+    private final FileChannel channel;
+    private final long length;
+    private final int windowSize;
+    private final UnsafeBuffer window = new UnsafeBuffer(0, 0);
+    private MappedByteBuffer chunk;
+    private long windowStart;
+    private int windowLimit;
+    private int position;
+    
+    private MappedArchive(FileChannel channel, long length, int windowSize) {
+        this.channel = channel;
+        this.length = length;
+        this.windowSize = windowSize;
+        moveWindow(0);
+    }
+    
+    /**
+     * Map an archive file read-only with the default window size
+     */
+    public static MappedArchive map(Path file) {
+        return map(file, DEFAULT_WINDOW_SIZE);
+    }
+    
+    /**
+     * @param windowSize longest stretch addressed at once; must hold the largest frame
+     */
+    public static MappedArchive map(Path file, int windowSize) {
+        if (windowSize < MessageHeaderDecoder.ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Invalid window size: " + windowSize);
+        }
+        
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            return new MappedArchive(channel, channel.size(), windowSize);
+        } catch (IOException e) {
+            CloseHelper.quietClose(channel);
+            throw new UncheckedIOException("Failed to map " + file, e);
+        } catch (UncheckedIOException e) {
+            CloseHelper.quietClose(channel);
+            throw new UncheckedIOException("Failed to map " + file, e.getCause());
+        }
+    }
+    
+    public long length() {
+        return length;
+    }
+    
+    /**
+     * Position in the file of the next frame {@link #poll} delivers
+     */
+    public long position() {
+        return windowStart + position;
+    }
+    
+    /**
+     * Window of up to the window size starting at the given position
+     *
+     * Shares the buffer {@link #poll} reads through, so it moves the poll position there too.
+     */
+    public DirectBuffer window(long position) {
+        if (position < 0 || position > length) {
+            throw new IndexOutOfBoundsException("Position " + position + " outside archive of " + length + " bytes");
+        }
+        moveWindow(position);
+        return window;
+    }
+    
+    /**
+     * Run the scanner over consecutive windows from the start of the archive, each starting
+     * just past the last complete frame of the previous one
+     *
+     * Each window is unmapped once the scanner returns, so it must not be kept.
+     *
+     * @return the position just past the last complete frame, less than {@link #length()}
+     * when the archive ends with a partial frame
+     */
+    public long scan(WindowScanner scanner) {
+        return scan(0, scanner);
+    }
+    
+    /**
+     * As {@link #scan(WindowScanner)}, starting at a frame boundary at the given position
+     */
+    public long scan(long from, WindowScanner scanner) {
+        if (from < 0 || from > length) {
+            throw new IndexOutOfBoundsException("Position " + from + " outside archive of " + length + " bytes");
+        }
+        
+        final UnsafeBuffer scanWindow = new UnsafeBuffer(0, 0);
+        long start = from;
+        while (start < length) {
+            final int limit = (int) Math.min(length - start, windowSize);
+            final MappedByteBuffer scanChunk = mapChunk(start, limit);
+            final int end;
+            try {
+                scanWindow.wrap(scanChunk);
+                end = scanner.scan(scanWindow, 0, limit);
+            } finally {
+                IoUtil.unmap(scanChunk);
+            }
+            if (end == 0) {
+                if (limit == windowSize) {
+                    throw new IllegalStateException("Frame at position " + start + " is larger than the "
+                            + windowSize + " byte window");
+                }
+                break;
+            }
+            start += end;
+        }
+        return start;
+    }
+    
+    /**
+     * Invoke the handler for each complete frame in the archive
+     *
+     * @return the position just past the last complete frame
+     */
+    public long forEach(FrameHandler handler) {
+        return forEach(0, handler);
+    }
+    
+    /**
+     * Invoke the handler for each complete frame from a frame boundary at the given position
+     *
+     * @return the position just past the last complete frame
+     */
+    public long forEach(long from, FrameHandler handler) {
+        return scan(from, (buffer, offset, limit) -> MessageFrames.forEach(buffer, offset, limit, handler));
+    }
+    
+    @Override
+    public int poll(FrameHandler handler, int limit) {
+        int frames = 0;
+        while (frames < limit) {
+            final int frameLength = MessageFrames.frameLength(window, position, windowLimit);
+            if (frameLength > 0) {
+                handler.onFrame(window, position, frameLength);
+                position += frameLength;
+                frames++;
+            } else if (position > 0 && windowStart + windowLimit < length) {
+                moveWindow(windowStart + position);
+            } else {
+                break;
+            }
+        }
+        
+        if (frames == 0 && limit > 0 && !isEndOfStream()) {
+            throw new IllegalStateException(windowStart + windowLimit < length
+                    ? "Frame at position " + position() + " is larger than the " + windowSize + " byte window"
+                    : "Archive ends with a partial frame at position " + position());
+        }
+        return frames;
+    }
+    
+    @Override
+    public boolean isEndOfStream() {
+        return position() >= length;
+    }
+    
+    @Override
+    public void close() {
+        IoUtil.unmap(chunk);
+        chunk = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void moveWindow(long start) {
+        final int limit = (int) Math.min(length - start, windowSize);
+        final MappedByteBuffer next = mapChunk(start, limit);
+        IoUtil.unmap(chunk);
+        chunk = next;
+        window.wrap(next);
+        windowStart = start;
+        windowLimit = limit;
+        position = 0;
+    }
+    
+    private MappedByteBuffer mapChunk(long start, int size) {
+        try {
+            final CodecEvents.FrameIo event = CodecEvents.beginFrameIo();
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            CodecEvents.commitFrameIo(event, "map", CodecEvents.FILE, size, CodecEvents.MAPPED);
+            return mapped;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map " + size + " bytes at position " + start, e);
+        }
+    }
+}
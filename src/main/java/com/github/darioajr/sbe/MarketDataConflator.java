@@ -0,0 +1,219 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.BitUtil;
+import org.agrona.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Per-symbol conflation of encoded MarketData frames between one producer and one slow consumer
+ *
+ * Each symbol owns a pre-allocated off-heap slot holding only its latest frame, so memory is
+ * bounded by maxSymbols regardless of how far the consumer falls behind. The producer overwrites
+ * the slot in place under a sequence lock and never blocks: when the symbol is not already
+ * dirty it marks it and appends the slot index to a dirty queue, otherwise the previous update
+ * is simply conflated. The consumer drains only dirty symbols, copying each slot out under the
+ * sequence lock, so it always sees the freshest complete frame.
+ *
+ * The dirty queue can never overflow: a slot is queued at most once until the consumer takes
+ * it, so its capacity only needs to cover maxSymbols. The dirty flag is cleared before the slot
+ * is read, so an update racing with the read re-queues the symbol and is delivered on a later
+ * drain; a consumer may then see the same snapshot twice but never misses the latest one.
+ *
+ * {@link #offer} and {@link #onFrame} must be called from a single producer thread and
+ * {@link #drain} from a single consumer thread.
+ */
+public class MarketDataConflator implements FrameHandler {
+    
+    public static final int DEFAULT_MAX_LEVELS = 32;
+    
+    private static final long MISSING_SLOT = -1;
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int LENGTH_OFFSET = 8;
+    private static final int DIRTY_OFFSET = 12;
+    private static final int FRAME_OFFSET = 16;
+    private static final int HEAD_OFFSET = 0;
+    private static final int TAIL_OFFSET = BitUtil.CACHE_LINE_LENGTH * 2;
+    private static final int QUEUE_ENTRIES_OFFSET = BitUtil.CACHE_LINE_LENGTH * 4;
+    
+    private final int maxSymbols;
+    private final int maxFrameLength;
+    private final int slotLength;
+    private final int queueMask;
+    private final UnsafeBuffer slots;
+    private final UnsafeBuffer dirtyQueue;
+    
+    // Producer state
+    private final Long2LongHashMap slotBySymbol;
+    private int symbolCount;
+    private long updates;
+    private long conflated;
+    private long rejected;
+    
+    // Consumer state
+    private final UnsafeBuffer frame;
+    
+    public MarketDataConflator(int maxSymbols) {
+        this(maxSymbols, DEFAULT_MAX_LEVELS);
+    }
+    
+    /**
+     * @param maxSymbols distinct symbols the conflator can hold
+     * @param maxLevels  deepest book a slot can hold; deeper frames are rejected
+     */
+    public MarketDataConflator(int maxSymbols, int maxLevels) {
+        if (maxSymbols <= 0 || maxLevels < 0) {
+            throw new IllegalArgumentException("Invalid capacity: maxSymbols=" + maxSymbols + ", maxLevels=" + maxLevels);
+        }
+        
+        this.maxSymbols = maxSymbols;
+        this.maxFrameLength = MessageHeaderDecoder.ENCODED_LENGTH + MarketDataDecoder.BLOCK_LENGTH + 4 + maxLevels * 17;
+        this.slotLength = BitUtil.align(FRAME_OFFSET + maxFrameLength, BitUtil.CACHE_LINE_LENGTH);
+        this.slots = new UnsafeBuffer(BufferUtil.allocateDirectAligned(maxSymbols * slotLength, BitUtil.CACHE_LINE_LENGTH));
+        
+        final int queueCapacity = BitUtil.findNextPositivePowerOfTwo(maxSymbols);
+        this.queueMask = queueCapacity - 1;
+        this.dirtyQueue = new UnsafeBuffer(BufferUtil.allocateDirectAligned(
+                QUEUE_ENTRIES_OFFSET + queueCapacity * Integer.BYTES, BitUtil.CACHE_LINE_LENGTH));
+        
+        this.slotBySymbol = new Long2LongHashMap(maxSymbols * 2, 0.65f, MISSING_SLOT);
+        this.frame = new UnsafeBuffer(BufferUtil.allocateDirectAligned(
+                BitUtil.align(maxFrameLength, BitUtil.CACHE_LINE_LENGTH), BitUtil.CACHE_LINE_LENGTH));
+    }
+    
+    /**
+     * Producer side: offer a MarketData frame; other templates are ignored
+     */
+    @Override
+    public void onFrame(DirectBuffer buffer, int offset, int length) {
+        if (MessageFrames.templateId(buffer, offset) == MarketDataDecoder.TEMPLATE_ID) {
+            offer(buffer, offset, length);
+        }
+    }
+    
+    /**
+     * Producer side: store the frame as the latest for its symbol without blocking
+     *
+     * @return false when the frame is deeper than a slot or its symbol is new and all slots are taken
+     */
+    public boolean offer(DirectBuffer buffer, int offset, int length) {
+        if (MessageFrames.templateId(buffer, offset) != MarketDataDecoder.TEMPLATE_ID) {
+            throw new IllegalArgumentException("Not a MarketData frame: template " + MessageFrames.templateId(buffer, offset));
+        }
+        if (length > maxFrameLength) {
+            rejected++;
+            return false;
+        }
+        
+        final long symbol = Symbols.read(buffer, MessageFrames.bodyOffset(offset) + MarketDataDecoder.symbolEncodingOffset());
+        int slot = (int) slotBySymbol.get(symbol);
+        if (slot == MISSING_SLOT) {
+            if (symbolCount == maxSymbols) {
+                rejected++;
+                return false;
+            }
+            slot = symbolCount++;
+            slotBySymbol.put(symbol, slot);
+        }
+        
+        final int slotOffset = slot * slotLength;
+        final long sequence = slots.getLong(slotOffset + SEQUENCE_OFFSET);
+        slots.putLongOrdered(slotOffset + SEQUENCE_OFFSET, sequence + 1);
+        VarHandle.storeStoreFence();
+        slots.putInt(slotOffset + LENGTH_OFFSET, length);
+        slots.putBytes(slotOffset + FRAME_OFFSET, buffer, offset, length);
+        slots.putLongOrdered(slotOffset + SEQUENCE_OFFSET, sequence + 2);
+        updates++;
+        
+        if (slots.compareAndSetInt(slotOffset + DIRTY_OFFSET, 0, 1)) {
+            final long tail = dirtyQueue.getLong(TAIL_OFFSET);
+            dirtyQueue.putInt(QUEUE_ENTRIES_OFFSET + (int) (tail & queueMask) * Integer.BYTES, slot);
+            dirtyQueue.putLongOrdered(TAIL_OFFSET, tail + 1);
+        } else {
+            conflated++;
+        }
+        return true;
+    }
+    
+    /**
+     * Consumer side: deliver the latest frame of every dirty symbol
+     *
+     * @return the number of frames delivered
+     */
+    public int drain(FrameHandler handler) {
+        return drain(handler, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Consumer side: deliver the latest frame of up to limit dirty symbols, in the order they became dirty
+     *
+     * The frame buffer passed to the handler is only valid during the call.
+     */
+    public int drain(FrameHandler handler, int limit) {
+        long head = dirtyQueue.getLong(HEAD_OFFSET);
+        final long tail = dirtyQueue.getLongVolatile(TAIL_OFFSET);
+        int delivered = 0;
+        
+        while (head < tail && delivered < limit) {
+            final int slot = dirtyQueue.getInt(QUEUE_ENTRIES_OFFSET + (int) (head & queueMask) * Integer.BYTES);
+            dirtyQueue.putLongOrdered(HEAD_OFFSET, ++head);
+            
+            final int slotOffset = slot * slotLength;
+            slots.putIntVolatile(slotOffset + DIRTY_OFFSET, 0);
+            handler.onFrame(frame, 0, readSlot(slotOffset));
+            delivered++;
+        }
+        return delivered;
+    }
+    
+    /**
+     * Number of symbols currently waiting to be drained; approximate while the producer is running
+     */
+    public int dirtyCount() {
+        return (int) (dirtyQueue.getLongVolatile(TAIL_OFFSET) - dirtyQueue.getLongVolatile(HEAD_OFFSET));
+    }
+    
+    /**
+     * Producer side: frames accepted
+     */
+    public long updates() {
+        return updates;
+    }
+    
+    /**
+     * Producer side: accepted frames that replaced one the consumer had not yet drained
+     */
+    public long conflated() {
+        return conflated;
+    }
+    
+    /**
+     * Producer side: frames refused because they were too deep or no slot was free
+     */
+    public long rejected() {
+        return rejected;
+    }
+    
+    /**
+     * Copy a consistent frame out of the slot, retrying while the producer is overwriting it
+     */
+    private int readSlot(int slotOffset) {
+        while (true) {
+            final long before = slots.getLongVolatile(slotOffset + SEQUENCE_OFFSET);
+            if ((before & 1) == 0) {
+                final int length = slots.getInt(slotOffset + LENGTH_OFFSET);
+                if (length > 0 && length <= maxFrameLength) {
+                    frame.putBytes(0, slots, slotOffset + FRAME_OFFSET, length);
+                    VarHandle.loadLoadFence();
+                    if (slots.getLongVolatile(slotOffset + SEQUENCE_OFFSET) == before) {
+                        return length;
+                    }
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
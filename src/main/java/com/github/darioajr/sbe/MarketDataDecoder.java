@@ -13,6 +13,7 @@ public class MarketDataDecoder {
     private int offset;
     private int blockLength;
     private int version;
+    private final LevelsDecoder levels = new LevelsDecoder();
 
     public MarketDataDecoder wrap(final DirectBuffer buffer, final int offset, final int blockLength, final int version) {
         this.buffer = buffer;
@@ -22,6 +23,10 @@ public class MarketDataDecoder {
         return this;
     }
 
+    public static int symbolEncodingOffset() {
+        return 0;
+    }
+
     public String symbol() {
         final byte[] dst = new byte[8];
         buffer.getBytes(offset + 0, dst, 0, 8);
@@ -30,30 +35,58 @@ public class MarketDataDecoder {
         return new String(dst, 0, end, StandardCharsets.US_ASCII);
     }
 
+    public static int timestampEncodingOffset() {
+        return 8;
+    }
+
     public long timestamp() {
         return buffer.getLong(offset + 8, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int bidPriceEncodingOffset() {
+        return 16;
+    }
+
     public long bidPrice() {
         return buffer.getLong(offset + 16, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int bidSizeEncodingOffset() {
+        return 24;
+    }
+
     public long bidSize() {
         return buffer.getLong(offset + 24, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int askPriceEncodingOffset() {
+        return 32;
+    }
+
     public long askPrice() {
         return buffer.getLong(offset + 32, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int askSizeEncodingOffset() {
+        return 40;
+    }
+
     public long askSize() {
         return buffer.getLong(offset + 40, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int lastPriceEncodingOffset() {
+        return 48;
+    }
+
     public long lastPrice() {
         return buffer.getLong(offset + 48, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int lastSizeEncodingOffset() {
+        return 56;
+    }
+
     public long lastSize() {
         return buffer.getLong(offset + 56, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
@@ -62,28 +95,57 @@ public class MarketDataDecoder {
         final int position = offset + blockLength;
         final int blockLength = buffer.getShort(position, java.nio.ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
         final int count = buffer.getShort(position + 2, java.nio.ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
-        return new LevelsDecoder(buffer, position + 4, blockLength, count);
+        return levels.wrap(buffer, position + 4, blockLength, count);
+    }
+
+    public int levelsCount() {
+        return buffer.getShort(offset + blockLength + 2, java.nio.ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+    }
+
+    public int getLevels(final long[] prices, final long[] sizes, final byte[] sides) {
+        final int position = offset + blockLength;
+        final int levelBlockLength = buffer.getShort(position, java.nio.ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        final int count = buffer.getShort(position + 2, java.nio.ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        if (count > prices.length || count > sizes.length || count > sides.length) {
+            throw new IllegalArgumentException("Arrays of " + prices.length + "/" + sizes.length + "/" + sides.length
+                    + " cannot hold " + count + " levels");
+        }
+        int entry = position + 4;
+        for (int i = 0; i < count; i++, entry += levelBlockLength) {
+            prices[i] = buffer.getLong(entry, java.nio.ByteOrder.LITTLE_ENDIAN);
+            sizes[i] = buffer.getLong(entry + 8, java.nio.ByteOrder.LITTLE_ENDIAN);
+            sides[i] = buffer.getByte(entry + 16);
+        }
+        return count;
     }
 
     public int encodedLength() {
-        final LevelsDecoder levelsDecoder = levels();
-        return blockLength + 4 + (levelsDecoder.count * 17);
+        final int position = offset + blockLength;
+        final int levelBlockLength = buffer.getShort(position, java.nio.ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        final int count = buffer.getShort(position + 2, java.nio.ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        return blockLength + 4 + (count * levelBlockLength);
     }
 
     public static class LevelsDecoder {
-        private final DirectBuffer buffer;
-        private final int initialPosition;
+        private DirectBuffer buffer;
+        private int initialPosition;
         private int position;
-        private final int blockLength;
-        private final int count;
-        private int index = 0;
+        private int blockLength;
+        private int count;
+        private int index;
 
-        LevelsDecoder(final DirectBuffer buffer, final int position, final int blockLength, final int count) {
+        LevelsDecoder wrap(final DirectBuffer buffer, final int position, final int blockLength, final int count) {
             this.buffer = buffer;
             this.initialPosition = position;
             this.position = position;
             this.blockLength = blockLength;
             this.count = count;
+            this.index = 0;
+            return this;
+        }
+
+        public int count() {
+            return count;
         }
 
         public boolean hasNext() {
@@ -94,7 +156,7 @@ public class MarketDataDecoder {
             if (!hasNext()) {
                 throw new IllegalStateException("Index " + index + " out of range for count " + count);
             }
-            position = initialPosition + (index * 17);
+            position = initialPosition + (index * blockLength);
             index++;
             return this;
         }
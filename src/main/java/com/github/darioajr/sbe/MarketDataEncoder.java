@@ -1,7 +1,6 @@
 package com.github.darioajr.sbe;
 
 import org.agrona.MutableDirectBuffer;
-import java.nio.charset.StandardCharsets;
 
 public class MarketDataEncoder {
     public static final int TEMPLATE_ID = 3;
@@ -26,15 +25,25 @@ public class MarketDataEncoder {
     public int sbeSchemaVersion() { return SCHEMA_VERSION; }
 
     public MarketDataEncoder symbol(final String value) {
-        final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
-        final int length = Math.min(bytes.length, 8);
-        buffer.putBytes(position + 0, bytes, 0, length);
-        for (int i = length; i < 8; i++) {
-            buffer.putByte(position + 0 + i, (byte)0);
+        int length = 0;
+        for (int i = 0; i < value.length() && length < 8; i++) {
+            final char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                i++;
+            }
+            buffer.putByte(position + 0 + length++, c < 0x80 ? (byte)c : (byte)'?');
+        }
+        for (; length < 8; length++) {
+            buffer.putByte(position + 0 + length, (byte)0);
         }
         return this;
     }
 
+    public MarketDataEncoder symbol(final long value) {
+        buffer.putLong(position + 0, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
     public MarketDataEncoder timestamp(final long value) {
         buffer.putLong(position + 8, value, java.nio.ByteOrder.LITTLE_ENDIAN);
         return this;
@@ -76,6 +85,23 @@ public class MarketDataEncoder {
         return new LevelsEncoder(buffer, position + BLOCK_LENGTH + 4, count);
     }
 
+    public MarketDataEncoder putLevels(final long[] prices, final long[] sizes, final byte[] sides, final int count) {
+        if (count < 0 || count > 65535 || count > prices.length || count > sizes.length || count > sides.length) {
+            throw new IllegalArgumentException("Invalid level count " + count + " for arrays of "
+                    + prices.length + "/" + sizes.length + "/" + sides.length);
+        }
+        final int groupPosition = position + BLOCK_LENGTH;
+        buffer.putShort(groupPosition, (short)17, java.nio.ByteOrder.LITTLE_ENDIAN);
+        buffer.putShort(groupPosition + 2, (short)count, java.nio.ByteOrder.LITTLE_ENDIAN);
+        int entry = groupPosition + 4;
+        for (int i = 0; i < count; i++, entry += 17) {
+            buffer.putLong(entry, prices[i], java.nio.ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(entry + 8, sizes[i], java.nio.ByteOrder.LITTLE_ENDIAN);
+            buffer.putByte(entry + 16, sides[i]);
+        }
+        return this;
+    }
+
     public int encodedLength() {
         return BLOCK_LENGTH;
     }
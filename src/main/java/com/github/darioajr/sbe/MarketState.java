@@ -0,0 +1,133 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
+
+import java.util.function.Consumer;
+
+/**
+ * In-memory state rebuilt from a journal of frames: the latest book per symbol plus order state
+ * and net positions
+ *
+ * Each MarketData message is a full book for its symbol and replaces the previous one, decoded
+ * into a reused {@link MutableMarketData}; Order and Trade messages go to an
+ * {@link OrderStateAggregator}. The state also tracks how far into the journal it has got, as
+ * both a byte position and a frame count, which is what a snapshot records so that recovery
+ * can resume from exactly the next frame.
+ *
+ * Not thread safe; feed it from a single thread.
+ */
+public class MarketState implements FrameHandler {
+    
+    private final SbeDeserializer deserializer = new SbeDeserializer();
+    private final OrderStateAggregator orders;
+    private final Long2ObjectHashMap<MutableMarketData> books = new Long2ObjectHashMap<>();
+    
+    private long journalPosition;
+    private long frameCount;
+    private long timestamp;
+    
+    public MarketState() {
+        this(OrderStateAggregator.DEFAULT_INITIAL_CAPACITY);
+    }
+    
+    /**
+     * @param expectedOrders number of orders to size the order state for
+     */
+    public MarketState(int expectedOrders) {
+        this.orders = new OrderStateAggregator(expectedOrders);
+    }
+    
+    /**
+     * Apply the next journal frame; templates other than Order, Trade and MarketData only advance the position
+     */
+    @Override
+    public void onFrame(DirectBuffer buffer, int offset, int length) {
+        switch (MessageFrames.templateId(buffer, offset)) {
+            case MarketDataDecoder.TEMPLATE_ID -> {
+                final long symbol = Symbols.read(buffer, MessageFrames.bodyOffset(offset) + MarketDataDecoder.symbolEncodingOffset());
+                deserializer.decodeInto(buffer, offset, bookForUpdate(symbol));
+                timestamp = MessageFrames.timestamp(buffer, offset);
+            }
+            case OrderDecoder.TEMPLATE_ID, TradeDecoder.TEMPLATE_ID -> {
+                orders.onFrame(buffer, offset, length);
+                timestamp = MessageFrames.timestamp(buffer, offset);
+            }
+            default -> {
+            }
+        }
+        
+        journalPosition += length;
+        frameCount++;
+    }
+    
+    /**
+     * Latest book for a packed symbol, or null when none has been seen
+     */
+    public MutableMarketData book(long symbol) {
+        return books.get(symbol);
+    }
+    
+    public MutableMarketData book(String symbol) {
+        return books.get(Symbols.encode(symbol));
+    }
+    
+    public int bookCount() {
+        return books.size();
+    }
+    
+    public void forEachBook(Consumer<MutableMarketData> consumer) {
+        books.values().forEach(consumer);
+    }
+    
+    public OrderStateAggregator orders() {
+        return orders;
+    }
+    
+    /**
+     * Journal bytes applied so far; the next frame to apply starts here
+     */
+    public long journalPosition() {
+        return journalPosition;
+    }
+    
+    public long frameCount() {
+        return frameCount;
+    }
+    
+    /**
+     * Timestamp of the last applied Order, Trade or MarketData frame
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+    
+    /**
+     * Drop all state and rewind to the start of the journal
+     */
+    public void clear() {
+        books.clear();
+        orders.clear();
+        journalPosition = 0;
+        frameCount = 0;
+        timestamp = 0;
+    }
+    
+    /**
+     * Book to restore or update in place, created on first use
+     */
+    MutableMarketData bookForUpdate(long symbol) {
+        MutableMarketData book = books.get(symbol);
+        if (book == null) {
+            book = new MutableMarketData();
+            books.put(symbol, book);
+        }
+        return book;
+    }
+    
+    void restoreProgress(long journalPosition, long frameCount, long timestamp) {
+        this.journalPosition = journalPosition;
+        this.frameCount = frameCount;
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,402 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Price-time priority limit order matching over Order frames, emitting fills as Trade frames
+ *
+ * Each active Order is a new limit order: it trades against the opposite side of its symbol's
+ * book while prices cross, best price first and oldest order first within a price, and any
+ * remainder rests at its limit price. An inactive Order cancels the resting order with the same
+ * orderId; cancels for orders no longer resting are ignored. Every fill emits two Trade frames,
+ * one for the incoming and one for the resting order, each with its own tradeId, at the resting
+ * order's price and the incoming order's timestamp.
+ *
+ * The book lives in primitive arrays sized up front. Orders and price levels are slots taken
+ * from free lists, the orders at a price form a linked FIFO queue, and each side keeps its level
+ * slots sorted with the best price last, so matching and most insertions work at the end of the
+ * array. Resting orders are found by orderId through a {@link Long2LongHashMap} sized never to
+ * rehash, and Trades are encoded into one reused buffer whose venue is written once, so matching
+ * does not allocate. An order that is not positive, reuses a resting orderId or does not fit the
+ * capacities is counted as rejected; for a partly filled order that is only its remainder.
+ *
+ * Not thread safe; feed it from a single thread.
+ */
+public class MatchingEngine implements FrameHandler {
+    
+    public static final long NO_PRICE = Long.MIN_VALUE;
+    
+    private static final int NONE = -1;
+    private static final int BUY = 0;
+    private static final int SELL = 1;
+    private static final float LOAD_FACTOR = 0.65f;
+    
+    private final FrameHandler downstream;
+    private final int maxLevelsPerSide;
+    
+    private final Long2LongHashMap bookBySymbol;
+    private final long[] bookSymbols;
+    private final int[] sideLevels;
+    private final int[] sideLevelCounts;
+    private int bookCount;
+    
+    private final long[] levelPrices;
+    private final int[] levelHeads;
+    private final int[] levelTails;
+    private final int[] freeLevels;
+    private int freeLevelCount;
+    
+    private final Long2LongHashMap slotByOrderId;
+    private final long[] orderIds;
+    private final long[] orderRemaining;
+    private final int[] orderNext;
+    private final int[] orderPrev;
+    private final int[] orderLevels;
+    private final int[] orderSides;
+    private final int[] freeOrders;
+    private int freeOrderCount;
+    
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final OrderDecoder orderDecoder = new OrderDecoder();
+    private final TradeEncoder tradeEncoder = new TradeEncoder();
+    private final UnsafeBuffer tradeBuffer;
+    private final int tradeLength;
+    private long nextTradeId = 1;
+    
+    private long orders;
+    private long cancels;
+    private long trades;
+    private long rejected;
+    
+    /**
+     * @param downstream       receives each Trade frame; the buffer is only valid during the call
+     * @param maxSymbols       distinct symbols the engine keeps books for
+     * @param maxLevelsPerSide price levels each side of a book can hold
+     * @param maxOrders        resting orders across all books
+     * @param venue            venue written into every Trade
+     */
+    public MatchingEngine(FrameHandler downstream, int maxSymbols, int maxLevelsPerSide, int maxOrders, String venue) {
+        if (maxSymbols <= 0 || maxLevelsPerSide <= 0 || maxOrders <= 0
+                || (long) maxSymbols * 2 * maxLevelsPerSide > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid matching engine: maxSymbols=" + maxSymbols
+                    + ", maxLevelsPerSide=" + maxLevelsPerSide + ", maxOrders=" + maxOrders);
+        }
+        
+        this.downstream = downstream;
+        this.maxLevelsPerSide = maxLevelsPerSide;
+        
+        this.bookBySymbol = new Long2LongHashMap(capacity(maxSymbols), LOAD_FACTOR, NONE);
+        this.bookSymbols = new long[maxSymbols];
+        this.sideLevels = new int[maxSymbols * 2 * maxLevelsPerSide];
+        this.sideLevelCounts = new int[maxSymbols * 2];
+        
+        final int maxLevels = maxSymbols * 2 * maxLevelsPerSide;
+        this.levelPrices = new long[maxLevels];
+        this.levelHeads = new int[maxLevels];
+        this.levelTails = new int[maxLevels];
+        this.freeLevels = new int[maxLevels];
+        for (int i = 0; i < maxLevels; i++) {
+            freeLevels[i] = maxLevels - 1 - i;
+        }
+        this.freeLevelCount = maxLevels;
+        
+        this.slotByOrderId = new Long2LongHashMap(capacity(maxOrders), LOAD_FACTOR, NONE);
+        this.orderIds = new long[maxOrders];
+        this.orderRemaining = new long[maxOrders];
+        this.orderNext = new int[maxOrders];
+        this.orderPrev = new int[maxOrders];
+        this.orderLevels = new int[maxOrders];
+        this.orderSides = new int[maxOrders];
+        this.freeOrders = new int[maxOrders];
+        for (int i = 0; i < maxOrders; i++) {
+            freeOrders[i] = maxOrders - 1 - i;
+        }
+        this.freeOrderCount = maxOrders;
+        
+        this.tradeLength = MessageHeaderEncoder.ENCODED_LENGTH + TradeEncoder.BLOCK_LENGTH + 4 + venue.length();
+        this.tradeBuffer = new UnsafeBuffer(new byte[tradeLength]);
+        new MessageHeaderEncoder().wrap(tradeBuffer, 0)
+                .blockLength(TradeEncoder.BLOCK_LENGTH)
+                .templateId(TradeEncoder.TEMPLATE_ID)
+                .schemaId(TradeEncoder.SCHEMA_ID)
+                .version(TradeEncoder.SCHEMA_VERSION);
+        tradeEncoder.wrap(tradeBuffer, MessageHeaderEncoder.ENCODED_LENGTH)
+                .venue(venue);
+    }
+    
+    /**
+     * Match an Order frame; other templates are ignored
+     */
+    @Override
+    public void onFrame(DirectBuffer buffer, int offset, int length) {
+        headerDecoder.wrap(buffer, offset);
+        if (headerDecoder.templateId() != OrderDecoder.TEMPLATE_ID) {
+            return;
+        }
+        
+        final int body = MessageFrames.bodyOffset(offset);
+        orderDecoder.wrap(buffer, body, headerDecoder.blockLength(), headerDecoder.version());
+        onOrder(orderDecoder.orderId(),
+                Symbols.read(buffer, body + OrderDecoder.symbolEncodingOffset()),
+                orderDecoder.side(),
+                orderDecoder.quantity(),
+                orderDecoder.price(),
+                orderDecoder.timestamp(),
+                orderDecoder.isActive() == BooleanType.TRUE);
+    }
+    
+    /**
+     * Match a new limit order, or cancel the resting order with this orderId when not active
+     */
+    public void onOrder(long orderId, long symbol, Side side, long quantity, long price, long timestamp, boolean active) {
+        if (!active) {
+            cancel(orderId);
+            return;
+        }
+        
+        orders++;
+        final int book = quantity > 0 && slotByOrderId.get(orderId) == NONE ? book(symbol) : NONE;
+        if (book == NONE) {
+            rejected++;
+            return;
+        }
+        
+        final int sideCode = side == Side.BUY ? BUY : SELL;
+        final long remaining = match(book, sideCode, orderId, quantity, price, timestamp);
+        if (remaining > 0 && !rest(book, sideCode, orderId, remaining, price)) {
+            rejected++;
+        }
+    }
+    
+    /**
+     * Best resting bid for the symbol, or {@link #NO_PRICE}
+     */
+    public long bestBid(String symbol) {
+        return bestPrice(symbol, BUY);
+    }
+    
+    /**
+     * Best resting ask for the symbol, or {@link #NO_PRICE}
+     */
+    public long bestAsk(String symbol) {
+        return bestPrice(symbol, SELL);
+    }
+    
+    /**
+     * Unfilled quantity of a resting order, or 0 once it is filled, cancelled or unknown
+     */
+    public long remainingQuantity(long orderId) {
+        final int slot = (int) slotByOrderId.get(orderId);
+        return slot == NONE ? 0 : orderRemaining[slot];
+    }
+    
+    public int restingOrders() {
+        return orderIds.length - freeOrderCount;
+    }
+    
+    public long orders() {
+        return orders;
+    }
+    
+    public long cancels() {
+        return cancels;
+    }
+    
+    /**
+     * Trade frames emitted, two per fill
+     */
+    public long trades() {
+        return trades;
+    }
+    
+    public long rejected() {
+        return rejected;
+    }
+    
+    /**
+     * Fill against the opposite side while it crosses the limit price
+     *
+     * @return the quantity left unfilled
+     */
+    private long match(int book, int side, long orderId, long quantity, long price, long timestamp) {
+        final int opposite = book * 2 + (side ^ 1);
+        final int base = opposite * maxLevelsPerSide;
+        final long symbol = bookSymbols[book];
+        while (quantity > 0 && sideLevelCounts[opposite] > 0) {
+            final int level = sideLevels[base + sideLevelCounts[opposite] - 1];
+            final long levelPrice = levelPrices[level];
+            if (side == BUY ? levelPrice > price : levelPrice < price) {
+                break;
+            }
+            
+            int slot = levelHeads[level];
+            while (quantity > 0 && slot != NONE) {
+                final long fill = Math.min(quantity, orderRemaining[slot]);
+                quantity -= fill;
+                orderRemaining[slot] -= fill;
+                emitTrade(orderId, symbol, side, fill, levelPrice, timestamp);
+                emitTrade(orderIds[slot], symbol, side ^ 1, fill, levelPrice, timestamp);
+                
+                final int next = orderNext[slot];
+                if (orderRemaining[slot] == 0) {
+                    removeOrder(slot);
+                }
+                slot = next;
+            }
+            if (levelHeads[level] == NONE) {
+                sideLevelCounts[opposite]--;
+                freeLevels[freeLevelCount++] = level;
+            }
+        }
+        return quantity;
+    }
+    
+    /**
+     * Queue an order at the back of its price level, creating the level if needed
+     *
+     * @return false when no order slot or level is left
+     */
+    private boolean rest(int book, int side, long orderId, long quantity, long price) {
+        if (freeOrderCount == 0) {
+            return false;
+        }
+        final int sideIndex = book * 2 + side;
+        final int level = level(sideIndex, side, price);
+        if (level == NONE) {
+            return false;
+        }
+        
+        final int slot = freeOrders[--freeOrderCount];
+        orderIds[slot] = orderId;
+        orderRemaining[slot] = quantity;
+        orderLevels[slot] = level;
+        orderSides[slot] = sideIndex;
+        orderNext[slot] = NONE;
+        orderPrev[slot] = levelTails[level];
+        if (levelTails[level] == NONE) {
+            levelHeads[level] = slot;
+        } else {
+            orderNext[levelTails[level]] = slot;
+        }
+        levelTails[level] = slot;
+        slotByOrderId.put(orderId, slot);
+        return true;
+    }
+    
+    private void cancel(long orderId) {
+        final int slot = (int) slotByOrderId.get(orderId);
+        if (slot == NONE) {
+            return;
+        }
+        
+        final int level = orderLevels[slot];
+        final int sideIndex = orderSides[slot];
+        removeOrder(slot);
+        if (levelHeads[level] == NONE) {
+            removeLevel(sideIndex, level);
+        }
+        cancels++;
+    }
+    
+    /**
+     * Unlink an order from its level's queue and free its slot
+     */
+    private void removeOrder(int slot) {
+        final int level = orderLevels[slot];
+        final int prev = orderPrev[slot];
+        final int next = orderNext[slot];
+        if (prev == NONE) {
+            levelHeads[level] = next;
+        } else {
+            orderNext[prev] = next;
+        }
+        if (next == NONE) {
+            levelTails[level] = prev;
+        } else {
+            orderPrev[next] = prev;
+        }
+        
+        slotByOrderId.remove(orderIds[slot]);
+        freeOrders[freeOrderCount++] = slot;
+    }
+    
+    /**
+     * Slot of the level at this price on one side, inserted in price order when new
+     *
+     * @return the level, or {@link #NONE} when the side or the level pool is full
+     */
+    private int level(int sideIndex, int side, long price) {
+        final int base = sideIndex * maxLevelsPerSide;
+        final int count = sideLevelCounts[sideIndex];
+        int i = count - 1;
+        while (i >= 0 && (side == BUY ? levelPrices[sideLevels[base + i]] > price : levelPrices[sideLevels[base + i]] < price)) {
+            i--;
+        }
+        if (i >= 0 && levelPrices[sideLevels[base + i]] == price) {
+            return sideLevels[base + i];
+        }
+        if (count == maxLevelsPerSide || freeLevelCount == 0) {
+            return NONE;
+        }
+        
+        final int level = freeLevels[--freeLevelCount];
+        levelPrices[level] = price;
+        levelHeads[level] = NONE;
+        levelTails[level] = NONE;
+        System.arraycopy(sideLevels, base + i + 1, sideLevels, base + i + 2, count - i - 1);
+        sideLevels[base + i + 1] = level;
+        sideLevelCounts[sideIndex] = count + 1;
+        return level;
+    }
+    
+    private void removeLevel(int sideIndex, int level) {
+        final int base = sideIndex * maxLevelsPerSide;
+        final int count = sideLevelCounts[sideIndex];
+        int i = count - 1;
+        while (sideLevels[base + i] != level) {
+            i--;
+        }
+        System.arraycopy(sideLevels, base + i + 1, sideLevels, base + i, count - i - 1);
+        sideLevelCounts[sideIndex] = count - 1;
+        freeLevels[freeLevelCount++] = level;
+    }
+    
+    private int book(long symbol) {
+        int book = (int) bookBySymbol.get(symbol);
+        if (book == NONE && bookCount < bookSymbols.length) {
+            book = bookCount++;
+            bookSymbols[book] = symbol;
+            bookBySymbol.put(symbol, book);
+        }
+        return book;
+    }
+    
+    private long bestPrice(String symbol, int side) {
+        final int book = (int) bookBySymbol.get(Symbols.encode(symbol));
+        if (book == NONE) {
+            return NO_PRICE;
+        }
+        final int sideIndex = book * 2 + side;
+        final int count = sideLevelCounts[sideIndex];
+        return count == 0 ? NO_PRICE : levelPrices[sideLevels[sideIndex * maxLevelsPerSide + count - 1]];
+    }
+    
+    private void emitTrade(long orderId, long symbol, int side, long quantity, long price, long timestamp) {
+        tradeEncoder.wrap(tradeBuffer, MessageHeaderEncoder.ENCODED_LENGTH)
+                .tradeId(nextTradeId++)
+                .orderId(orderId)
+                .symbol(symbol)
+                .side(side == BUY ? Side.BUY : Side.SELL)
+                .quantity(quantity)
+                .price(price)
+                .timestamp(timestamp);
+        trades++;
+        downstream.onFrame(tradeBuffer, 0, tradeLength);
+    }
+    
+    private static int capacity(int entries) {
+        return (int) Math.min(1 << 30, (long) (entries / LOAD_FACTOR) + 1);
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+
+import java.nio.ByteOrder;
+
+/**
+ * Header-only helpers for walking archives of concatenated SBE frames
+ * 
+ * Frames are self-delimiting: the encoded length follows from the message header plus the
+ * var-data length or group dimensions, so an archive can be scanned without decoding any
+ * message body. Frame contents are not validated; use {@link SbeValidator} for untrusted input.
+ */
+public class MessageFrames {
+    
+    /**
+     * Template ID of the frame at the given offset
+     */
+    public static int templateId(DirectBuffer buffer, int offset) {
+        return buffer.getShort(offset + 2, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+    }
+    
+    /**
+     * Offset of the message body (just past the message header) of the frame at the given offset
+     */
+    public static int bodyOffset(int offset) {
+        return offset + MessageHeaderDecoder.ENCODED_LENGTH;
+    }
+    
+    /**
+     * Timestamp field of the Order, Trade or MarketData frame at the given offset
+     */
+    public static long timestamp(DirectBuffer buffer, int offset) {
+        final int templateId = templateId(buffer, offset);
+        final int fieldOffset = switch (templateId) {
+            case OrderDecoder.TEMPLATE_ID -> OrderDecoder.timestampEncodingOffset();
+            case TradeDecoder.TEMPLATE_ID -> TradeDecoder.timestampEncodingOffset();
+            case MarketDataDecoder.TEMPLATE_ID -> MarketDataDecoder.timestampEncodingOffset();
+            default -> throw new IllegalArgumentException("Template has no timestamp: " + templateId);
+        };
+        return buffer.getLong(bodyOffset(offset) + fieldOffset, ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    /**
+     * Symbol field of the Order, Trade or MarketData frame at the given offset, packed as by {@link Symbols}
+     */
+    public static long symbol(DirectBuffer buffer, int offset) {
+        final int templateId = templateId(buffer, offset);
+        final int fieldOffset = switch (templateId) {
+            case OrderDecoder.TEMPLATE_ID -> OrderDecoder.symbolEncodingOffset();
+            case TradeDecoder.TEMPLATE_ID -> TradeDecoder.symbolEncodingOffset();
+            case MarketDataDecoder.TEMPLATE_ID -> MarketDataDecoder.symbolEncodingOffset();
+            default -> throw new IllegalArgumentException("Template has no symbol: " + templateId);
+        };
+        return Symbols.read(buffer, bodyOffset(offset) + fieldOffset);
+    }
+    
+    /**
+     * Encoded length of the frame at offset including its header, or -1 when the bytes up to
+     * limit do not yet hold the complete frame
+     */
+    public static int frameLength(DirectBuffer buffer, int offset, int limit) {
+        final long length = requiredLength(buffer, offset, limit);
+        return length <= limit - offset ? (int) length : -1;
+    }
+    
+    /**
+     * Number of bytes from offset known to be needed for the frame: its full encoded length once
+     * the header and the var-data length or group dimensions are within limit, otherwise the
+     * length of the prefix that holds them
+     * 
+     * Lets a reader carrying a partial frame across buffers copy only what the frame needs.
+     */
+    public static long requiredLength(DirectBuffer buffer, int offset, int limit) {
+        final int available = limit - offset;
+        if (available < MessageHeaderDecoder.ENCODED_LENGTH) {
+            return MessageHeaderDecoder.ENCODED_LENGTH;
+        }
+        
+        final int blockLength = buffer.getShort(offset, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        final int templateId = templateId(buffer, offset);
+        final int fixedLength = MessageHeaderDecoder.ENCODED_LENGTH + blockLength;
+        if (isFixedLength(templateId)) {
+            return fixedLength;
+        }
+        if (available < fixedLength + 4) {
+            return fixedLength + 4;
+        }
+        
+        final int trailer = offset + fixedLength;
+        return switch (templateId) {
+            case OrderDecoder.TEMPLATE_ID, TradeDecoder.TEMPLATE_ID ->
+                    fixedLength + 4 + (buffer.getInt(trailer, ByteOrder.LITTLE_ENDIAN) & 0xFFFF_FFFFL);
+            case MarketDataDecoder.TEMPLATE_ID ->
+                    fixedLength + 4 + (long) (buffer.getShort(trailer, ByteOrder.LITTLE_ENDIAN) & 0xFFFF)
+                            * (buffer.getShort(trailer + 2, ByteOrder.LITTLE_ENDIAN) & 0xFFFF);
+            default -> throw new IllegalArgumentException("Unknown template ID: " + templateId + " at offset " + offset);
+        };
+    }
+    
+    /**
+     * True for templates without var data or groups, whose frames are exactly header plus block
+     */
+    public static boolean isFixedLength(int templateId) {
+        return templateId == SnapshotHeaderDecoder.TEMPLATE_ID
+                || templateId == OrderStateDecoder.TEMPLATE_ID
+                || templateId == PositionDecoder.TEMPLATE_ID
+                || templateId == BarDecoder.TEMPLATE_ID;
+    }
+    
+    /**
+     * Invoke the handler for each complete frame between offset and limit
+     * 
+     * @return the offset just past the last complete frame
+     */
+    public static int forEach(DirectBuffer buffer, int offset, int limit, FrameHandler handler) {
+        int position = offset;
+        int length;
+        while ((length = frameLength(buffer, position, limit)) > 0) {
+            handler.onFrame(buffer, position, length);
+            position += length;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.darioajr.sbe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Wire layout of one template at one (schemaId, version): the fixed block fields, an optional
+ * repeating group and optional trailing var data
+ *
+ * Layouts are what {@link TranscodePlan} compiles field mappings from. Fields are matched
+ * between layouts by name; a field a layout adds carries the default value written when
+ * transcoding from a layout that lacks it. {@link #current(int)} describes the templates this
+ * codec is generated for, and older or newer versions are declared the same way.
+ */
+public class MessageLayout {
+    
+    /**
+     * A fixed-size field at an offset within its block; integer fields up to 8 bytes get
+     * defaultValue little-endian, wider fields are zero filled
+     */
+    public record Field(String name, int offset, int length, long defaultValue) {
+        public Field {
+            if (offset < 0 || length <= 0) {
+                throw new IllegalArgumentException("Invalid field " + name + ": offset=" + offset + ", length=" + length);
+            }
+        }
+    }
+    
+    private final int schemaId;
+    private final int version;
+    private final int templateId;
+    private final int blockLength;
+    private final List<Field> fields = new ArrayList<>();
+    private final List<Field> groupFields = new ArrayList<>();
+    private int groupBlockLength = -1;
+    private boolean varData;
+    
+    public MessageLayout(int schemaId, int version, int templateId, int blockLength) {
+        if (blockLength < 0 || blockLength > 0xFFFF) {
+            throw new IllegalArgumentException("Invalid block length: " + blockLength);
+        }
+        this.schemaId = schemaId;
+        this.version = version;
+        this.templateId = templateId;
+        this.blockLength = blockLength;
+    }
+    
+    /**
+     * Layout of a template as generated in this codec
+     */
+    public static MessageLayout current(int templateId) {
+        return switch (templateId) {
+            case OrderDecoder.TEMPLATE_ID -> new MessageLayout(OrderDecoder.SCHEMA_ID, OrderDecoder.SCHEMA_VERSION,
+                    templateId, OrderDecoder.BLOCK_LENGTH)
+                    .field("orderId", OrderDecoder.orderIdEncodingOffset(), 8)
+                    .field("symbol", OrderDecoder.symbolEncodingOffset(), Symbols.LENGTH)
+                    .field("side", OrderDecoder.sideEncodingOffset(), 1)
+                    .field("quantity", OrderDecoder.quantityEncodingOffset(), 8)
+                    .field("price", OrderDecoder.priceEncodingOffset(), 8)
+                    .field("timestamp", OrderDecoder.timestampEncodingOffset(), 8)
+                    .field("isActive", OrderDecoder.isActiveEncodingOffset(), 1)
+                    .varData();
+            case TradeDecoder.TEMPLATE_ID -> new MessageLayout(TradeDecoder.SCHEMA_ID, TradeDecoder.SCHEMA_VERSION,
+                    templateId, TradeDecoder.BLOCK_LENGTH)
+                    .field("tradeId", TradeDecoder.tradeIdEncodingOffset(), 8)
+                    .field("orderId", TradeDecoder.orderIdEncodingOffset(), 8)
+                    .field("symbol", TradeDecoder.symbolEncodingOffset(), Symbols.LENGTH)
+                    .field("side", TradeDecoder.sideEncodingOffset(), 1)
+                    .field("quantity", TradeDecoder.quantityEncodingOffset(), 8)
+                    .field("price", TradeDecoder.priceEncodingOffset(), 8)
+                    .field("timestamp", TradeDecoder.timestampEncodingOffset(), 8)
+                    .varData();
+            case MarketDataDecoder.TEMPLATE_ID -> new MessageLayout(MarketDataDecoder.SCHEMA_ID, MarketDataDecoder.SCHEMA_VERSION,
+                    templateId, MarketDataDecoder.BLOCK_LENGTH)
+                    .field("symbol", MarketDataDecoder.symbolEncodingOffset(), Symbols.LENGTH)
+                    .field("timestamp", MarketDataDecoder.timestampEncodingOffset(), 8)
+                    .field("bidPrice", MarketDataDecoder.bidPriceEncodingOffset(), 8)
+                    .field("bidSize", MarketDataDecoder.bidSizeEncodingOffset(), 8)
+                    .field("askPrice", MarketDataDecoder.askPriceEncodingOffset(), 8)
+                    .field("askSize", MarketDataDecoder.askSizeEncodingOffset(), 8)
+                    .field("lastPrice", MarketDataDecoder.lastPriceEncodingOffset(), 8)
+                    .field("lastSize", MarketDataDecoder.lastSizeEncodingOffset(), 8)
+                    .group(17)
+                    .groupField("price", 0, 8)
+                    .groupField("size", 8, 8)
+                    .groupField("side", 16, 1);
+            default -> throw new IllegalArgumentException("Unknown template ID: " + templateId);
+        };
+    }
+    
+    public MessageLayout field(String name, int offset, int length) {
+        return field(name, offset, length, 0);
+    }
+    
+    public MessageLayout field(String name, int offset, int length, long defaultValue) {
+        fields.add(checkField(new Field(name, offset, length, defaultValue), blockLength, fields));
+        return this;
+    }
+    
+    /**
+     * Declare the repeating group that follows the block, with entries of entryLength bytes
+     */
+    public MessageLayout group(int entryLength) {
+        if (entryLength <= 0 || entryLength > 0xFFFF) {
+            throw new IllegalArgumentException("Invalid group entry length: " + entryLength);
+        }
+        if (groupBlockLength >= 0) {
+            throw new IllegalStateException("Layout already has a group");
+        }
+        this.groupBlockLength = entryLength;
+        return this;
+    }
+    
+    public MessageLayout groupField(String name, int offset, int length) {
+        return groupField(name, offset, length, 0);
+    }
+    
+    public MessageLayout groupField(String name, int offset, int length, long defaultValue) {
+        if (groupBlockLength < 0) {
+            throw new IllegalStateException("Declare the group before its fields");
+        }
+        groupFields.add(checkField(new Field(name, offset, length, defaultValue), groupBlockLength, groupFields));
+        return this;
+    }
+    
+    /**
+     * Declare a length-prefixed var data field after the block (and group, if any)
+     */
+    public MessageLayout varData() {
+        this.varData = true;
+        return this;
+    }
+    
+    public int schemaId() {
+        return schemaId;
+    }
+    
+    public int version() {
+        return version;
+    }
+    
+    public int templateId() {
+        return templateId;
+    }
+    
+    public int blockLength() {
+        return blockLength;
+    }
+    
+    public List<Field> fields() {
+        return Collections.unmodifiableList(fields);
+    }
+    
+    public boolean hasGroup() {
+        return groupBlockLength >= 0;
+    }
+    
+    /**
+     * Length of a group entry, or -1 when the layout has no group
+     */
+    public int groupBlockLength() {
+        return groupBlockLength;
+    }
+    
+    public List<Field> groupFields() {
+        return Collections.unmodifiableList(groupFields);
+    }
+    
+    public boolean hasVarData() {
+        return varData;
+    }
+    
+    @Override
+    public String toString() {
+        return "MessageLayout[schemaId=" + schemaId + ", version=" + version + ", templateId=" + templateId + "]";
+    }
+    
+    private static Field checkField(Field field, int containerLength, List<Field> existing) {
+        if (field.offset() + field.length() > containerLength) {
+            throw new IllegalArgumentException("Field " + field.name() + " exceeds its block of " + containerLength + " bytes");
+        }
+        for (Field other : existing) {
+            if (other.name().equals(field.name())) {
+                throw new IllegalArgumentException("Duplicate field: " + field.name());
+            }
+        }
+        return field;
+    }
+}
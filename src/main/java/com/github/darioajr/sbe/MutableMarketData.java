@@ -0,0 +1,237 @@
+package com.github.darioajr.sbe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mutable, reusable counterpart of {@link MarketDataData} for allocation-free decoding
+ *
+ * Price levels are stored in parallel primitive arrays (price, size and the Side byte) instead
+ * of a list of {@link PriceLevelData}, the layout the bulk group codecs
+ * {@link MarketDataEncoder#putLevels} and {@link MarketDataDecoder#getLevels} read and write in
+ * one loop. The arrays only grow, so once they fit the deepest book seen,
+ * {@link SbeDeserializer#decodeInto(org.agrona.DirectBuffer, int, MutableMarketData)} does not
+ * allocate.
+ */
+public class MutableMarketData {
+    
+    private static final int INITIAL_LEVEL_CAPACITY = 16;
+    
+    private long symbol;
+    private long timestamp;
+    private long bidPrice;
+    private long bidSize;
+    private long askPrice;
+    private long askSize;
+    private long lastPrice;
+    private long lastSize;
+    
+    private long[] levelPrices = new long[INITIAL_LEVEL_CAPACITY];
+    private long[] levelSizes = new long[INITIAL_LEVEL_CAPACITY];
+    private byte[] levelSides = new byte[INITIAL_LEVEL_CAPACITY];
+    private int levelCount;
+    
+    /**
+     * Symbol packed into a long, comparable without creating a String
+     */
+    public long symbolKey() {
+        return symbol;
+    }
+    
+    public MutableMarketData symbolKey(long symbol) {
+        this.symbol = symbol;
+        return this;
+    }
+    
+    /**
+     * Symbol as a String, allocated on each call
+     */
+    public String symbol() {
+        return Symbols.decode(symbol);
+    }
+    
+    public long timestamp() {
+        return timestamp;
+    }
+    
+    public MutableMarketData timestamp(long timestamp) {
+        this.timestamp = timestamp;
+        return this;
+    }
+    
+    public long bidPrice() {
+        return bidPrice;
+    }
+    
+    public MutableMarketData bidPrice(long bidPrice) {
+        this.bidPrice = bidPrice;
+        return this;
+    }
+    
+    public long bidSize() {
+        return bidSize;
+    }
+    
+    public MutableMarketData bidSize(long bidSize) {
+        this.bidSize = bidSize;
+        return this;
+    }
+    
+    public long askPrice() {
+        return askPrice;
+    }
+    
+    public MutableMarketData askPrice(long askPrice) {
+        this.askPrice = askPrice;
+        return this;
+    }
+    
+    public long askSize() {
+        return askSize;
+    }
+    
+    public MutableMarketData askSize(long askSize) {
+        this.askSize = askSize;
+        return this;
+    }
+    
+    public long lastPrice() {
+        return lastPrice;
+    }
+    
+    public MutableMarketData lastPrice(long lastPrice) {
+        this.lastPrice = lastPrice;
+        return this;
+    }
+    
+    public long lastSize() {
+        return lastSize;
+    }
+    
+    public MutableMarketData lastSize(long lastSize) {
+        this.lastSize = lastSize;
+        return this;
+    }
+    
+    public int levelCount() {
+        return levelCount;
+    }
+    
+    public long levelPrice(int index) {
+        checkLevel(index);
+        return levelPrices[index];
+    }
+    
+    public long levelSize(int index) {
+        checkLevel(index);
+        return levelSizes[index];
+    }
+    
+    public Side levelSide(int index) {
+        checkLevel(index);
+        return Side.get(levelSides[index]);
+    }
+    
+    /**
+     * Backing price array, valid up to {@link #levelCount()}; for bulk encoding without copying
+     */
+    public long[] levelPrices() {
+        return levelPrices;
+    }
+    
+    public long[] levelSizes() {
+        return levelSizes;
+    }
+    
+    /**
+     * Backing array of {@link Side#value()} bytes, valid up to {@link #levelCount()}
+     */
+    public byte[] levelSides() {
+        return levelSides;
+    }
+    
+    /**
+     * Set the level count after the backing arrays were filled in bulk
+     */
+    public MutableMarketData levelCount(int count) {
+        if (count < 0 || count > levelPrices.length) {
+            throw new IndexOutOfBoundsException("Level count " + count + " out of range for capacity " + levelPrices.length);
+        }
+        levelCount = count;
+        return this;
+    }
+    
+    /**
+     * Remove all levels, keeping the allocated capacity
+     */
+    public MutableMarketData clearLevels() {
+        levelCount = 0;
+        return this;
+    }
+    
+    /**
+     * Append a level, growing the arrays when needed
+     */
+    public MutableMarketData addLevel(long price, long size, Side side) {
+        ensureLevelCapacity(levelCount + 1);
+        levelPrices[levelCount] = price;
+        levelSizes[levelCount] = size;
+        levelSides[levelCount] = side.value();
+        levelCount++;
+        return this;
+    }
+    
+    /**
+     * Make room for at least the given number of levels
+     */
+    public void ensureLevelCapacity(int capacity) {
+        if (capacity > levelPrices.length) {
+            final int newCapacity = Math.max(capacity, levelPrices.length << 1);
+            levelPrices = Arrays.copyOf(levelPrices, newCapacity);
+            levelSizes = Arrays.copyOf(levelSizes, newCapacity);
+            levelSides = Arrays.copyOf(levelSides, newCapacity);
+        }
+    }
+    
+    /**
+     * Clear all fields so the instance can be returned to a pool
+     */
+    public MutableMarketData reset() {
+        symbol = 0;
+        timestamp = 0;
+        bidPrice = 0;
+        bidSize = 0;
+        askPrice = 0;
+        askSize = 0;
+        lastPrice = 0;
+        lastSize = 0;
+        levelCount = 0;
+        return this;
+    }
+    
+    /**
+     * Immutable copy of the current contents
+     */
+    public MarketDataData toMarketDataData() {
+        final List<PriceLevelData> levels = new ArrayList<>(levelCount);
+        for (int i = 0; i < levelCount; i++) {
+            levels.add(new PriceLevelData(levelPrices[i], levelSizes[i], Side.get(levelSides[i])));
+        }
+        return new MarketDataData(symbol(), timestamp, bidPrice, bidSize, askPrice, askSize, lastPrice, lastSize, levels);
+    }
+    
+    @Override
+    public String toString() {
+        return "MutableMarketData[symbol=" + symbol() + ", timestamp=" + timestamp
+                + ", bidPrice=" + bidPrice + ", bidSize=" + bidSize + ", askPrice=" + askPrice
+                + ", askSize=" + askSize + ", lastPrice=" + lastPrice + ", lastSize=" + lastSize
+                + ", levelCount=" + levelCount + "]";
+    }
+    
+    private void checkLevel(int index) {
+        if (index < 0 || index >= levelCount) {
+            throw new IndexOutOfBoundsException("Level " + index + " out of range for count " + levelCount);
+        }
+    }
+}
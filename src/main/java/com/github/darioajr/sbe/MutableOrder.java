@@ -0,0 +1,143 @@
+package com.github.darioajr.sbe;
+
+/**
+ * Mutable, reusable counterpart of {@link OrderData} for allocation-free decoding
+ *
+ * Filled by {@link SbeDeserializer#decodeInto(org.agrona.DirectBuffer, int, MutableOrder)}. The
+ * symbol is kept packed (see {@link Symbols}) and the client order ID is copied into a reusable
+ * builder, so once the builder has grown to the longest ID seen, decoding does not allocate.
+ * Instances own their data and can be pooled; call {@link #toOrderData()} for an immutable copy.
+ */
+public class MutableOrder {
+    
+    private long orderId;
+    private long symbol;
+    private Side side;
+    private long quantity;
+    private long price;
+    private long timestamp;
+    private BooleanType isActive;
+    private final StringBuilder clientOrderId = new StringBuilder(32);
+    
+    public long orderId() {
+        return orderId;
+    }
+    
+    public MutableOrder orderId(long orderId) {
+        this.orderId = orderId;
+        return this;
+    }
+    
+    /**
+     * Symbol packed into a long, comparable without creating a String
+     */
+    public long symbolKey() {
+        return symbol;
+    }
+    
+    public MutableOrder symbolKey(long symbol) {
+        this.symbol = symbol;
+        return this;
+    }
+    
+    /**
+     * Symbol as a String, allocated on each call
+     */
+    public String symbol() {
+        return Symbols.decode(symbol);
+    }
+    
+    public Side side() {
+        return side;
+    }
+    
+    public MutableOrder side(Side side) {
+        this.side = side;
+        return this;
+    }
+    
+    public long quantity() {
+        return quantity;
+    }
+    
+    public MutableOrder quantity(long quantity) {
+        this.quantity = quantity;
+        return this;
+    }
+    
+    public long price() {
+        return price;
+    }
+    
+    public MutableOrder price(long price) {
+        this.price = price;
+        return this;
+    }
+    
+    public long timestamp() {
+        return timestamp;
+    }
+    
+    public MutableOrder timestamp(long timestamp) {
+        this.timestamp = timestamp;
+        return this;
+    }
+    
+    public BooleanType isActive() {
+        return isActive;
+    }
+    
+    public MutableOrder isActive(BooleanType isActive) {
+        this.isActive = isActive;
+        return this;
+    }
+    
+    /**
+     * Client order ID held by this instance; the contents change on the next decode
+     */
+    public CharSequence clientOrderId() {
+        return clientOrderId;
+    }
+    
+    /**
+     * Builder for the client order ID, cleared by the deserializer before it is filled
+     */
+    StringBuilder clientOrderIdBuilder() {
+        return clientOrderId;
+    }
+    
+    public MutableOrder clientOrderId(CharSequence value) {
+        clientOrderId.setLength(0);
+        clientOrderId.append(value);
+        return this;
+    }
+    
+    /**
+     * Clear all fields so the instance can be returned to a pool
+     */
+    public MutableOrder reset() {
+        orderId = 0;
+        symbol = 0;
+        side = null;
+        quantity = 0;
+        price = 0;
+        timestamp = 0;
+        isActive = null;
+        clientOrderId.setLength(0);
+        return this;
+    }
+    
+    /**
+     * Immutable copy of the current contents
+     */
+    public OrderData toOrderData() {
+        return new OrderData(orderId, symbol(), side, quantity, price, timestamp, isActive, clientOrderId.toString());
+    }
+    
+    @Override
+    public String toString() {
+        return "MutableOrder[orderId=" + orderId + ", symbol=" + symbol() + ", side=" + side
+                + ", quantity=" + quantity + ", price=" + price + ", timestamp=" + timestamp
+                + ", isActive=" + isActive + ", clientOrderId=" + clientOrderId + "]";
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.darioajr.sbe;
+
+/**
+ * Mutable, reusable counterpart of {@link TradeData} for allocation-free decoding
+ *
+ * Filled by {@link SbeDeserializer#decodeInto(org.agrona.DirectBuffer, int, MutableTrade)}; see
+ * {@link MutableOrder} for how the symbol and var data are held.
+ */
+public class MutableTrade {
+    
+    private long tradeId;
+    private long orderId;
+    private long symbol;
+    private Side side;
+    private long quantity;
+    private long price;
+    private long timestamp;
+    private final StringBuilder venue = new StringBuilder(16);
+    
+    public long tradeId() {
+        return tradeId;
+    }
+    
+    public MutableTrade tradeId(long tradeId) {
+        this.tradeId = tradeId;
+        return this;
+    }
+    
+    public long orderId() {
+        return orderId;
+    }
+    
+    public MutableTrade orderId(long orderId) {
+        this.orderId = orderId;
+        return this;
+    }
+    
+    /**
+     * Symbol packed into a long, comparable without creating a String
+     */
+    public long symbolKey() {
+        return symbol;
+    }
+    
+    public MutableTrade symbolKey(long symbol) {
+        this.symbol = symbol;
+        return this;
+    }
+    
+    /**
+     * Symbol as a String, allocated on each call
+     */
+    public String symbol() {
+        return Symbols.decode(symbol);
+    }
+    
+    public Side side() {
+        return side;
+    }
+    
+    public MutableTrade side(Side side) {
+        this.side = side;
+        return this;
+    }
+    
+    public long quantity() {
+        return quantity;
+    }
+    
+    public MutableTrade quantity(long quantity) {
+        this.quantity = quantity;
+        return this;
+    }
+    
+    public long price() {
+        return price;
+    }
+    
+    public MutableTrade price(long price) {
+        this.price = price;
+        return this;
+    }
+    
+    public long timestamp() {
+        return timestamp;
+    }
+    
+    public MutableTrade timestamp(long timestamp) {
+        this.timestamp = timestamp;
+        return this;
+    }
+    
+    /**
+     * Venue held by this instance; the contents change on the next decode
+     */
+    public CharSequence venue() {
+        return venue;
+    }
+    
+    /**
+     * Builder for the venue, cleared by the deserializer before it is filled
+     */
+    StringBuilder venueBuilder() {
+        return venue;
+    }
+    
+    public MutableTrade venue(CharSequence value) {
+        venue.setLength(0);
+        venue.append(value);
+        return this;
+    }
+    
+    /**
+     * Clear all fields so the instance can be returned to a pool
+     */
+    public MutableTrade reset() {
+        tradeId = 0;
+        orderId = 0;
+        symbol = 0;
+        side = null;
+        quantity = 0;
+        price = 0;
+        timestamp = 0;
+        venue.setLength(0);
+        return this;
+    }
+    
+    /**
+     * Immutable copy of the current contents
+     */
+    public TradeData toTradeData() {
+        return new TradeData(tradeId, orderId, symbol(), side, quantity, price, timestamp, venue.toString());
+    }
+    
+    @Override
+    public String toString() {
+        return "MutableTrade[tradeId=" + tradeId + ", orderId=" + orderId + ", symbol=" + symbol()
+                + ", side=" + side + ", quantity=" + quantity + ", price=" + price
+                + ", timestamp=" + timestamp + ", venue=" + venue + "]";
+    }
+}
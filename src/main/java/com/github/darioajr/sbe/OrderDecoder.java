@@ -1,5 +1,6 @@
 package com.github.darioajr.sbe;
 
+import org.agrona.AsciiSequenceView;
 import org.agrona.DirectBuffer;
 import java.nio.charset.StandardCharsets;
 
@@ -22,10 +23,18 @@ public class OrderDecoder {
         return this;
     }
 
+    public static int orderIdEncodingOffset() {
+        return 0;
+    }
+
     public long orderId() {
         return buffer.getLong(offset + 0, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int symbolEncodingOffset() {
+        return 8;
+    }
+
     public String symbol() {
         final byte[] dst = new byte[8];
         buffer.getBytes(offset + 8, dst, 0, 8);
@@ -34,22 +43,42 @@ public class OrderDecoder {
         return new String(dst, 0, end, StandardCharsets.US_ASCII);
     }
 
+    public static int sideEncodingOffset() {
+        return 16;
+    }
+
     public Side side() {
         return Side.get(buffer.getByte(offset + 16));
     }
 
+    public static int quantityEncodingOffset() {
+        return 17;
+    }
+
     public long quantity() {
         return buffer.getLong(offset + 17, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int priceEncodingOffset() {
+        return 25;
+    }
+
     public long price() {
         return buffer.getLong(offset + 25, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int timestampEncodingOffset() {
+        return 33;
+    }
+
     public long timestamp() {
         return buffer.getLong(offset + 33, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int isActiveEncodingOffset() {
+        return 41;
+    }
+
     public BooleanType isActive() {
         return BooleanType.get(buffer.getByte(offset + 41));
     }
@@ -68,6 +97,36 @@ public class OrderDecoder {
         return bytesToCopy;
     }
 
+    public int getClientOrderId(final Appendable appendable) {
+        final int headerLength = 4;
+        final int position = offset + blockLength;
+        final int dataLength = buffer.getInt(position, java.nio.ByteOrder.LITTLE_ENDIAN);
+        buffer.getStringWithoutLengthAscii(position + headerLength, dataLength, appendable);
+        return dataLength;
+    }
+
+    public int wrapClientOrderId(final DirectBuffer wrapBuffer) {
+        final int headerLength = 4;
+        final int position = offset + blockLength;
+        final int dataLength = buffer.getInt(position, java.nio.ByteOrder.LITTLE_ENDIAN);
+        wrapBuffer.wrap(buffer, position + headerLength, dataLength);
+        return dataLength;
+    }
+
+    public AsciiSequenceView clientOrderId(final AsciiSequenceView view) {
+        final int headerLength = 4;
+        final int position = offset + blockLength;
+        final int dataLength = buffer.getInt(position, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return view.wrap(buffer, position + headerLength, dataLength);
+    }
+
+    public String clientOrderId() {
+        final int headerLength = 4;
+        final int position = offset + blockLength;
+        final int dataLength = buffer.getInt(position, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return buffer.getStringWithoutLengthAscii(position + headerLength, dataLength);
+    }
+
     public int encodedLength() {
         return blockLength + 4 + clientOrderIdLength();
     }
@@ -1,7 +1,7 @@
 package com.github.darioajr.sbe;
 
+import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
-import java.nio.charset.StandardCharsets;
 
 public class OrderEncoder {
     public static final int TEMPLATE_ID = 1;
@@ -31,15 +31,25 @@ public class OrderEncoder {
     }
 
     public OrderEncoder symbol(final String value) {
-        final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
-        final int length = Math.min(bytes.length, 8);
-        buffer.putBytes(position + 8, bytes, 0, length);
-        for (int i = length; i < 8; i++) {
-            buffer.putByte(position + 8 + i, (byte)0);
+        int length = 0;
+        for (int i = 0; i < value.length() && length < 8; i++) {
+            final char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                i++;
+            }
+            buffer.putByte(position + 8 + length++, c < 0x80 ? (byte)c : (byte)'?');
+        }
+        for (; length < 8; length++) {
+            buffer.putByte(position + 8 + length, (byte)0);
         }
         return this;
     }
 
+    public OrderEncoder symbol(final long value) {
+        buffer.putLong(position + 8, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
     public OrderEncoder side(final Side value) {
         buffer.putByte(position + 16, value.value());
         return this;
@@ -74,6 +84,33 @@ public class OrderEncoder {
         return this;
     }
 
+    public OrderEncoder putClientOrderId(final DirectBuffer src, final int srcOffset, final int length) {
+        final int headerLength = 4;
+        final int limit = position + BLOCK_LENGTH + headerLength + length;
+        buffer.putInt(position + BLOCK_LENGTH, length, java.nio.ByteOrder.LITTLE_ENDIAN);
+        buffer.putBytes(position + BLOCK_LENGTH + headerLength, src, srcOffset, length);
+        position = limit;
+        return this;
+    }
+
+    public OrderEncoder clientOrderId(final CharSequence value) {
+        final int headerLength = 4;
+        final int dataOffset = position + BLOCK_LENGTH + headerLength;
+        int length = 0;
+        if (null != value) {
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    i++;
+                }
+                buffer.putByte(dataOffset + length++, c < 0x80 ? (byte)c : (byte)'?');
+            }
+        }
+        buffer.putInt(position + BLOCK_LENGTH, length, java.nio.ByteOrder.LITTLE_ENDIAN);
+        position = dataOffset + length;
+        return this;
+    }
+
     public int encodedLength() {
         return position - offset;
     }
@@ -0,0 +1,241 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongLongConsumer;
+
+/**
+ * Live order state and per-symbol net positions built from streams of Order and Trade messages
+ *
+ * State is held in Agrona primitive maps keyed by orderId and by the 8-byte symbol packed into
+ * a long (see {@link Symbols}), so updates are constant time and never box. Zero is the maps'
+ * missing value: fully filled or cancelled orders drop out of the open and filled maps and flat
+ * positions drop out of the position map, so memory is bounded by the orders open at once rather
+ * than every order ever seen. Symbol strings are only created the first time a symbol is seen.
+ *
+ * Trades move the position of their symbol by +quantity for {@link Side#BUY} and -quantity for
+ * {@link Side#SELL}, and add to the filled quantity of {@link TradeDecoder#orderId()} while that
+ * order is open. Fills against an order that is not open only move the position.
+ *
+ * Not thread safe; feed it from a single thread.
+ */
+public class OrderStateAggregator implements FrameHandler {
+    
+    public static final int DEFAULT_INITIAL_CAPACITY = 1 << 16;
+    
+    private static final float LOAD_FACTOR = 0.65f;
+    private static final long MISSING_VALUE = 0;
+    
+    /**
+     * Receives (orderId, open quantity, filled quantity) for each tracked order
+     */
+    @FunctionalInterface
+    public interface OrderStateConsumer {
+        void accept(long orderId, long openQuantity, long filledQuantity);
+    }
+    
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final OrderDecoder orderDecoder = new OrderDecoder();
+    private final TradeDecoder tradeDecoder = new TradeDecoder();
+    
+    private final Long2LongHashMap openQuantity;
+    private final Long2LongHashMap filledQuantity;
+    private final Long2LongHashMap netPosition = new Long2LongHashMap(64, LOAD_FACTOR, MISSING_VALUE);
+    private final Long2ObjectHashMap<String> symbolNames = new Long2ObjectHashMap<>();
+    
+    private final LongLongConsumer openOrderVisitor = this::visitOpenOrder;
+    private OrderStateConsumer orderConsumer;
+    
+    private long ordersProcessed;
+    private long tradesProcessed;
+    
+    public OrderStateAggregator() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+    
+    /**
+     * @param expectedOrders number of orders to size the per-order maps for, avoiding rehashing
+     */
+    public OrderStateAggregator(int expectedOrders) {
+        final int capacity = (int) Math.min(1 << 30, (long) (expectedOrders / LOAD_FACTOR) + 1);
+        this.openQuantity = new Long2LongHashMap(capacity, LOAD_FACTOR, MISSING_VALUE);
+        this.filledQuantity = new Long2LongHashMap(capacity, LOAD_FACTOR, MISSING_VALUE);
+    }
+    
+    /**
+     * Apply an encoded frame; templates other than Order and Trade are ignored
+     */
+    @Override
+    public void onFrame(DirectBuffer buffer, int offset, int length) {
+        headerDecoder.wrap(buffer, offset);
+        final int body = offset + MessageHeaderDecoder.ENCODED_LENGTH;
+        
+        switch (headerDecoder.templateId()) {
+            case OrderDecoder.TEMPLATE_ID -> {
+                orderDecoder.wrap(buffer, body, headerDecoder.blockLength(), headerDecoder.version());
+                onOrder(
+                        orderDecoder.orderId(),
+                        Symbols.read(buffer, body + OrderDecoder.symbolEncodingOffset()),
+                        orderDecoder.quantity(),
+                        orderDecoder.isActive() == BooleanType.TRUE);
+            }
+            case TradeDecoder.TEMPLATE_ID -> {
+                tradeDecoder.wrap(buffer, body, headerDecoder.blockLength(), headerDecoder.version());
+                onTrade(
+                        tradeDecoder.orderId(),
+                        Symbols.read(buffer, body + TradeDecoder.symbolEncodingOffset()),
+                        tradeDecoder.side(),
+                        tradeDecoder.quantity());
+            }
+            default -> {
+            }
+        }
+    }
+    
+    /**
+     * Apply a new or replaced order; an inactive order is treated as cancelled
+     */
+    public void onOrder(long orderId, long symbol, long quantity, boolean active) {
+        ordersProcessed++;
+        registerSymbol(symbol);
+        
+        final long open = active ? Math.max(0, quantity - filledQuantity.get(orderId)) : MISSING_VALUE;
+        putOrRemove(openQuantity, orderId, open);
+        if (open == MISSING_VALUE) {
+            filledQuantity.remove(orderId);
+        }
+    }
+    
+    /**
+     * Apply an execution against an order
+     */
+    public void onTrade(long orderId, long symbol, Side side, long quantity) {
+        tradesProcessed++;
+        registerSymbol(symbol);
+        
+        final long open = openQuantity.get(orderId);
+        if (open != MISSING_VALUE) {
+            final long remaining = Math.max(0, open - quantity);
+            putOrRemove(openQuantity, orderId, remaining);
+            putOrRemove(filledQuantity, orderId, remaining == MISSING_VALUE ? MISSING_VALUE : filledQuantity.get(orderId) + quantity);
+        }
+        putOrRemove(netPosition, symbol, netPosition.get(symbol) + (side == Side.BUY ? quantity : -quantity));
+    }
+    
+    /**
+     * Remaining open quantity of an order, 0 when unknown, fully filled or cancelled
+     */
+    public long openQuantity(long orderId) {
+        return openQuantity.get(orderId);
+    }
+    
+    /**
+     * Total quantity filled by trades against an open order, 0 once it is fully filled or cancelled
+     */
+    public long filledQuantity(long orderId) {
+        return filledQuantity.get(orderId);
+    }
+    
+    /**
+     * Net position for a symbol packed with {@link Symbols#encode(CharSequence)}
+     */
+    public long netPosition(long symbol) {
+        return netPosition.get(symbol);
+    }
+    
+    public long netPosition(String symbol) {
+        return netPosition.get(Symbols.encode(symbol));
+    }
+    
+    /**
+     * Name of a packed symbol seen by the aggregator, or null when it has never been seen
+     */
+    public String symbolName(long symbol) {
+        return symbolNames.get(symbol);
+    }
+    
+    /**
+     * Visit every non-flat position as (packed symbol, net quantity) without boxing
+     */
+    public void forEachPosition(LongLongConsumer consumer) {
+        netPosition.forEachLong(consumer);
+    }
+    
+    /**
+     * Visit every open order with its filled quantity, e.g. to write a snapshot
+     */
+    public void forEachOrder(OrderStateConsumer consumer) {
+        orderConsumer = consumer;
+        try {
+            openQuantity.forEachLong(openOrderVisitor);
+        } finally {
+            orderConsumer = null;
+        }
+    }
+    
+    /**
+     * Set an order's state directly, as read back from a snapshot
+     */
+    public void restoreOrder(long orderId, long openQuantity, long filledQuantity) {
+        putOrRemove(this.openQuantity, orderId, openQuantity);
+        putOrRemove(this.filledQuantity, orderId, openQuantity == MISSING_VALUE ? MISSING_VALUE : filledQuantity);
+    }
+    
+    /**
+     * Set a symbol's net position directly, as read back from a snapshot
+     */
+    public void restorePosition(long symbol, long position) {
+        registerSymbol(symbol);
+        putOrRemove(netPosition, symbol, position);
+    }
+    
+    /**
+     * Set the processed message counters, as read back from a snapshot
+     */
+    public void restoreCounters(long ordersProcessed, long tradesProcessed) {
+        this.ordersProcessed = ordersProcessed;
+        this.tradesProcessed = tradesProcessed;
+    }
+    
+    public int openOrderCount() {
+        return openQuantity.size();
+    }
+    
+    public long ordersProcessed() {
+        return ordersProcessed;
+    }
+    
+    public long tradesProcessed() {
+        return tradesProcessed;
+    }
+    
+    /**
+     * Drop all state while keeping the allocated map capacity
+     */
+    public void clear() {
+        openQuantity.clear();
+        filledQuantity.clear();
+        netPosition.clear();
+        ordersProcessed = 0;
+        tradesProcessed = 0;
+    }
+    
+    private void visitOpenOrder(long orderId, long open) {
+        orderConsumer.accept(orderId, open, filledQuantity.get(orderId));
+    }
+    
+    private void registerSymbol(long symbol) {
+        if (!symbolNames.containsKey(symbol)) {
+            symbolNames.put(symbol, Symbols.decode(symbol));
+        }
+    }
+    
+    private static void putOrRemove(Long2LongHashMap map, long key, long value) {
+        if (value == MISSING_VALUE) {
+            map.remove(key);
+        } else {
+            map.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+
+public class OrderStateDecoder {
+    public static final int TEMPLATE_ID = 5;
+    public static final int SCHEMA_ID = 1;
+    public static final int SCHEMA_VERSION = 1;
+    public static final int BLOCK_LENGTH = 24;
+    
+    private DirectBuffer buffer;
+    private int offset;
+    private int blockLength;
+    private int version;
+    
+    public OrderStateDecoder wrap(final DirectBuffer buffer, final int offset, final int blockLength, final int version) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.blockLength = blockLength;
+        this.version = version;
+        return this;
+    }
+    
+    public static int orderIdEncodingOffset() {
+        return 0;
+    }
+    
+    public long orderId() {
+        return buffer.getLong(offset + 0, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int openQuantityEncodingOffset() {
+        return 8;
+    }
+    
+    public long openQuantity() {
+        return buffer.getLong(offset + 8, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int filledQuantityEncodingOffset() {
+        return 16;
+    }
+    
+    public long filledQuantity() {
+        return buffer.getLong(offset + 16, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public int encodedLength() {
+        return blockLength;
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.MutableDirectBuffer;
+
+public class OrderStateEncoder {
+    public static final int TEMPLATE_ID = 5;
+    public static final int SCHEMA_ID = 1;
+    public static final int SCHEMA_VERSION = 1;
+    public static final int BLOCK_LENGTH = 24;
+    
+    private MutableDirectBuffer buffer;
+    private int offset;
+    private int position;
+
+    public OrderStateEncoder wrap(final MutableDirectBuffer buffer, final int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.position = offset;
+        return this;
+    }
+
+    public int sbeBlockLength() { return BLOCK_LENGTH; }
+    public int sbeTemplateId() { return TEMPLATE_ID; }
+    public int sbeSchemaId() { return SCHEMA_ID; }
+    public int sbeSchemaVersion() { return SCHEMA_VERSION; }
+
+    public OrderStateEncoder orderId(final long value) {
+        buffer.putLong(position + 0, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public OrderStateEncoder openQuantity(final long value) {
+        buffer.putLong(position + 8, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public OrderStateEncoder filledQuantity(final long value) {
+        buffer.putLong(position + 16, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public int encodedLength() {
+        return BLOCK_LENGTH;
+    }
+}
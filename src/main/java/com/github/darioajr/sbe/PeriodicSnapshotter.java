@@ -0,0 +1,43 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Applies frames to a {@link MarketState} and writes a snapshot every intervalFrames frames
+ *
+ * The interval bounds recovery time: a restart replays at most intervalFrames journal frames
+ * on top of the newest snapshot. Snapshots are written synchronously on the calling thread.
+ */
+public class PeriodicSnapshotter implements FrameHandler {
+    
+    private final MarketState state;
+    private final SnapshotStore store;
+    private final long intervalFrames;
+    private long lastSnapshotFrame;
+    
+    public PeriodicSnapshotter(MarketState state, SnapshotStore store, long intervalFrames) {
+        if (intervalFrames <= 0) {
+            throw new IllegalArgumentException("intervalFrames must be positive: " + intervalFrames);
+        }
+        this.state = state;
+        this.store = store;
+        this.intervalFrames = intervalFrames;
+        this.lastSnapshotFrame = state.frameCount();
+    }
+    
+    @Override
+    public void onFrame(DirectBuffer buffer, int offset, int length) {
+        state.onFrame(buffer, offset, length);
+        if (state.frameCount() - lastSnapshotFrame >= intervalFrames) {
+            snapshot();
+        }
+    }
+    
+    /**
+     * Write a snapshot now, e.g. on orderly shutdown, and restart the interval
+     */
+    public void snapshot() {
+        store.write(state);
+        lastSnapshotFrame = state.frameCount();
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class PositionDecoder {
+    public static final int TEMPLATE_ID = 6;
+    public static final int SCHEMA_ID = 1;
+    public static final int SCHEMA_VERSION = 1;
+    public static final int BLOCK_LENGTH = 16;
+    
+    private DirectBuffer buffer;
+    private int offset;
+    private int blockLength;
+    private int version;
+    
+    public PositionDecoder wrap(final DirectBuffer buffer, final int offset, final int blockLength, final int version) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.blockLength = blockLength;
+        this.version = version;
+        return this;
+    }
+    
+    public static int symbolEncodingOffset() {
+        return 0;
+    }
+    
+    public String symbol() {
+        final byte[] dst = new byte[8];
+        buffer.getBytes(offset + 0, dst, 0, 8);
+        int end = 0;
+        for (; end < 8 && dst[end] != 0; ++end);
+        return new String(dst, 0, end, StandardCharsets.US_ASCII);
+    }
+    
+    public long symbolKey() {
+        return buffer.getLong(offset + 0, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int netPositionEncodingOffset() {
+        return 8;
+    }
+    
+    public long netPosition() {
+        return buffer.getLong(offset + 8, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public int encodedLength() {
+        return blockLength;
+    }
+}
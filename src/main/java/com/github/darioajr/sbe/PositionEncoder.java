@@ -0,0 +1,55 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.MutableDirectBuffer;
+
+public class PositionEncoder {
+    public static final int TEMPLATE_ID = 6;
+    public static final int SCHEMA_ID = 1;
+    public static final int SCHEMA_VERSION = 1;
+    public static final int BLOCK_LENGTH = 16;
+    
+    private MutableDirectBuffer buffer;
+    private int offset;
+    private int position;
+
+    public PositionEncoder wrap(final MutableDirectBuffer buffer, final int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.position = offset;
+        return this;
+    }
+
+    public int sbeBlockLength() { return BLOCK_LENGTH; }
+    public int sbeTemplateId() { return TEMPLATE_ID; }
+    public int sbeSchemaId() { return SCHEMA_ID; }
+    public int sbeSchemaVersion() { return SCHEMA_VERSION; }
+
+    public PositionEncoder symbol(final String value) {
+        int length = 0;
+        for (int i = 0; i < value.length() && length < 8; i++) {
+            final char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                i++;
+            }
+            buffer.putByte(position + 0 + length++, c < 0x80 ? (byte)c : (byte)'?');
+        }
+        for (; length < 8; length++) {
+            buffer.putByte(position + 0 + length, (byte)0);
+        }
+        return this;
+    }
+
+    public PositionEncoder symbol(final long value) {
+        buffer.putLong(position + 0, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public PositionEncoder netPosition(final long value) {
+        buffer.putLong(position + 8, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public int encodedLength() {
+        return BLOCK_LENGTH;
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * JSON formatter that reads only the projected fields straight from an encoded frame
+ * 
+ * Driven by a {@link FieldProjection}, it wraps the flyweight decoders over the frame and
+ * touches only the selected offsets; unselected var data and the MarketData levels group are
+ * never read. Output uses the same layout and key order as {@link JsonFormatter}, so with
+ * {@link FieldProjection#ALL} the result is identical to formatting the decoded record.
+ */
+public class ProjectedJsonFormatter {
+    
+    private final FieldProjection projection;
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final OrderDecoder orderDecoder = new OrderDecoder();
+    private final TradeDecoder tradeDecoder = new TradeDecoder();
+    private final MarketDataDecoder marketDataDecoder = new MarketDataDecoder();
+    private boolean firstField;
+    
+    public ProjectedJsonFormatter(FieldProjection projection) {
+        this.projection = projection;
+    }
+    
+    public FieldProjection projection() {
+        return projection;
+    }
+    
+    /**
+     * Format the frame at offset as a JSON string
+     */
+    public String toJson(DirectBuffer buffer, int offset) {
+        return format(buffer, offset, new StringBuilder(256)).toString();
+    }
+    
+    /**
+     * Append the projected JSON object for the frame at offset to the given builder
+     */
+    public StringBuilder format(DirectBuffer buffer, int offset, StringBuilder sb) {
+        headerDecoder.wrap(buffer, offset);
+        final int templateId = headerDecoder.templateId();
+        final int body = offset + headerDecoder.encodedLength();
+        
+        sb.append("{\n");
+        firstField = true;
+        switch (templateId) {
+            case OrderDecoder.TEMPLATE_ID -> formatOrder(buffer, body, sb);
+            case TradeDecoder.TEMPLATE_ID -> formatTrade(buffer, body, sb);
+            case MarketDataDecoder.TEMPLATE_ID -> formatMarketData(buffer, body, sb);
+            default -> throw new IllegalArgumentException("Unknown template ID: " + templateId);
+        }
+        sb.append(firstField ? "}" : "\n}");
+        return sb;
+    }
+    
+    private void formatOrder(DirectBuffer buffer, int body, StringBuilder sb) {
+        final OrderDecoder order = orderDecoder.wrap(buffer, body, headerDecoder.blockLength(), headerDecoder.version());
+        
+        if (projection.includes(FieldProjection.ORDER_ID)) {
+            field(sb, FieldProjection.ORDER_ID).append(order.orderId());
+        }
+        if (projection.includes(FieldProjection.SYMBOL)) {
+            symbol(buffer, body + OrderDecoder.symbolEncodingOffset(), field(sb, FieldProjection.SYMBOL));
+        }
+        if (projection.includes(FieldProjection.SIDE)) {
+            field(sb, FieldProjection.SIDE).append('"').append(order.side()).append('"');
+        }
+        if (projection.includes(FieldProjection.QUANTITY)) {
+            field(sb, FieldProjection.QUANTITY).append(order.quantity());
+        }
+        if (projection.includes(FieldProjection.PRICE)) {
+            field(sb, FieldProjection.PRICE).append(order.price());
+        }
+        if (projection.includes(FieldProjection.TIMESTAMP)) {
+            field(sb, FieldProjection.TIMESTAMP).append(order.timestamp());
+        }
+        if (projection.includes(FieldProjection.IS_ACTIVE)) {
+            field(sb, FieldProjection.IS_ACTIVE).append('"').append(order.isActive()).append('"');
+        }
+        if (projection.includes(FieldProjection.CLIENT_ORDER_ID)) {
+            field(sb, FieldProjection.CLIENT_ORDER_ID).append('"');
+            order.getClientOrderId(sb);
+            sb.append('"');
+        }
+    }
+    
+    private void formatTrade(DirectBuffer buffer, int body, StringBuilder sb) {
+        final TradeDecoder trade = tradeDecoder.wrap(buffer, body, headerDecoder.blockLength(), headerDecoder.version());
+        
+        if (projection.includes(FieldProjection.TRADE_ID)) {
+            field(sb, FieldProjection.TRADE_ID).append(trade.tradeId());
+        }
+        if (projection.includes(FieldProjection.ORDER_ID)) {
+            field(sb, FieldProjection.ORDER_ID).append(trade.orderId());
+        }
+        if (projection.includes(FieldProjection.SYMBOL)) {
+            symbol(buffer, body + TradeDecoder.symbolEncodingOffset(), field(sb, FieldProjection.SYMBOL));
+        }
+        if (projection.includes(FieldProjection.SIDE)) {
+            field(sb, FieldProjection.SIDE).append('"').append(trade.side()).append('"');
+        }
+        if (projection.includes(FieldProjection.QUANTITY)) {
+            field(sb, FieldProjection.QUANTITY).append(trade.quantity());
+        }
+        if (projection.includes(FieldProjection.PRICE)) {
+            field(sb, FieldProjection.PRICE).append(trade.price());
+        }
+        if (projection.includes(FieldProjection.TIMESTAMP)) {
+            field(sb, FieldProjection.TIMESTAMP).append(trade.timestamp());
+        }
+        if (projection.includes(FieldProjection.VENUE)) {
+            field(sb, FieldProjection.VENUE).append('"');
+            trade.getVenue(sb);
+            sb.append('"');
+        }
+    }
+    
+    private void formatMarketData(DirectBuffer buffer, int body, StringBuilder sb) {
+        final MarketDataDecoder marketData = marketDataDecoder.wrap(
+                buffer, body, headerDecoder.blockLength(), headerDecoder.version());
+        
+        if (projection.includes(FieldProjection.SYMBOL)) {
+            symbol(buffer, body + MarketDataDecoder.symbolEncodingOffset(), field(sb, FieldProjection.SYMBOL));
+        }
+        if (projection.includes(FieldProjection.TIMESTAMP)) {
+            field(sb, FieldProjection.TIMESTAMP).append(marketData.timestamp());
+        }
+        if (projection.includes(FieldProjection.BID_PRICE)) {
+            field(sb, FieldProjection.BID_PRICE).append(marketData.bidPrice());
+        }
+        if (projection.includes(FieldProjection.BID_SIZE)) {
+            field(sb, FieldProjection.BID_SIZE).append(marketData.bidSize());
+        }
+        if (projection.includes(FieldProjection.ASK_PRICE)) {
+            field(sb, FieldProjection.ASK_PRICE).append(marketData.askPrice());
+        }
+        if (projection.includes(FieldProjection.ASK_SIZE)) {
+            field(sb, FieldProjection.ASK_SIZE).append(marketData.askSize());
+        }
+        if (projection.includes(FieldProjection.LAST_PRICE)) {
+            field(sb, FieldProjection.LAST_PRICE).append(marketData.lastPrice());
+        }
+        if (projection.includes(FieldProjection.LAST_SIZE)) {
+            field(sb, FieldProjection.LAST_SIZE).append(marketData.lastSize());
+        }
+        if (projection.includes(FieldProjection.LEVELS)) {
+            field(sb, FieldProjection.LEVELS).append("[\n");
+            final MarketDataDecoder.LevelsDecoder levels = marketData.levels();
+            while (levels.hasNext()) {
+                levels.next();
+                sb.append("    {\n");
+                sb.append("      \"price\": ").append(levels.price()).append(",\n");
+                sb.append("      \"size\": ").append(levels.size()).append(",\n");
+                sb.append("      \"side\": \"").append(levels.side()).append("\"\n");
+                sb.append(levels.hasNext() ? "    },\n" : "    }\n");
+            }
+            sb.append("  ]");
+        }
+    }
+    
+    private StringBuilder field(StringBuilder sb, int field) {
+        if (!firstField) {
+            sb.append(",\n");
+        }
+        firstField = false;
+        return sb.append("  \"").append(FieldProjection.fieldName(field)).append("\": ");
+    }
+    
+    private static void symbol(DirectBuffer buffer, int position, StringBuilder sb) {
+        sb.append('"');
+        for (int i = 0; i < Symbols.LENGTH; i++) {
+            final byte b = buffer.getByte(position + i);
+            if (b == 0) {
+                break;
+            }
+            sb.append((char) b);
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.darioajr.sbe;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of a restart: the snapshot loaded (null when starting from an empty state) and the journal tail replayed on top of it
+ */
+public record RecoveryReport(
+        Path snapshot,
+        long snapshotFrames,
+        long replayedFrames,
+        long replayedBytes,
+        long durationNs
+) {
+}
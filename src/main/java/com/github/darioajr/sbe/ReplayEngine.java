@@ -0,0 +1,206 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays an archive of SBE frames to a handler, either at maximum speed or paced to the
+ * original inter-message timing
+ * 
+ * A sparse timestamp index (one entry every {@link #DEFAULT_INDEX_INTERVAL} frames) gives
+ * O(log n) seeks to any start time; captures are expected to be in timestamp order. Pacing
+ * parks until shortly before each frame is due and then spins on {@link System#nanoTime()},
+ * recording how late every frame was actually delivered.
+ * 
+ * The archive is read through {@link MappedArchive} windows and addressed with long positions,
+ * so captures larger than 2 GB are indexed and replayed like any other. The engine moves the
+ * archive's window, so the archive should not be polled while the engine is in use.
+ */
+public class ReplayEngine {
+    
+    public static final int DEFAULT_INDEX_INTERVAL = 1024;
+    public static final long DEFAULT_SPIN_THRESHOLD_NS = TimeUnit.MICROSECONDS.toNanos(100);
+    
+    /**
+     * Speed value meaning "as fast as possible"
+     */
+    public static final double MAX_SPEED = 0.0;
+    
+    private final MappedArchive archive;
+    private final long timestampUnitNs;
+    private final int indexInterval;
+    private long spinThresholdNs = DEFAULT_SPIN_THRESHOLD_NS;
+    private volatile boolean running;
+    
+    private long[] indexTimestamps = new long[64];
+    private long[] indexPositions = new long[64];
+    private int indexSize;
+    private long frameCount;
+    
+    private DirectBuffer window;
+    private long windowStart;
+    private int windowOffset;
+    private int frameLength;
+    
+    private final LatencyHistogram pacingError = new LatencyHistogram()
+            .wrap(new UnsafeBuffer(new byte[LatencyHistogram.LENGTH]), 0);
+    
+    /**
+     * Index an archive whose timestamps are epoch milliseconds
+     */
+    public ReplayEngine(MappedArchive archive) {
+        this(archive, TimeUnit.MILLISECONDS, DEFAULT_INDEX_INTERVAL);
+    }
+    
+    public ReplayEngine(MappedArchive archive, TimeUnit timestampUnit, int indexInterval) {
+        this.archive = archive;
+        this.timestampUnitNs = timestampUnit.toNanos(1);
+        this.indexInterval = indexInterval;
+        buildIndex();
+    }
+    
+    /**
+     * Remaining time below which pacing spins instead of parking
+     */
+    public ReplayEngine spinThresholdNs(long spinThresholdNs) {
+        this.spinThresholdNs = spinThresholdNs;
+        return this;
+    }
+    
+    public long frameCount() {
+        return frameCount;
+    }
+    
+    /**
+     * Position of the first frame whose timestamp is at or after the given timestamp, or the
+     * archive length when there is none
+     */
+    public long seek(long timestamp) {
+        int low = 0;
+        int high = indexSize - 1;
+        long start = 0;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (indexTimestamps[mid] < timestamp) {
+                start = indexPositions[mid];
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        
+        for (boolean found = moveTo(start); found; found = next()) {
+            if (MessageFrames.timestamp(window, windowOffset) >= timestamp) {
+                return windowStart + windowOffset;
+            }
+        }
+        return archive.length();
+    }
+    
+    /**
+     * Replay frames from the given timestamp onwards
+     * 
+     * @param speed {@link #MAX_SPEED} for no pacing, 1.0 for original timing, 2.0 for twice as fast, etc.
+     */
+    public ReplayReport replay(long fromTimestamp, double speed, FrameHandler handler) {
+        final boolean paced = speed > 0.0;
+        final double nanosPerTick = paced ? timestampUnitNs / speed : 0.0;
+        pacingError.reset();
+        running = true;
+        
+        long frames = 0;
+        long bytes = 0;
+        long firstTimestamp = 0;
+        final long from = seek(fromTimestamp);
+        final long startNs = System.nanoTime();
+        
+        for (boolean found = moveTo(from); running && found; found = next()) {
+            if (paced) {
+                final long timestamp = MessageFrames.timestamp(window, windowOffset);
+                if (frames == 0) {
+                    firstTimestamp = timestamp;
+                }
+                
+                final long deadlineNs = startNs + (long) ((timestamp - firstTimestamp) * nanosPerTick);
+                pacingError.record(awaitDeadline(deadlineNs));
+            }
+            
+            handler.onFrame(window, windowOffset, frameLength);
+            frames++;
+            bytes += frameLength;
+        }
+        
+        running = false;
+        final long durationNs = System.nanoTime() - startNs;
+        return new ReplayReport(frames, bytes, durationNs,
+                durationNs > 0 ? frames * 1_000_000_000.0 / durationNs : 0.0,
+                paced ? pacingError.mean() : 0.0,
+                paced ? pacingError.valueAtPercentile(99.0) : 0,
+                paced ? pacingError.max() : 0);
+    }
+    
+    /**
+     * Stop a replay in progress from another thread
+     */
+    public void stop() {
+        running = false;
+    }
+    
+    private long awaitDeadline(long deadlineNs) {
+        long remainingNs;
+        while ((remainingNs = deadlineNs - System.nanoTime()) > 0) {
+            if (remainingNs > spinThresholdNs) {
+                LockSupport.parkNanos(remainingNs - spinThresholdNs);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return -remainingNs;
+    }
+    
+    private void buildIndex() {
+        for (boolean found = moveTo(0); found; found = next()) {
+            if (frameCount % indexInterval == 0) {
+                if (indexSize == indexPositions.length) {
+                    indexTimestamps = Arrays.copyOf(indexTimestamps, indexSize * 2);
+                    indexPositions = Arrays.copyOf(indexPositions, indexSize * 2);
+                }
+                indexTimestamps[indexSize] = MessageFrames.timestamp(window, windowOffset);
+                indexPositions[indexSize] = windowStart + windowOffset;
+                indexSize++;
+            }
+            frameCount++;
+        }
+    }
+    
+    /**
+     * Point at the frame at the given position
+     *
+     * @return false when no complete frame starts there
+     */
+    private boolean moveTo(long position) {
+        window = archive.window(position);
+        windowStart = position;
+        windowOffset = 0;
+        frameLength = MessageFrames.frameLength(window, 0, window.capacity());
+        return frameLength > 0;
+    }
+    
+    /**
+     * Step past the current frame, mapping a new window at the next frame when it runs past this one
+     *
+     * @return false at the end of the archive or a partial frame
+     */
+    private boolean next() {
+        windowOffset += frameLength;
+        frameLength = MessageFrames.frameLength(window, windowOffset, window.capacity());
+        if (frameLength > 0) {
+            return true;
+        }
+        return windowStart + windowOffset < archive.length() && moveTo(windowStart + windowOffset);
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.darioajr.sbe;
+
+/**
+ * Outcome of a replay: achieved rate and how late frames were delivered relative to their pacing deadline
+ */
+public record ReplayReport(
+        long frames,
+        long bytes,
+        long durationNs,
+        double framesPerSecond,
+        double meanPacingErrorNs,
+        long p99PacingErrorNs,
+        long maxPacingErrorNs
+) {
+}
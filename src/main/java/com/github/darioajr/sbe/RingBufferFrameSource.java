@@ -0,0 +1,40 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+
+/**
+ * Frame source draining an Agrona {@link RingBuffer} where each message is one SBE frame
+ *
+ * Ring buffers have no natural end; call {@link #complete()} once producers are done and the
+ * source ends after the remaining frames are drained.
+ */
+public class RingBufferFrameSource implements FrameSource {
+    
+    private final RingBuffer ringBuffer;
+    private final MessageHandler messageHandler = (msgTypeId, buffer, index, length) -> this.handler.onFrame(buffer, index, length);
+    private FrameHandler handler;
+    private volatile boolean complete;
+    
+    public RingBufferFrameSource(RingBuffer ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+    
+    @Override
+    public int poll(FrameHandler handler, int limit) {
+        this.handler = handler;
+        return ringBuffer.read(messageHandler, limit);
+    }
+    
+    /**
+     * Signal that no more frames will be written to the ring buffer
+     */
+    public void complete() {
+        complete = true;
+    }
+    
+    @Override
+    public boolean isEndOfStream() {
+        return complete && ringBuffer.size() == 0;
+    }
+}
@@ -1,9 +1,17 @@
 package com.github.darioajr.sbe;
 
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
 
@@ -12,15 +20,43 @@ import java.util.List;
  * 
  * Usage:
  *   java SbeApplication serialize <type> <input-file> <output-file>
- *   java SbeApplication deserialize <input-file> [output-file]
+ *   java SbeApplication deserialize <input-file> [output-file] [--fields <field,...>]
+ *   java SbeApplication filter <input-binary> <output-binary> [filter-options]
+ *   java SbeApplication replay <input-binary> [replay-options]
+ *   java SbeApplication recover <journal-binary> <snapshot-dir> [snapshot-interval]
+ *   java SbeApplication checksum <input-binary> <output-binary> [max-block-bytes]
+ *   java SbeApplication verify <checksummed-binary> [eager|lazy|sampled[:interval]]
+ *   java SbeApplication stats <stats-file> [interval-ms]
+ *   java SbeApplication train [iterations]
+ *   java SbeApplication bench [iterations] [warmup-iterations]
  *   java SbeApplication demo
  * 
  * Types: order, trade, marketdata
+ * 
+ * Set -Dsbe.stats.file=<path> to record codec counters and latency histograms into a
+ * memory-mapped stats file that the stats command (or any other process) can read live.
  */
 public class SbeApplication {
     
-    private static final SbeSerializer serializer = new SbeSerializer();
-    private static final SbeDeserializer deserializer = new SbeDeserializer();
+    private static final CodecStats stats = CodecStats.fromSystemProperty();
+    private static final SbeSerializer serializer = new SbeSerializer(stats);
+    private static final SbeDeserializer deserializer = new SbeDeserializer(stats);
+    
+    /**
+     * Inputs larger than this are converted by the staged pipeline instead of being read whole
+     */
+    private static final long PIPELINE_THRESHOLD = 16L * 1024 * 1024;
+    
+    /**
+     * Dedup window in timestamp units (milliseconds for captures stamped with currentTimeMillis)
+     */
+    private static final long DEFAULT_DEDUP_WINDOW = 60_000;
+    private static final int DEFAULT_DEDUP_MAX_IDS = 1 << 20;
+    private static final long DEFAULT_BAR_INTERVAL = 1_000;
+    private static final int DEFAULT_BAR_MAX_SYMBOLS = 16 * 1024;
+    private static final int DEFAULT_MATCH_MAX_SYMBOLS = 256;
+    private static final int DEFAULT_MATCH_MAX_LEVELS = 1024;
+    private static final int DEFAULT_MATCH_MAX_ORDERS = 1 << 20;
     
     public static void main(String[] args) {
         if (args.length == 0) {
@@ -34,6 +70,17 @@ public class SbeApplication {
             switch (command) {
                 case "serialize" -> handleSerialize(args);
                 case "deserialize" -> handleDeserialize(args);
+                case "filter" -> handleFilter(args);
+                case "dedup" -> handleDedup(args);
+                case "bars" -> handleBars(args);
+                case "match" -> handleMatch(args);
+                case "replay" -> handleReplay(args);
+                case "recover" -> handleRecover(args);
+                case "checksum" -> handleChecksum(args);
+                case "verify" -> handleVerify(args);
+                case "stats" -> handleStats(args);
+                case "train" -> handleTrain(args);
+                case "bench" -> handleBench(args);
                 case "demo" -> runDemo();
                 case "help", "-h", "--help" -> printUsage();
                 default -> {
@@ -53,13 +100,35 @@ public class SbeApplication {
         System.out.println("SBE Encoder/Decoder Command-Line Utility");
         System.out.println("Usage:");
         System.out.println("  serialize <type> <input-json> <output-binary>");
-        System.out.println("  deserialize <input-binary> [output-json]");
+        System.out.println("  deserialize <input-binary> [output-json] [--fields <field,...>]");
+        System.out.println("  filter <input-binary> <output-binary> [filter-options]");
+        System.out.println("  dedup <input-binary> <output-binary> [window] [false-drop-rate]");
+        System.out.println("  bars <input-binary> <output-binary> [interval]");
+        System.out.println("  match <input-binary> <output-binary> [max-orders]");
+        System.out.println("  replay <input-binary> [replay-options]");
+        System.out.println("  recover <journal-binary> <snapshot-dir> [snapshot-interval]");
+        System.out.println("  checksum <input-binary> <output-binary> [max-block-bytes]");
+        System.out.println("  verify <checksummed-binary> [eager|lazy|sampled[:interval]]");
+        System.out.println("  stats <stats-file> [interval-ms]");
+        System.out.println("  train [iterations]");
+        System.out.println("  bench [iterations] [warmup-iterations]");
         System.out.println("  demo");
         System.out.println("  help");
         System.out.println();
         System.out.println("Commands:");
         System.out.println("  serialize   - Convert JSON data to SBE binary format");
         System.out.println("  deserialize - Convert SBE binary data to JSON format");
+        System.out.println("  filter      - Copy matching raw frames from an SBE archive without decoding");
+        System.out.println("  dedup       - Drop Order/Trade frames whose orderId/tradeId was already seen within the window");
+        System.out.println("  bars        - Aggregate trades into per-symbol OHLC/VWAP Bar frames");
+        System.out.println("  match       - Match Order frames with price-time priority into Trade frames");
+        System.out.println("  replay      - Replay an SBE archive at max speed or paced to original timing");
+        System.out.println("  recover     - Rebuild books and order state from the latest snapshot plus the journal tail");
+        System.out.println("  checksum    - Rewrite an archive as CRC32C-protected blocks (0 bytes = one block per frame)");
+        System.out.println("  verify      - Check the CRC32C blocks of an archive and report throughput");
+        System.out.println("  stats       - Print live codec counters and latencies (record with -D" + CodecStats.STATS_FILE_PROP_NAME + "=<file>)");
+        System.out.println("  train       - Run the PGO training workload over all templates and JSON paths");
+        System.out.println("  bench       - Measure encode/decode/JSON throughput, latency percentiles and allocation");
         System.out.println("  demo        - Run demonstration examples");
         System.out.println("  help        - Show this help message");
         System.out.println();
@@ -68,9 +137,29 @@ public class SbeApplication {
         System.out.println("  trade       - Serialize trade data");
         System.out.println("  marketdata  - Serialize market data");
         System.out.println();
+        System.out.println("Filter options (all must match):");
+        System.out.println("  --type <order|trade|marketdata>[,...]");
+        System.out.println("  --symbol <symbol>");
+        System.out.println("  --from <timestamp>  --to <timestamp>");
+        System.out.println("  --order-id <min>:<max>  --trade-id <min>:<max>");
+        System.out.println();
+        System.out.println("Replay options:");
+        System.out.println("  --from <timestamp>       start at the first frame at or after this timestamp");
+        System.out.println("  --speed <max|factor>     max (default), 1 for original timing, 2 or 10 for faster");
+        System.out.println("  --host <host> --port <port>  send frames over TCP instead of only measuring");
+        System.out.println();
         System.out.println("Examples:");
         System.out.println("  serialize order order.json order.sbe");
         System.out.println("  deserialize order.sbe order_output.json");
+        System.out.println("  deserialize capture.sbe prices.json --fields symbol,price,quantity,timestamp");
+        System.out.println("  filter capture.sbe aapl_trades.sbe --type trade --symbol AAPL --from 1700000000000 --to 1700000060000");
+        System.out.println("  replay capture.sbe --speed 10 --host localhost --port 9000");
+        System.out.println("  recover capture.sbe snapshots 100000");
+        System.out.println("  checksum capture.sbe capture.sbec 16384");
+        System.out.println("  verify capture.sbec sampled:64");
+        System.out.println("  stats /dev/shm/sbe-stats.dat 1000");
+        System.out.println("  train 200000");
+        System.out.println("  bench 200000 50000");
         System.out.println("  demo");
     }
     
@@ -90,25 +179,11 @@ public class SbeApplication {
             System.exit(1);
         }
         
-        String jsonContent = Files.readString(inputPath);
-        byte[] serializedData;
-        
+        final int templateId;
         switch (type) {
-            case "order" -> {
-                OrderData orderData = JsonParser.parseOrder(jsonContent);
-                serializedData = serializer.serializeOrder(orderData);
-                System.out.println("Serialized Order: " + orderData);
-            }
-            case "trade" -> {
-                TradeData tradeData = JsonParser.parseTrade(jsonContent);
-                serializedData = serializer.serializeTrade(tradeData);
-                System.out.println("Serialized Trade: " + tradeData);
-            }
-            case "marketdata" -> {
-                MarketDataData marketData = JsonParser.parseMarketData(jsonContent);
-                serializedData = serializer.serializeMarketData(marketData);
-                System.out.println("Serialized MarketData: " + marketData);
-            }
+            case "order" -> templateId = OrderEncoder.TEMPLATE_ID;
+            case "trade" -> templateId = TradeEncoder.TEMPLATE_ID;
+            case "marketdata" -> templateId = MarketDataEncoder.TEMPLATE_ID;
             default -> {
                 System.err.println("Unknown type: " + type + ". Use: order, trade, or marketdata");
                 System.exit(1);
@@ -116,18 +191,38 @@ public class SbeApplication {
             }
         }
         
-        Files.write(Paths.get(outputFile), serializedData);
-        System.out.println("Serialized data written to: " + outputFile + " (" + serializedData.length + " bytes)");
+        // Tokenize the JSON bytes straight into the encoders, without intermediate records
+        byte[] json = Files.readAllBytes(inputPath);
+        ExpandableArrayBuffer frame = new ExpandableArrayBuffer(MessageHeaderEncoder.ENCODED_LENGTH + json.length);
+        int length = new JsonToSbeTranscoder(stats).transcode(templateId, new UnsafeBuffer(json), 0, json.length, frame, 0);
+        
+        try (OutputStream out = Files.newOutputStream(Paths.get(outputFile))) {
+            out.write(frame.byteArray(), 0, length);
+        }
+        System.out.println("Serialized " + type + " data written to: " + outputFile + " (" + length + " bytes)");
     }
     
     private static void handleDeserialize(String[] args) throws IOException {
-        if (args.length < 2 || args.length > 3) {
-            System.err.println("Usage: deserialize <input-binary> [output-json]");
-            System.exit(1);
+        String inputFile = null;
+        String outputFile = null;
+        FieldProjection projection = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--fields") && i + 1 < args.length) {
+                projection = FieldProjection.parse(args[++i]);
+            } else if (inputFile == null) {
+                inputFile = args[i];
+            } else if (outputFile == null) {
+                outputFile = args[i];
+            } else {
+                inputFile = null;
+                break;
+            }
         }
         
-        String inputFile = args[1];
-        String outputFile = args.length == 3 ? args[2] : null;
+        if (inputFile == null) {
+            System.err.println("Usage: deserialize <input-binary> [output-json] [--fields <field,...>]");
+            System.exit(1);
+        }
         
         Path inputPath = Paths.get(inputFile);
         if (!Files.exists(inputPath)) {
@@ -135,10 +230,40 @@ public class SbeApplication {
             System.exit(1);
         }
         
-        byte[] binaryData = Files.readAllBytes(inputPath);
-        Object deserializedObject = deserializer.deserialize(binaryData);
+        if (outputFile != null && Files.size(inputPath) > PIPELINE_THRESHOLD) {
+            convertWithPipeline(inputPath, Paths.get(outputFile), projection == null ? FieldProjection.ALL : projection);
+            return;
+        }
         
-        String jsonOutput = JsonFormatter.toJson(deserializedObject);
+        byte[] binaryData = Files.readAllBytes(inputPath);
+        UnsafeBuffer buffer = new UnsafeBuffer(binaryData);
+        SbeValidator validator = new SbeValidator();
+        boolean singleMessage = validator.validate(buffer, 0, binaryData.length) == SbeValidator.Verdict.VALID
+                && validator.encodedLength() == binaryData.length;
+        
+        Object deserializedObject = null;
+        String jsonOutput;
+        int messageCount = 1;
+        if (projection == null && singleMessage) {
+            deserializedObject = deserializer.deserializeChecked(binaryData);
+            jsonOutput = JsonFormatter.toJson(deserializedObject);
+        } else {
+            // Archives and projections are formatted straight from the frames without building records
+            ProjectedJsonFormatter formatter = new ProjectedJsonFormatter(projection == null ? FieldProjection.ALL : projection);
+            StringBuilder sb = new StringBuilder();
+            messageCount = 0;
+            int offset = 0;
+            while (offset < binaryData.length) {
+                if (validator.validate(buffer, offset, binaryData.length - offset) != SbeValidator.Verdict.VALID) {
+                    throw new IllegalArgumentException("Invalid SBE message: " + validator.verdict()
+                            + " at offset " + validator.errorOffset());
+                }
+                sb.append(messageCount++ == 0 ? "" : ",\n");
+                formatter.format(buffer, offset, sb);
+                offset += validator.encodedLength();
+            }
+            jsonOutput = singleMessage ? sb.toString() : "[\n" + sb + "\n]";
+        }
         
         if (outputFile != null) {
             Files.writeString(Paths.get(outputFile), jsonOutput);
@@ -148,7 +273,408 @@ public class SbeApplication {
             System.out.println(jsonOutput);
         }
         
-        System.out.println("Deserialized object: " + deserializedObject);
+        if (deserializedObject != null) {
+            System.out.println("Deserialized object: " + deserializedObject);
+        } else {
+            System.out.println("Deserialized " + messageCount + " message(s)");
+        }
+    }
+    
+    private static void convertWithPipeline(Path inputPath, Path outputPath, FieldProjection projection) throws IOException {
+        try (FileChannel input = FileChannel.open(inputPath, StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(outputPath,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ConversionReport report = new ConversionPipeline(projection).run(input, output);
+            System.out.println("Deserialized data written to: " + outputPath);
+            System.out.printf("Deserialized %d message(s): %d bytes in, %d bytes out, %.1f MB/s%n",
+                    report.frames(), report.bytesRead(), report.bytesWritten(), report.inputMegabytesPerSecond());
+        }
+    }
+    
+    private static void handleFilter(String[] args) throws IOException {
+        if (args.length < 3 || args.length % 2 == 0) {
+            System.err.println("Usage: filter <input-binary> <output-binary> [filter-options]");
+            System.exit(1);
+        }
+        
+        Path inputPath = Paths.get(args[1]);
+        if (!Files.exists(inputPath)) {
+            System.err.println("Input file does not exist: " + args[1]);
+            System.exit(1);
+        }
+        
+        FrameFilter filter = new FrameFilter();
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        for (int i = 3; i < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--type" -> filter.templateIds(Arrays.stream(value.split(","))
+                        .mapToInt(SbeApplication::templateId)
+                        .toArray());
+                case "--symbol" -> filter.symbol(value);
+                case "--from" -> from = Long.parseLong(value);
+                case "--to" -> to = Long.parseLong(value);
+                case "--order-id" -> filter.orderIdRange(parseMin(value), parseMax(value));
+                case "--trade-id" -> filter.tradeIdRange(parseMin(value), parseMax(value));
+                default -> {
+                    System.err.println("Unknown filter option: " + args[i]);
+                    System.exit(1);
+                }
+            }
+        }
+        if (from != Long.MIN_VALUE || to != Long.MAX_VALUE) {
+            filter.timestampRange(from, to);
+        }
+        
+        long startTime = System.nanoTime();
+        try (MappedArchive input = MappedArchive.map(inputPath);
+             FileChannel output = FileChannel.open(Paths.get(args[2]),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             ChannelFrameWriter writer = new ChannelFrameWriter(output)) {
+            long end = input.scan((buffer, offset, limit) -> filter.filter(buffer, offset, limit, writer));
+            if (end != input.length()) {
+                System.err.println("Warning: ignored " + (input.length() - end) + " trailing bytes of an incomplete frame");
+            }
+        }
+        
+        long durationMs = (System.nanoTime() - startTime) / 1_000_000;
+        System.out.println("Matched " + filter.framesMatched() + " of " + filter.framesScanned()
+                + " frames in " + durationMs + "ms, written to: " + args[2]);
+    }
+    
+    private static void handleDedup(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 5) {
+            System.err.println("Usage: dedup <input-binary> <output-binary> [window] [false-drop-rate]");
+            System.exit(1);
+        }
+        
+        Path inputPath = Paths.get(args[1]);
+        if (!Files.exists(inputPath)) {
+            System.err.println("Input file does not exist: " + args[1]);
+            System.exit(1);
+        }
+        long window = args.length >= 4 ? Long.parseLong(args[3]) : DEFAULT_DEDUP_WINDOW;
+        double falseDropRate = args.length == 5 ? Double.parseDouble(args[4]) : FrameDeduplicator.EXACT;
+        
+        long startTime = System.nanoTime();
+        try (MappedArchive input = MappedArchive.map(inputPath);
+             FileChannel output = FileChannel.open(Paths.get(args[2]),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             ChannelFrameWriter writer = new ChannelFrameWriter(output)) {
+            FrameDeduplicator deduplicator = new FrameDeduplicator(writer, window, DEFAULT_DEDUP_MAX_IDS, falseDropRate);
+            long end = input.forEach(deduplicator);
+            if (end != input.length()) {
+                System.err.println("Warning: ignored " + (input.length() - end) + " trailing bytes of an incomplete frame");
+            }
+            
+            long durationMs = (System.nanoTime() - startTime) / 1_000_000;
+            System.out.println("Dropped " + deduplicator.duplicates() + " duplicates, kept " + deduplicator.forwarded()
+                    + " frames in " + durationMs + "ms, written to: " + args[2]);
+            if (deduplicator.earlyEvictions() > 0) {
+                System.err.println("Warning: " + deduplicator.earlyEvictions() + " keys were forgotten before the window"
+                        + " passed, so repeats of them may remain; use a shorter window");
+            }
+        }
+    }
+    
+    private static void handleBars(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 4) {
+            System.err.println("Usage: bars <input-binary> <output-binary> [interval]");
+            System.exit(1);
+        }
+        
+        Path inputPath = Paths.get(args[1]);
+        if (!Files.exists(inputPath)) {
+            System.err.println("Input file does not exist: " + args[1]);
+            System.exit(1);
+        }
+        long interval = args.length == 4 ? Long.parseLong(args[3]) : DEFAULT_BAR_INTERVAL;
+        
+        long startTime = System.nanoTime();
+        try (MappedArchive input = MappedArchive.map(inputPath);
+             FileChannel output = FileChannel.open(Paths.get(args[2]),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             ChannelFrameWriter writer = new ChannelFrameWriter(output)) {
+            BarAggregator aggregator = new BarAggregator(writer, interval, DEFAULT_BAR_MAX_SYMBOLS);
+            long end = input.forEach(aggregator);
+            if (end != input.length()) {
+                System.err.println("Warning: ignored " + (input.length() - end) + " trailing bytes of an incomplete frame");
+            }
+            aggregator.flushAll();
+            
+            long durationMs = (System.nanoTime() - startTime) / 1_000_000;
+            System.out.println("Aggregated " + aggregator.trades() + " trades into " + aggregator.barsEmitted()
+                    + " bars in " + durationMs + "ms, written to: " + args[2]);
+            if (aggregator.lateTrades() > 0 || aggregator.rejected() > 0) {
+                System.err.println("Warning: skipped " + aggregator.lateTrades() + " late trades and "
+                        + aggregator.rejected() + " trades beyond " + DEFAULT_BAR_MAX_SYMBOLS + " symbols");
+            }
+            if (aggregator.notionalOverflows() > 0) {
+                System.err.println("Warning: " + aggregator.notionalOverflows() + " bars have a null vwap because their notional overflowed");
+            }
+        }
+    }
+    
+    private static void handleMatch(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 4) {
+            System.err.println("Usage: match <input-binary> <output-binary> [max-orders]");
+            System.exit(1);
+        }
+        
+        Path inputPath = Paths.get(args[1]);
+        if (!Files.exists(inputPath)) {
+            System.err.println("Input file does not exist: " + args[1]);
+            System.exit(1);
+        }
+        int maxOrders = args.length == 4 ? Integer.parseInt(args[3]) : DEFAULT_MATCH_MAX_ORDERS;
+        
+        long startTime = System.nanoTime();
+        try (MappedArchive input = MappedArchive.map(inputPath);
+             FileChannel output = FileChannel.open(Paths.get(args[2]),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             ChannelFrameWriter writer = new ChannelFrameWriter(output)) {
+            MatchingEngine engine = new MatchingEngine(writer, DEFAULT_MATCH_MAX_SYMBOLS, DEFAULT_MATCH_MAX_LEVELS, maxOrders, "SIM");
+            long end = input.forEach(engine);
+            if (end != input.length()) {
+                System.err.println("Warning: ignored " + (input.length() - end) + " trailing bytes of an incomplete frame");
+            }
+            
+            long durationMs = (System.nanoTime() - startTime) / 1_000_000;
+            System.out.println("Matched " + engine.orders() + " orders into " + engine.trades() + " trades, "
+                    + engine.restingOrders() + " left resting, in " + durationMs + "ms, written to: " + args[2]);
+            if (engine.rejected() > 0) {
+                System.err.println("Warning: rejected " + engine.rejected() + " orders (invalid, duplicate or beyond capacity)");
+            }
+        }
+    }
+    
+    private static void handleReplay(String[] args) throws IOException {
+        if (args.length < 2 || args.length % 2 != 0) {
+            System.err.println("Usage: replay <input-binary> [replay-options]");
+            System.exit(1);
+        }
+        
+        Path inputPath = Paths.get(args[1]);
+        if (!Files.exists(inputPath)) {
+            System.err.println("Input file does not exist: " + args[1]);
+            System.exit(1);
+        }
+        
+        long from = Long.MIN_VALUE;
+        double speed = ReplayEngine.MAX_SPEED;
+        String host = null;
+        int port = -1;
+        for (int i = 2; i < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--from" -> from = Long.parseLong(value);
+                case "--speed" -> speed = value.equalsIgnoreCase("max") ? ReplayEngine.MAX_SPEED : Double.parseDouble(value);
+                case "--host" -> host = value;
+                case "--port" -> port = Integer.parseInt(value);
+                default -> {
+                    System.err.println("Unknown replay option: " + args[i]);
+                    System.exit(1);
+                }
+            }
+        }
+        
+        try (MappedArchive input = MappedArchive.map(inputPath)) {
+            ReplayEngine engine = new ReplayEngine(input);
+            System.out.println("Indexed " + engine.frameCount() + " frames");
+            
+            ReplayReport report;
+            if (host != null) {
+                try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+                     ChannelFrameWriter writer = new ChannelFrameWriter(channel)) {
+                    channel.socket().setTcpNoDelay(true);
+                    boolean paced = speed > 0.0;
+                    report = engine.replay(from, speed, (buffer, offset, length) -> {
+                        writer.onFrame(buffer, offset, length);
+                        if (paced) {
+                            writer.flush();
+                        }
+                    });
+                }
+            } else {
+                report = engine.replay(from, speed, (buffer, offset, length) -> { });
+            }
+            
+            System.out.printf("Replayed %d frames (%d bytes) in %.3fms: %.0f frames/s%n",
+                    report.frames(), report.bytes(), report.durationNs() / 1_000_000.0, report.framesPerSecond());
+            if (speed > 0.0) {
+                System.out.printf("Pacing error: mean %.0fns, p99 %dns, max %dns%n",
+                        report.meanPacingErrorNs(), report.p99PacingErrorNs(), report.maxPacingErrorNs());
+            }
+        }
+    }
+    
+    private static void handleRecover(String[] args) {
+        if (args.length < 3 || args.length > 4) {
+            System.err.println("Usage: recover <journal-binary> <snapshot-dir> [snapshot-interval]");
+            System.exit(1);
+        }
+        
+        Path journalPath = Paths.get(args[1]);
+        if (!Files.exists(journalPath)) {
+            System.err.println("Journal file does not exist: " + args[1]);
+            System.exit(1);
+        }
+        
+        MarketState state = new MarketState();
+        SnapshotStore store = new SnapshotStore(Paths.get(args[2]));
+        long interval = args.length == 4 ? Long.parseLong(args[3]) : 0;
+        PeriodicSnapshotter snapshotter = interval > 0 ? new PeriodicSnapshotter(state, store, interval) : null;
+        
+        RecoveryReport report = store.recover(state, journalPath, snapshotter != null ? snapshotter : state);
+        System.out.println(report.snapshot() != null
+                ? "Loaded snapshot " + report.snapshot() + " at frame " + report.snapshotFrames()
+                : "No snapshot found, replaying the whole journal");
+        System.out.printf("Replayed %d frames (%d bytes) in %.3fms%n",
+                report.replayedFrames(), report.replayedBytes(), report.durationNs() / 1_000_000.0);
+        System.out.println("State: " + state.frameCount() + " frames, " + state.bookCount() + " books, "
+                + state.orders().openOrderCount() + " open orders, last timestamp " + state.timestamp());
+        
+        Path snapshot = store.write(state);
+        System.out.println("Snapshot written to: " + snapshot);
+    }
+    
+    private static void handleChecksum(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 4) {
+            System.err.println("Usage: checksum <input-binary> <output-binary> [max-block-bytes]");
+            System.exit(1);
+        }
+        
+        Path inputPath = Paths.get(args[1]);
+        if (!Files.exists(inputPath)) {
+            System.err.println("Input file does not exist: " + args[1]);
+            System.exit(1);
+        }
+        int maxBlockLength = args.length == 4 ? Integer.parseInt(args[3]) : ChecksumFrameWriter.DEFAULT_MAX_BLOCK_LENGTH;
+        
+        try (MappedArchive input = MappedArchive.map(inputPath);
+             FileChannel output = FileChannel.open(Paths.get(args[2]),
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             ChecksumFrameWriter writer = new ChecksumFrameWriter(output, maxBlockLength, ChecksumFrameWriter.DEFAULT_BATCH_SIZE)) {
+            long end = input.forEach(writer);
+            if (end != input.length()) {
+                System.err.println("Warning: ignored " + (input.length() - end) + " trailing bytes of an incomplete frame");
+            }
+            writer.flush();
+            System.out.println("Wrote " + writer.framesWritten() + " frames in " + writer.blocksWritten()
+                    + " blocks (" + writer.bytesWritten() + " bytes) to: " + args[2]);
+        }
+    }
+    
+    private static void handleVerify(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: verify <checksummed-binary> [eager|lazy|sampled[:interval]]");
+            System.exit(1);
+        }
+        
+        Path inputPath = Paths.get(args[1]);
+        if (!Files.exists(inputPath)) {
+            System.err.println("Input file does not exist: " + args[1]);
+            System.exit(1);
+        }
+        
+        String mode = args.length == 3 ? args[2].toLowerCase() : "eager";
+        ChecksumFrameReader reader;
+        if (mode.startsWith("sampled")) {
+            int interval = mode.contains(":")
+                    ? Integer.parseInt(mode.substring(mode.indexOf(':') + 1))
+                    : ChecksumFrameReader.DEFAULT_SAMPLE_INTERVAL;
+            reader = new ChecksumFrameReader(ChecksumFrameReader.Verification.SAMPLED, interval);
+        } else {
+            reader = new ChecksumFrameReader(ChecksumFrameReader.Verification.valueOf(mode.toUpperCase()));
+        }
+        
+        try (MappedArchive input = MappedArchive.map(inputPath)) {
+            long start = System.nanoTime();
+            long end = reader.forEach(input, (buffer, offset, length) -> { });
+            long durationNs = System.nanoTime() - start;
+            
+            System.out.printf("Verified %d of %d blocks (%d frames) in %.3fms: %.0f MB/s%n",
+                    reader.blocksVerified(), reader.blocksRead(), reader.framesRead(),
+                    durationNs / 1_000_000.0, end * 1000.0 / durationNs);
+            if (end != input.length()) {
+                System.err.println("Warning: " + (input.length() - end) + " trailing bytes of an incomplete block");
+            }
+        }
+    }
+    
+    private static int templateId(String type) {
+        return switch (type.toLowerCase()) {
+            case "order" -> OrderEncoder.TEMPLATE_ID;
+            case "trade" -> TradeEncoder.TEMPLATE_ID;
+            case "marketdata" -> MarketDataEncoder.TEMPLATE_ID;
+            default -> throw new IllegalArgumentException("Unknown type: " + type + ". Use: order, trade, or marketdata");
+        };
+    }
+    
+    private static long parseMin(String range) {
+        String min = range.substring(0, range.indexOf(':'));
+        return min.isEmpty() ? Long.MIN_VALUE : Long.parseLong(min);
+    }
+    
+    private static long parseMax(String range) {
+        String max = range.substring(range.indexOf(':') + 1);
+        return max.isEmpty() ? Long.MAX_VALUE : Long.parseLong(max);
+    }
+    
+    private static void handleStats(String[] args) throws InterruptedException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: stats <stats-file> [interval-ms]");
+            System.exit(1);
+        }
+        
+        Path statsPath = Paths.get(args[1]);
+        if (!Files.exists(statsPath)) {
+            System.err.println("Stats file does not exist: " + args[1]);
+            System.exit(1);
+        }
+        
+        long intervalMs = args.length == 3 ? Long.parseLong(args[2]) : 0;
+        try (CodecStatsReader reader = new CodecStatsReader(statsPath)) {
+            reader.print(System.out);
+            while (intervalMs > 0) {
+                Thread.sleep(intervalMs);
+                System.out.println();
+                reader.print(System.out);
+            }
+        }
+    }
+    
+    private static void handleTrain(String[] args) {
+        if (args.length > 2) {
+            System.err.println("Usage: train [iterations]");
+            System.exit(1);
+        }
+        
+        int iterations = args.length == 2 ? Integer.parseInt(args[1]) : TrainingWorkload.DEFAULT_ITERATIONS;
+        TrainingWorkload workload = new TrainingWorkload(serializer, deserializer);
+        
+        long start = System.nanoTime();
+        long messages = workload.run(iterations);
+        long durationNs = System.nanoTime() - start;
+        
+        System.out.printf("Training workload: %d iterations, %d messages, %d bytes in %d ms (%.0f msg/s)%n",
+                iterations, messages, workload.bytes(), durationNs / 1_000_000, messages * 1e9 / durationNs);
+    }
+    
+    private static void handleBench(String[] args) {
+        if (args.length > 3) {
+            System.err.println("Usage: bench [iterations] [warmup-iterations]");
+            System.exit(1);
+        }
+        
+        int iterations = args.length >= 2 ? Integer.parseInt(args[1]) : SbeBenchmark.DEFAULT_ITERATIONS;
+        int warmupIterations = args.length == 3 ? Integer.parseInt(args[2]) : SbeBenchmark.DEFAULT_WARMUP_ITERATIONS;
+        
+        System.out.println("Benchmark: " + iterations + " measured iterations after " + warmupIterations
+                + " warm-up iterations per operation (" + System.getProperty("java.vm.name") + ")");
+        SbeBenchmark benchmark = new SbeBenchmark(warmupIterations, iterations);
+        SbeBenchmark.print(benchmark.run(), System.out);
     }
     
     private static void runDemo() {
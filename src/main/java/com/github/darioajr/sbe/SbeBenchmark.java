@@ -0,0 +1,177 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Self-contained codec benchmark that runs the same way on the JVM and in the native image
+ *
+ * JMH cannot run inside a native executable, so this harness warms up each operation and then
+ * times every call with {@link System#nanoTime()} into a {@link LatencyHistogram}. Encode,
+ * decode, JSON parse, direct JSON transcode and JSON format are measured for every template. Allocation per
+ * operation comes from {@code com.sun.management.ThreadMXBean} where the runtime supports it.
+ */
+public class SbeBenchmark {
+    
+    public static final int DEFAULT_WARMUP_ITERATIONS = 50_000;
+    public static final int DEFAULT_ITERATIONS = 200_000;
+    
+    @FunctionalInterface
+    private interface Operation {
+        Object run();
+    }
+    
+    private final int warmupIterations;
+    private final int iterations;
+    private final SbeSerializer serializer = new SbeSerializer();
+    private final SbeDeserializer deserializer = new SbeDeserializer();
+    private final JsonToSbeTranscoder transcoder = new JsonToSbeTranscoder();
+    private final ExpandableArrayBuffer transcodeBuffer = new ExpandableArrayBuffer(1024);
+    private final LatencyHistogram histogram = new LatencyHistogram()
+            .wrap(new UnsafeBuffer(new byte[LatencyHistogram.LENGTH]), 0);
+    private final com.sun.management.ThreadMXBean threadMXBean = allocationMXBean();
+    private int sink;
+    
+    public SbeBenchmark(int warmupIterations, int iterations) {
+        if (warmupIterations < 0 || iterations <= 0) {
+            throw new IllegalArgumentException("Invalid iterations: warmup=" + warmupIterations + ", measured=" + iterations);
+        }
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+    }
+    
+    /**
+     * Run every operation for every template
+     */
+    public List<BenchmarkResult> run() {
+        final OrderData order = new OrderData(
+                12345L, "AAPL", Side.BUY, 1000L, 15000L, 1693478400000L, BooleanType.TRUE, "CLIENT-ORDER-001");
+        final TradeData trade = new TradeData(
+                67890L, 12345L, "AAPL", Side.SELL, 500L, 14950L, 1693478400000L, "NASDAQ");
+        final MarketDataData marketData = new MarketDataData(
+                "AAPL", 1693478400000L, 14950L, 2000L, 15050L, 1500L, 15000L, 500L,
+                Arrays.asList(
+                        new PriceLevelData(14900L, 1000L, Side.BUY),
+                        new PriceLevelData(14950L, 2000L, Side.BUY),
+                        new PriceLevelData(15050L, 1500L, Side.SELL),
+                        new PriceLevelData(15100L, 800L, Side.SELL)));
+        
+        final byte[] orderBytes = serializer.serializeOrder(order);
+        final byte[] tradeBytes = serializer.serializeTrade(trade);
+        final byte[] marketDataBytes = serializer.serializeMarketData(marketData);
+        final String orderJson = JsonFormatter.formatOrder(order);
+        final String tradeJson = JsonFormatter.formatTrade(trade);
+        final String marketDataJson = JsonFormatter.formatMarketData(marketData);
+        final UnsafeBuffer orderJsonBytes = new UnsafeBuffer(orderJson.getBytes(StandardCharsets.US_ASCII));
+        final UnsafeBuffer tradeJsonBytes = new UnsafeBuffer(tradeJson.getBytes(StandardCharsets.US_ASCII));
+        final UnsafeBuffer marketDataJsonBytes = new UnsafeBuffer(marketDataJson.getBytes(StandardCharsets.US_ASCII));
+        
+        final List<BenchmarkResult> results = new ArrayList<>();
+        results.add(measure("Order", "encode", () -> serializer.serializeOrder(order)));
+        results.add(measure("Order", "decode", () -> deserializer.deserializeOrder(orderBytes)));
+        results.add(measure("Order", "json-parse", () -> JsonParser.parseOrder(orderJson)));
+        results.add(measure("Order", "json-transcode", () -> transcode(OrderEncoder.TEMPLATE_ID, orderJsonBytes)));
+        results.add(measure("Order", "json-format", () -> JsonFormatter.formatOrder(order)));
+        results.add(measure("Trade", "encode", () -> serializer.serializeTrade(trade)));
+        results.add(measure("Trade", "decode", () -> deserializer.deserializeTrade(tradeBytes)));
+        results.add(measure("Trade", "json-parse", () -> JsonParser.parseTrade(tradeJson)));
+        results.add(measure("Trade", "json-transcode", () -> transcode(TradeEncoder.TEMPLATE_ID, tradeJsonBytes)));
+        results.add(measure("Trade", "json-format", () -> JsonFormatter.formatTrade(trade)));
+        results.add(measure("MarketData", "encode", () -> serializer.serializeMarketData(marketData)));
+        results.add(measure("MarketData", "decode", () -> deserializer.deserializeMarketData(marketDataBytes)));
+        results.add(measure("MarketData", "json-parse", () -> JsonParser.parseMarketData(marketDataJson)));
+        results.add(measure("MarketData", "json-transcode", () -> transcode(MarketDataEncoder.TEMPLATE_ID, marketDataJsonBytes)));
+        results.add(measure("MarketData", "json-format", () -> JsonFormatter.formatMarketData(marketData)));
+        return results;
+    }
+    
+    /**
+     * Print results as a table
+     */
+    public static void print(List<BenchmarkResult> results, PrintStream out) {
+        out.printf("%-11s %-12s %12s %10s %10s %10s %10s %12s %12s%n",
+                "template", "operation", "ops/s", "p50(ns)", "p99(ns)", "p99.9(ns)", "max(ns)", "alloc(B/op)", "alloc(MB/s)");
+        for (BenchmarkResult result : results) {
+            final boolean allocation = result.allocatedBytesPerOp() >= 0;
+            out.printf("%-11s %-12s %12.0f %10d %10d %10d %10d %12s %12s%n",
+                    result.template(),
+                    result.operation(),
+                    result.opsPerSecond(),
+                    result.p50Ns(),
+                    result.p99Ns(),
+                    result.p999Ns(),
+                    result.maxNs(),
+                    allocation ? String.format("%.1f", result.allocatedBytesPerOp()) : "n/a",
+                    allocation ? String.format("%.1f", result.allocatedBytesPerOp() * result.opsPerSecond() / 1e6) : "n/a");
+        }
+    }
+    
+    /**
+     * Accumulated result hashes, kept so the measured calls cannot be eliminated
+     */
+    public int sink() {
+        return sink;
+    }
+    
+    private BenchmarkResult measure(String template, String name, Operation operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            sink += operation.run().hashCode();
+        }
+        
+        histogram.reset();
+        final long allocatedBefore = allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            final long t0 = System.nanoTime();
+            final Object result = operation.run();
+            histogram.record(System.nanoTime() - t0);
+            sink += result.hashCode();
+        }
+        final long durationNs = System.nanoTime() - start;
+        final long allocatedAfter = allocatedBytes();
+        
+        return new BenchmarkResult(
+                template,
+                name,
+                iterations,
+                iterations * 1e9 / durationNs,
+                histogram.valueAtPercentile(50.0),
+                histogram.valueAtPercentile(99.0),
+                histogram.valueAtPercentile(99.9),
+                histogram.max(),
+                allocatedBefore < 0 || allocatedAfter < 0 ? -1.0 : (double) (allocatedAfter - allocatedBefore) / iterations);
+    }
+    
+    /**
+     * Transcode JSON bytes into the reused buffer, folding the length into the sink instead of boxing it
+     */
+    private Object transcode(int templateId, DirectBuffer json) {
+        sink += transcoder.transcode(templateId, json, 0, json.capacity(), transcodeBuffer, 0);
+        return transcoder;
+    }
+    
+    private long allocatedBytes() {
+        return threadMXBean == null ? -1 : threadMXBean.getCurrentThreadAllocatedBytes();
+    }
+    
+    private static com.sun.management.ThreadMXBean allocationMXBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+                return bean.getCurrentThreadAllocatedBytes() < 0 ? null : bean;
+            }
+        } catch (UnsupportedOperationException | LinkageError e) {
+            // Not available on this runtime, allocation is reported as n/a
+        }
+        return null;
+    }
+}
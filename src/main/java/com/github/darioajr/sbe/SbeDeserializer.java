@@ -3,7 +3,6 @@ package com.github.darioajr.sbe;
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,21 +15,73 @@ public class SbeDeserializer {
     private final OrderDecoder orderDecoder = new OrderDecoder();
     private final TradeDecoder tradeDecoder = new TradeDecoder();
     private final MarketDataDecoder marketDataDecoder = new MarketDataDecoder();
+    private final SbeValidator validator = new SbeValidator();
+    private final UnsafeBuffer dataBuffer = new UnsafeBuffer(0, 0);
+    private final CodecStats stats;
+    
+    public SbeDeserializer() {
+        this(null);
+    }
+    
+    /**
+     * Create a deserializer that records decode counts and latencies into the given stats, which may be null
+     */
+    public SbeDeserializer(CodecStats stats) {
+        this.stats = stats;
+    }
     
     /**
      * Deserialize binary data to appropriate message type based on template ID
      */
     public Object deserialize(byte[] data) {
-        DirectBuffer buffer = new UnsafeBuffer(data);
+        if (stats == null && !CodecEvents.isDecodeEnabled()) {
+            return decode(data);
+        }
         
-        headerDecoder.wrap(buffer, 0);
+        final CodecEvents.Decode event = CodecEvents.beginDecode();
+        final long start = System.nanoTime();
+        try {
+            Object result = decode(data);
+            recordDecode(headerDecoder.templateId(), data.length, start, event, CodecEvents.HEAP);
+            return result;
+        } catch (RuntimeException e) {
+            recordDecodeError(data.length >= MessageHeaderDecoder.ENCODED_LENGTH
+                    ? headerDecoder.wrap(new UnsafeBuffer(data), 0).templateId() : 0);
+            throw e;
+        }
+    }
+    
+    private Object decode(byte[] data) {
+        return deserialize(new UnsafeBuffer(data), 0);
+    }
+    
+    /**
+     * Validate binary data with {@link SbeValidator} before deserializing it, for untrusted input
+     */
+    public Object deserializeChecked(byte[] data) {
+        if (validator.validate(new UnsafeBuffer(data), 0, data.length) != SbeValidator.Verdict.VALID) {
+            recordDecodeError(validator.templateId());
+            throw new IllegalArgumentException("Invalid SBE message: " + validator.verdict()
+                    + " at offset " + validator.errorOffset());
+        }
+        
+        return deserialize(data);
+    }
+    
+    /**
+     * Deserialize the message at the given offset without any structural checks
+     * 
+     * The frame must already have been accepted by {@link SbeValidator}.
+     */
+    public Object deserialize(DirectBuffer buffer, int offset) {
+        headerDecoder.wrap(buffer, offset);
         int templateId = headerDecoder.templateId();
-        int offset = headerDecoder.encodedLength();
+        int bodyOffset = offset + headerDecoder.encodedLength();
         
         return switch (templateId) {
-            case OrderDecoder.TEMPLATE_ID -> deserializeOrder(buffer, offset);
-            case TradeDecoder.TEMPLATE_ID -> deserializeTrade(buffer, offset);
-            case MarketDataDecoder.TEMPLATE_ID -> deserializeMarketData(buffer, offset);
+            case OrderDecoder.TEMPLATE_ID -> deserializeOrder(buffer, bodyOffset);
+            case TradeDecoder.TEMPLATE_ID -> deserializeTrade(buffer, bodyOffset);
+            case MarketDataDecoder.TEMPLATE_ID -> deserializeMarketData(buffer, bodyOffset);
             default -> throw new IllegalArgumentException("Unknown template ID: " + templateId);
         };
     }
@@ -39,6 +90,23 @@ public class SbeDeserializer {
      * Deserialize Order message from binary data
      */
     public OrderData deserializeOrder(byte[] data) {
+        if (stats == null && !CodecEvents.isDecodeEnabled()) {
+            return decodeOrder(data);
+        }
+        
+        final CodecEvents.Decode event = CodecEvents.beginDecode();
+        final long start = System.nanoTime();
+        try {
+            OrderData result = decodeOrder(data);
+            recordDecode(OrderDecoder.TEMPLATE_ID, data.length, start, event, CodecEvents.HEAP);
+            return result;
+        } catch (RuntimeException e) {
+            recordDecodeError(OrderDecoder.TEMPLATE_ID);
+            throw e;
+        }
+    }
+    
+    private OrderData decodeOrder(byte[] data) {
         DirectBuffer buffer = new UnsafeBuffer(data);
         headerDecoder.wrap(buffer, 0);
         return deserializeOrder(buffer, headerDecoder.encodedLength());
@@ -59,10 +127,7 @@ public class SbeDeserializer {
         BooleanType isActive = orderDecoder.isActive();
         
         // Extract variable length client order ID
-        int clientOrderIdLength = orderDecoder.clientOrderIdLength();
-        byte[] clientOrderIdBytes = new byte[clientOrderIdLength];
-        orderDecoder.getClientOrderId(clientOrderIdBytes, 0, clientOrderIdLength);
-        String clientOrderId = new String(clientOrderIdBytes, StandardCharsets.US_ASCII);
+        String clientOrderId = orderDecoder.clientOrderId();
         
         return new OrderData(orderId, symbol, side, quantity, price, timestamp, isActive, clientOrderId);
     }
@@ -71,6 +136,23 @@ public class SbeDeserializer {
      * Deserialize Trade message from binary data
      */
     public TradeData deserializeTrade(byte[] data) {
+        if (stats == null && !CodecEvents.isDecodeEnabled()) {
+            return decodeTrade(data);
+        }
+        
+        final CodecEvents.Decode event = CodecEvents.beginDecode();
+        final long start = System.nanoTime();
+        try {
+            TradeData result = decodeTrade(data);
+            recordDecode(TradeDecoder.TEMPLATE_ID, data.length, start, event, CodecEvents.HEAP);
+            return result;
+        } catch (RuntimeException e) {
+            recordDecodeError(TradeDecoder.TEMPLATE_ID);
+            throw e;
+        }
+    }
+    
+    private TradeData decodeTrade(byte[] data) {
         DirectBuffer buffer = new UnsafeBuffer(data);
         headerDecoder.wrap(buffer, 0);
         return deserializeTrade(buffer, headerDecoder.encodedLength());
@@ -91,10 +173,7 @@ public class SbeDeserializer {
         long timestamp = tradeDecoder.timestamp();
         
         // Extract variable length venue
-        int venueLength = tradeDecoder.venueLength();
-        byte[] venueBytes = new byte[venueLength];
-        tradeDecoder.getVenue(venueBytes, 0, venueLength);
-        String venue = new String(venueBytes, StandardCharsets.US_ASCII);
+        String venue = tradeDecoder.venue();
         
         return new TradeData(tradeId, orderId, symbol, side, quantity, price, timestamp, venue);
     }
@@ -103,6 +182,23 @@ public class SbeDeserializer {
      * Deserialize MarketData message from binary data
      */
     public MarketDataData deserializeMarketData(byte[] data) {
+        if (stats == null && !CodecEvents.isDecodeEnabled()) {
+            return decodeMarketData(data);
+        }
+        
+        final CodecEvents.Decode event = CodecEvents.beginDecode();
+        final long start = System.nanoTime();
+        try {
+            MarketDataData result = decodeMarketData(data);
+            recordDecode(MarketDataDecoder.TEMPLATE_ID, data.length, start, event, CodecEvents.HEAP);
+            return result;
+        } catch (RuntimeException e) {
+            recordDecodeError(MarketDataDecoder.TEMPLATE_ID);
+            throw e;
+        }
+    }
+    
+    private MarketDataData decodeMarketData(byte[] data) {
         DirectBuffer buffer = new UnsafeBuffer(data);
         headerDecoder.wrap(buffer, 0);
         return deserializeMarketData(buffer, headerDecoder.encodedLength());
@@ -138,4 +234,155 @@ public class SbeDeserializer {
         return new MarketDataData(symbol, timestamp, bidPrice, bidSize, 
                                  askPrice, askSize, lastPrice, lastSize, levels);
     }
+    
+    /**
+     * Decode the Order at the given offset into a reusable target, without allocating in steady state
+     */
+    public MutableOrder decodeInto(DirectBuffer buffer, int offset, MutableOrder target) {
+        if (stats == null && !CodecEvents.isDecodeEnabled()) {
+            return decodeOrderInto(buffer, offset, target);
+        }
+        
+        final CodecEvents.Decode event = CodecEvents.beginDecode();
+        final long start = System.nanoTime();
+        try {
+            decodeOrderInto(buffer, offset, target);
+            recordDecode(OrderDecoder.TEMPLATE_ID, MessageHeaderDecoder.ENCODED_LENGTH + orderDecoder.encodedLength(), start, event, CodecEvents.source(buffer));
+            return target;
+        } catch (RuntimeException e) {
+            recordDecodeError(OrderDecoder.TEMPLATE_ID);
+            throw e;
+        }
+    }
+    
+    public MutableOrder decodeInto(byte[] data, MutableOrder target) {
+        dataBuffer.wrap(data);
+        return decodeInto(dataBuffer, 0, target);
+    }
+    
+    /**
+     * Decode the Trade at the given offset into a reusable target, without allocating in steady state
+     */
+    public MutableTrade decodeInto(DirectBuffer buffer, int offset, MutableTrade target) {
+        if (stats == null && !CodecEvents.isDecodeEnabled()) {
+            return decodeTradeInto(buffer, offset, target);
+        }
+        
+        final CodecEvents.Decode event = CodecEvents.beginDecode();
+        final long start = System.nanoTime();
+        try {
+            decodeTradeInto(buffer, offset, target);
+            recordDecode(TradeDecoder.TEMPLATE_ID, MessageHeaderDecoder.ENCODED_LENGTH + tradeDecoder.encodedLength(), start, event, CodecEvents.source(buffer));
+            return target;
+        } catch (RuntimeException e) {
+            recordDecodeError(TradeDecoder.TEMPLATE_ID);
+            throw e;
+        }
+    }
+    
+    public MutableTrade decodeInto(byte[] data, MutableTrade target) {
+        dataBuffer.wrap(data);
+        return decodeInto(dataBuffer, 0, target);
+    }
+    
+    /**
+     * Decode the MarketData at the given offset into a reusable target, without allocating in steady state
+     */
+    public MutableMarketData decodeInto(DirectBuffer buffer, int offset, MutableMarketData target) {
+        if (stats == null && !CodecEvents.isDecodeEnabled()) {
+            return decodeMarketDataInto(buffer, offset, target);
+        }
+        
+        final CodecEvents.Decode event = CodecEvents.beginDecode();
+        final long start = System.nanoTime();
+        try {
+            decodeMarketDataInto(buffer, offset, target);
+            recordDecode(MarketDataDecoder.TEMPLATE_ID, MessageHeaderDecoder.ENCODED_LENGTH + marketDataDecoder.encodedLength(), start, event, CodecEvents.source(buffer));
+            return target;
+        } catch (RuntimeException e) {
+            recordDecodeError(MarketDataDecoder.TEMPLATE_ID);
+            throw e;
+        }
+    }
+    
+    public MutableMarketData decodeInto(byte[] data, MutableMarketData target) {
+        dataBuffer.wrap(data);
+        return decodeInto(dataBuffer, 0, target);
+    }
+    
+    private MutableOrder decodeOrderInto(DirectBuffer buffer, int offset, MutableOrder target) {
+        final int bodyOffset = wrapHeader(buffer, offset, OrderDecoder.TEMPLATE_ID);
+        orderDecoder.wrap(buffer, bodyOffset, headerDecoder.blockLength(), headerDecoder.version());
+        
+        target.orderId(orderDecoder.orderId())
+                .symbolKey(Symbols.read(buffer, bodyOffset + OrderDecoder.symbolEncodingOffset()))
+                .side(orderDecoder.side())
+                .quantity(orderDecoder.quantity())
+                .price(orderDecoder.price())
+                .timestamp(orderDecoder.timestamp())
+                .isActive(orderDecoder.isActive());
+        
+        final StringBuilder clientOrderId = target.clientOrderIdBuilder();
+        clientOrderId.setLength(0);
+        orderDecoder.getClientOrderId(clientOrderId);
+        return target;
+    }
+    
+    private MutableTrade decodeTradeInto(DirectBuffer buffer, int offset, MutableTrade target) {
+        final int bodyOffset = wrapHeader(buffer, offset, TradeDecoder.TEMPLATE_ID);
+        tradeDecoder.wrap(buffer, bodyOffset, headerDecoder.blockLength(), headerDecoder.version());
+        
+        target.tradeId(tradeDecoder.tradeId())
+                .orderId(tradeDecoder.orderId())
+                .symbolKey(Symbols.read(buffer, bodyOffset + TradeDecoder.symbolEncodingOffset()))
+                .side(tradeDecoder.side())
+                .quantity(tradeDecoder.quantity())
+                .price(tradeDecoder.price())
+                .timestamp(tradeDecoder.timestamp());
+        
+        final StringBuilder venue = target.venueBuilder();
+        venue.setLength(0);
+        tradeDecoder.getVenue(venue);
+        return target;
+    }
+    
+    private MutableMarketData decodeMarketDataInto(DirectBuffer buffer, int offset, MutableMarketData target) {
+        final int bodyOffset = wrapHeader(buffer, offset, MarketDataDecoder.TEMPLATE_ID);
+        marketDataDecoder.wrap(buffer, bodyOffset, headerDecoder.blockLength(), headerDecoder.version());
+        
+        target.symbolKey(Symbols.read(buffer, bodyOffset + MarketDataDecoder.symbolEncodingOffset()))
+                .timestamp(marketDataDecoder.timestamp())
+                .bidPrice(marketDataDecoder.bidPrice())
+                .bidSize(marketDataDecoder.bidSize())
+                .askPrice(marketDataDecoder.askPrice())
+                .askSize(marketDataDecoder.askSize())
+                .lastPrice(marketDataDecoder.lastPrice())
+                .lastSize(marketDataDecoder.lastSize())
+                .clearLevels();
+        
+        target.ensureLevelCapacity(marketDataDecoder.levelsCount());
+        return target.levelCount(marketDataDecoder.getLevels(target.levelPrices(), target.levelSizes(), target.levelSides()));
+    }
+    
+    private int wrapHeader(DirectBuffer buffer, int offset, int expectedTemplateId) {
+        headerDecoder.wrap(buffer, offset);
+        if (headerDecoder.templateId() != expectedTemplateId) {
+            throw new IllegalArgumentException("Expected template ID " + expectedTemplateId
+                    + " but found " + headerDecoder.templateId());
+        }
+        return offset + headerDecoder.encodedLength();
+    }
+    
+    private void recordDecode(int templateId, int length, long start, CodecEvents.Decode event, String bufferSource) {
+        if (stats != null) {
+            stats.record(CodecStats.DECODE, templateId, length, System.nanoTime() - start);
+        }
+        CodecEvents.commitDecode(event, templateId, length, bufferSource);
+    }
+    
+    private void recordDecodeError(int templateId) {
+        if (stats != null) {
+            stats.recordError(CodecStats.DECODE, templateId);
+        }
+    }
 }
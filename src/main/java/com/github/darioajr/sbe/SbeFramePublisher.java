@@ -0,0 +1,228 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Flow.Publisher} of messages decoded from a {@link FrameSource}, driven by subscriber demand
+ *
+ * Frames are only pulled from the source while the subscriber has outstanding demand, in
+ * batches of at most min(demand, maxBatchSize), so a slow subscriber never causes frames to be
+ * buffered. All signals are delivered serially on the executor; while demand is outstanding and
+ * the source has nothing yet, the delivery task idles on its executor thread. The source is
+ * closed when the stream completes, fails or is cancelled.
+ *
+ * A publisher reads its source once and accepts a single subscriber.
+ *
+ * @param <T> type of decoded message
+ */
+public class SbeFramePublisher<T> implements Flow.Publisher<T> {
+    
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    
+    /**
+     * Turns a complete frame into the item delivered to the subscriber
+     */
+    @FunctionalInterface
+    public interface FrameDecoder<T> {
+        T decode(DirectBuffer buffer, int offset, int length);
+    }
+    
+    private final FrameSource source;
+    private final Executor executor;
+    private final FrameDecoder<T> decoder;
+    private final int maxBatchSize;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    
+    public SbeFramePublisher(FrameSource source, Executor executor, FrameDecoder<T> decoder) {
+        this(source, executor, decoder, DEFAULT_MAX_BATCH_SIZE);
+    }
+    
+    public SbeFramePublisher(FrameSource source, Executor executor, FrameDecoder<T> decoder, int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.source = Objects.requireNonNull(source, "source");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.decoder = Objects.requireNonNull(decoder, "decoder");
+        this.maxBatchSize = maxBatchSize;
+    }
+    
+    /**
+     * Publisher of validated, detached {@link OrderData}, {@link TradeData} and {@link MarketDataData} records
+     */
+    public static SbeFramePublisher<Object> ofRecords(FrameSource source, Executor executor) {
+        final SbeDeserializer deserializer = new SbeDeserializer();
+        final SbeValidator validator = new SbeValidator();
+        return new SbeFramePublisher<>(source, executor, (buffer, offset, length) -> {
+            validate(validator, buffer, offset, length);
+            return deserializer.deserialize(buffer, offset);
+        });
+    }
+    
+    /**
+     * Publisher of validated, pooled {@link MutableOrder}, {@link MutableTrade} and {@link MutableMarketData}
+     * instances; each item is only valid until onNext returns, so copy it (e.g. toOrderData) to keep it
+     */
+    public static SbeFramePublisher<Object> ofMutable(FrameSource source, Executor executor) {
+        final SbeDeserializer deserializer = new SbeDeserializer();
+        final SbeValidator validator = new SbeValidator();
+        final MutableOrder order = new MutableOrder();
+        final MutableTrade trade = new MutableTrade();
+        final MutableMarketData marketData = new MutableMarketData();
+        return new SbeFramePublisher<>(source, executor, (buffer, offset, length) -> {
+            validate(validator, buffer, offset, length);
+            return switch (validator.templateId()) {
+                case OrderDecoder.TEMPLATE_ID -> deserializer.decodeInto(buffer, offset, order);
+                case TradeDecoder.TEMPLATE_ID -> deserializer.decodeInto(buffer, offset, trade);
+                case MarketDataDecoder.TEMPLATE_ID -> deserializer.decodeInto(buffer, offset, marketData);
+                default -> throw new IllegalArgumentException("Unsupported template ID: " + validator.templateId());
+            };
+        });
+    }
+    
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+                
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("SbeFramePublisher supports a single subscriber"));
+            return;
+        }
+        
+        new FrameSubscription(subscriber).schedule();
+    }
+    
+    private static void validate(SbeValidator validator, DirectBuffer buffer, int offset, int length) {
+        if (validator.validate(buffer, offset, length) != SbeValidator.Verdict.VALID) {
+            throw new IllegalArgumentException("Invalid SBE message: " + validator.verdict()
+                    + " at offset " + validator.errorOffset());
+        }
+    }
+    
+    private final class FrameSubscription implements Flow.Subscription, FrameHandler, Runnable {
+        
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingSignals = new AtomicInteger();
+        private final IdleStrategy idleStrategy = new BackoffIdleStrategy();
+        private volatile boolean cancelled;
+        private volatile Throwable requestError;
+        private boolean started;
+        private boolean done;
+        
+        FrameSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+        
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                requestError = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                long current;
+                long next;
+                do {
+                    current = demand.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!demand.compareAndSet(current, next));
+            }
+            schedule();
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+        
+        void schedule() {
+            if (pendingSignals.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+        
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                if (!started) {
+                    started = true;
+                    subscriber.onSubscribe(this);
+                }
+                drain();
+                missed = pendingSignals.addAndGet(-missed);
+            } while (missed != 0);
+        }
+        
+        @Override
+        public void onFrame(DirectBuffer buffer, int offset, int length) {
+            if (!cancelled) {
+                subscriber.onNext(decoder.decode(buffer, offset, length));
+            }
+        }
+        
+        private void drain() {
+            while (!done) {
+                if (cancelled) {
+                    terminate();
+                    return;
+                }
+                if (requestError != null) {
+                    cancelled = true;
+                    terminate();
+                    subscriber.onError(requestError);
+                    return;
+                }
+                
+                try {
+                    if (source.isEndOfStream()) {
+                        terminate();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    
+                    final long requested = demand.get();
+                    if (requested == 0) {
+                        return;
+                    }
+                    
+                    final int frames = source.poll(this, (int) Math.min(requested, maxBatchSize));
+                    if (frames > 0) {
+                        if (requested != Long.MAX_VALUE) {
+                            demand.addAndGet(-frames);
+                        }
+                        idleStrategy.reset();
+                    } else {
+                        idleStrategy.idle();
+                    }
+                } catch (RuntimeException e) {
+                    terminate();
+                    subscriber.onError(e);
+                    return;
+                }
+            }
+        }
+        
+        private void terminate() {
+            done = true;
+            source.close();
+        }
+    }
+}
@@ -1,10 +1,7 @@
 package com.github.darioajr.sbe;
 
+import org.agrona.ExpandableArrayBuffer;
 import org.agrona.MutableDirectBuffer;
-import org.agrona.concurrent.UnsafeBuffer;
-
-import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 
 /**
  * SBE Serializer for encoding messages to binary format
@@ -15,13 +12,42 @@ public class SbeSerializer {
     private final OrderEncoder orderEncoder = new OrderEncoder();
     private final TradeEncoder tradeEncoder = new TradeEncoder();
     private final MarketDataEncoder marketDataEncoder = new MarketDataEncoder();
+    private final ExpandableArrayBuffer encodeBuffer = new ExpandableArrayBuffer(2048);
+    private final CodecStats stats;
+    
+    public SbeSerializer() {
+        this(null);
+    }
+    
+    /**
+     * Create a serializer that records encode counts and latencies into the given stats, which may be null
+     */
+    public SbeSerializer(CodecStats stats) {
+        this.stats = stats;
+    }
     
     /**
      * Serialize an Order message to binary format
      */
     public byte[] serializeOrder(OrderData orderData) {
-        ByteBuffer buffer = ByteBuffer.allocate(1024);
-        MutableDirectBuffer directBuffer = new UnsafeBuffer(buffer);
+        if (stats == null && !CodecEvents.isEncodeEnabled()) {
+            return encodeOrder(orderData);
+        }
+        
+        final CodecEvents.Encode event = CodecEvents.beginEncode();
+        final long start = System.nanoTime();
+        try {
+            byte[] result = encodeOrder(orderData);
+            recordEncode(OrderEncoder.TEMPLATE_ID, result.length, start, event);
+            return result;
+        } catch (RuntimeException e) {
+            recordEncodeError(OrderEncoder.TEMPLATE_ID);
+            throw e;
+        }
+    }
+    
+    private byte[] encodeOrder(OrderData orderData) {
+        MutableDirectBuffer directBuffer = encodeBuffer;
         
         int offset = 0;
         
@@ -45,8 +71,7 @@ public class SbeSerializer {
                 .isActive(orderData.isActive());
         
         // Encode variable length client order ID
-        byte[] clientOrderIdBytes = orderData.clientOrderId().getBytes(StandardCharsets.US_ASCII);
-        orderEncoder.putClientOrderId(clientOrderIdBytes, 0, clientOrderIdBytes.length);
+        orderEncoder.clientOrderId(orderData.clientOrderId());
         
         int totalLength = MessageHeaderEncoder.ENCODED_LENGTH + orderEncoder.encodedLength();
         byte[] result = new byte[totalLength];
@@ -59,8 +84,24 @@ public class SbeSerializer {
      * Serialize a Trade message to binary format
      */
     public byte[] serializeTrade(TradeData tradeData) {
-        ByteBuffer buffer = ByteBuffer.allocate(1024);
-        MutableDirectBuffer directBuffer = new UnsafeBuffer(buffer);
+        if (stats == null && !CodecEvents.isEncodeEnabled()) {
+            return encodeTrade(tradeData);
+        }
+        
+        final CodecEvents.Encode event = CodecEvents.beginEncode();
+        final long start = System.nanoTime();
+        try {
+            byte[] result = encodeTrade(tradeData);
+            recordEncode(TradeEncoder.TEMPLATE_ID, result.length, start, event);
+            return result;
+        } catch (RuntimeException e) {
+            recordEncodeError(TradeEncoder.TEMPLATE_ID);
+            throw e;
+        }
+    }
+    
+    private byte[] encodeTrade(TradeData tradeData) {
+        MutableDirectBuffer directBuffer = encodeBuffer;
         
         int offset = 0;
         
@@ -84,8 +125,7 @@ public class SbeSerializer {
                 .timestamp(tradeData.timestamp());
         
         // Encode variable length venue
-        byte[] venueBytes = tradeData.venue().getBytes(StandardCharsets.US_ASCII);
-        tradeEncoder.putVenue(venueBytes, 0, venueBytes.length);
+        tradeEncoder.venue(tradeData.venue());
         
         int totalLength = MessageHeaderEncoder.ENCODED_LENGTH + tradeEncoder.encodedLength();
         byte[] result = new byte[totalLength];
@@ -98,8 +138,24 @@ public class SbeSerializer {
      * Serialize a MarketData message to binary format
      */
     public byte[] serializeMarketData(MarketDataData marketData) {
-        ByteBuffer buffer = ByteBuffer.allocate(2048);
-        MutableDirectBuffer directBuffer = new UnsafeBuffer(buffer);
+        if (stats == null && !CodecEvents.isEncodeEnabled()) {
+            return encodeMarketData(marketData);
+        }
+        
+        final CodecEvents.Encode event = CodecEvents.beginEncode();
+        final long start = System.nanoTime();
+        try {
+            byte[] result = encodeMarketData(marketData);
+            recordEncode(MarketDataEncoder.TEMPLATE_ID, result.length, start, event);
+            return result;
+        } catch (RuntimeException e) {
+            recordEncodeError(MarketDataEncoder.TEMPLATE_ID);
+            throw e;
+        }
+    }
+    
+    private byte[] encodeMarketData(MarketDataData marketData) {
+        MutableDirectBuffer directBuffer = encodeBuffer;
         
         int offset = 0;
         
@@ -141,4 +197,17 @@ public class SbeSerializer {
         
         return result;
     }
+    
+    private void recordEncode(int templateId, int length, long start, CodecEvents.Encode event) {
+        if (stats != null) {
+            stats.record(CodecStats.ENCODE, templateId, length, System.nanoTime() - start);
+        }
+        CodecEvents.commitEncode(event, templateId, length, CodecEvents.HEAP);
+    }
+    
+    private void recordEncodeError(int templateId) {
+        if (stats != null) {
+            stats.recordError(CodecStats.ENCODE, templateId);
+        }
+    }
 }
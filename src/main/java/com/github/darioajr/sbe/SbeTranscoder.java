@@ -0,0 +1,76 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.collections.Int2IntHashMap;
+import org.agrona.collections.Int2ObjectHashMap;
+
+import java.nio.ByteOrder;
+
+/**
+ * Relays frames to a downstream handler in the target schema version, transcoding older or
+ * newer producers' frames buffer to buffer with a {@link TranscodePlan} per (template, version)
+ *
+ * Frames already in a registered target layout pass through untouched; frames for which no
+ * plan or target is registered are rejected. Transcoded frames are written into one reused
+ * expandable buffer, which the downstream handler may only use during the call.
+ *
+ * Not thread safe; feed it from a single thread.
+ */
+public class SbeTranscoder implements FrameHandler {
+    
+    private final FrameHandler downstream;
+    private final Int2ObjectHashMap<TranscodePlan> plans = new Int2ObjectHashMap<>();
+    private final Int2IntHashMap targetVersions = new Int2IntHashMap(-1);
+    private final ExpandableDirectByteBuffer scratch = new ExpandableDirectByteBuffer(1024);
+    private long transcoded;
+    private long passedThrough;
+    
+    public SbeTranscoder(FrameHandler downstream) {
+        this.downstream = downstream;
+    }
+    
+    /**
+     * Transcode frames in the source layout to the target layout
+     */
+    public SbeTranscoder register(MessageLayout source, MessageLayout target) {
+        final int targetVersion = targetVersions.get(target.templateId());
+        if (targetVersion != -1 && targetVersion != target.version()) {
+            throw new IllegalArgumentException("Template " + target.templateId() + " already targets version " + targetVersion);
+        }
+        targetVersions.put(target.templateId(), target.version());
+        plans.put(key(source.templateId(), source.version()), TranscodePlan.compile(source, target));
+        return this;
+    }
+    
+    @Override
+    public void onFrame(DirectBuffer buffer, int offset, int length) {
+        final int templateId = MessageFrames.templateId(buffer, offset);
+        final int version = buffer.getShort(offset + 6, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        if (targetVersions.get(templateId) == version) {
+            passedThrough++;
+            downstream.onFrame(buffer, offset, length);
+            return;
+        }
+        
+        final TranscodePlan plan = plans.get(key(templateId, version));
+        if (plan == null) {
+            throw new IllegalArgumentException("No transcode plan for template " + templateId + " version " + version);
+        }
+        final int transcodedLength = plan.transcode(buffer, offset, scratch, 0);
+        transcoded++;
+        downstream.onFrame(scratch, 0, transcodedLength);
+    }
+    
+    public long transcoded() {
+        return transcoded;
+    }
+    
+    public long passedThrough() {
+        return passedThrough;
+    }
+    
+    private static int key(int templateId, int version) {
+        return templateId << 16 | version;
+    }
+}
@@ -0,0 +1,226 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+
+import java.nio.ByteOrder;
+
+/**
+ * Single-pass structural validator for SBE frames from untrusted sources
+ *
+ * Walks a frame once, checking the message header, the block length, repeating group
+ * dimensions and var-data lengths against the bytes actually available, plus the enum
+ * values for {@link Side} and {@link BooleanType}. A {@link Verdict#VALID} frame can then be
+ * decoded without further checks, e.g. by {@link SbeDeserializer#deserialize(DirectBuffer, int)}
+ * on a JVM started with {@code -Dagrona.disable.bounds.checks=true}.
+ *
+ * Instances are reusable and do not allocate.
+ */
+public class SbeValidator {
+    
+    /**
+     * Maximum var-data length allowed by the schema's varAsciiEncoding
+     */
+    public static final int MAX_VAR_DATA_LENGTH = 1073741824;
+    
+    private static final int GROUP_HEADER_LENGTH = 4;
+    private static final int VAR_DATA_HEADER_LENGTH = 4;
+    private static final int LEVEL_BLOCK_LENGTH = 17;
+    
+    public enum Verdict {
+        VALID,
+        TRUNCATED,
+        UNKNOWN_SCHEMA,
+        UNKNOWN_TEMPLATE,
+        INVALID_BLOCK_LENGTH,
+        INVALID_GROUP,
+        INVALID_VAR_DATA_LENGTH,
+        INVALID_ENUM_VALUE
+    }
+    
+    private Verdict verdict = Verdict.VALID;
+    private int templateId;
+    private int encodedLength;
+    private int errorOffset;
+    
+    /**
+     * Validate the frame starting at offset, with length bytes available in the buffer
+     */
+    public Verdict validate(DirectBuffer buffer, int offset, int length) {
+        templateId = 0;
+        encodedLength = 0;
+        errorOffset = -1;
+        
+        final int limit = offset + length;
+        if (length < MessageHeaderDecoder.ENCODED_LENGTH) {
+            return fail(Verdict.TRUNCATED, offset);
+        }
+        
+        final int blockLength = buffer.getShort(offset, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        templateId = buffer.getShort(offset + 2, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        final int schemaId = buffer.getShort(offset + 4, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        
+        if (schemaId != OrderDecoder.SCHEMA_ID) {
+            return fail(Verdict.UNKNOWN_SCHEMA, offset + 4);
+        }
+        
+        final int body = offset + MessageHeaderDecoder.ENCODED_LENGTH;
+        final int end = switch (templateId) {
+            case OrderDecoder.TEMPLATE_ID -> validateOrder(buffer, body, blockLength, limit);
+            case TradeDecoder.TEMPLATE_ID -> validateTrade(buffer, body, blockLength, limit);
+            case MarketDataDecoder.TEMPLATE_ID -> validateMarketData(buffer, body, blockLength, limit);
+            case SnapshotHeaderDecoder.TEMPLATE_ID -> validateFixed(body, blockLength, SnapshotHeaderDecoder.BLOCK_LENGTH, limit);
+            case OrderStateDecoder.TEMPLATE_ID -> validateFixed(body, blockLength, OrderStateDecoder.BLOCK_LENGTH, limit);
+            case PositionDecoder.TEMPLATE_ID -> validateFixed(body, blockLength, PositionDecoder.BLOCK_LENGTH, limit);
+            case BarDecoder.TEMPLATE_ID -> validateFixed(body, blockLength, BarDecoder.BLOCK_LENGTH, limit);
+            default -> {
+                fail(Verdict.UNKNOWN_TEMPLATE, offset + 2);
+                yield -1;
+            }
+        };
+        
+        if (end < 0) {
+            return verdict;
+        }
+        
+        encodedLength = end - offset;
+        verdict = Verdict.VALID;
+        return verdict;
+    }
+    
+    /**
+     * Verdict of the last validation
+     */
+    public Verdict verdict() {
+        return verdict;
+    }
+    
+    /**
+     * Template ID of the last validated frame, 0 when the header was truncated
+     */
+    public int templateId() {
+        return templateId;
+    }
+    
+    /**
+     * Exact encoded length of the last valid frame including its message header
+     */
+    public int encodedLength() {
+        return encodedLength;
+    }
+    
+    /**
+     * Buffer offset at which the last validation failed, or -1 when valid
+     */
+    public int errorOffset() {
+        return errorOffset;
+    }
+    
+    private int validateOrder(DirectBuffer buffer, int body, int blockLength, int limit) {
+        if (!validateBlock(body, blockLength, OrderDecoder.BLOCK_LENGTH, limit)
+                || !validateSide(buffer, body + 16)
+                || !validateBooleanType(buffer, body + 41)) {
+            return -1;
+        }
+        return validateVarData(buffer, body + blockLength, limit);
+    }
+    
+    private int validateTrade(DirectBuffer buffer, int body, int blockLength, int limit) {
+        if (!validateBlock(body, blockLength, TradeDecoder.BLOCK_LENGTH, limit)
+                || !validateSide(buffer, body + 24)) {
+            return -1;
+        }
+        return validateVarData(buffer, body + blockLength, limit);
+    }
+    
+    private int validateMarketData(DirectBuffer buffer, int body, int blockLength, int limit) {
+        if (!validateBlock(body, blockLength, MarketDataDecoder.BLOCK_LENGTH, limit)) {
+            return -1;
+        }
+        
+        final int groupHeader = body + blockLength;
+        if (limit - groupHeader < GROUP_HEADER_LENGTH) {
+            fail(Verdict.TRUNCATED, groupHeader);
+            return -1;
+        }
+        
+        final int levelBlockLength = buffer.getShort(groupHeader, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        final int numInGroup = buffer.getShort(groupHeader + 2, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        if (levelBlockLength < LEVEL_BLOCK_LENGTH) {
+            fail(Verdict.INVALID_GROUP, groupHeader);
+            return -1;
+        }
+        
+        final int entries = groupHeader + GROUP_HEADER_LENGTH;
+        if ((long) numInGroup * levelBlockLength > limit - entries) {
+            fail(Verdict.TRUNCATED, groupHeader + 2);
+            return -1;
+        }
+        
+        for (int i = 0; i < numInGroup; i++) {
+            if (!validateSide(buffer, entries + i * levelBlockLength + 16)) {
+                return -1;
+            }
+        }
+        
+        return entries + numInGroup * levelBlockLength;
+    }
+    
+    private int validateFixed(int body, int blockLength, int minBlockLength, int limit) {
+        return validateBlock(body, blockLength, minBlockLength, limit) ? body + blockLength : -1;
+    }
+    
+    private boolean validateBlock(int body, int blockLength, int minBlockLength, int limit) {
+        if (blockLength < minBlockLength) {
+            fail(Verdict.INVALID_BLOCK_LENGTH, body - MessageHeaderDecoder.ENCODED_LENGTH);
+            return false;
+        }
+        if (limit - body < blockLength) {
+            fail(Verdict.TRUNCATED, body);
+            return false;
+        }
+        return true;
+    }
+    
+    private int validateVarData(DirectBuffer buffer, int position, int limit) {
+        if (limit - position < VAR_DATA_HEADER_LENGTH) {
+            fail(Verdict.TRUNCATED, position);
+            return -1;
+        }
+        
+        final int dataLength = buffer.getInt(position, ByteOrder.LITTLE_ENDIAN);
+        if (dataLength < 0 || dataLength > MAX_VAR_DATA_LENGTH) {
+            fail(Verdict.INVALID_VAR_DATA_LENGTH, position);
+            return -1;
+        }
+        if (limit - position - VAR_DATA_HEADER_LENGTH < dataLength) {
+            fail(Verdict.TRUNCATED, position);
+            return -1;
+        }
+        
+        return position + VAR_DATA_HEADER_LENGTH + dataLength;
+    }
+    
+    private boolean validateSide(DirectBuffer buffer, int position) {
+        final byte value = buffer.getByte(position);
+        if (value != Side.BUY.value() && value != Side.SELL.value()) {
+            fail(Verdict.INVALID_ENUM_VALUE, position);
+            return false;
+        }
+        return true;
+    }
+    
+    private boolean validateBooleanType(DirectBuffer buffer, int position) {
+        final byte value = buffer.getByte(position);
+        if (value != BooleanType.FALSE.value() && value != BooleanType.TRUE.value()) {
+            fail(Verdict.INVALID_ENUM_VALUE, position);
+            return false;
+        }
+        return true;
+    }
+    
+    private Verdict fail(Verdict verdict, int offset) {
+        this.verdict = verdict;
+        this.errorOffset = offset;
+        return verdict;
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.BitUtil;
+import org.agrona.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Hashing;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Routes raw frames to N single-writer worker threads by symbol, for multi-core processing
+ *
+ * The dispatcher reads only the symbol at its fixed offset (see {@link MessageFrames#symbol})
+ * and copies the undecoded frame into the chosen worker's single-producer/single-consumer
+ * {@link OneToOneRingBuffer}. A symbol always maps to the same worker, so per-symbol order is
+ * preserved, and each worker's {@link FrameHandler} is the only thread touching the state for
+ * its symbols, so that state needs no locks. When a worker's ring buffer is full the dispatcher
+ * idles until it has room rather than dropping frames.
+ *
+ * Frames are dispatched from a single thread through {@link #onFrame}. {@link #close()} waits
+ * for every worker to finish the frames already dispatched, then stops the workers.
+ */
+public class ShardedDispatcher implements FrameHandler, AutoCloseable {
+    
+    public static final int DEFAULT_RING_BUFFER_CAPACITY = 1024 * 1024;
+    
+    private static final int FRAME_MSG_TYPE_ID = 1;
+    private static final int WORKER_FRAGMENT_LIMIT = 256;
+    
+    private final OneToOneRingBuffer[] ringBuffers;
+    private final AgentRunner[] runners;
+    private final long[] dispatched;
+    private final IdleStrategy dispatchIdle = new BackoffIdleStrategy();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile Throwable lastError;
+    private boolean closed;
+    
+    /**
+     * @param workers        number of worker threads
+     * @param handlerFactory creates the handler owned by worker i; it is only ever called on that worker's thread
+     */
+    public ShardedDispatcher(int workers, IntFunction<FrameHandler> handlerFactory) {
+        this(workers, DEFAULT_RING_BUFFER_CAPACITY, handlerFactory);
+    }
+    
+    /**
+     * @param ringBufferCapacity bytes of frames each worker can have queued, a power of two
+     */
+    public ShardedDispatcher(int workers, int ringBufferCapacity, IntFunction<FrameHandler> handlerFactory) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        if (!BitUtil.isPowerOfTwo(ringBufferCapacity)) {
+            throw new IllegalArgumentException("ringBufferCapacity must be a power of two: " + ringBufferCapacity);
+        }
+        
+        this.ringBuffers = new OneToOneRingBuffer[workers];
+        this.runners = new AgentRunner[workers];
+        this.dispatched = new long[workers];
+        for (int i = 0; i < workers; i++) {
+            ringBuffers[i] = new OneToOneRingBuffer(new UnsafeBuffer(BufferUtil.allocateDirectAligned(
+                    ringBufferCapacity + RingBufferDescriptor.TRAILER_LENGTH, BitUtil.CACHE_LINE_LENGTH)));
+        }
+        for (int i = 0; i < workers; i++) {
+            runners[i] = new AgentRunner(new BackoffIdleStrategy(), this::onWorkerError, null,
+                    new Worker(i, ringBuffers[i], handlerFactory));
+            AgentRunner.startOnThread(runners[i]);
+        }
+    }
+    
+    /**
+     * Route an Order, Trade or MarketData frame to the worker owning its symbol
+     */
+    @Override
+    public void onFrame(DirectBuffer buffer, int offset, int length) {
+        final int shard = shardFor(MessageFrames.symbol(buffer, offset));
+        final OneToOneRingBuffer ringBuffer = ringBuffers[shard];
+        
+        dispatchIdle.reset();
+        while (!ringBuffer.write(FRAME_MSG_TYPE_ID, buffer, offset, length)) {
+            if (length > ringBuffer.maxMsgLength()) {
+                throw new IllegalArgumentException("Frame of " + length + " bytes exceeds the worker ring buffer maximum of "
+                        + ringBuffer.maxMsgLength());
+            }
+            if (runners[shard].isClosed()) {
+                throw new IllegalStateException("Worker " + shard + " has stopped");
+            }
+            dispatchIdle.idle();
+        }
+        dispatched[shard]++;
+    }
+    
+    /**
+     * Worker that frames with this packed symbol are routed to
+     */
+    public int shardFor(long symbol) {
+        return (Hashing.hash(symbol) & Integer.MAX_VALUE) % ringBuffers.length;
+    }
+    
+    public int workerCount() {
+        return ringBuffers.length;
+    }
+    
+    /**
+     * Frames routed to a worker so far; read from the dispatching thread
+     */
+    public long dispatched(int worker) {
+        return dispatched[worker];
+    }
+    
+    /**
+     * Exceptions thrown by worker handlers; the failing frame is skipped and the worker carries on
+     */
+    public long errorCount() {
+        return errors.get();
+    }
+    
+    public Throwable lastError() {
+        return lastError;
+    }
+    
+    /**
+     * Wait for all dispatched frames to be processed, then stop the workers
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        
+        final IdleStrategy idle = new BackoffIdleStrategy();
+        for (int i = 0; i < ringBuffers.length; i++) {
+            idle.reset();
+            while (ringBuffers[i].size() > 0 && !runners[i].isClosed()) {
+                idle.idle();
+            }
+        }
+        for (AgentRunner runner : runners) {
+            runner.close();
+        }
+    }
+    
+    private void onWorkerError(Throwable error) {
+        lastError = error;
+        errors.incrementAndGet();
+    }
+    
+    private static final class Worker implements Agent {
+        
+        private final int index;
+        private final OneToOneRingBuffer ringBuffer;
+        private final IntFunction<FrameHandler> handlerFactory;
+        private final MessageHandler messageHandler = (msgTypeId, buffer, offset, length) -> this.handler.onFrame(buffer, offset, length);
+        private FrameHandler handler;
+        
+        Worker(int index, OneToOneRingBuffer ringBuffer, IntFunction<FrameHandler> handlerFactory) {
+            this.index = index;
+            this.ringBuffer = ringBuffer;
+            this.handlerFactory = handlerFactory;
+        }
+        
+        @Override
+        public void onStart() {
+            handler = handlerFactory.apply(index);
+        }
+        
+        @Override
+        public int doWork() {
+            return ringBuffer.read(messageHandler, WORKER_FRAGMENT_LIMIT);
+        }
+        
+        @Override
+        public String roleName() {
+            return "sbe-shard-" + index;
+        }
+    }
+}
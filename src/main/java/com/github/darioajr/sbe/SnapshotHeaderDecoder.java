@@ -0,0 +1,91 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+
+public class SnapshotHeaderDecoder {
+    public static final int TEMPLATE_ID = 4;
+    public static final int SCHEMA_ID = 1;
+    public static final int SCHEMA_VERSION = 1;
+    public static final int BLOCK_LENGTH = 52;
+    
+    private DirectBuffer buffer;
+    private int offset;
+    private int blockLength;
+    private int version;
+    
+    public SnapshotHeaderDecoder wrap(final DirectBuffer buffer, final int offset, final int blockLength, final int version) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.blockLength = blockLength;
+        this.version = version;
+        return this;
+    }
+    
+    public static int journalPositionEncodingOffset() {
+        return 0;
+    }
+    
+    public long journalPosition() {
+        return buffer.getLong(offset + 0, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int frameCountEncodingOffset() {
+        return 8;
+    }
+    
+    public long frameCount() {
+        return buffer.getLong(offset + 8, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int timestampEncodingOffset() {
+        return 16;
+    }
+    
+    public long timestamp() {
+        return buffer.getLong(offset + 16, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int ordersProcessedEncodingOffset() {
+        return 24;
+    }
+    
+    public long ordersProcessed() {
+        return buffer.getLong(offset + 24, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int tradesProcessedEncodingOffset() {
+        return 32;
+    }
+    
+    public long tradesProcessed() {
+        return buffer.getLong(offset + 32, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int bookCountEncodingOffset() {
+        return 40;
+    }
+    
+    public int bookCount() {
+        return buffer.getInt(offset + 40, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int orderCountEncodingOffset() {
+        return 44;
+    }
+    
+    public int orderCount() {
+        return buffer.getInt(offset + 44, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int positionCountEncodingOffset() {
+        return 48;
+    }
+    
+    public int positionCount() {
+        return buffer.getInt(offset + 48, java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public int encodedLength() {
+        return blockLength;
+    }
+}
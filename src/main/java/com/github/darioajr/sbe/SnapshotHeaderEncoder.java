@@ -0,0 +1,70 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.MutableDirectBuffer;
+
+public class SnapshotHeaderEncoder {
+    public static final int TEMPLATE_ID = 4;
+    public static final int SCHEMA_ID = 1;
+    public static final int SCHEMA_VERSION = 1;
+    public static final int BLOCK_LENGTH = 52;
+    
+    private MutableDirectBuffer buffer;
+    private int offset;
+    private int position;
+
+    public SnapshotHeaderEncoder wrap(final MutableDirectBuffer buffer, final int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.position = offset;
+        return this;
+    }
+
+    public int sbeBlockLength() { return BLOCK_LENGTH; }
+    public int sbeTemplateId() { return TEMPLATE_ID; }
+    public int sbeSchemaId() { return SCHEMA_ID; }
+    public int sbeSchemaVersion() { return SCHEMA_VERSION; }
+
+    public SnapshotHeaderEncoder journalPosition(final long value) {
+        buffer.putLong(position + 0, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public SnapshotHeaderEncoder frameCount(final long value) {
+        buffer.putLong(position + 8, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public SnapshotHeaderEncoder timestamp(final long value) {
+        buffer.putLong(position + 16, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public SnapshotHeaderEncoder ordersProcessed(final long value) {
+        buffer.putLong(position + 24, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public SnapshotHeaderEncoder tradesProcessed(final long value) {
+        buffer.putLong(position + 32, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public SnapshotHeaderEncoder bookCount(final int value) {
+        buffer.putInt(position + 40, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public SnapshotHeaderEncoder orderCount(final int value) {
+        buffer.putInt(position + 44, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public SnapshotHeaderEncoder positionCount(final int value) {
+        buffer.putInt(position + 48, value, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    public int encodedLength() {
+        return BLOCK_LENGTH;
+    }
+}
@@ -0,0 +1,346 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.IoUtil;
+import org.agrona.collections.LongLongConsumer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Directory of {@link MarketState} snapshots for bounded-time restart
+ *
+ * A snapshot is a file of SBE frames: a SnapshotHeader with the journal position and frame
+ * count the state covers, one MarketData frame per book, then OrderState and Position frames.
+ * Files are written to a temporary name, forced to disk and atomically renamed, so a crash
+ * mid-write never leaves a partial snapshot under a snapshot name. Names embed the zero-padded
+ * frame count, so the newest snapshot sorts last; older ones beyond the retained count are
+ * deleted after each write.
+ *
+ * {@link #recover(MarketState, Path)} loads the newest readable snapshot and replays only the
+ * journal frames after its position, so restart time is bounded by the snapshot interval
+ * instead of the journal length. The journal must be the same concatenated archive the
+ * snapshotted state was built from, starting at offset 0; it is read through a
+ * {@link MappedArchive}, so it may grow well past 2 GB.
+ */
+public class SnapshotStore {
+    
+    public static final int DEFAULT_RETAINED_SNAPSHOTS = 2;
+    
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".sbe";
+    private static final String TEMP_SUFFIX = ".tmp";
+    
+    private final Path directory;
+    private final int retainedSnapshots;
+    
+    private final ExpandableDirectByteBuffer buffer = new ExpandableDirectByteBuffer(64 * 1024);
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final SnapshotHeaderEncoder snapshotHeaderEncoder = new SnapshotHeaderEncoder();
+    private final MarketDataEncoder marketDataEncoder = new MarketDataEncoder();
+    private final OrderStateEncoder orderStateEncoder = new OrderStateEncoder();
+    private final PositionEncoder positionEncoder = new PositionEncoder();
+    private final Consumer<MutableMarketData> bookWriter = this::encodeBook;
+    private final OrderStateAggregator.OrderStateConsumer orderStateWriter = this::encodeOrder;
+    private final LongLongConsumer positionWriter = this::encodePosition;
+    
+    private final SbeValidator validator = new SbeValidator();
+    private final SbeDeserializer deserializer = new SbeDeserializer();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final SnapshotHeaderDecoder snapshotHeaderDecoder = new SnapshotHeaderDecoder();
+    private final OrderStateDecoder orderStateDecoder = new OrderStateDecoder();
+    private final PositionDecoder positionDecoder = new PositionDecoder();
+    
+    private int length;
+    private int orderCount;
+    private int positionCount;
+    
+    public SnapshotStore(Path directory) {
+        this(directory, DEFAULT_RETAINED_SNAPSHOTS);
+    }
+    
+    /**
+     * @param retainedSnapshots snapshots kept on disk; more than one leaves a fallback if the newest is unreadable
+     */
+    public SnapshotStore(Path directory, int retainedSnapshots) {
+        if (retainedSnapshots < 1) {
+            throw new IllegalArgumentException("retainedSnapshots must be positive: " + retainedSnapshots);
+        }
+        this.directory = directory;
+        this.retainedSnapshots = retainedSnapshots;
+    }
+    
+    /**
+     * Write a snapshot of the state atomically and prune old snapshots
+     *
+     * @return the snapshot file
+     */
+    public Path write(MarketState state) {
+        encode(state);
+        
+        final Path target = directory.resolve(String.format("%s%020d%s", PREFIX, state.frameCount(), SUFFIX));
+        final Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final ByteBuffer bytes = buffer.byteBuffer().duplicate().limit(length).position(0);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+            prune();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write snapshot " + target, e);
+        }
+        return target;
+    }
+    
+    /**
+     * Snapshot files, oldest first
+     */
+    public List<Path> snapshots() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        final String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list snapshots in " + directory, e);
+        }
+    }
+    
+    /**
+     * Replace the state with the newest snapshot that reads back cleanly, falling back to older ones
+     *
+     * @return the snapshot loaded, or null when there is none and the state is left empty
+     */
+    public Path loadLatest(MarketState state) {
+        final List<Path> snapshots = snapshots();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            final Path snapshot = snapshots.get(i);
+            try {
+                load(snapshot, state);
+                return snapshot;
+            } catch (IllegalArgumentException e) {
+                // Corrupt or foreign file under a snapshot name; try the next older one
+            }
+        }
+        state.clear();
+        return null;
+    }
+    
+    /**
+     * Replace the state with the contents of a snapshot file
+     *
+     * @throws IllegalArgumentException when the file is not a complete, valid snapshot
+     */
+    public void load(Path snapshot, MarketState state) {
+        state.clear();
+        final MappedByteBuffer mapped = IoUtil.mapExistingFile(snapshot.toFile(), FileChannel.MapMode.READ_ONLY, "snapshot");
+        try {
+            final UnsafeBuffer input = new UnsafeBuffer(mapped);
+            final int limit = input.capacity();
+            
+            int position = readFrame(input, 0, limit, SnapshotHeaderDecoder.TEMPLATE_ID);
+            snapshotHeaderDecoder.wrap(input, MessageFrames.bodyOffset(0), headerDecoder.blockLength(), headerDecoder.version());
+            final long journalPosition = snapshotHeaderDecoder.journalPosition();
+            final long frameCount = snapshotHeaderDecoder.frameCount();
+            final long timestamp = snapshotHeaderDecoder.timestamp();
+            final long ordersProcessed = snapshotHeaderDecoder.ordersProcessed();
+            final long tradesProcessed = snapshotHeaderDecoder.tradesProcessed();
+            final int books = snapshotHeaderDecoder.bookCount();
+            final int orders = snapshotHeaderDecoder.orderCount();
+            final int positions = snapshotHeaderDecoder.positionCount();
+            
+            for (int i = 0; i < books; i++) {
+                final int frame = position;
+                position = readFrame(input, frame, limit, MarketDataDecoder.TEMPLATE_ID);
+                final long symbol = Symbols.read(input, MessageFrames.bodyOffset(frame) + MarketDataDecoder.symbolEncodingOffset());
+                deserializer.decodeInto(input, frame, state.bookForUpdate(symbol));
+            }
+            
+            final OrderStateAggregator aggregator = state.orders();
+            for (int i = 0; i < orders; i++) {
+                final int frame = position;
+                position = readFrame(input, frame, limit, OrderStateDecoder.TEMPLATE_ID);
+                orderStateDecoder.wrap(input, MessageFrames.bodyOffset(frame), headerDecoder.blockLength(), headerDecoder.version());
+                aggregator.restoreOrder(orderStateDecoder.orderId(), orderStateDecoder.openQuantity(), orderStateDecoder.filledQuantity());
+            }
+            
+            for (int i = 0; i < positions; i++) {
+                final int frame = position;
+                position = readFrame(input, frame, limit, PositionDecoder.TEMPLATE_ID);
+                positionDecoder.wrap(input, MessageFrames.bodyOffset(frame), headerDecoder.blockLength(), headerDecoder.version());
+                aggregator.restorePosition(positionDecoder.symbolKey(), positionDecoder.netPosition());
+            }
+            
+            if (position != limit) {
+                throw new IllegalArgumentException("Unexpected " + (limit - position) + " bytes after snapshot entries");
+            }
+            
+            aggregator.restoreCounters(ordersProcessed, tradesProcessed);
+            state.restoreProgress(journalPosition, frameCount, timestamp);
+        } catch (IllegalArgumentException e) {
+            state.clear();
+            throw e;
+        } finally {
+            IoUtil.unmap(mapped);
+        }
+    }
+    
+    /**
+     * Load the newest snapshot into the state and apply the journal frames after it
+     *
+     * A partial frame at the end of the journal, e.g. from a crash mid-append, is left unapplied.
+     *
+     * @throws IllegalStateException when the snapshot covers more of the journal than exists
+     */
+    public RecoveryReport recover(MarketState state, Path journal) {
+        return recover(state, journal, state);
+    }
+    
+    /**
+     * As {@link #recover(MarketState, Path)}, replaying through a handler that applies frames to
+     * the state, e.g. a {@link PeriodicSnapshotter}
+     */
+    public RecoveryReport recover(MarketState state, Path journal, FrameHandler replayHandler) {
+        final long start = System.nanoTime();
+        final Path snapshot = loadLatest(state);
+        final long snapshotFrames = state.frameCount();
+        final long from = state.journalPosition();
+        
+        try (MappedArchive input = MappedArchive.map(journal)) {
+            if (from > input.length()) {
+                throw new IllegalStateException("Snapshot " + snapshot + " covers " + from
+                        + " journal bytes but " + journal + " has only " + input.length());
+            }
+            
+            final long end = input.forEach(from, replayHandler);
+            return new RecoveryReport(snapshot, snapshotFrames, state.frameCount() - snapshotFrames,
+                    end - from, System.nanoTime() - start);
+        }
+    }
+    
+    private void encode(MarketState state) {
+        length = MessageHeaderEncoder.ENCODED_LENGTH + SnapshotHeaderEncoder.BLOCK_LENGTH;
+        state.forEachBook(bookWriter);
+        
+        orderCount = 0;
+        positionCount = 0;
+        final OrderStateAggregator aggregator = state.orders();
+        aggregator.forEachOrder(orderStateWriter);
+        aggregator.forEachPosition(positionWriter);
+        
+        putHeader(0, snapshotHeaderEncoder.sbeBlockLength(), snapshotHeaderEncoder.sbeTemplateId());
+        snapshotHeaderEncoder.wrap(buffer, MessageHeaderEncoder.ENCODED_LENGTH)
+                .journalPosition(state.journalPosition())
+                .frameCount(state.frameCount())
+                .timestamp(state.timestamp())
+                .ordersProcessed(aggregator.ordersProcessed())
+                .tradesProcessed(aggregator.tradesProcessed())
+                .bookCount(state.bookCount())
+                .orderCount(orderCount)
+                .positionCount(positionCount);
+    }
+    
+    private void encodeBook(MutableMarketData book) {
+        putHeader(length, marketDataEncoder.sbeBlockLength(), marketDataEncoder.sbeTemplateId());
+        marketDataEncoder.wrap(buffer, length + MessageHeaderEncoder.ENCODED_LENGTH)
+                .symbol(book.symbolKey())
+                .timestamp(book.timestamp())
+                .bidPrice(book.bidPrice())
+                .bidSize(book.bidSize())
+                .askPrice(book.askPrice())
+                .askSize(book.askSize())
+                .lastPrice(book.lastPrice())
+                .lastSize(book.lastSize())
+                .putLevels(book.levelPrices(), book.levelSizes(), book.levelSides(), book.levelCount());
+        
+        final int levelCount = book.levelCount();
+        length += MessageHeaderEncoder.ENCODED_LENGTH + MarketDataEncoder.BLOCK_LENGTH + 4 + levelCount * 17;
+    }
+    
+    private void encodeOrder(long orderId, long openQuantity, long filledQuantity) {
+        putHeader(length, orderStateEncoder.sbeBlockLength(), orderStateEncoder.sbeTemplateId());
+        orderStateEncoder.wrap(buffer, length + MessageHeaderEncoder.ENCODED_LENGTH)
+                .orderId(orderId)
+                .openQuantity(openQuantity)
+                .filledQuantity(filledQuantity);
+        length += MessageHeaderEncoder.ENCODED_LENGTH + OrderStateEncoder.BLOCK_LENGTH;
+        orderCount++;
+    }
+    
+    private void encodePosition(long symbol, long netPosition) {
+        putHeader(length, positionEncoder.sbeBlockLength(), positionEncoder.sbeTemplateId());
+        positionEncoder.wrap(buffer, length + MessageHeaderEncoder.ENCODED_LENGTH)
+                .symbol(symbol)
+                .netPosition(netPosition);
+        length += MessageHeaderEncoder.ENCODED_LENGTH + PositionEncoder.BLOCK_LENGTH;
+        positionCount++;
+    }
+    
+    private void putHeader(int offset, int blockLength, int templateId) {
+        headerEncoder.wrap(buffer, offset)
+                .blockLength(blockLength)
+                .templateId(templateId)
+                .schemaId(OrderEncoder.SCHEMA_ID)
+                .version(OrderEncoder.SCHEMA_VERSION);
+    }
+    
+    /**
+     * Validate the frame at offset, check its template and leave its header in headerDecoder
+     *
+     * @return the offset just past the frame
+     */
+    private int readFrame(DirectBuffer input, int offset, int limit, int expectedTemplateId) {
+        if (validator.validate(input, offset, limit - offset) != SbeValidator.Verdict.VALID) {
+            throw new IllegalArgumentException("Invalid snapshot frame: " + validator.verdict()
+                    + " at offset " + validator.errorOffset());
+        }
+        if (validator.templateId() != expectedTemplateId) {
+            throw new IllegalArgumentException("Expected template " + expectedTemplateId
+                    + " but found " + validator.templateId() + " at offset " + offset);
+        }
+        headerDecoder.wrap(input, offset);
+        return offset + validator.encodedLength();
+    }
+    
+    private void forceDirectory() {
+        // Makes the rename durable; not every platform can open a directory for this, so it is best effort
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Rename is still atomic, only its durability across power loss is not guaranteed
+        }
+    }
+    
+    private void prune() throws IOException {
+        final List<Path> snapshots = snapshots();
+        for (int i = 0; i < snapshots.size() - retainedSnapshots; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+
+import java.nio.ByteOrder;
+
+/**
+ * Helpers for the 8-byte char symbol field treated as a single little-endian long
+ * 
+ * Comparing, hashing and keying symbols as longs avoids decoding them into Strings.
+ */
+public class Symbols {
+    
+    public static final int LENGTH = 8;
+    
+    /**
+     * Encode up to 8 characters into the long equal to the zero-padded field read little-endian
+     *
+     * Follows the encoders' symbol(String): a character of 0x80 or above, or a surrogate pair,
+     * becomes a single '?', so the key matches the field of any frame encoded from the same String.
+     */
+    public static long encode(CharSequence symbol) {
+        if (symbol.length() > LENGTH) {
+            throw new IllegalArgumentException("Symbol must be max 8 characters: " + symbol);
+        }
+        
+        long value = 0;
+        int length = 0;
+        for (int i = 0; i < symbol.length(); i++) {
+            final char c = symbol.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < symbol.length() && Character.isLowSurrogate(symbol.charAt(i + 1))) {
+                i++;
+            }
+            value |= (long) (c < 0x80 ? c : '?') << (length++ << 3);
+        }
+        return value;
+    }
+    
+    /**
+     * Decode a symbol long back to its String form, stopping at the first zero byte
+     */
+    public static String decode(long symbol) {
+        final char[] chars = new char[LENGTH];
+        int length = 0;
+        for (; length < LENGTH; length++) {
+            final char c = (char) ((symbol >>> (length << 3)) & 0xFF);
+            if (c == 0) {
+                break;
+            }
+            chars[length] = c;
+        }
+        return new String(chars, 0, length);
+    }
+    
+    /**
+     * Read the symbol field at the given buffer offset as a long
+     */
+    public static long read(DirectBuffer buffer, int offset) {
+        return buffer.getLong(offset, ByteOrder.LITTLE_ENDIAN);
+    }
+}
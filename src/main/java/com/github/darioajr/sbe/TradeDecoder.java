@@ -1,5 +1,6 @@
 package com.github.darioajr.sbe;
 
+import org.agrona.AsciiSequenceView;
 import org.agrona.DirectBuffer;
 import java.nio.charset.StandardCharsets;
 
@@ -22,14 +23,26 @@ public class TradeDecoder {
         return this;
     }
 
+    public static int tradeIdEncodingOffset() {
+        return 0;
+    }
+
     public long tradeId() {
         return buffer.getLong(offset + 0, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int orderIdEncodingOffset() {
+        return 8;
+    }
+
     public long orderId() {
         return buffer.getLong(offset + 8, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int symbolEncodingOffset() {
+        return 16;
+    }
+
     public String symbol() {
         final byte[] dst = new byte[8];
         buffer.getBytes(offset + 16, dst, 0, 8);
@@ -38,18 +51,34 @@ public class TradeDecoder {
         return new String(dst, 0, end, StandardCharsets.US_ASCII);
     }
 
+    public static int sideEncodingOffset() {
+        return 24;
+    }
+
     public Side side() {
         return Side.get(buffer.getByte(offset + 24));
     }
 
+    public static int quantityEncodingOffset() {
+        return 25;
+    }
+
     public long quantity() {
         return buffer.getLong(offset + 25, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int priceEncodingOffset() {
+        return 33;
+    }
+
     public long price() {
         return buffer.getLong(offset + 33, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
 
+    public static int timestampEncodingOffset() {
+        return 41;
+    }
+
     public long timestamp() {
         return buffer.getLong(offset + 41, java.nio.ByteOrder.LITTLE_ENDIAN);
     }
@@ -68,6 +97,36 @@ public class TradeDecoder {
         return bytesToCopy;
     }
 
+    public int getVenue(final Appendable appendable) {
+        final int headerLength = 4;
+        final int position = offset + blockLength;
+        final int dataLength = buffer.getInt(position, java.nio.ByteOrder.LITTLE_ENDIAN);
+        buffer.getStringWithoutLengthAscii(position + headerLength, dataLength, appendable);
+        return dataLength;
+    }
+
+    public int wrapVenue(final DirectBuffer wrapBuffer) {
+        final int headerLength = 4;
+        final int position = offset + blockLength;
+        final int dataLength = buffer.getInt(position, java.nio.ByteOrder.LITTLE_ENDIAN);
+        wrapBuffer.wrap(buffer, position + headerLength, dataLength);
+        return dataLength;
+    }
+
+    public AsciiSequenceView venue(final AsciiSequenceView view) {
+        final int headerLength = 4;
+        final int position = offset + blockLength;
+        final int dataLength = buffer.getInt(position, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return view.wrap(buffer, position + headerLength, dataLength);
+    }
+
+    public String venue() {
+        final int headerLength = 4;
+        final int position = offset + blockLength;
+        final int dataLength = buffer.getInt(position, java.nio.ByteOrder.LITTLE_ENDIAN);
+        return buffer.getStringWithoutLengthAscii(position + headerLength, dataLength);
+    }
+
     public int encodedLength() {
         return blockLength + 4 + venueLength();
     }
@@ -0,0 +1,133 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Representative workload used to train profile-guided native image builds
+ *
+ * Each iteration takes every template through the paths a batch conversion uses: JSON
+ * parse, encode, direct JSON transcode, validate, decode, JSON format, projected JSON format
+ * and raw-frame filtering. The mix of symbols, sides, var-data lengths and level counts is deterministic
+ * so instrumented runs produce comparable profiles.
+ */
+public class TrainingWorkload {
+    
+    public static final int DEFAULT_ITERATIONS = 200_000;
+    
+    private static final String[] SYMBOLS = { "AAPL", "MSFT", "GOOGL", "AMZN", "TSLA", "NVDA", "META", "IBM" };
+    private static final String[] VENUES = { "NASDAQ", "NYSE", "ARCA", "BATS" };
+    private static final int ARCHIVE_FRAMES = 1024;
+    
+    private final SbeSerializer serializer;
+    private final SbeDeserializer deserializer;
+    private final SbeValidator validator = new SbeValidator();
+    private final JsonToSbeTranscoder transcoder = new JsonToSbeTranscoder();
+    private final ExpandableArrayBuffer transcoded = new ExpandableArrayBuffer(1024);
+    private final ProjectedJsonFormatter projectedFormatter = new ProjectedJsonFormatter(
+            FieldProjection.parse("symbol,price,quantity,timestamp"));
+    private final StringBuilder projected = new StringBuilder(256);
+    private final ExpandableArrayBuffer archive = new ExpandableArrayBuffer(64 * 1024);
+    private final FrameFilter filter = new FrameFilter().symbol("AAPL");
+    private int archiveLength;
+    private long bytes;
+    
+    public TrainingWorkload(SbeSerializer serializer, SbeDeserializer deserializer) {
+        this.serializer = serializer;
+        this.deserializer = deserializer;
+    }
+    
+    /**
+     * Run the given number of iterations, returning the number of messages processed
+     */
+    public long run(int iterations) {
+        long messages = 0;
+        for (int i = 0; i < iterations; i++) {
+            final String symbol = SYMBOLS[i & (SYMBOLS.length - 1)];
+            final Side side = (i & 1) == 0 ? Side.BUY : Side.SELL;
+            final long timestamp = 1693478400000L + i;
+            
+            process(JsonFormatter.formatOrder(new OrderData(
+                    i, symbol, side, 100L + (i % 900), 15000L + (i % 500), timestamp,
+                    (i % 3) == 0 ? BooleanType.FALSE : BooleanType.TRUE, "CLIENT-" + i)), OrderEncoder.TEMPLATE_ID);
+            process(JsonFormatter.formatTrade(new TradeData(
+                    i + 1_000_000L, i, symbol, side, 10L + (i % 90), 15000L + (i % 500), timestamp,
+                    VENUES[i & (VENUES.length - 1)])), TradeEncoder.TEMPLATE_ID);
+            process(JsonFormatter.formatMarketData(marketData(i, symbol, timestamp)), MarketDataEncoder.TEMPLATE_ID);
+            messages += 3;
+            
+            if (archiveLength > archive.capacity() - 1024 || (i + 1) % ARCHIVE_FRAMES == 0) {
+                filterArchive();
+            }
+        }
+        filterArchive();
+        
+        return messages;
+    }
+    
+    /**
+     * Encoded bytes produced so far
+     */
+    public long bytes() {
+        return bytes;
+    }
+    
+    private void process(String json, int templateId) {
+        final byte[] encoded = switch (templateId) {
+            case OrderEncoder.TEMPLATE_ID -> serializer.serializeOrder(JsonParser.parseOrder(json));
+            case TradeEncoder.TEMPLATE_ID -> serializer.serializeTrade(JsonParser.parseTrade(json));
+            default -> serializer.serializeMarketData(JsonParser.parseMarketData(json));
+        };
+        bytes += encoded.length;
+        
+        final byte[] jsonBytes = json.getBytes(StandardCharsets.US_ASCII);
+        final int transcodedLength = transcoder.transcode(templateId, new UnsafeBuffer(jsonBytes), 0, jsonBytes.length, transcoded, 0);
+        if (!Arrays.equals(transcoded.byteArray(), 0, transcodedLength, encoded, 0, encoded.length)) {
+            throw new IllegalStateException("Transcode mismatch for template " + templateId);
+        }
+        
+        final Object decoded = deserializer.deserializeChecked(encoded);
+        if (!json.equals(JsonFormatter.toJson(decoded))) {
+            throw new IllegalStateException("Round trip mismatch for template " + templateId);
+        }
+        
+        final UnsafeBuffer frame = new UnsafeBuffer(encoded);
+        projected.setLength(0);
+        projectedFormatter.format(frame, 0, projected);
+        
+        archive.putBytes(archiveLength, encoded);
+        archiveLength += encoded.length;
+    }
+    
+    private void filterArchive() {
+        if (archiveLength == 0) {
+            return;
+        }
+        
+        int offset = 0;
+        while (offset < archiveLength) {
+            if (validator.validate(archive, offset, archiveLength - offset) != SbeValidator.Verdict.VALID) {
+                throw new IllegalStateException("Invalid frame in training archive: " + validator.verdict());
+            }
+            offset += validator.encodedLength();
+        }
+        filter.filter(archive, 0, archiveLength, (buffer, frameOffset, length) -> projected.setLength(0));
+        archiveLength = 0;
+    }
+    
+    private static MarketDataData marketData(int i, String symbol, long timestamp) {
+        final int levelCount = i % 6;
+        final List<PriceLevelData> levels = new ArrayList<>(levelCount);
+        for (int level = 0; level < levelCount; level++) {
+            final boolean bid = level < levelCount / 2;
+            levels.add(new PriceLevelData(
+                    bid ? 14990L - level * 5 : 15010L + level * 5, 100L * (level + 1), bid ? Side.BUY : Side.SELL));
+        }
+        return new MarketDataData(symbol, timestamp, 14995L, 1000L, 15005L, 1200L, 15000L, 300L, levels);
+    }
+}
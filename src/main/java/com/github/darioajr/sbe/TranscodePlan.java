@@ -0,0 +1,228 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled mapping from a source {@link MessageLayout} to a target layout of the same template,
+ * used to rewrite frames between schema versions without decoding them
+ *
+ * Fields are matched by name when the plan is compiled, and fields that sit next to each other
+ * in both layouts are merged into a single copy run, so transcoding a block is a default fill
+ * (skipped when the runs cover the whole target block) plus a few bulk putBytes moves. Group
+ * entries are re-strided to the target entry length the same way, or moved in one copy when
+ * both entry layouts are identical, and var data is copied across unchanged. Fields that only
+ * the source has are dropped; a group or var data that only the target has is written empty.
+ *
+ * Source frames are read with the block and group entry lengths from their own headers, so
+ * frames written with trailing extensions the source layout does not know are handled.
+ */
+public class TranscodePlan {
+    
+    private final MessageLayout source;
+    private final MessageLayout target;
+    private final int[] blockRuns;
+    private final byte[] defaultBlock;
+    private final boolean blockCovered;
+    private final int[] entryRuns;
+    private final byte[] defaultEntry;
+    private final boolean entryCovered;
+    private final boolean entryIdentical;
+    
+    private TranscodePlan(MessageLayout source, MessageLayout target) {
+        this.source = source;
+        this.target = target;
+        this.blockRuns = runs(source.fields(), target.fields());
+        this.defaultBlock = defaults(target.fields(), target.blockLength());
+        this.blockCovered = covers(blockRuns, target.blockLength());
+        if (target.hasGroup()) {
+            this.entryRuns = source.hasGroup() ? runs(source.groupFields(), target.groupFields()) : new int[0];
+            this.defaultEntry = defaults(target.groupFields(), target.groupBlockLength());
+            this.entryCovered = covers(entryRuns, target.groupBlockLength());
+            this.entryIdentical = entryCovered && source.groupBlockLength() == target.groupBlockLength()
+                    && entryRuns.length == 3 && entryRuns[0] == 0 && entryRuns[1] == 0;
+        } else {
+            this.entryRuns = null;
+            this.defaultEntry = null;
+            this.entryCovered = false;
+            this.entryIdentical = false;
+        }
+    }
+    
+    /**
+     * Compile the field mapping between two layouts of the same template
+     */
+    public static TranscodePlan compile(MessageLayout source, MessageLayout target) {
+        if (source.templateId() != target.templateId()) {
+            throw new IllegalArgumentException("Cannot transcode template " + source.templateId() + " to " + target.templateId());
+        }
+        return new TranscodePlan(source, target);
+    }
+    
+    public MessageLayout source() {
+        return source;
+    }
+    
+    public MessageLayout target() {
+        return target;
+    }
+    
+    /**
+     * Number of bulk copies per block; adjacent fields share one
+     */
+    public int blockCopyCount() {
+        return blockRuns.length / 3;
+    }
+    
+    /**
+     * Rewrite the source-layout frame at offset into dst as a target-layout frame
+     *
+     * dst must be able to hold the result; an expandable buffer grows as needed.
+     *
+     * @return the encoded length of the target frame
+     */
+    public int transcode(DirectBuffer src, int offset, MutableDirectBuffer dst, int dstOffset) {
+        final int srcBlockLength = src.getShort(offset, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        final int templateId = src.getShort(offset + 2, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        final int schemaId = src.getShort(offset + 4, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        final int version = src.getShort(offset + 6, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        if (templateId != source.templateId() || schemaId != source.schemaId() || version != source.version()) {
+            throw new IllegalArgumentException("Frame is template " + templateId + " schema " + schemaId + " version " + version
+                    + ", plan expects " + source);
+        }
+        if (srcBlockLength < source.blockLength()) {
+            throw new IllegalArgumentException("Block of " + srcBlockLength + " bytes is shorter than " + source);
+        }
+        
+        int srcPosition = MessageFrames.bodyOffset(offset) + srcBlockLength;
+        int srcEntryLength = 0;
+        int count = 0;
+        if (source.hasGroup()) {
+            srcEntryLength = src.getShort(srcPosition, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+            count = src.getShort(srcPosition + 2, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+            if (srcEntryLength < source.groupBlockLength()) {
+                throw new IllegalArgumentException("Group entry of " + srcEntryLength + " bytes is shorter than " + source);
+            }
+            srcPosition += 4 + srcEntryLength * count;
+        }
+        final int varDataLength = source.hasVarData() ? src.getInt(srcPosition, ByteOrder.LITTLE_ENDIAN) : 0;
+        if (varDataLength < 0) {
+            throw new IllegalArgumentException("Invalid var data length: " + varDataLength);
+        }
+        
+        final int targetCount = target.hasGroup() ? count : 0;
+        final int length = MessageHeaderEncoder.ENCODED_LENGTH + target.blockLength()
+                + (target.hasGroup() ? 4 + target.groupBlockLength() * targetCount : 0)
+                + (target.hasVarData() ? 4 + varDataLength : 0);
+        dst.checkLimit(dstOffset + length);
+        
+        dst.putShort(dstOffset, (short) target.blockLength(), ByteOrder.LITTLE_ENDIAN);
+        dst.putShort(dstOffset + 2, (short) target.templateId(), ByteOrder.LITTLE_ENDIAN);
+        dst.putShort(dstOffset + 4, (short) target.schemaId(), ByteOrder.LITTLE_ENDIAN);
+        dst.putShort(dstOffset + 6, (short) target.version(), ByteOrder.LITTLE_ENDIAN);
+        
+        final int srcBody = MessageFrames.bodyOffset(offset);
+        int dstPosition = MessageFrames.bodyOffset(dstOffset);
+        copyRecord(src, srcBody, dst, dstPosition, blockRuns, defaultBlock, blockCovered);
+        dstPosition += target.blockLength();
+        
+        if (target.hasGroup()) {
+            final int entryLength = target.groupBlockLength();
+            dst.putShort(dstPosition, (short) entryLength, ByteOrder.LITTLE_ENDIAN);
+            dst.putShort(dstPosition + 2, (short) targetCount, ByteOrder.LITTLE_ENDIAN);
+            dstPosition += 4;
+            int srcEntry = srcBody + srcBlockLength + 4;
+            if (entryIdentical && srcEntryLength == entryLength) {
+                dst.putBytes(dstPosition, src, srcEntry, entryLength * targetCount);
+                dstPosition += entryLength * targetCount;
+            } else {
+                for (int i = 0; i < targetCount; i++, srcEntry += srcEntryLength, dstPosition += entryLength) {
+                    copyRecord(src, srcEntry, dst, dstPosition, entryRuns, defaultEntry, entryCovered);
+                }
+            }
+        }
+        
+        if (target.hasVarData()) {
+            dst.putInt(dstPosition, varDataLength, ByteOrder.LITTLE_ENDIAN);
+            if (varDataLength > 0) {
+                dst.putBytes(dstPosition + 4, src, srcPosition + 4, varDataLength);
+            }
+        }
+        return length;
+    }
+    
+    private static void copyRecord(DirectBuffer src, int srcOffset, MutableDirectBuffer dst, int dstOffset,
+                                   int[] runs, byte[] defaults, boolean covered) {
+        if (!covered) {
+            dst.putBytes(dstOffset, defaults);
+        }
+        for (int i = 0; i < runs.length; i += 3) {
+            dst.putBytes(dstOffset + runs[i + 1], src, srcOffset + runs[i], runs[i + 2]);
+        }
+    }
+    
+    /**
+     * Copy runs as (sourceOffset, targetOffset, length) triples, merging fields adjacent in both layouts
+     */
+    private static int[] runs(List<MessageLayout.Field> sourceFields, List<MessageLayout.Field> targetFields) {
+        final List<MessageLayout.Field> targetByOffset = new ArrayList<>(targetFields);
+        targetByOffset.sort((a, b) -> Integer.compare(a.offset(), b.offset()));
+        
+        final List<int[]> runs = new ArrayList<>();
+        for (MessageLayout.Field field : targetByOffset) {
+            final MessageLayout.Field from = find(sourceFields, field.name());
+            if (from == null) {
+                continue;
+            }
+            if (from.length() != field.length()) {
+                throw new IllegalArgumentException("Field " + field.name() + " changes length from "
+                        + from.length() + " to " + field.length());
+            }
+            final int[] last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+            if (last != null && last[0] + last[2] == from.offset() && last[1] + last[2] == field.offset()) {
+                last[2] += field.length();
+            } else {
+                runs.add(new int[] {from.offset(), field.offset(), field.length()});
+            }
+        }
+        
+        final int[] flat = new int[runs.size() * 3];
+        for (int i = 0; i < runs.size(); i++) {
+            System.arraycopy(runs.get(i), 0, flat, i * 3, 3);
+        }
+        return flat;
+    }
+    
+    private static MessageLayout.Field find(List<MessageLayout.Field> fields, String name) {
+        for (MessageLayout.Field field : fields) {
+            if (field.name().equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+    
+    private static byte[] defaults(List<MessageLayout.Field> fields, int length) {
+        final byte[] bytes = new byte[length];
+        for (MessageLayout.Field field : fields) {
+            if (field.length() <= Long.BYTES) {
+                for (int i = 0; i < field.length(); i++) {
+                    bytes[field.offset() + i] = (byte) (field.defaultValue() >>> (i * 8));
+                }
+            }
+        }
+        return bytes;
+    }
+    
+    private static boolean covers(int[] runs, int length) {
+        int covered = 0;
+        for (int i = 2; i < runs.length; i += 3) {
+            covered += runs[i];
+        }
+        return covered == length;
+    }
+}
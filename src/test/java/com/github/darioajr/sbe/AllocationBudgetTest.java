@@ -0,0 +1,260 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.AsciiSequenceView;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.collections.LongLongConsumer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets for the codec hot paths, so garbage reintroduced into encode/decode fails the build
+ *
+ * Each path is warmed up until JIT compiled, then run in a loop while the bytes allocated by
+ * the current thread are measured. Flyweight and pooled paths must not allocate at all; the
+ * record serializer may only allocate the returned array, budgeted by measuring the allocation
+ * of an array of the same size.
+ */
+class AllocationBudgetTest {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    /**
+     * Measurement overhead tolerated per loop, far below one allocation per iteration
+     */
+    private static final long SLACK_BYTES = 4096;
+
+    private static com.sun.management.ThreadMXBean threadMXBean;
+
+    private final OrderData order = new OrderData(42L, "AAPL", Side.BUY, 100L, 15000L, 1L, BooleanType.TRUE, "CLIENT-42");
+    private final TradeData trade = new TradeData(7L, 42L, "AAPL", Side.SELL, 100L, 15000L, 2L, "XNAS");
+    private final MarketDataData marketData = new MarketDataData("AAPL", 3L, 1L, 2L, 3L, 4L, 5L, 6L, Arrays.asList(
+            new PriceLevelData(100L, 5L, Side.BUY), new PriceLevelData(101L, 6L, Side.SELL)));
+    private final SbeSerializer serializer = new SbeSerializer();
+    private final UnsafeBuffer orderFrame = new UnsafeBuffer(serializer.serializeOrder(order));
+    private final UnsafeBuffer tradeFrame = new UnsafeBuffer(serializer.serializeTrade(trade));
+    private final UnsafeBuffer marketDataFrame = new UnsafeBuffer(serializer.serializeMarketData(marketData));
+    private long sink;
+    private byte[] result;
+
+    @BeforeAll
+    static void checkAllocationCounting() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Per-thread allocation counting is not available");
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "Per-thread allocation counting is not supported");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void testFlyweightEncodeDoesNotAllocate() {
+        // Given
+        ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(256);
+        MessageHeaderEncoder header = new MessageHeaderEncoder();
+        OrderEncoder orderEncoder = new OrderEncoder();
+        TradeEncoder tradeEncoder = new TradeEncoder();
+        MarketDataEncoder marketDataEncoder = new MarketDataEncoder();
+        long[] prices = {100L, 101L};
+        long[] sizes = {5L, 6L};
+        byte[] sides = {Side.BUY.value(), Side.SELL.value()};
+
+        // When / Then
+        assertBudget("Order encode", 0, () -> {
+            header.wrap(buffer, 0).blockLength(OrderEncoder.BLOCK_LENGTH).templateId(OrderEncoder.TEMPLATE_ID)
+                    .schemaId(OrderEncoder.SCHEMA_ID).version(OrderEncoder.SCHEMA_VERSION);
+            orderEncoder.wrap(buffer, MessageHeaderEncoder.ENCODED_LENGTH)
+                    .orderId(order.orderId())
+                    .symbol(order.symbol())
+                    .side(order.side())
+                    .quantity(order.quantity())
+                    .price(order.price())
+                    .timestamp(order.timestamp())
+                    .isActive(order.isActive())
+                    .clientOrderId(order.clientOrderId());
+        });
+        assertBudget("Trade encode", 0, () -> tradeEncoder.wrap(buffer, MessageHeaderEncoder.ENCODED_LENGTH)
+                .tradeId(trade.tradeId())
+                .orderId(trade.orderId())
+                .symbol(trade.symbol())
+                .side(trade.side())
+                .quantity(trade.quantity())
+                .price(trade.price())
+                .timestamp(trade.timestamp())
+                .venue(trade.venue()));
+        assertBudget("MarketData encode", 0, () -> marketDataEncoder.wrap(buffer, MessageHeaderEncoder.ENCODED_LENGTH)
+                .symbol(marketData.symbol())
+                .timestamp(marketData.timestamp())
+                .putLevels(prices, sizes, sides, 2));
+    }
+
+    @Test
+    void testFlyweightDecodeDoesNotAllocate() {
+        // Given
+        OrderDecoder orderDecoder = new OrderDecoder();
+        TradeDecoder tradeDecoder = new TradeDecoder();
+        MarketDataDecoder marketDataDecoder = new MarketDataDecoder();
+        AsciiSequenceView view = new AsciiSequenceView();
+        long[] prices = new long[4];
+        long[] sizes = new long[4];
+        byte[] sides = new byte[4];
+        int body = MessageHeaderDecoder.ENCODED_LENGTH;
+
+        // When / Then
+        assertBudget("Order decode", 0, () -> {
+            orderDecoder.wrap(orderFrame, body, OrderDecoder.BLOCK_LENGTH, OrderDecoder.SCHEMA_VERSION);
+            sink += orderDecoder.orderId() + Symbols.read(orderFrame, body + OrderDecoder.symbolEncodingOffset())
+                    + orderDecoder.side().value() + orderDecoder.quantity() + orderDecoder.price() + orderDecoder.timestamp()
+                    + orderDecoder.isActive().value() + orderDecoder.clientOrderId(view).length();
+        });
+        assertBudget("Trade decode", 0, () -> {
+            tradeDecoder.wrap(tradeFrame, body, TradeDecoder.BLOCK_LENGTH, TradeDecoder.SCHEMA_VERSION);
+            sink += tradeDecoder.tradeId() + tradeDecoder.orderId() + tradeDecoder.quantity() + tradeDecoder.price()
+                    + tradeDecoder.timestamp() + tradeDecoder.venue(view).length();
+        });
+        assertBudget("MarketData decode", 0, () -> {
+            marketDataDecoder.wrap(marketDataFrame, body, MarketDataDecoder.BLOCK_LENGTH, MarketDataDecoder.SCHEMA_VERSION);
+            sink += marketDataDecoder.timestamp() + marketDataDecoder.getLevels(prices, sizes, sides);
+        });
+    }
+
+    @Test
+    void testPooledDecodeAndValidationDoNotAllocate() {
+        // Given
+        SbeDeserializer deserializer = new SbeDeserializer();
+        SbeValidator validator = new SbeValidator();
+        MutableOrder mutableOrder = new MutableOrder();
+        MutableTrade mutableTrade = new MutableTrade();
+        MutableMarketData mutableMarketData = new MutableMarketData();
+
+        // When / Then
+        assertBudget("Order decodeInto", 0, () -> deserializer.decodeInto(orderFrame, 0, mutableOrder));
+        assertBudget("Trade decodeInto", 0, () -> deserializer.decodeInto(tradeFrame, 0, mutableTrade));
+        assertBudget("MarketData decodeInto", 0, () -> deserializer.decodeInto(marketDataFrame, 0, mutableMarketData));
+        assertBudget("validate", 0, () -> sink += validator.validate(marketDataFrame, 0, marketDataFrame.capacity()).ordinal());
+    }
+
+    @Test
+    void testFrameStagesDoNotAllocate() {
+        // Given
+        ExpandableArrayBuffer archive = new ExpandableArrayBuffer(1024);
+        int length = 0;
+        for (UnsafeBuffer frame : new UnsafeBuffer[] {orderFrame, tradeFrame, marketDataFrame}) {
+            archive.putBytes(length, frame, 0, frame.capacity());
+            length += frame.capacity();
+        }
+        int archiveLength = length;
+        FrameFilter filter = new FrameFilter().symbol("AAPL").timestampRange(0, 10);
+        FrameHandler counter = (buffer, offset, frameLength) -> sink++;
+        BarAggregator bars = new BarAggregator(counter, 1_000, 16);
+        int[] tradeId = new int[1];
+
+        // When / Then
+        assertBudget("filter", 0, () -> filter.filter(archive, 0, archiveLength, counter));
+        assertBudget("bars", 0, () -> bars.onFrame(tradeFrame, 0, tradeFrame.capacity()));
+        assertBudget("dedup", 0, new Runnable() {
+            private final FrameDeduplicator deduplicator = new FrameDeduplicator(counter, Long.MAX_VALUE, 1 << 16, FrameDeduplicator.EXACT);
+
+            @Override
+            public void run() {
+                tradeFrame.putLong(MessageHeaderDecoder.ENCODED_LENGTH + TradeDecoder.tradeIdEncodingOffset(), tradeId[0]++ & 0xFFF);
+                deduplicator.onFrame(tradeFrame, 0, tradeFrame.capacity());
+            }
+        });
+    }
+
+    @Test
+    void testOrderStateVisitDoesNotAllocate() {
+        // Given: open orders with fills and positions, as a snapshot walks them
+        OrderStateAggregator aggregator = new OrderStateAggregator(1024);
+        for (long orderId = 0; orderId < 100; orderId++) {
+            aggregator.onOrder(orderId, Symbols.encode("AAPL"), 100L, true);
+            aggregator.onTrade(orderId, Symbols.encode(orderId % 2 == 0 ? "AAPL" : "MSFT"), Side.BUY, 10L);
+        }
+        OrderStateAggregator.OrderStateConsumer orders = (orderId, open, filled) -> sink += filled;
+        LongLongConsumer positions = (symbol, position) -> sink += position;
+
+        // When / Then
+        assertBudget("order state visit", 0, () -> {
+            aggregator.forEachOrder(orders);
+            aggregator.forEachPosition(positions);
+        });
+    }
+
+    @Test
+    void testMatchingDoesNotAllocate() {
+        // Given: a resting sell and an incoming buy that fills it, each with fresh orderIds
+        FrameHandler counter = (buffer, offset, frameLength) -> sink++;
+        MatchingEngine engine = new MatchingEngine(counter, 16, 64, 1024, "XNAS");
+        long symbol = Symbols.encode("AAPL");
+        long[] orderId = new long[1];
+
+        // When / Then
+        assertBudget("match", 0, () -> {
+            engine.onOrder(orderId[0]++, symbol, Side.SELL, 100L, 15000L + (orderId[0] & 7), 1L, true);
+            engine.onOrder(orderId[0]++, symbol, Side.BUY, 100L, 15010L, 2L, true);
+        });
+        assertEquals(0, engine.restingOrders());
+    }
+
+    @Test
+    void testJsonTranscodeDoesNotAllocate() {
+        // Given
+        JsonToSbeTranscoder transcoder = new JsonToSbeTranscoder();
+        ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(1024);
+        UnsafeBuffer orderJson = new UnsafeBuffer(JsonFormatter.formatOrder(order).getBytes(StandardCharsets.US_ASCII));
+        UnsafeBuffer marketDataJson = new UnsafeBuffer(JsonFormatter.formatMarketData(marketData).getBytes(StandardCharsets.US_ASCII));
+
+        // When / Then
+        assertBudget("Order JSON transcode", 0,
+                () -> sink += transcoder.transcode(OrderEncoder.TEMPLATE_ID, orderJson, 0, orderJson.capacity(), buffer, 0));
+        assertBudget("MarketData JSON transcode", 0,
+                () -> sink += transcoder.transcode(MarketDataEncoder.TEMPLATE_ID, marketDataJson, 0, marketDataJson.capacity(), buffer, 0));
+    }
+
+    @Test
+    void testRecordSerializerOnlyAllocatesResult() {
+        // Given: the measured cost on this JVM of allocating one frame-sized array, header and padding included
+        long orderResult = bytesPerOperation(() -> result = new byte[orderFrame.capacity()]);
+        long tradeResult = bytesPerOperation(() -> result = new byte[tradeFrame.capacity()]);
+
+        // When / Then
+        assertTrue(orderResult >= orderFrame.capacity() && tradeResult >= tradeFrame.capacity());
+        assertBudget("serializeOrder", orderResult, () -> result = serializer.serializeOrder(order));
+        assertBudget("serializeTrade", tradeResult, () -> result = serializer.serializeTrade(trade));
+    }
+
+    private void assertBudget(String path, long bytesPerOperation, Runnable operation) {
+        final long allocated = allocatedBytes(operation);
+
+        assertTrue(allocated <= bytesPerOperation * MEASURED_ITERATIONS + SLACK_BYTES,
+                path + " allocated " + allocated + " bytes over " + MEASURED_ITERATIONS
+                        + " operations, budget is " + bytesPerOperation + " per operation");
+    }
+
+    private long bytesPerOperation(Runnable operation) {
+        return Math.ceilDiv(allocatedBytes(operation), MEASURED_ITERATIONS);
+    }
+
+    /**
+     * Bytes the current thread allocates running the operation MEASURED_ITERATIONS times after warming it up
+     */
+    private long allocatedBytes(Runnable operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        final long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.run();
+        }
+        return threadMXBean.getCurrentThreadAllocatedBytes() - before;
+    }
+}
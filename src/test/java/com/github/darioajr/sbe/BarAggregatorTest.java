@@ -0,0 +1,86 @@
+package com.github.darioajr.sbe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.darioajr.sbe.TestFrames.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BarAggregatorTest {
+
+    @Test
+    void testAggregatesOhlcAndVwapPerInterval() {
+        // Given
+        List<Bar> bars = new ArrayList<>();
+        BarAggregator aggregator = new BarAggregator(collectBars(bars), 1_000, 16);
+
+        // When
+        send(aggregator, trade(1_000L, 1L, "AAPL", Side.BUY, 10L, 100L, 1_000L));
+        send(aggregator, trade(1_200L, 1L, "AAPL", Side.BUY, 30L, 105L, 1_200L));
+        send(aggregator, trade(1_300L, 1L, "MSFT", Side.BUY, 1L, 50L, 1_300L));
+        send(aggregator, trade(1_999L, 1L, "AAPL", Side.BUY, 10L, 98L, 1_999L));
+        send(aggregator, trade(2_500L, 1L, "AAPL", Side.BUY, 5L, 101L, 2_500L));
+
+        // Then: the 2.5s trade closed AAPL's first bar, MSFT's bar is still open
+        assertEquals(List.of(new Bar("AAPL", 1_000L, 100L, 105L, 98L, 98L, 50L, 102L, 3)), bars);
+        assertEquals(2, aggregator.flushAll());
+        assertEquals(new Bar("AAPL", 2_000L, 101L, 101L, 101L, 101L, 5L, 101L, 1), bars.get(1));
+        assertEquals(new Bar("MSFT", 1_000L, 50L, 50L, 50L, 50L, 1L, 50L, 1), bars.get(2));
+        assertEquals(5L, aggregator.trades());
+        assertEquals(3L, aggregator.barsEmitted());
+    }
+
+    @Test
+    void testFlushClosesQuietSymbolsAndSkipsLateTrades() {
+        // Given
+        List<Bar> bars = new ArrayList<>();
+        BarAggregator aggregator = new BarAggregator(collectBars(bars), 60_000, 1);
+        send(aggregator, trade(61_000L, 1L, "IBM", Side.BUY, 1L, 10L, 61_000L));
+
+        // When / Then
+        assertEquals(0, aggregator.flush(119_999L));
+        send(aggregator, trade(59_000L, 1L, "IBM", Side.BUY, 1L, 11L, 59_000L));
+        send(aggregator, trade(61_000L, 1L, "AAPL", Side.BUY, 1L, 11L, 61_000L));
+        assertEquals(1, aggregator.flush(120_000L));
+        assertEquals(60_000L, bars.get(0).start());
+        assertEquals(1L, aggregator.lateTrades());
+        assertEquals(1L, aggregator.rejected());
+        assertEquals(0, aggregator.flushAll());
+    }
+
+    @Test
+    void testNotionalOverflowGivesNullVwap() {
+        // Given
+        List<Bar> bars = new ArrayList<>();
+        BarAggregator aggregator = new BarAggregator(collectBars(bars), 1_000, 4);
+
+        // When: the first bar's notional passes Long.MAX_VALUE on its second trade, the second bar's product alone does
+        send(aggregator, trade(1L, 1L, "AAPL", Side.BUY, 1L << 31, 1L << 31, 10L));
+        send(aggregator, trade(2L, 1L, "AAPL", Side.BUY, 1L << 31, (1L << 32) - 1, 20L));
+        send(aggregator, trade(3L, 1L, "AAPL", Side.BUY, 1L << 32, 1L << 32, 1_010L));
+        send(aggregator, trade(4L, 1L, "MSFT", Side.BUY, 1L << 31, 1L << 31, 1_020L));
+        aggregator.flushAll();
+
+        // Then: the overflowed bars carry a null vwap, the other keeps its exact one
+        assertEquals(BarDecoder.vwapNullValue(), bars.get(0).vwap());
+        assertEquals(1L << 32, bars.get(0).volume());
+        assertEquals(BarDecoder.vwapNullValue(), bars.get(1).vwap());
+        assertEquals(1L << 31, bars.get(2).vwap());
+        assertEquals(2L, aggregator.notionalOverflows());
+    }
+
+    @Test
+    void testIgnoresOtherTemplates() {
+        // Given
+        BarAggregator aggregator = new BarAggregator((buffer, offset, length) -> fail("No bar expected"), 1_000, 4);
+
+        // When
+        send(aggregator, order(1L, "AAPL", Side.BUY, 1L, 1L, 1L, BooleanType.TRUE));
+
+        // Then
+        assertEquals(0L, aggregator.trades());
+        assertEquals(0, aggregator.flushAll());
+    }
+}
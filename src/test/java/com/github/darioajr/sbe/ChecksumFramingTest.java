@@ -0,0 +1,159 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.BufferUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChecksumFramingTest {
+
+    private final SbeSerializer serializer = new SbeSerializer();
+    private final SbeDeserializer deserializer = new SbeDeserializer();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFramesRoundTripPerFrameAndPerBlock() {
+        List<Object> expected = new ArrayList<>();
+        byte[] archive = archive(100, expected);
+
+        for (int[] sizes : new int[][] {{0, 1024}, {512, 1024}, {64 * 1024, 1024}, {0, 64}}) {
+            // Given
+            int maxBlockLength = sizes[0];
+            byte[] checked = writeChecked(archive, maxBlockLength, sizes[1]);
+
+            // When
+            List<Object> frames = new ArrayList<>();
+            ChecksumFrameReader reader = new ChecksumFrameReader(ChecksumFrameReader.Verification.EAGER);
+            int end = reader.forEach(new UnsafeBuffer(checked), 0, checked.length,
+                    (buffer, offset, length) -> frames.add(deserializer.deserialize(buffer, offset)));
+
+            // Then
+            assertEquals(checked.length, end);
+            assertEquals(expected, frames);
+            assertEquals(100L, reader.framesRead());
+            assertEquals(reader.blocksRead(), reader.blocksVerified());
+            if (maxBlockLength == 0) {
+                assertEquals(100L, reader.blocksRead());
+            }
+        }
+    }
+
+    @Test
+    void testCorruptionIsDetectedInEveryMode() {
+        byte[] checked = writeChecked(archive(20, new ArrayList<>()), 0, 1024);
+        checked[checked.length - 3] ^= 0x40;
+        UnsafeBuffer buffer = new UnsafeBuffer(checked);
+
+        ChecksumFrameReader eager = new ChecksumFrameReader(ChecksumFrameReader.Verification.EAGER);
+        assertThrows(IllegalArgumentException.class, () -> eager.forEach(buffer, 0, checked.length, (b, o, l) -> { }));
+
+        ChecksumFrameReader sampled = new ChecksumFrameReader(ChecksumFrameReader.Verification.SAMPLED, 1);
+        assertThrows(IllegalArgumentException.class, () -> sampled.forEach(buffer, 0, checked.length, (b, o, l) -> { }));
+
+        ChecksumFrameReader lazy = new ChecksumFrameReader(ChecksumFrameReader.Verification.LAZY);
+        assertEquals(checked.length, lazy.forEach(buffer, 0, checked.length, (b, o, l) -> { }));
+        assertEquals(20L, lazy.framesRead());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, lazy::verifyPending);
+        assertTrue(e.getMessage().contains("CRC32C mismatch"));
+    }
+
+    @Test
+    void testSampledModeVerifiesEveryNthBlock() {
+        byte[] checked = writeChecked(archive(40, new ArrayList<>()), 0, 1024);
+        ChecksumFrameReader reader = new ChecksumFrameReader(ChecksumFrameReader.Verification.SAMPLED, 8);
+
+        reader.forEach(new UnsafeBuffer(checked), 0, checked.length, (b, o, l) -> { });
+
+        assertEquals(40L, reader.blocksRead());
+        assertEquals(5L, reader.blocksVerified());
+    }
+
+    @Test
+    void testMappedArchiveIsVerifiedWindowByWindow() throws IOException {
+        // Given: blocks of a few frames read through windows that hold only a few blocks
+        List<Object> expected = new ArrayList<>();
+        byte[] checked = writeChecked(archive(100, expected), 512, 1024);
+        Path file = Files.write(tempDir.resolve("capture.sbec"), checked);
+
+        try (MappedArchive archive = MappedArchive.map(file, 2048)) {
+            // When
+            List<Object> frames = new ArrayList<>();
+            ChecksumFrameReader reader = new ChecksumFrameReader(ChecksumFrameReader.Verification.LAZY);
+            long end = reader.forEach(archive, (buffer, offset, length) -> frames.add(deserializer.deserialize(buffer, offset)));
+
+            // Then: every block was checked before its window was released
+            assertEquals(checked.length, end);
+            assertEquals(expected, frames);
+            assertEquals(reader.blocksRead(), reader.blocksVerified());
+            assertEquals(0, reader.verifyPending());
+        }
+
+        // When / Then: corruption in a later window is reported at its position in the file
+        checked[checked.length - 3] ^= 0x40;
+        Files.write(file, checked);
+        try (MappedArchive archive = MappedArchive.map(file, 2048)) {
+            ChecksumFrameReader reader = new ChecksumFrameReader(ChecksumFrameReader.Verification.LAZY);
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> reader.forEach(archive, (buffer, offset, length) -> { }));
+            long blockOffset = Long.parseLong(e.getMessage().replaceAll(".*at offset (\\d+):.*", "$1"));
+            assertTrue(blockOffset > 2048, e.getMessage());
+            assertEquals(0, reader.verifyPending());
+        }
+    }
+
+    @Test
+    void testChecksumMatchesForEveryBufferKind() {
+        byte[] data = new byte[10_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(data, 100, 9_000);
+        int expected = (int) crc.getValue();
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data).clear();
+        ByteBuffer raw = ByteBuffer.allocateDirect(data.length).put(data).clear();
+        FrameChecksum checksum = new FrameChecksum();
+
+        assertEquals(expected, checksum.compute(new UnsafeBuffer(data), 100, 9_000));
+        assertEquals(expected, checksum.compute(new UnsafeBuffer(direct), 100, 9_000));
+        assertEquals(expected, checksum.compute(new UnsafeBuffer(direct, 50, 9_500), 50, 9_000));
+        assertEquals(expected, checksum.compute(new UnsafeBuffer(BufferUtil.address(raw), data.length), 100, 9_000));
+    }
+
+    private byte[] archive(int frames, List<Object> decoded) {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        for (int i = 0; i < frames; i++) {
+            byte[] frame = i % 2 == 0
+                    ? serializer.serializeOrder(new OrderData(
+                            i, "AAPL", Side.BUY, 100L, 15000L, 1000L + i, BooleanType.TRUE, "CLIENT-" + "X".repeat(i)))
+                    : serializer.serializeTrade(new TradeData(
+                            i, i - 1, "MSFT", Side.SELL, 10L, 30000L, 1000L + i, "NASDAQ"));
+            archive.writeBytes(frame);
+            decoded.add(deserializer.deserialize(frame));
+        }
+        return archive.toByteArray();
+    }
+
+    private static byte[] writeChecked(byte[] archive, int maxBlockLength, int batchSize) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ChecksumFrameWriter writer = new ChecksumFrameWriter(Channels.newChannel(output), maxBlockLength, batchSize)) {
+            MessageFrames.forEach(new UnsafeBuffer(archive), 0, archive.length, writer);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.darioajr.sbe;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testEventsAreDisabledByDefault() {
+        for (Class<? extends Event> type : List.of(CodecEvents.Encode.class, CodecEvents.Decode.class, CodecEvents.FrameIo.class)) {
+            EventType eventType = EventType.getEventType(type);
+            assertTrue(eventType.getName().startsWith("sbe."));
+            assertFalse(eventType.isEnabled());
+            assertNotNull(eventType.getField("bufferSource"));
+        }
+    }
+
+    @Test
+    void testNothingIsStartedWithoutTheSystemProperty() {
+        // Surefire does not set sbe.jfr, so the instrumented paths stay untouched
+        assertFalse(Boolean.getBoolean(CodecEvents.JFR_PROP_NAME));
+        assertNull(CodecEvents.beginEncode());
+        assertNull(CodecEvents.beginDecode());
+        assertNull(CodecEvents.beginFrameIo());
+        assertFalse(CodecEvents.isDecodeEnabled());
+
+        // Null events are ignored
+        CodecEvents.commitEncode(null, OrderEncoder.TEMPLATE_ID, 0, CodecEvents.HEAP);
+        CodecEvents.commitDecode(null, OrderDecoder.TEMPLATE_ID, 0, CodecEvents.HEAP);
+        CodecEvents.commitFrameIo(null, "read", CodecEvents.FILE, 0, CodecEvents.DIRECT);
+    }
+
+    @Test
+    void testCommittedEventsCarryTheirFields() throws Exception {
+        // Given
+        Path dump = tempDir.resolve("codec.jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable("sbe.Decode").withoutThreshold();
+            recording.enable("sbe.FrameIo").withoutThreshold();
+            recording.start();
+
+            CodecEvents.Decode decode = new CodecEvents.Decode();
+            decode.begin();
+            CodecEvents.commitDecode(decode, TradeDecoder.TEMPLATE_ID, 57, CodecEvents.source(new UnsafeBuffer(new byte[8])));
+
+            CodecEvents.FrameIo write = new CodecEvents.FrameIo();
+            write.begin();
+            try (FileChannel channel = FileChannel.open(tempDir.resolve("frames"), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                CodecEvents.commitFrameIo(write, "write", CodecEvents.channel(channel), 4096, CodecEvents.DIRECT);
+            }
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        RecordedEvent decodeEvent = find(events, "sbe.Decode");
+        assertEquals(TradeDecoder.TEMPLATE_ID, decodeEvent.getInt("templateId"));
+        assertEquals(57, decodeEvent.getInt("encodedLength"));
+        assertEquals(CodecEvents.HEAP, decodeEvent.getString("bufferSource"));
+
+        RecordedEvent ioEvent = find(events, "sbe.FrameIo");
+        assertEquals("write", ioEvent.getString("operation"));
+        assertEquals(CodecEvents.FILE, ioEvent.getString("channel"));
+        assertEquals(4096L, ioEvent.getLong("bytes"));
+    }
+
+    @Test
+    void testBufferSources() {
+        assertEquals(CodecEvents.HEAP, CodecEvents.source(new UnsafeBuffer(new byte[8])));
+        assertEquals(CodecEvents.DIRECT, CodecEvents.source(new UnsafeBuffer(ByteBuffer.allocateDirect(8))));
+        assertEquals(CodecEvents.CHANNEL, CodecEvents.channel(null));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + name + " event recorded"));
+    }
+}
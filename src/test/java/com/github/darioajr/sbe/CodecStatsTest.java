@@ -0,0 +1,53 @@
+package com.github.darioajr.sbe;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecStatsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCountersAndLatenciesVisibleToReader() {
+        // Given
+        Path statsFile = tempDir.resolve("sbe-stats.dat");
+        OrderData order = new OrderData(1L, "AAPL", Side.BUY, 100L, 15000L,
+                System.currentTimeMillis(), BooleanType.TRUE, "STATS-TEST");
+
+        try (CodecStats stats = CodecStats.create(statsFile);
+             CodecStatsReader reader = new CodecStatsReader(statsFile)) {
+            SbeSerializer serializer = new SbeSerializer(stats);
+            SbeDeserializer deserializer = new SbeDeserializer(stats);
+
+            // When
+            byte[] data = null;
+            for (int i = 0; i < 10; i++) {
+                data = serializer.serializeOrder(order);
+                deserializer.deserialize(data);
+            }
+            assertThrows(IllegalArgumentException.class, () -> deserializer.deserialize(new byte[8]));
+
+            // Then
+            assertEquals(10, reader.counterValue(CodecStats.MESSAGES_TYPE_ID, CodecStats.ENCODE, OrderEncoder.TEMPLATE_ID));
+            assertEquals(10, reader.counterValue(CodecStats.MESSAGES_TYPE_ID, CodecStats.DECODE, OrderDecoder.TEMPLATE_ID));
+            assertEquals(10L * data.length, reader.counterValue(CodecStats.BYTES_TYPE_ID, CodecStats.DECODE, OrderDecoder.TEMPLATE_ID));
+            assertEquals(1, reader.counterValue(CodecStats.ERRORS_TYPE_ID, CodecStats.DECODE, 0));
+            assertEquals(10, reader.latency(CodecStats.DECODE, OrderDecoder.TEMPLATE_ID).count());
+            assertTrue(reader.latency(CodecStats.DECODE, OrderDecoder.TEMPLATE_ID).valueAtPercentile(50.0) > 0);
+        }
+    }
+
+    @Test
+    void testHistogramBucketsAreContiguous() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT - 1; i++) {
+            assertEquals(i, LatencyHistogram.bucketIndex(LatencyHistogram.lowestEquivalentValue(i)));
+            assertEquals(i, LatencyHistogram.bucketIndex(LatencyHistogram.highestEquivalentValue(i)));
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.darioajr.sbe;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionPipelineTest {
+
+    private final SbeSerializer serializer = new SbeSerializer();
+    private final SbeDeserializer deserializer = new SbeDeserializer();
+
+    @Test
+    void testFramesStraddlingSmallBuffersConvertInOrder() {
+        // Given
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        StringJoiner expected = new StringJoiner(",\n", "[\n", "\n]");
+        for (int i = 0; i < 200; i++) {
+            byte[] frame = switch (i % 3) {
+                case 0 -> serializer.serializeOrder(new OrderData(
+                        i, "AAPL", Side.BUY, 100L, 15000L, 1000L + i, BooleanType.TRUE, "CLIENT-" + "X".repeat(i)));
+                case 1 -> serializer.serializeTrade(new TradeData(
+                        i, i - 1, "MSFT", Side.SELL, 10L, 30000L, 1000L + i, "NASDAQ"));
+                default -> serializer.serializeMarketData(new MarketDataData(
+                        "IBM", 1000L + i, 1L, 2L, 3L, 4L, 5L, 6L,
+                        Arrays.asList(new PriceLevelData(1L, 2L, Side.BUY), new PriceLevelData(3L, 4L, Side.SELL))));
+            };
+            archive.writeBytes(frame);
+            expected.add(JsonFormatter.toJson(deserializer.deserialize(frame)));
+        }
+        byte[] input = archive.toByteArray();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        ConversionReport report = new ConversionPipeline(FieldProjection.ALL, 64, 2)
+                .run(Channels.newChannel(new ByteArrayInputStream(input)), Channels.newChannel(output));
+
+        // Then
+        assertEquals(200, report.frames());
+        assertEquals(input.length, report.bytesRead());
+        assertEquals(output.size(), report.bytesWritten());
+        assertEquals(expected.toString(), output.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testEmptyBuffersAreReturnedForTheNextRun() {
+        // Given: a single input buffer, which the empty read at end of input must hand back
+        ConversionPipeline pipeline = new ConversionPipeline(FieldProjection.ALL, 64, 1);
+        byte[] frame = serializer.serializeTrade(new TradeData(
+                1L, 1L, "AAPL", Side.BUY, 100L, 15000L, 1000L, "NASDAQ"));
+
+        // When
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ConversionReport empty = pipeline.run(Channels.newChannel(new ByteArrayInputStream(new byte[0])), Channels.newChannel(first));
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        ConversionReport single = pipeline.run(Channels.newChannel(new ByteArrayInputStream(frame)), Channels.newChannel(second));
+
+        // Then
+        assertEquals(0, empty.frames());
+        assertEquals("[\n]", first.toString(StandardCharsets.US_ASCII));
+        assertEquals(1, single.frames());
+        assertEquals("[\n" + JsonFormatter.toJson(deserializer.deserialize(frame)) + "\n]", second.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testTruncatedInputIsRejected() {
+        byte[] frame = serializer.serializeOrder(new OrderData(
+                1L, "AAPL", Side.BUY, 100L, 15000L, 1000L, BooleanType.TRUE, "CLIENT-1"));
+        byte[] input = Arrays.copyOf(frame, frame.length - 3);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ConversionPipeline(FieldProjection.ALL, 64, 2).run(
+                        Channels.newChannel(new ByteArrayInputStream(input)), Channels.newChannel(new ByteArrayOutputStream())));
+        assertTrue(e.getMessage().contains("partial frame"));
+    }
+
+    @Test
+    void testInvalidFrameIsRejected() {
+        byte[] frame = serializer.serializeTrade(new TradeData(
+                1L, 1L, "AAPL", Side.BUY, 100L, 15000L, 1000L, "NASDAQ"));
+        frame[MessageHeaderDecoder.ENCODED_LENGTH + TradeDecoder.sideEncodingOffset()] = 'X';
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ConversionPipeline(FieldProjection.ALL).run(
+                        Channels.newChannel(new ByteArrayInputStream(frame)), Channels.newChannel(new ByteArrayOutputStream())));
+        assertTrue(e.getMessage().contains("INVALID_ENUM_VALUE"));
+    }
+}
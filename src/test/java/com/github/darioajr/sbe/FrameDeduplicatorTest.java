@@ -0,0 +1,119 @@
+package com.github.darioajr.sbe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.darioajr.sbe.TestFrames.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameDeduplicatorTest {
+
+    @Test
+    void testDropsDuplicatesFromRedundantFeeds() {
+        // Given
+        List<Object> received = new ArrayList<>();
+        FrameDeduplicator deduplicator = new FrameDeduplicator(collect(received, Object.class), 1_000, 1024, FrameDeduplicator.EXACT);
+        OrderData order = order(7L, "AAPL", Side.BUY, 100L, 15000L, 100L, BooleanType.TRUE);
+        TradeData trade = trade(7L, 1L, "AAPL", Side.SELL, 100L, 15000L, 101L);
+        MarketDataData marketData = new MarketDataData("AAPL", 102L, 1L, 1L, 2L, 1L, 1L, 1L, List.of());
+
+        // When: feed A, then the same frames again from feed B
+        for (int feed = 0; feed < 2; feed++) {
+            send(deduplicator, order, trade, marketData);
+        }
+
+        // Then: orderId 7 and tradeId 7 are distinct keys, MarketData is never deduplicated
+        assertEquals(List.of(order, trade, marketData, marketData), received);
+        assertEquals(2L, deduplicator.duplicates());
+        assertEquals(4L, deduplicator.forwarded());
+    }
+
+    @Test
+    void testCancelAndReplaceReusingAnOrderIdAreForwarded() {
+        // Given
+        List<OrderData> received = new ArrayList<>();
+        FrameDeduplicator deduplicator = new FrameDeduplicator(collect(received, OrderData.class), 1_000, 1024, FrameDeduplicator.EXACT);
+        OrderData placed = order(7L, "AAPL", Side.BUY, 100L, 15000L, 100L, BooleanType.TRUE);
+        OrderData replaced = order(7L, "AAPL", Side.BUY, 60L, 15000L, 101L, BooleanType.TRUE);
+        OrderData cancelled = order(7L, "AAPL", Side.BUY, 60L, 15000L, 102L, BooleanType.FALSE);
+
+        // When: both feeds carry the new order, its replace and its cancel
+        for (int feed = 0; feed < 2; feed++) {
+            send(deduplicator, placed, replaced, cancelled);
+        }
+
+        // Then
+        assertEquals(List.of(placed, replaced, cancelled), received);
+        assertEquals(3L, deduplicator.duplicates());
+    }
+
+    @Test
+    void testIdsExpireAfterTwoWindows() {
+        // Given
+        FrameDeduplicator deduplicator = new FrameDeduplicator((buffer, offset, length) -> { }, 1_000, 1024, FrameDeduplicator.EXACT);
+        send(deduplicator, order(1L, "AAPL", Side.BUY, 100L, 15000L, 0L, BooleanType.TRUE));
+
+        // When / Then: still remembered one window later, forgotten after two
+        send(deduplicator, order(1L, "AAPL", Side.BUY, 100L, 15000L, 1_500L, BooleanType.TRUE));
+        assertEquals(1L, deduplicator.duplicates());
+        send(deduplicator, order(2L, "AAPL", Side.BUY, 100L, 15000L, 2_600L, BooleanType.TRUE));
+        send(deduplicator, order(1L, "AAPL", Side.BUY, 100L, 15000L, 2_700L, BooleanType.TRUE));
+        assertEquals(1L, deduplicator.duplicates());
+        assertEquals(2L, deduplicator.rotations());
+        assertEquals(0L, deduplicator.earlyEvictions());
+    }
+
+    @Test
+    void testFullGenerationRotatesEarlyAndCountsEvictions() {
+        // Given: generations of 4 keys and a window no timestamp here reaches
+        FrameDeduplicator deduplicator = new FrameDeduplicator((buffer, offset, length) -> { }, 1_000, 4, FrameDeduplicator.EXACT);
+
+        // When: 8 trades fill both generations, so the next frame clears the first within its window
+        for (long id = 0; id < 8; id++) {
+            send(deduplicator, trade(id, 1L, "AAPL", Side.SELL, 100L, 15000L, id));
+        }
+        send(deduplicator, trade(0L, 1L, "AAPL", Side.SELL, 100L, 15000L, 8L));
+
+        // Then: the evicted tradeId 0 is let through, as counted
+        assertEquals(2L, deduplicator.rotations());
+        assertEquals(4L, deduplicator.earlyEvictions());
+        assertEquals(0L, deduplicator.duplicates());
+        assertEquals(9L, deduplicator.forwarded());
+    }
+
+    @Test
+    void testExactModeNeverDropsUniqueIds() {
+        // Given: a tiny window capacity forces early rotations and a saturated filter
+        int[] forwarded = new int[1];
+        FrameDeduplicator deduplicator = new FrameDeduplicator((buffer, offset, length) -> forwarded[0]++, Long.MAX_VALUE, 4096, FrameDeduplicator.EXACT);
+
+        // When
+        for (long id = 0; id < 100_000; id++) {
+            TradeData trade = trade(id, 1L, "AAPL", Side.SELL, 100L, 15000L, 1L);
+            send(deduplicator, trade, trade);
+        }
+
+        // Then
+        assertEquals(100_000, forwarded[0]);
+        assertEquals(100_000L, deduplicator.duplicates());
+        assertTrue(deduplicator.rotations() > 0);
+    }
+
+    @Test
+    void testApproximateModeStaysNearConfiguredRate() {
+        // Given
+        FrameDeduplicator deduplicator = new FrameDeduplicator((buffer, offset, length) -> { }, Long.MAX_VALUE, 50_000, 0.001);
+
+        // When: only unique ids, so every drop is a false drop
+        for (long id = 0; id < 50_000; id++) {
+            send(deduplicator, order(id, "AAPL", Side.BUY, 100L, 15000L, 1L, BooleanType.TRUE));
+        }
+
+        // Then
+        assertTrue(deduplicator.duplicates() < 250, "False drops: " + deduplicator.duplicates());
+        assertThrows(IllegalArgumentException.class,
+                () -> new FrameDeduplicator((buffer, offset, length) -> { }, 1_000, 1024, 1.0));
+    }
+}
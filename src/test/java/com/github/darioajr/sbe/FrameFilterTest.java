@@ -0,0 +1,102 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameFilterTest {
+
+    private final SbeSerializer serializer = new SbeSerializer();
+    private final SbeDeserializer deserializer = new SbeDeserializer();
+    private UnsafeBuffer archive;
+
+    @BeforeEach
+    void setUp() {
+        ExpandableArrayBuffer buffer = new ExpandableArrayBuffer();
+        int position = 0;
+        for (int i = 0; i < 10; i++) {
+            String symbol = i % 2 == 0 ? "AAPL" : "MSFT";
+            byte[] order = serializer.serializeOrder(new OrderData(
+                    i, symbol, Side.BUY, 100L, 15000L, 1000L + i, BooleanType.TRUE, "CLIENT-" + i));
+            byte[] trade = serializer.serializeTrade(new TradeData(
+                    100L + i, i, symbol, Side.SELL, 100L, 15000L, 1000L + i, "NASDAQ"));
+            buffer.putBytes(position, order);
+            position += order.length;
+            buffer.putBytes(position, trade);
+            position += trade.length;
+        }
+        archive = new UnsafeBuffer(buffer.byteArray(), 0, position);
+    }
+
+    @Test
+    void testFilterBySymbolTemplateAndTimestamp() {
+        FrameFilter filter = new FrameFilter()
+                .templateIds(TradeEncoder.TEMPLATE_ID)
+                .symbol("AAPL")
+                .timestampRange(1002L, 1006L);
+
+        List<Object> matched = collect(filter);
+
+        assertEquals(20, filter.framesScanned());
+        assertEquals(3, matched.size());
+        for (Object message : matched) {
+            TradeData trade = assertInstanceOf(TradeData.class, message);
+            assertEquals("AAPL", trade.symbol());
+            assertTrue(trade.timestamp() >= 1002L && trade.timestamp() <= 1006L);
+        }
+    }
+
+    @Test
+    void testFilterByIdRanges() {
+        assertEquals(4, collect(new FrameFilter().orderIdRange(3L, 4L)).size());
+        assertEquals(2, collect(new FrameFilter().tradeIdRange(105L, 106L)).size());
+        assertEquals(0, collect(new FrameFilter().symbol("IBM")).size());
+    }
+
+    @Test
+    void testFilterMatchesNonAsciiSymbolsAsEncoded() {
+        // Given: symbols the encoders write with '?' for each non-ASCII character or surrogate pair
+        ExpandableArrayBuffer buffer = new ExpandableArrayBuffer();
+        int position = 0;
+        for (String symbol : new String[] {"\u00C4PL", "\uD83D\uDE00AB", "?PL"}) {
+            byte[] trade = serializer.serializeTrade(new TradeData(1L, 1L, symbol, Side.SELL, 100L, 15000L, 1000L, "NASDAQ"));
+            buffer.putBytes(position, trade);
+            position += trade.length;
+        }
+        archive = new UnsafeBuffer(buffer.byteArray(), 0, position);
+
+        // When / Then: the key follows the same rule, so it matches the frame and its ASCII lookalike
+        assertEquals(Symbols.encode("?PL"), Symbols.encode("\u00C4PL"));
+        assertEquals(2, collect(new FrameFilter().symbol("\u00C4PL")).size());
+        assertEquals(List.of("?AB"), collect(new FrameFilter().symbol("\uD83D\uDE00AB")).stream()
+                .map(message -> ((TradeData) message).symbol())
+                .toList());
+    }
+
+    @Test
+    void testFilterStopsAtIncompleteFrame() {
+        UnsafeBuffer truncated = new UnsafeBuffer(archive, 0, archive.capacity() - 1);
+        FrameFilter filter = new FrameFilter();
+
+        int end = filter.filter(truncated, 0, truncated.capacity(), (buffer, offset, length) -> { });
+
+        assertEquals(19, filter.framesMatched());
+        assertTrue(end < truncated.capacity());
+    }
+
+    private List<Object> collect(FrameFilter filter) {
+        List<Object> matched = new ArrayList<>();
+        filter.filter(archive, 0, archive.capacity(), (buffer, offset, length) -> {
+            byte[] frame = new byte[length];
+            buffer.getBytes(offset, frame);
+            matched.add(deserializer.deserialize(frame));
+        });
+        return matched;
+    }
+}
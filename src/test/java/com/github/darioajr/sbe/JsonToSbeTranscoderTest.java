@@ -0,0 +1,138 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonToSbeTranscoderTest {
+
+    private final SbeSerializer serializer = new SbeSerializer();
+    private final JsonToSbeTranscoder transcoder = new JsonToSbeTranscoder();
+    private final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(64);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMatchesRecordSerializerForFormattedJson() {
+        // Given
+        OrderData order = new OrderData(12345L, "AAPL", Side.BUY, 1000L, 15000L, 1693478400000L, BooleanType.TRUE, "CLIENT-ORDER-001");
+        TradeData trade = new TradeData(67890L, 12345L, "MSFT", Side.SELL, 500L, 14950L, 1693478400000L, "NASDAQ");
+        MarketDataData marketData = new MarketDataData("GOOGL", 1693478400000L, 14950L, 2000L, 15050L, 1500L, 15000L, 500L,
+                Arrays.asList(new PriceLevelData(14900L, 1000L, Side.BUY), new PriceLevelData(15100L, 800L, Side.SELL)));
+        MarketDataData emptyBook = new MarketDataData("IBM", 1L, 2L, 3L, 4L, 5L, 6L, 7L, List.of());
+
+        // When / Then
+        assertArrayEquals(serializer.serializeOrder(order), transcode(OrderEncoder.TEMPLATE_ID, JsonFormatter.formatOrder(order)));
+        assertArrayEquals(serializer.serializeTrade(trade), transcode(TradeEncoder.TEMPLATE_ID, JsonFormatter.formatTrade(trade)));
+        assertArrayEquals(serializer.serializeMarketData(marketData),
+                transcode(MarketDataEncoder.TEMPLATE_ID, JsonFormatter.formatMarketData(marketData)));
+        assertArrayEquals(serializer.serializeMarketData(emptyBook),
+                transcode(MarketDataEncoder.TEMPLATE_ID, JsonFormatter.formatMarketData(emptyBook)));
+    }
+
+    @Test
+    void testAcceptsAnyFieldOrderAndSkipsUnknownFields() {
+        // Given
+        String json = "{\"venue\":\"XNAS\",\"extra\":{\"nested\":[1,\"}\",{\"a\":null}]},\"timestamp\":3,\"price\":-5,"
+                + "\"quantity\":7,\"side\":\"SELL\",\"symbol\":\"AB\",\"orderId\":2,\"flag\":true,\"tradeId\":1}";
+
+        // When
+        TradeData trade = new SbeDeserializer().deserializeTrade(transcode(TradeEncoder.TEMPLATE_ID, json));
+
+        // Then
+        assertEquals(new TradeData(1L, 2L, "AB", Side.SELL, 7L, -5L, 3L, "XNAS"), trade);
+    }
+
+    @Test
+    void testLevelsMayComeBeforeTheBlockFields() {
+        // Given
+        String json = "{\"levels\":[{\"side\":\"BUY\",\"size\":2,\"price\":1}],\"symbol\":\"X\",\"timestamp\":1,"
+                + "\"bidPrice\":1,\"bidSize\":1,\"askPrice\":1,\"askSize\":1,\"lastPrice\":1,\"lastSize\":1}";
+
+        // When
+        MarketDataData marketData = new SbeDeserializer().deserializeMarketData(transcode(MarketDataEncoder.TEMPLATE_ID, json));
+
+        // Then
+        assertEquals(List.of(new PriceLevelData(1L, 2L, Side.BUY)), marketData.levels());
+    }
+
+    @Test
+    void testRejectsInvalidJson() {
+        String order = JsonFormatter.formatOrder(new OrderData(1L, "AAPL", Side.BUY, 1L, 1L, 1L, BooleanType.FALSE, "C"));
+
+        assertInvalid(OrderEncoder.TEMPLATE_ID, order.replace("\"price\": 1,", ""), "Field not found: price");
+        assertInvalid(OrderEncoder.TEMPLATE_ID, order.replace("AAPL", "TOOLONGSYM"), "max 8 characters");
+        assertInvalid(OrderEncoder.TEMPLATE_ID, order.replace("AAPL", "\u00C4PL"), "must be ASCII");
+        assertInvalid(OrderEncoder.TEMPLATE_ID, order.replace("BUY", "HOLD"), "unknown side");
+        assertInvalid(OrderEncoder.TEMPLATE_ID, order.replace("\"C\"", "\"C\\\"\""), "escape sequences");
+        assertInvalid(OrderEncoder.TEMPLATE_ID, order.replace("\"quantity\": 1", "\"quantity\": 1.5"), "expected an integer");
+        assertInvalid(OrderEncoder.TEMPLATE_ID, order.replace("\"quantity\": 1", "\"quantity\": 99999999999999999999"), "out of range");
+        assertInvalid(OrderEncoder.TEMPLATE_ID, order.replace("\"quantity\": 1", "\"quantity\": 9223372036854775808"), "out of range");
+        assertInvalid(OrderEncoder.TEMPLATE_ID, order.replace("\"quantity\": 1", "\"quantity\": -9223372036854775809"), "out of range");
+        assertInvalid(OrderEncoder.TEMPLATE_ID, order + "}", "trailing data");
+        assertInvalid(OrderEncoder.TEMPLATE_ID, order.substring(0, order.length() / 2), "Invalid JSON");
+        assertInvalid(PositionEncoder.TEMPLATE_ID, order, "Unsupported template");
+    }
+
+    @Test
+    void testReadsTheFullLongRange() {
+        // Given
+        String json = "{\"tradeId\":-9223372036854775808,\"orderId\":9223372036854775807,\"symbol\":\"A\",\"side\":\"BUY\","
+                + "\"quantity\":-0,\"price\":-1,\"timestamp\":0,\"venue\":\"V\"}";
+
+        // When
+        TradeData trade = new SbeDeserializer().deserializeTrade(transcode(TradeEncoder.TEMPLATE_ID, json));
+
+        // Then
+        assertEquals(new TradeData(Long.MIN_VALUE, Long.MAX_VALUE, "A", Side.BUY, 0L, -1L, 0L, "V"), trade);
+    }
+
+    @Test
+    void testRecordsEncodeStats() {
+        // Given
+        Path statsFile = tempDir.resolve("sbe-stats.dat");
+        String order = JsonFormatter.formatOrder(new OrderData(1L, "AAPL", Side.BUY, 1L, 1L, 1L, BooleanType.FALSE, "C"));
+        byte[] bytes = order.getBytes(StandardCharsets.UTF_8);
+
+        try (CodecStats stats = CodecStats.create(statsFile);
+             CodecStatsReader reader = new CodecStatsReader(statsFile)) {
+            JsonToSbeTranscoder instrumented = new JsonToSbeTranscoder(stats);
+
+            // When
+            int length = 0;
+            for (int i = 0; i < 3; i++) {
+                length = instrumented.transcode(OrderEncoder.TEMPLATE_ID, new UnsafeBuffer(bytes), 0, bytes.length, buffer, 0);
+            }
+            assertThrows(IllegalArgumentException.class,
+                    () -> instrumented.transcode(OrderEncoder.TEMPLATE_ID, new UnsafeBuffer(bytes), 0, 1, buffer, 0));
+
+            // Then
+            assertEquals(3, reader.counterValue(CodecStats.MESSAGES_TYPE_ID, CodecStats.ENCODE, OrderEncoder.TEMPLATE_ID));
+            assertEquals(3L * length, reader.counterValue(CodecStats.BYTES_TYPE_ID, CodecStats.ENCODE, OrderEncoder.TEMPLATE_ID));
+            assertEquals(1, reader.counterValue(CodecStats.ERRORS_TYPE_ID, CodecStats.ENCODE, OrderEncoder.TEMPLATE_ID));
+            assertEquals(3, reader.latency(CodecStats.ENCODE, OrderEncoder.TEMPLATE_ID).count());
+        }
+    }
+
+    private byte[] transcode(int templateId, String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        int length = transcoder.transcode(templateId, new UnsafeBuffer(bytes), 0, bytes.length, buffer, 0);
+        byte[] frame = new byte[length];
+        buffer.getBytes(0, frame);
+        return frame;
+    }
+
+    private void assertInvalid(int templateId, String json, String message) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> transcode(templateId, json));
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.darioajr.sbe.TestFrames.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWindowsNeverSplitFrames() throws IOException {
+        // Given: windows far smaller than the archive, so frames regularly straddle a window end
+        Path file = writeArchive(500, 0);
+        List<OrderData> expected = orders(500);
+
+        // When / Then
+        try (MappedArchive archive = MappedArchive.map(file, 256)) {
+            List<OrderData> forEach = new ArrayList<>();
+            assertEquals(archive.length(), archive.forEach(collect(forEach, OrderData.class)));
+            assertEquals(expected, forEach);
+
+            List<OrderData> polled = new ArrayList<>();
+            while (!archive.isEndOfStream()) {
+                archive.poll(collect(polled, OrderData.class), 7);
+            }
+            assertEquals(expected, polled);
+            assertEquals(archive.length(), archive.position());
+
+            FrameFilter filter = new FrameFilter().orderIdRange(100, 199);
+            List<OrderData> matched = new ArrayList<>();
+            assertEquals(archive.length(),
+                    archive.scan((buffer, offset, limit) -> filter.filter(buffer, offset, limit, collect(matched, OrderData.class))));
+            assertEquals(expected.subList(100, 200), matched);
+        }
+    }
+
+    @Test
+    void testPartialTailAndOversizedFrames() throws IOException {
+        // Given
+        Path file = writeArchive(10, 5);
+
+        // When / Then
+        try (MappedArchive archive = MappedArchive.map(file, 128)) {
+            assertEquals(archive.length() - 5, archive.forEach((buffer, offset, length) -> { }));
+            assertThrows(IllegalStateException.class, () -> {
+                while (!archive.isEndOfStream()) {
+                    archive.poll((buffer, offset, length) -> { }, 100);
+                }
+            });
+        }
+        try (MappedArchive archive = MappedArchive.map(file, 16)) {
+            assertThrows(IllegalStateException.class, () -> archive.forEach((buffer, offset, length) -> { }));
+        }
+        Path empty = Files.createFile(tempDir.resolve("empty.sbe"));
+        try (MappedArchive archive = MappedArchive.map(empty)) {
+            assertTrue(archive.isEndOfStream());
+            assertEquals(0, archive.forEach((buffer, offset, length) -> fail("No frames expected")));
+        }
+    }
+
+    @Test
+    void testReadsFramesBeyondTwoGigabytes() throws IOException {
+        // Given: a sparse file with an Order frame 3 GB in
+        long position = 3L * 1024 * 1024 * 1024;
+        byte[] frame = frame(order(42L));
+        Path file = tempDir.resolve("large.sbe");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.SPARSE)) {
+            channel.write(ByteBuffer.wrap(frame), position);
+        }
+
+        // When
+        try (MappedArchive archive = MappedArchive.map(file)) {
+            DirectBuffer window = archive.window(position);
+
+            // Then
+            assertEquals(position + frame.length, archive.length());
+            assertEquals(frame.length, MessageFrames.frameLength(window, 0, window.capacity()));
+            MutableOrder order = new SbeDeserializer().decodeInto(window, 0, new MutableOrder());
+            assertEquals(42L, order.orderId());
+        }
+    }
+
+    @Test
+    void testFramesStraddlingChunkAndTwoGigabyteBoundaries() throws IOException {
+        // Given: a sparse file whose frames start just before the 2 GB mark
+        List<OrderData> expected = orders(4);
+        int frameLength = frame(expected.get(0)).length;
+        long from = (1L << 31) - frameLength / 2;
+        Path file = tempDir.resolve("straddle.sbe");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.SPARSE)) {
+            long position = from;
+            for (OrderData order : expected) {
+                position += channel.write(ByteBuffer.wrap(frame(order)), position);
+            }
+        }
+
+        // When: each chunk holds one and a half frames, so every frame after the first ends in a new one
+        try (MappedArchive archive = MappedArchive.map(file, frameLength + frameLength / 2)) {
+            List<OrderData> scanned = new ArrayList<>();
+            long end = archive.forEach(from, collect(scanned, OrderData.class));
+
+            archive.window(from);
+            List<OrderData> polled = new ArrayList<>();
+            while (!archive.isEndOfStream()) {
+                archive.poll(collect(polled, OrderData.class), 10);
+            }
+
+            // Then
+            assertEquals(archive.length(), end);
+            assertEquals(expected, scanned);
+            assertEquals(expected, polled);
+        }
+    }
+
+    private Path writeArchive(int frames, int trailingBytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (OrderData order : orders(frames)) {
+            out.writeBytes(frame(order));
+        }
+        out.write(new byte[trailingBytes], 0, trailingBytes);
+        return Files.write(tempDir.resolve("archive.sbe"), out.toByteArray());
+    }
+
+    private static OrderData order(long orderId) {
+        return TestFrames.order(orderId, "AAPL", Side.BUY, 1L, 1L, orderId, BooleanType.TRUE);
+    }
+
+    private static List<OrderData> orders(int count) {
+        List<OrderData> orders = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            orders.add(order(i));
+        }
+        return orders;
+    }
+}
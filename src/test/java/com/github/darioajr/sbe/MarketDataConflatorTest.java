@@ -0,0 +1,110 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataConflatorTest {
+
+    private final SbeSerializer serializer = new SbeSerializer();
+    private final SbeDeserializer deserializer = new SbeDeserializer();
+
+    @Test
+    void testConsumerSeesOnlyLatestPerSymbol() {
+        // Given
+        MarketDataConflator conflator = new MarketDataConflator(16);
+        offer(conflator, marketData("AAPL", 1L));
+        offer(conflator, marketData("MSFT", 2L));
+        offer(conflator, marketData("AAPL", 3L));
+        offer(conflator, marketData("AAPL", 4L));
+
+        // When
+        List<MarketDataData> drained = new ArrayList<>();
+        int frames = conflator.drain((buffer, offset, length) ->
+                drained.add((MarketDataData) deserializer.deserialize(buffer, offset)));
+
+        // Then
+        assertEquals(2, frames);
+        assertEquals(List.of(marketData("AAPL", 4L), marketData("MSFT", 2L)), drained);
+        assertEquals(4L, conflator.updates());
+        assertEquals(2L, conflator.conflated());
+        assertEquals(0, conflator.dirtyCount());
+        assertEquals(0, conflator.drain((buffer, offset, length) -> fail("Nothing is dirty")));
+    }
+
+    @Test
+    void testCapacityIsBounded() {
+        MarketDataConflator conflator = new MarketDataConflator(2, 1);
+
+        assertTrue(offer(conflator, marketData("AAPL", 1L)));
+        assertTrue(offer(conflator, marketData("MSFT", 1L)));
+        assertFalse(offer(conflator, marketData("IBM", 1L)));
+        assertTrue(offer(conflator, marketData("AAPL", 2L)));
+
+        byte[] deep = serializer.serializeMarketData(new MarketDataData("AAPL", 3L, 1L, 1L, 2L, 1L, 1L, 1L,
+                Arrays.asList(new PriceLevelData(1L, 1L, Side.BUY), new PriceLevelData(2L, 1L, Side.SELL))));
+        assertFalse(conflator.offer(new UnsafeBuffer(deep), 0, deep.length));
+        assertEquals(2L, conflator.rejected());
+    }
+
+    @Test
+    void testConcurrentConsumerSeesConsistentFreshFrames() throws Exception {
+        // Given
+        String[] symbols = {"AAPL", "MSFT", "IBM", "GOOG"};
+        int updatesPerSymbol = 20_000;
+        MarketDataConflator conflator = new MarketDataConflator(symbols.length);
+        byte[][][] frames = new byte[symbols.length][updatesPerSymbol][];
+        for (int s = 0; s < symbols.length; s++) {
+            for (int i = 0; i < updatesPerSymbol; i++) {
+                frames[s][i] = serializer.serializeMarketData(marketData(symbols[s], i + 1));
+            }
+        }
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < updatesPerSymbol; i++) {
+                for (int s = 0; s < symbols.length; s++) {
+                    conflator.offer(new UnsafeBuffer(frames[s][i]), 0, frames[s][i].length);
+                }
+            }
+        });
+
+        // When
+        Map<String, Long> latest = new HashMap<>();
+        SbeValidator validator = new SbeValidator();
+        FrameHandler consumer = (buffer, offset, length) -> {
+            assertEquals(SbeValidator.Verdict.VALID, validator.validate(buffer, offset, length));
+            MarketDataData data = (MarketDataData) deserializer.deserialize(buffer, offset);
+            assertEquals(data.timestamp(), data.bidPrice(), "torn frame");
+            Long previous = latest.put(data.symbol(), data.timestamp());
+            assertTrue(previous == null || previous <= data.timestamp(), "stale frame");
+        };
+        producer.start();
+        while (producer.isAlive()) {
+            conflator.drain(consumer);
+        }
+        producer.join();
+        conflator.drain(consumer);
+
+        // Then
+        for (String symbol : symbols) {
+            assertEquals((long) updatesPerSymbol, latest.get(symbol));
+        }
+    }
+
+    private boolean offer(MarketDataConflator conflator, MarketDataData data) {
+        byte[] frame = serializer.serializeMarketData(data);
+        return conflator.offer(new UnsafeBuffer(frame), 0, frame.length);
+    }
+
+    private static MarketDataData marketData(String symbol, long timestamp) {
+        return new MarketDataData(symbol, timestamp, timestamp, 10L, timestamp + 1, 20L, timestamp, 5L,
+                List.of(new PriceLevelData(timestamp, 10L, Side.BUY)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.darioajr.sbe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.darioajr.sbe.TestFrames.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchingEngineTest {
+
+    private final List<TradeData> trades = new ArrayList<>();
+    private final MatchingEngine engine = new MatchingEngine(collect(trades, TradeData.class), 4, 8, 64, "NASDAQ");
+
+    @Test
+    void testMatchesBestPriceThenOldestOrderFirst() {
+        // Given
+        send(engine, order(1L, "AAPL", Side.SELL, 10L, 101L, 7L, BooleanType.TRUE));
+        send(engine, order(2L, "AAPL", Side.SELL, 10L, 100L, 7L, BooleanType.TRUE));
+        send(engine, order(3L, "AAPL", Side.SELL, 10L, 100L, 7L, BooleanType.TRUE));
+        send(engine, order(4L, "AAPL", Side.BUY, 5L, 99L, 7L, BooleanType.TRUE));
+
+        // When: buy 25 up to 101 sweeps 100 (orders 2 then 3) before 101
+        send(engine, order(5L, "AAPL", Side.BUY, 25L, 101L, 7L, BooleanType.TRUE));
+
+        // Then
+        assertEquals(List.of(
+                trade(1L, 5L, "AAPL", Side.BUY, 10L, 100L, 7L), trade(2L, 2L, "AAPL", Side.SELL, 10L, 100L, 7L),
+                trade(3L, 5L, "AAPL", Side.BUY, 10L, 100L, 7L), trade(4L, 3L, "AAPL", Side.SELL, 10L, 100L, 7L),
+                trade(5L, 5L, "AAPL", Side.BUY, 5L, 101L, 7L), trade(6L, 1L, "AAPL", Side.SELL, 5L, 101L, 7L)), trades);
+        assertEquals(5L, engine.remainingQuantity(1L));
+        assertEquals(101L, engine.bestAsk("AAPL"));
+        assertEquals(99L, engine.bestBid("AAPL"));
+        assertEquals(2, engine.restingOrders());
+    }
+
+    @Test
+    void testRestsRemainderAndCancels() {
+        // Given
+        send(engine, order(1L, "AAPL", Side.SELL, 10L, 100L, 7L, BooleanType.TRUE));
+        send(engine, order(2L, "AAPL", Side.BUY, 15L, 100L, 7L, BooleanType.TRUE));
+
+        // When / Then: the unfilled 5 rests as the best bid
+        assertEquals(100L, engine.bestBid("AAPL"));
+        assertEquals(MatchingEngine.NO_PRICE, engine.bestAsk("AAPL"));
+        assertEquals(5L, engine.remainingQuantity(2L));
+
+        OrderData cancel = order(2L, "AAPL", Side.BUY, 0L, 0L, 8L, BooleanType.FALSE);
+        send(engine, cancel, cancel);
+        assertEquals(MatchingEngine.NO_PRICE, engine.bestBid("AAPL"));
+        assertEquals(0, engine.restingOrders());
+        assertEquals(1L, engine.cancels());
+
+        // A crossing sell now has nothing to trade with
+        send(engine, order(3L, "AAPL", Side.SELL, 1L, 1L, 7L, BooleanType.TRUE));
+        assertEquals(2L, engine.trades());
+        assertEquals(1L, engine.bestAsk("AAPL"));
+    }
+
+    @Test
+    void testKeepsBooksPerSymbolAndRejectsBeyondCapacity() {
+        // Given
+        MatchingEngine small = new MatchingEngine(collect(trades, TradeData.class), 1, 2, 3, "NASDAQ");
+        small.onOrder(1L, Symbols.encode("AAPL"), Side.BUY, 1L, 10L, 1L, true);
+        small.onOrder(2L, Symbols.encode("AAPL"), Side.BUY, 1L, 11L, 1L, true);
+
+        // When
+        small.onOrder(3L, Symbols.encode("AAPL"), Side.BUY, 1L, 12L, 1L, true);
+        small.onOrder(4L, Symbols.encode("MSFT"), Side.SELL, 1L, 1L, 1L, true);
+        small.onOrder(2L, Symbols.encode("AAPL"), Side.BUY, 1L, 10L, 1L, true);
+        small.onOrder(5L, Symbols.encode("AAPL"), Side.BUY, 0L, 10L, 1L, true);
+
+        // Then: a third level, a second symbol, a resting orderId and zero quantity are rejected
+        assertEquals(4L, small.rejected());
+        assertEquals(11L, small.bestBid("AAPL"));
+        assertEquals(MatchingEngine.NO_PRICE, small.bestAsk("MSFT"));
+        assertTrue(trades.isEmpty());
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.darioajr.sbe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.github.darioajr.sbe.TestFrames.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStateAggregatorTest {
+
+    private final OrderStateAggregator aggregator = new OrderStateAggregator(1024);
+
+    @Test
+    void testOpenAndFilledQuantityFromFrames() {
+        // Given
+        send(aggregator, order(1L, "AAPL", Side.BUY, 100L, 15000L, 1000L, BooleanType.TRUE));
+        send(aggregator, order(2L, "MSFT", Side.BUY, 50L, 15000L, 1000L, BooleanType.TRUE));
+
+        // When
+        send(aggregator, trade(10L, 1L, "AAPL", Side.BUY, 30L, 15000L, 1000L));
+        send(aggregator, trade(11L, 2L, "MSFT", Side.SELL, 50L, 15000L, 1000L));
+
+        // Then
+        assertEquals(70L, aggregator.openQuantity(1L));
+        assertEquals(30L, aggregator.filledQuantity(1L));
+        assertEquals(0L, aggregator.openQuantity(2L));
+        assertEquals(0L, aggregator.filledQuantity(2L));
+        assertEquals(1, aggregator.openOrderCount());
+        assertEquals(2L, aggregator.ordersProcessed());
+        assertEquals(2L, aggregator.tradesProcessed());
+    }
+
+    @Test
+    void testCancelledOrderIsNoLongerOpen() {
+        // Given
+        send(aggregator, order(1L, "AAPL", Side.BUY, 100L, 15000L, 1000L, BooleanType.TRUE));
+        send(aggregator, trade(10L, 1L, "AAPL", Side.BUY, 40L, 15000L, 1000L));
+
+        // When
+        send(aggregator, order(1L, "AAPL", Side.BUY, 100L, 15000L, 1000L, BooleanType.FALSE));
+
+        // Then
+        assertEquals(0L, aggregator.openQuantity(1L));
+        assertEquals(0L, aggregator.filledQuantity(1L));
+        assertEquals(0, aggregator.openOrderCount());
+    }
+
+    @Test
+    void testStateIsOnlyKeptForOpenOrders() {
+        // Given: many orders that are each partly filled and then completed or cancelled
+        for (long orderId = 0; orderId < 10_000; orderId++) {
+            send(aggregator, order(orderId, "AAPL", Side.BUY, 100L, 15000L, 1000L, BooleanType.TRUE));
+            send(aggregator, trade(orderId, orderId, "AAPL", Side.BUY, 40L, 15000L, 1000L));
+        }
+
+        // When
+        for (long orderId = 0; orderId < 10_000; orderId++) {
+            if (orderId % 2 == 0) {
+                send(aggregator, trade(orderId, orderId, "AAPL", Side.BUY, 60L, 15000L, 1000L));
+            } else {
+                send(aggregator, order(orderId, "AAPL", Side.BUY, 100L, 15000L, 1000L, BooleanType.FALSE));
+            }
+        }
+        send(aggregator, trade(20_000L, 20_000L, "AAPL", Side.BUY, 10L, 15000L, 1000L));
+
+        // Then: no per-order state is left behind, while positions still count every fill
+        int[] tracked = new int[1];
+        aggregator.forEachOrder((orderId, open, filled) -> tracked[0]++);
+        assertEquals(0, tracked[0]);
+        assertEquals(0, aggregator.openOrderCount());
+        assertEquals(0L, aggregator.filledQuantity(20_000L));
+        assertEquals(5_000 * 100L + 5_000 * 40L + 10L, aggregator.netPosition("AAPL"));
+    }
+
+    @Test
+    void testNetPositionPerSymbol() {
+        // Given
+        send(aggregator, trade(10L, 1L, "AAPL", Side.BUY, 100L, 15000L, 1000L));
+        send(aggregator, trade(11L, 2L, "AAPL", Side.SELL, 30L, 15000L, 1000L));
+        send(aggregator, trade(12L, 3L, "MSFT", Side.SELL, 25L, 15000L, 1000L));
+        send(aggregator, trade(13L, 4L, "IBM", Side.BUY, 10L, 15000L, 1000L));
+        send(aggregator, trade(14L, 5L, "IBM", Side.SELL, 10L, 15000L, 1000L));
+
+        // When
+        Map<String, Long> positions = new HashMap<>();
+        aggregator.forEachPosition((symbol, position) -> positions.put(aggregator.symbolName(symbol), position));
+
+        // Then
+        assertEquals(70L, aggregator.netPosition("AAPL"));
+        assertEquals(-25L, aggregator.netPosition("MSFT"));
+        assertEquals(0L, aggregator.netPosition("IBM"));
+        assertEquals(Map.of("AAPL", 70L, "MSFT", -25L), positions);
+    }
+}
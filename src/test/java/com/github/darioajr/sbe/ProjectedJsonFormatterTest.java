@@ -0,0 +1,58 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectedJsonFormatterTest {
+
+    private final SbeSerializer serializer = new SbeSerializer();
+    private final SbeDeserializer deserializer = new SbeDeserializer();
+
+    @Test
+    void testAllFieldsMatchJsonFormatter() {
+        // Given
+        byte[] order = serializer.serializeOrder(new OrderData(
+                12345L, "AAPL", Side.BUY, 100L, 15000L, 1693478400000L, BooleanType.TRUE, "CLIENT-001"));
+        byte[] trade = serializer.serializeTrade(new TradeData(
+                67890L, 12345L, "MSFT", Side.SELL, 50L, 30000L, 1693478401000L, "NASDAQ"));
+        byte[] marketData = serializer.serializeMarketData(new MarketDataData(
+                "AAPL", 1693478402000L, 14950L, 2000L, 15050L, 1500L, 15000L, 500L,
+                Arrays.asList(new PriceLevelData(14950L, 2000L, Side.BUY), new PriceLevelData(15050L, 1500L, Side.SELL))));
+
+        ProjectedJsonFormatter formatter = new ProjectedJsonFormatter(FieldProjection.ALL);
+
+        // When / Then
+        for (byte[] frame : new byte[][] { order, trade, marketData }) {
+            assertEquals(JsonFormatter.toJson(deserializer.deserialize(frame)), formatter.toJson(new UnsafeBuffer(frame), 0));
+        }
+    }
+
+    @Test
+    void testProjectionEmitsOnlySelectedFields() {
+        // Given
+        byte[] order = serializer.serializeOrder(new OrderData(
+                12345L, "AAPL", Side.BUY, 100L, 15000L, 1693478400000L, BooleanType.TRUE, "CLIENT-001"));
+        FieldProjection projection = FieldProjection.parse("symbol,price,venue");
+
+        // When
+        String json = new ProjectedJsonFormatter(projection).toJson(new UnsafeBuffer(order), 0);
+
+        // Then
+        assertTrue(json.contains("\"symbol\": \"AAPL\""));
+        assertTrue(json.contains("\"price\": 15000"));
+        assertFalse(json.contains("orderId"));
+        assertFalse(json.contains("clientOrderId"));
+        assertFalse(json.contains("venue"));
+        assertTrue(projection.includes(FieldProjection.PRICE));
+        assertFalse(projection.includes(FieldProjection.QUANTITY));
+    }
+
+    @Test
+    void testUnknownFieldIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> FieldProjection.parse("symbol,nope"));
+    }
+}
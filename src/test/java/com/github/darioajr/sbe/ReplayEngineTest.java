@@ -0,0 +1,88 @@
+package com.github.darioajr.sbe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.darioajr.sbe.TestFrames.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayEngineTest {
+
+    private static final int FRAMES = 1000;
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        for (int i = 0; i < FRAMES; i++) {
+            archive.writeBytes(frame(trade(i, i, "AAPL", Side.BUY, 100L, 15000L, 10L * i)));
+        }
+        file = Files.write(tempDir.resolve("capture.sbe"), archive.toByteArray());
+    }
+
+    @Test
+    void testSeekFindsFirstFrameAtOrAfterTimestamp() {
+        try (MappedArchive archive = MappedArchive.map(file)) {
+            ReplayEngine engine = new ReplayEngine(archive, TimeUnit.MICROSECONDS, 16);
+
+            assertEquals(FRAMES, engine.frameCount());
+            assertEquals(0L, engine.seek(Long.MIN_VALUE));
+            assertEquals(archive.length(), engine.seek(10L * FRAMES));
+            for (long timestamp : new long[] { 0L, 5L, 10L, 155L, 160L, 4995L, 9990L }) {
+                long position = engine.seek(timestamp);
+                long expected = ((timestamp + 9) / 10) * 10;
+                assertEquals(expected, MessageFrames.timestamp(archive.window(position), 0));
+            }
+        }
+    }
+
+    @Test
+    void testMaxSpeedAndPacedReplay() {
+        try (MappedArchive archive = MappedArchive.map(file)) {
+            ReplayEngine engine = new ReplayEngine(archive, TimeUnit.MICROSECONDS, 16);
+            long[] count = { 0 };
+
+            ReplayReport maxSpeed = engine.replay(5000L, ReplayEngine.MAX_SPEED, (buffer, offset, length) -> count[0]++);
+            assertEquals(500, maxSpeed.frames());
+            assertEquals(500, count[0]);
+
+            // 1000 frames 10us apart replayed at 2x should take at least ~5ms
+            ReplayReport paced = engine.replay(0L, 2.0, (buffer, offset, length) -> { });
+            assertEquals(FRAMES, paced.frames());
+            assertTrue(paced.durationNs() >= TimeUnit.MICROSECONDS.toNanos(4995));
+            assertTrue(paced.maxPacingErrorNs() >= 0);
+        }
+    }
+
+    @Test
+    void testIndexesAndReplaysAcrossWindows() {
+        // Given: windows of a few frames, so the index, seeks and replay all cross window ends
+        try (MappedArchive archive = MappedArchive.map(file, 256)) {
+            ReplayEngine engine = new ReplayEngine(archive, TimeUnit.MICROSECONDS, 16);
+
+            // When
+            List<TradeData> replayed = new ArrayList<>();
+            ReplayReport report = engine.replay(2500L, ReplayEngine.MAX_SPEED, collect(replayed, TradeData.class));
+
+            // Then
+            assertEquals(FRAMES, engine.frameCount());
+            assertEquals(750, report.frames());
+            assertEquals(archive.length() / 4 * 3, report.bytes());
+            assertEquals(trade(250L, 250L, "AAPL", Side.BUY, 100L, 15000L, 2500L), replayed.get(0));
+            assertEquals(trade(999L, 999L, "AAPL", Side.BUY, 100L, 15000L, 9990L), replayed.get(749));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SbeFramePublisherTest {
+
+    private final SbeSerializer serializer = new SbeSerializer();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testDeliversOnlyRequestedFramesThenCompletes() throws Exception {
+        // Given
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        for (int i = 0; i < 10; i++) {
+            archive.writeBytes(serializer.serializeOrder(new OrderData(
+                    i, "AAPL", Side.BUY, 100L, 15000L, 1000L + i, BooleanType.TRUE, "CLIENT-" + i)));
+        }
+        byte[] input = archive.toByteArray();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        // When
+        SbeFramePublisher.ofRecords(new BufferFrameSource(new UnsafeBuffer(input), 0, input.length), executor)
+                .subscribe(subscriber);
+        assertTrue(subscriber.subscribed.await(5, TimeUnit.SECONDS));
+        subscriber.subscription.request(3);
+        Thread.sleep(50);
+
+        // Then
+        assertEquals(3, subscriber.items.size());
+        assertEquals(1, subscriber.done.getCount());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(10, subscriber.items.size());
+        assertEquals(9L, ((OrderData) subscriber.items.get(9)).orderId());
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void testRingBufferSourceCompletesAfterDrain() throws Exception {
+        // Given
+        OneToOneRingBuffer ringBuffer = new OneToOneRingBuffer(
+                new UnsafeBuffer(ByteBuffer.allocateDirect(64 * 1024 + RingBufferDescriptor.TRAILER_LENGTH)));
+        RingBufferFrameSource source = new RingBufferFrameSource(ringBuffer);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        SbeFramePublisher.ofMutable(source, executor).subscribe(subscriber);
+        assertTrue(subscriber.subscribed.await(5, TimeUnit.SECONDS));
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            byte[] frame = serializer.serializeTrade(new TradeData(
+                    i, i, "MSFT", Side.SELL, 10L, 30000L, 1000L + i, "NASDAQ"));
+            assertTrue(ringBuffer.write(1, new UnsafeBuffer(frame), 0, frame.length));
+        }
+        source.complete();
+
+        // Then
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(5, subscriber.items.size());
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void testSecondSubscriberIsRejected() throws Exception {
+        byte[] frame = serializer.serializeOrder(new OrderData(
+                1L, "AAPL", Side.BUY, 100L, 15000L, 1000L, BooleanType.TRUE, "CLIENT-1"));
+        SbeFramePublisher<Object> publisher = SbeFramePublisher.ofRecords(
+                new BufferFrameSource(new UnsafeBuffer(frame), 0, frame.length), executor);
+        publisher.subscribe(new RecordingSubscriber());
+
+        RecordingSubscriber second = new RecordingSubscriber();
+        publisher.subscribe(second);
+
+        assertTrue(second.done.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, second.error);
+    }
+
+    @Test
+    void testInvalidFrameSignalsError() throws Exception {
+        byte[] frame = serializer.serializeTrade(new TradeData(
+                1L, 1L, "AAPL", Side.BUY, 100L, 15000L, 1000L, "NASDAQ"));
+        frame[MessageHeaderDecoder.ENCODED_LENGTH + TradeDecoder.sideEncodingOffset()] = 'X';
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        SbeFramePublisher.ofRecords(new BufferFrameSource(new UnsafeBuffer(frame), 0, frame.length), executor)
+                .subscribe(subscriber);
+        assertTrue(subscriber.subscribed.await(5, TimeUnit.SECONDS));
+        subscriber.subscription.request(1);
+
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertTrue(subscriber.items.isEmpty());
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<Object> {
+        final List<Object> items = new CopyOnWriteArrayList<>();
+        final CountDownLatch subscribed = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscribed.countDown();
+        }
+
+        @Override
+        public void onNext(Object item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+            done.countDown();
+        }
+    }
+}
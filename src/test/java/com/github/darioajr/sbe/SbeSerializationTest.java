@@ -1,8 +1,13 @@
 package com.github.darioajr.sbe;
 
+import org.agrona.AsciiSequenceView;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
@@ -146,6 +151,156 @@ class SbeSerializationTest {
         assertTrue(durationMs < 5000, "Performance should be under 5 seconds for 10k cycles");
     }
 
+    @Test
+    void testVarDataViewsWrapInPlace() {
+        // Given
+        byte[] order = serializer.serializeOrder(new OrderData(
+                1L, "AAPL", Side.BUY, 100L, 1000L, 1L, BooleanType.TRUE, "CLIENT-42"));
+        byte[] trade = serializer.serializeTrade(new TradeData(
+                2L, 1L, "AAPL", Side.SELL, 100L, 1000L, 1L, "NASDAQ"));
+        OrderDecoder orderDecoder = new OrderDecoder().wrap(
+                new UnsafeBuffer(order), MessageHeaderDecoder.ENCODED_LENGTH, OrderDecoder.BLOCK_LENGTH, 1);
+        TradeDecoder tradeDecoder = new TradeDecoder().wrap(
+                new UnsafeBuffer(trade), MessageHeaderDecoder.ENCODED_LENGTH, TradeDecoder.BLOCK_LENGTH, 1);
+        AsciiSequenceView view = new AsciiSequenceView();
+        DirectBuffer wrapped = new UnsafeBuffer(0, 0);
+
+        // When / Then
+        assertTrue("CLIENT-42".contentEquals(orderDecoder.clientOrderId(view)));
+        assertEquals(9, orderDecoder.wrapClientOrderId(wrapped));
+        assertEquals((byte) 'C', wrapped.getByte(0));
+        assertTrue("NASDAQ".contentEquals(tradeDecoder.venue(view)));
+
+        // And a view can be re-encoded without a String
+        ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(128);
+        OrderEncoder encoder = new OrderEncoder().wrap(buffer, 0).putClientOrderId(wrapped, 0, wrapped.capacity());
+        assertEquals(OrderEncoder.BLOCK_LENGTH + 4 + 9, encoder.encodedLength());
+        assertEquals("CLIENT-42", new OrderDecoder().wrap(buffer, 0, OrderDecoder.BLOCK_LENGTH, 1).clientOrderId());
+    }
+
+    @Test
+    void testDecodeIntoReusableTargets() {
+        // Given
+        OrderData order = new OrderData(1L, "AAPL", Side.BUY, 100L, 1000L, 1L, BooleanType.TRUE, "CLIENT-1");
+        TradeData trade = new TradeData(2L, 1L, "MSFT", Side.SELL, 50L, 2000L, 2L, "NYSE");
+        MarketDataData deep = new MarketDataData("IBM", 3L, 1L, 2L, 3L, 4L, 5L, 6L, Arrays.asList(
+                new PriceLevelData(10L, 1L, Side.BUY), new PriceLevelData(11L, 2L, Side.BUY),
+                new PriceLevelData(12L, 3L, Side.SELL)));
+        MarketDataData shallow = new MarketDataData("IBM", 4L, 1L, 2L, 3L, 4L, 5L, 6L,
+                List.of(new PriceLevelData(20L, 5L, Side.SELL)));
+        MutableOrder mutableOrder = new MutableOrder();
+        MutableTrade mutableTrade = new MutableTrade();
+        MutableMarketData mutableMarketData = new MutableMarketData();
+
+        // When / Then
+        assertEquals(order, deserializer.decodeInto(serializer.serializeOrder(order), mutableOrder).toOrderData());
+        assertEquals(trade, deserializer.decodeInto(serializer.serializeTrade(trade), mutableTrade).toTradeData());
+        assertEquals(deep, deserializer.decodeInto(serializer.serializeMarketData(deep), mutableMarketData).toMarketDataData());
+        assertEquals(shallow, deserializer.decodeInto(serializer.serializeMarketData(shallow), mutableMarketData).toMarketDataData());
+        assertEquals(1, mutableMarketData.levelCount());
+        assertEquals(Symbols.encode("AAPL"), mutableOrder.symbolKey());
+        assertTrue("CLIENT-1".contentEquals(mutableOrder.clientOrderId()));
+        assertThrows(IllegalArgumentException.class,
+                () -> deserializer.decodeInto(serializer.serializeOrder(order), mutableTrade));
+        assertEquals(0, mutableOrder.reset().clientOrderId().length());
+    }
+
+    @Test
+    void testBulkLevelArrays() {
+        // Given
+        long[] prices = {100L, 101L, 102L, 99L};
+        long[] sizes = {5L, 6L, 7L, 8L};
+        byte[] sides = {Side.BUY.value(), Side.BUY.value(), Side.SELL.value(), Side.SELL.value()};
+        UnsafeBuffer buffer = new UnsafeBuffer(new byte[256]);
+        new MessageHeaderEncoder().wrap(buffer, 0)
+                .blockLength(MarketDataEncoder.BLOCK_LENGTH)
+                .templateId(MarketDataEncoder.TEMPLATE_ID)
+                .schemaId(MarketDataEncoder.SCHEMA_ID)
+                .version(MarketDataEncoder.SCHEMA_VERSION);
+        MarketDataEncoder encoder = new MarketDataEncoder()
+                .wrap(buffer, MessageHeaderEncoder.ENCODED_LENGTH)
+                .symbol("IBM")
+                .timestamp(7L)
+                .putLevels(prices, sizes, sides, 3);
+        MarketDataDecoder decoder = new MarketDataDecoder()
+                .wrap(buffer, MessageHeaderDecoder.ENCODED_LENGTH, MarketDataDecoder.BLOCK_LENGTH, MarketDataDecoder.SCHEMA_VERSION);
+        long[] decodedPrices = new long[4];
+        long[] decodedSizes = new long[4];
+        byte[] decodedSides = new byte[4];
+
+        // When
+        int count = decoder.getLevels(decodedPrices, decodedSizes, decodedSides);
+        MutableMarketData book = deserializer.decodeInto(buffer, 0, new MutableMarketData());
+
+        // Then
+        assertEquals(3, count);
+        assertEquals(3, decoder.levelsCount());
+        assertArrayEquals(new long[] {100L, 101L, 102L, 0L}, decodedPrices);
+        assertArrayEquals(new long[] {5L, 6L, 7L, 0L}, decodedSizes);
+        assertEquals(Side.SELL, Side.get(decodedSides[2]));
+        assertEquals(List.of(new PriceLevelData(100L, 5L, Side.BUY), new PriceLevelData(101L, 6L, Side.BUY),
+                new PriceLevelData(102L, 7L, Side.SELL)), book.toMarketDataData().levels());
+        assertEquals(MarketDataDecoder.BLOCK_LENGTH + 4 + 3 * 17, decoder.encodedLength());
+        assertThrows(IllegalArgumentException.class, () -> encoder.putLevels(prices, sizes, sides, 5));
+        assertThrows(IllegalArgumentException.class, () -> decoder.getLevels(new long[2], new long[2], new byte[2]));
+    }
+
+    @Test
+    void testNonAsciiSymbolCharactersBecomeQuestionMarks() {
+        // Given: a supplementary character counts as one '?', as with String.getBytes
+        String symbol = "\u00C4B\u20AC\uD83D\uDE00C";
+        byte[] expected = Arrays.copyOf(symbol.getBytes(StandardCharsets.US_ASCII), 8);
+        UnsafeBuffer buffer = new UnsafeBuffer(new byte[128]);
+        byte[] actual = new byte[8];
+
+        // When / Then
+        new OrderEncoder().wrap(buffer, 0).symbol(symbol);
+        buffer.getBytes(OrderDecoder.symbolEncodingOffset(), actual);
+        assertArrayEquals(expected, actual);
+        assertEquals("?B??C", new String(actual, 0, 5, StandardCharsets.US_ASCII));
+
+        new TradeEncoder().wrap(buffer, 0).symbol(symbol);
+        buffer.getBytes(TradeDecoder.symbolEncodingOffset(), actual);
+        assertArrayEquals(expected, actual);
+
+        new MarketDataEncoder().wrap(buffer, 0).symbol(symbol);
+        buffer.getBytes(MarketDataDecoder.symbolEncodingOffset(), actual);
+        assertArrayEquals(expected, actual);
+
+        new PositionEncoder().wrap(buffer, 0).symbol(symbol);
+        buffer.getBytes(PositionDecoder.symbolEncodingOffset(), actual);
+        assertArrayEquals(expected, actual);
+
+        new BarEncoder().wrap(buffer, 0).symbol(symbol);
+        buffer.getBytes(BarDecoder.symbolEncodingOffset(), actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void testNonAsciiVarDataMatchesAsciiBytes() {
+        // Given: a supplementary character is one '?' and one byte, as with String.getBytes
+        String text = "C-\u00C4\u20AC\uD83D\uDE00\uD83DZ";
+        byte[] expected = text.getBytes(StandardCharsets.US_ASCII);
+        OrderData order = new OrderData(1L, "AAPL", Side.BUY, 1L, 1L, 1L, BooleanType.TRUE, text);
+        TradeData trade = new TradeData(1L, 1L, "AAPL", Side.BUY, 1L, 1L, 1L, text);
+
+        // When
+        UnsafeBuffer orderFrame = new UnsafeBuffer(serializer.serializeOrder(order));
+        UnsafeBuffer tradeFrame = new UnsafeBuffer(serializer.serializeTrade(trade));
+
+        // Then: the length prefix and the bytes both match
+        int orderData = MessageHeaderDecoder.ENCODED_LENGTH + OrderEncoder.BLOCK_LENGTH;
+        assertEquals(expected.length, orderFrame.getInt(orderData));
+        assertEquals(orderData + 4 + expected.length, orderFrame.capacity());
+        assertArrayEquals(expected, Arrays.copyOfRange(orderFrame.byteArray(), orderData + 4, orderFrame.capacity()));
+
+        int tradeData = MessageHeaderDecoder.ENCODED_LENGTH + TradeEncoder.BLOCK_LENGTH;
+        assertEquals(expected.length, tradeFrame.getInt(tradeData));
+        assertEquals(tradeData + 4 + expected.length, tradeFrame.capacity());
+        assertArrayEquals(expected, Arrays.copyOfRange(tradeFrame.byteArray(), tradeData + 4, tradeFrame.capacity()));
+        assertEquals("C-???", deserializer.deserializeTrade(tradeFrame.byteArray()).venue().substring(0, 5));
+    }
+
     @Test
     void testInvalidSymbolLength() {
         // Given/When/Then
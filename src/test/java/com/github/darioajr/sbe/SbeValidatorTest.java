@@ -0,0 +1,111 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SbeValidatorTest {
+
+    private SbeSerializer serializer;
+    private SbeValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        serializer = new SbeSerializer();
+        validator = new SbeValidator();
+    }
+
+    @Test
+    void testValidFramesReportExactLength() {
+        // Given
+        byte[] order = serializer.serializeOrder(new OrderData(1L, "AAPL", Side.BUY, 100L, 15000L,
+                1L, BooleanType.TRUE, "CLIENT-1"));
+        byte[] trade = serializer.serializeTrade(new TradeData(2L, 1L, "AAPL", Side.SELL, 100L, 15000L,
+                2L, "NASDAQ"));
+        byte[] marketData = serializer.serializeMarketData(marketData());
+
+        // When - frames are concatenated with trailing slack
+        byte[] archive = new byte[order.length + trade.length + marketData.length + 16];
+        System.arraycopy(order, 0, archive, 0, order.length);
+        System.arraycopy(trade, 0, archive, order.length, trade.length);
+        System.arraycopy(marketData, 0, archive, order.length + trade.length, marketData.length);
+        UnsafeBuffer buffer = new UnsafeBuffer(archive);
+
+        // Then
+        assertEquals(SbeValidator.Verdict.VALID, validator.validate(buffer, 0, archive.length));
+        assertEquals(order.length, validator.encodedLength());
+        assertEquals(SbeValidator.Verdict.VALID, validator.validate(buffer, order.length, archive.length - order.length));
+        assertEquals(trade.length, validator.encodedLength());
+        int offset = order.length + trade.length;
+        assertEquals(SbeValidator.Verdict.VALID, validator.validate(buffer, offset, archive.length - offset));
+        assertEquals(marketData.length, validator.encodedLength());
+    }
+
+    @Test
+    void testTruncatedFramesAreRejected() {
+        byte[] order = serializer.serializeOrder(new OrderData(1L, "AAPL", Side.BUY, 100L, 15000L,
+                1L, BooleanType.TRUE, "CLIENT-1"));
+        byte[] marketData = serializer.serializeMarketData(marketData());
+
+        for (int length = 0; length < order.length; length++) {
+            assertEquals(SbeValidator.Verdict.TRUNCATED, validator.validate(new UnsafeBuffer(order), 0, length));
+        }
+        for (int length = 0; length < marketData.length; length++) {
+            assertEquals(SbeValidator.Verdict.TRUNCATED, validator.validate(new UnsafeBuffer(marketData), 0, length));
+        }
+    }
+
+    @Test
+    void testCorruptFieldsAreRejected() {
+        byte[] order = serializer.serializeOrder(new OrderData(1L, "AAPL", Side.BUY, 100L, 15000L,
+                1L, BooleanType.TRUE, "CLIENT-1"));
+
+        assertVerdict(order, 4, (short) 99, SbeValidator.Verdict.UNKNOWN_SCHEMA);
+        assertVerdict(order, 2, (short) 42, SbeValidator.Verdict.UNKNOWN_TEMPLATE);
+        assertVerdict(order, 0, (short) 10, SbeValidator.Verdict.INVALID_BLOCK_LENGTH);
+
+        byte[] badSide = order.clone();
+        badSide[MessageHeaderDecoder.ENCODED_LENGTH + 16] = 'X';
+        assertEquals(SbeValidator.Verdict.INVALID_ENUM_VALUE, validator.validate(new UnsafeBuffer(badSide), 0, badSide.length));
+
+        byte[] badVarData = order.clone();
+        new UnsafeBuffer(badVarData).putInt(MessageHeaderDecoder.ENCODED_LENGTH + OrderDecoder.BLOCK_LENGTH, -1, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(SbeValidator.Verdict.INVALID_VAR_DATA_LENGTH, validator.validate(new UnsafeBuffer(badVarData), 0, badVarData.length));
+
+        byte[] marketData = serializer.serializeMarketData(marketData());
+        int groupHeader = MessageHeaderDecoder.ENCODED_LENGTH + MarketDataDecoder.BLOCK_LENGTH;
+        assertVerdict(marketData, groupHeader, (short) 8, SbeValidator.Verdict.INVALID_GROUP);
+        assertVerdict(marketData, groupHeader + 2, (short) 1000, SbeValidator.Verdict.TRUNCATED);
+    }
+
+    @Test
+    void testCheckedDeserializationRejectsInvalidInput() {
+        SbeDeserializer deserializer = new SbeDeserializer();
+        byte[] order = serializer.serializeOrder(new OrderData(1L, "AAPL", Side.BUY, 100L, 15000L,
+                1L, BooleanType.TRUE, "CLIENT-1"));
+
+        assertInstanceOf(OrderData.class, deserializer.deserializeChecked(order));
+        assertThrows(IllegalArgumentException.class,
+                () -> deserializer.deserializeChecked(Arrays.copyOf(order, order.length - 1)));
+    }
+
+    private void assertVerdict(byte[] frame, int offset, short value, SbeValidator.Verdict expected) {
+        byte[] corrupt = frame.clone();
+        new UnsafeBuffer(corrupt).putShort(offset, value, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(expected, validator.validate(new UnsafeBuffer(corrupt), 0, corrupt.length));
+    }
+
+    private static MarketDataData marketData() {
+        List<PriceLevelData> levels = Arrays.asList(
+                new PriceLevelData(14900L, 1000L, Side.BUY),
+                new PriceLevelData(15100L, 800L, Side.SELL)
+        );
+        return new MarketDataData("AAPL", 3L, 14950L, 2000L, 15050L, 1500L, 15000L, 500L, levels);
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedDispatcherTest {
+
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "IBM", "GOOG", "AMZN", "TSLA", "META", "NVDA"};
+
+    private final SbeSerializer serializer = new SbeSerializer();
+
+    @Test
+    void testEachSymbolIsProcessedInOrderByOneWorker() {
+        // Given
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        for (int i = 0; i < 20_000; i++) {
+            String symbol = SYMBOLS[i % SYMBOLS.length];
+            journal.writeBytes(serializer.serializeMarketData(new MarketDataData(
+                    symbol, i, i, 10L, i + 1, 10L, i, 1L, List.of(new PriceLevelData(i, 10L, Side.BUY)))));
+        }
+        byte[] input = journal.toByteArray();
+        OrderingHandler[] handlers = new OrderingHandler[4];
+
+        // When: closing drains every worker before the handlers are inspected
+        ShardedDispatcher dispatcher = new ShardedDispatcher(4, 64 * 1024, worker -> handlers[worker] = new OrderingHandler());
+        try {
+            MessageFrames.forEach(new UnsafeBuffer(input), 0, input.length, dispatcher);
+        } finally {
+            dispatcher.close();
+        }
+
+        // Then
+        assertEquals(0L, dispatcher.errorCount());
+        long frames = 0;
+        for (int worker = 0; worker < handlers.length; worker++) {
+            frames += handlers[worker].frames;
+            assertEquals(dispatcher.dispatched(worker), handlers[worker].frames);
+            for (String symbol : handlers[worker].lastTimestamp.keySet()) {
+                assertEquals(worker, dispatcher.shardFor(Symbols.encode(symbol)));
+            }
+        }
+        assertEquals(20_000L, frames);
+        for (OrderingHandler handler : handlers) {
+            assertTrue(handler.inOrder);
+        }
+    }
+
+    @Test
+    void testWorkerStateMatchesSingleThreadedReplay() {
+        // Given
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        for (int i = 0; i < 3_000; i++) {
+            String symbol = SYMBOLS[i % SYMBOLS.length];
+            journal.writeBytes(switch (i % 3) {
+                case 0 -> serializer.serializeOrder(new OrderData(
+                        i, symbol, Side.BUY, 100L, 15000L, i, BooleanType.TRUE, "CLIENT-" + i));
+                case 1 -> serializer.serializeTrade(new TradeData(
+                        i, i - 1, symbol, Side.SELL, 10L, 15000L, i, "NASDAQ"));
+                default -> serializer.serializeMarketData(new MarketDataData(
+                        symbol, i, i, 10L, i + 1, 10L, i, 1L, List.of()));
+            });
+        }
+        byte[] input = journal.toByteArray();
+        MarketState expected = new MarketState(1024);
+        MessageFrames.forEach(new UnsafeBuffer(input), 0, input.length, expected);
+        MarketState[] states = new MarketState[3];
+
+        // When
+        try (ShardedDispatcher dispatcher = new ShardedDispatcher(3, worker -> states[worker] = new MarketState(1024))) {
+            MessageFrames.forEach(new UnsafeBuffer(input), 0, input.length, dispatcher);
+        }
+
+        // Then
+        for (String symbol : SYMBOLS) {
+            long positions = 0;
+            int books = 0;
+            for (MarketState state : states) {
+                positions += state.orders().netPosition(symbol);
+                if (state.book(symbol) != null) {
+                    assertEquals(expected.book(symbol).toMarketDataData(), state.book(symbol).toMarketDataData());
+                    books++;
+                }
+            }
+            assertEquals(expected.orders().netPosition(symbol), positions);
+            assertEquals(1, books);
+        }
+    }
+
+    private static final class OrderingHandler implements FrameHandler {
+        final Map<String, Long> lastTimestamp = new HashMap<>();
+        long frames;
+        boolean inOrder = true;
+
+        @Override
+        public void onFrame(DirectBuffer buffer, int offset, int length) {
+            String symbol = Symbols.decode(MessageFrames.symbol(buffer, offset));
+            long timestamp = MessageFrames.timestamp(buffer, offset);
+            Long previous = lastTimestamp.put(symbol, timestamp);
+            inOrder &= previous == null || previous < timestamp;
+            frames++;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+
+    private final SbeSerializer serializer = new SbeSerializer();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecoveryFromSnapshotMatchesFullReplay() throws IOException {
+        // Given
+        byte[] journal = journal(300);
+        Path journalFile = Files.write(directory.resolve("journal.sbe"), journal);
+        SnapshotStore store = new SnapshotStore(directory.resolve("snapshots"));
+
+        MarketState live = new MarketState(1024);
+        PeriodicSnapshotter snapshotter = new PeriodicSnapshotter(live, store, 100);
+        MessageFrames.forEach(new UnsafeBuffer(journal), 0, journal.length, snapshotter);
+
+        MarketState expected = new MarketState(1024);
+        MessageFrames.forEach(new UnsafeBuffer(journal), 0, journal.length, expected);
+
+        // When
+        MarketState recovered = new MarketState(1024);
+        RecoveryReport report = store.recover(recovered, journalFile);
+
+        // Then
+        assertEquals(300L, report.snapshotFrames());
+        assertEquals(0L, report.replayedFrames());
+        assertEquals(2, store.snapshots().size());
+        assertSameState(expected, recovered);
+    }
+
+    @Test
+    void testRecoveryReplaysOnlyJournalTail() throws IOException {
+        // Given
+        byte[] journal = journal(250);
+        SnapshotStore store = new SnapshotStore(directory);
+        MarketState live = new MarketState(1024);
+        PeriodicSnapshotter snapshotter = new PeriodicSnapshotter(live, store, 100);
+        MessageFrames.forEach(new UnsafeBuffer(journal), 0, journal.length, snapshotter);
+        Path journalFile = Files.write(directory.resolve("journal.bin"), journal);
+
+        // When
+        MarketState recovered = new MarketState(1024);
+        RecoveryReport report = store.recover(recovered, journalFile);
+
+        // Then
+        assertEquals(200L, report.snapshotFrames());
+        assertEquals(50L, report.replayedFrames());
+        assertEquals(journal.length, recovered.journalPosition());
+        assertSameState(live, recovered);
+    }
+
+    @Test
+    void testCorruptNewestSnapshotFallsBackToOlder() throws IOException {
+        // Given
+        byte[] journal = journal(200);
+        SnapshotStore store = new SnapshotStore(directory);
+        MarketState live = new MarketState(1024);
+        MessageFrames.forEach(new UnsafeBuffer(journal), 0, journal.length, new PeriodicSnapshotter(live, store, 100));
+        List<Path> snapshots = store.snapshots();
+        Path newest = snapshots.get(snapshots.size() - 1);
+        byte[] corrupt = Files.readAllBytes(newest);
+        Files.write(newest, Arrays.copyOf(corrupt, corrupt.length - 5));
+        Path journalFile = Files.write(directory.resolve("journal.bin"), journal);
+
+        // When
+        MarketState recovered = new MarketState(1024);
+        RecoveryReport report = store.recover(recovered, journalFile);
+
+        // Then
+        assertEquals(snapshots.get(0), report.snapshot());
+        assertEquals(100L, report.replayedFrames());
+        assertSameState(live, recovered);
+    }
+
+    @Test
+    void testSnapshotAheadOfJournalIsRejected() throws IOException {
+        // Given
+        byte[] journal = journal(100);
+        SnapshotStore store = new SnapshotStore(directory);
+        MarketState live = new MarketState(1024);
+        MessageFrames.forEach(new UnsafeBuffer(journal), 0, journal.length, live);
+        store.write(live);
+        Path shortJournal = Files.write(directory.resolve("journal.bin"), Arrays.copyOf(journal, journal.length / 2));
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> store.recover(new MarketState(1024), shortJournal));
+    }
+
+    private byte[] journal(int frames) {
+        String[] symbols = {"AAPL", "MSFT", "IBM"};
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        for (int i = 0; i < frames; i++) {
+            String symbol = symbols[i % symbols.length];
+            byte[] frame = switch (i % 3) {
+                case 0 -> serializer.serializeOrder(new OrderData(
+                        i, symbol, Side.BUY, 100L, 15000L, 1000L + i, BooleanType.TRUE, "CLIENT-" + i));
+                case 1 -> serializer.serializeTrade(new TradeData(
+                        i, i - 1, symbol, i % 2 == 0 ? Side.BUY : Side.SELL, 10L + i % 7, 15000L, 1000L + i, "NASDAQ"));
+                default -> serializer.serializeMarketData(new MarketDataData(
+                        symbol, 1000L + i, 14990L + i, 5L, 15010L + i, 7L, 15000L, 3L,
+                        Arrays.asList(new PriceLevelData(14990L + i, 5L, Side.BUY), new PriceLevelData(15010L + i, 7L, Side.SELL))));
+            };
+            journal.writeBytes(frame);
+        }
+        return journal.toByteArray();
+    }
+
+    private static void assertSameState(MarketState expected, MarketState actual) {
+        assertEquals(expected.journalPosition(), actual.journalPosition());
+        assertEquals(expected.frameCount(), actual.frameCount());
+        assertEquals(expected.timestamp(), actual.timestamp());
+        assertEquals(expected.bookCount(), actual.bookCount());
+        expected.forEachBook(book -> assertEquals(book.toMarketDataData(), actual.book(book.symbolKey()).toMarketDataData()));
+
+        OrderStateAggregator expectedOrders = expected.orders();
+        OrderStateAggregator actualOrders = actual.orders();
+        assertEquals(expectedOrders.ordersProcessed(), actualOrders.ordersProcessed());
+        assertEquals(expectedOrders.tradesProcessed(), actualOrders.tradesProcessed());
+        assertEquals(expectedOrders.openOrderCount(), actualOrders.openOrderCount());
+        expectedOrders.forEachOrder((orderId, open, filled) -> {
+            assertEquals(open, actualOrders.openQuantity(orderId));
+            assertEquals(filled, actualOrders.filledQuantity(orderId));
+        });
+        expectedOrders.forEachPosition((symbol, position) -> assertEquals(position, actualOrders.netPosition(symbol)));
+        for (String symbol : new String[] {"AAPL", "MSFT", "IBM"}) {
+            assertEquals(expectedOrders.netPosition(symbol), actualOrders.netPosition(symbol));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test fixtures that encode records into SBE frames, feed them to a {@link FrameHandler} and
+ * collect the records a stage emits
+ */
+final class TestFrames {
+
+    private static final SbeSerializer SERIALIZER = new SbeSerializer();
+    private static final SbeDeserializer DESERIALIZER = new SbeDeserializer();
+
+    /**
+     * Decoded view of an emitted Bar frame
+     */
+    record Bar(String symbol, long start, long open, long high, long low, long close, long volume, long vwap, int trades) {
+    }
+
+    private TestFrames() {
+    }
+
+    static OrderData order(long orderId, String symbol, Side side, long quantity, long price, long timestamp, BooleanType isActive) {
+        return new OrderData(orderId, symbol, side, quantity, price, timestamp, isActive, "CLIENT-" + orderId);
+    }
+
+    static TradeData trade(long tradeId, long orderId, String symbol, Side side, long quantity, long price, long timestamp) {
+        return new TradeData(tradeId, orderId, symbol, side, quantity, price, timestamp, "NASDAQ");
+    }
+
+    /**
+     * Encode an OrderData, TradeData or MarketDataData as a complete frame
+     */
+    static byte[] frame(Object record) {
+        return switch (record) {
+            case OrderData order -> SERIALIZER.serializeOrder(order);
+            case TradeData trade -> SERIALIZER.serializeTrade(trade);
+            case MarketDataData marketData -> SERIALIZER.serializeMarketData(marketData);
+            default -> throw new IllegalArgumentException("Unsupported record: " + record);
+        };
+    }
+
+    /**
+     * Encode each record and hand its frame to the handler, in order
+     */
+    static void send(FrameHandler handler, Object... records) {
+        for (Object record : records) {
+            byte[] frame = frame(record);
+            handler.onFrame(new UnsafeBuffer(frame), 0, frame.length);
+        }
+    }
+
+    /**
+     * Handler that decodes every frame it receives and adds the record to the list
+     */
+    static <T> FrameHandler collect(List<T> records, Class<T> type) {
+        return (buffer, offset, length) -> records.add(type.cast(DESERIALIZER.deserialize(buffer, offset)));
+    }
+
+    /**
+     * Handler that checks every frame it receives is a Bar and adds its decoded view to the list
+     */
+    static FrameHandler collectBars(List<Bar> bars) {
+        MessageHeaderDecoder header = new MessageHeaderDecoder();
+        BarDecoder decoder = new BarDecoder();
+        return (buffer, offset, length) -> {
+            header.wrap(buffer, offset);
+            assertEquals(BarDecoder.TEMPLATE_ID, header.templateId());
+            assertEquals(MessageHeaderDecoder.ENCODED_LENGTH + BarDecoder.BLOCK_LENGTH, length);
+            decoder.wrap(buffer, MessageFrames.bodyOffset(offset), header.blockLength(), header.version());
+            bars.add(new Bar(decoder.symbol(), decoder.startTimestamp(), decoder.open(), decoder.high(), decoder.low(),
+                    decoder.close(), decoder.volume(), decoder.vwap(), decoder.tradeCount()));
+        };
+    }
+}
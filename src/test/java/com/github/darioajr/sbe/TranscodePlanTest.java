@@ -0,0 +1,113 @@
+package com.github.darioajr.sbe;
+
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranscodePlanTest {
+
+    private final SbeSerializer serializer = new SbeSerializer();
+    private final SbeDeserializer deserializer = new SbeDeserializer();
+
+    /**
+     * Hypothetical next Order version: a venueId after isActive, defaulting to 7
+     */
+    private static MessageLayout orderV2() {
+        return new MessageLayout(1, 2, OrderDecoder.TEMPLATE_ID, 46)
+                .field("orderId", 0, 8)
+                .field("symbol", 8, 8)
+                .field("side", 16, 1)
+                .field("quantity", 17, 8)
+                .field("price", 25, 8)
+                .field("timestamp", 33, 8)
+                .field("isActive", 41, 1)
+                .field("venueId", 42, 4, 7)
+                .varData();
+    }
+
+    /**
+     * Hypothetical next MarketData version: level entries gain an orderCount, defaulting to 1
+     */
+    private static MessageLayout marketDataV2() {
+        MessageLayout current = MessageLayout.current(MarketDataDecoder.TEMPLATE_ID);
+        MessageLayout layout = new MessageLayout(1, 2, MarketDataDecoder.TEMPLATE_ID, MarketDataDecoder.BLOCK_LENGTH);
+        current.fields().forEach(field -> layout.field(field.name(), field.offset(), field.length()));
+        return layout.group(21)
+                .groupField("price", 0, 8)
+                .groupField("size", 8, 8)
+                .groupField("side", 16, 1)
+                .groupField("orderCount", 17, 4, 1);
+    }
+
+    @Test
+    void testOrderRoundTripsThroughNewVersion() {
+        // Given
+        OrderData order = new OrderData(42L, "AAPL", Side.SELL, 100L, 15000L, 1L, BooleanType.TRUE, "CLIENT-42");
+        byte[] v1 = serializer.serializeOrder(order);
+        TranscodePlan up = TranscodePlan.compile(MessageLayout.current(OrderDecoder.TEMPLATE_ID), orderV2());
+        TranscodePlan down = TranscodePlan.compile(orderV2(), MessageLayout.current(OrderDecoder.TEMPLATE_ID));
+        ExpandableArrayBuffer v2 = new ExpandableArrayBuffer(16);
+        ExpandableArrayBuffer back = new ExpandableArrayBuffer(16);
+
+        // When
+        int v2Length = up.transcode(new UnsafeBuffer(v1), 0, v2, 0);
+        int backLength = down.transcode(v2, 0, back, 0);
+
+        // Then: all v1 fields are adjacent, so each direction is a single block copy
+        assertEquals(1, up.blockCopyCount());
+        assertEquals(v1.length + 4, v2Length);
+        assertEquals(46, v2.getShort(0, ByteOrder.LITTLE_ENDIAN));
+        assertEquals(2, v2.getShort(6, ByteOrder.LITTLE_ENDIAN));
+        assertEquals(7, v2.getInt(MessageHeaderEncoder.ENCODED_LENGTH + 42, ByteOrder.LITTLE_ENDIAN));
+        assertEquals(v1.length, backLength);
+        assertEquals(order, deserializer.deserialize(back, 0));
+    }
+
+    @Test
+    void testGroupsAreRestrided() {
+        // Given
+        MarketDataData marketData = new MarketDataData("IBM", 5L, 1L, 2L, 3L, 4L, 5L, 6L, Arrays.asList(
+                new PriceLevelData(10L, 1L, Side.BUY), new PriceLevelData(11L, 2L, Side.SELL)));
+        byte[] v1 = serializer.serializeMarketData(marketData);
+        List<Object> relayed = new ArrayList<>();
+        SbeTranscoder toV1 = new SbeTranscoder((buffer, offset, length) -> relayed.add(deserializer.deserialize(buffer, offset)))
+                .register(marketDataV2(), MessageLayout.current(MarketDataDecoder.TEMPLATE_ID));
+        ExpandableArrayBuffer v2 = new ExpandableArrayBuffer(16);
+
+        // When
+        int v2Length = TranscodePlan.compile(MessageLayout.current(MarketDataDecoder.TEMPLATE_ID), marketDataV2())
+                .transcode(new UnsafeBuffer(v1), 0, v2, 0);
+        toV1.onFrame(v2, 0, v2Length);
+        toV1.onFrame(new UnsafeBuffer(v1), 0, v1.length);
+
+        // Then
+        int entries = MessageHeaderEncoder.ENCODED_LENGTH + MarketDataEncoder.BLOCK_LENGTH + 4;
+        assertEquals(v1.length + 2 * 4, v2Length);
+        assertEquals(21, v2.getShort(entries - 4, ByteOrder.LITTLE_ENDIAN));
+        assertEquals(11L, v2.getLong(entries + 21, ByteOrder.LITTLE_ENDIAN));
+        assertEquals(1, v2.getInt(entries + 21 + 17, ByteOrder.LITTLE_ENDIAN));
+        assertEquals(List.of(marketData, marketData), relayed);
+        assertEquals(1L, toV1.transcoded());
+        assertEquals(1L, toV1.passedThrough());
+    }
+
+    @Test
+    void testRejectsMismatchedFrames() {
+        byte[] trade = serializer.serializeTrade(new TradeData(1L, 2L, "AAPL", Side.BUY, 1L, 1L, 1L, "XNAS"));
+        TranscodePlan plan = TranscodePlan.compile(MessageLayout.current(OrderDecoder.TEMPLATE_ID), orderV2());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> plan.transcode(new UnsafeBuffer(trade), 0, new ExpandableArrayBuffer(), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> TranscodePlan.compile(orderV2(), MessageLayout.current(TradeDecoder.TEMPLATE_ID)));
+        assertThrows(IllegalArgumentException.class, () -> new SbeTranscoder((buffer, offset, length) -> { })
+                .onFrame(new UnsafeBuffer(trade), 0, trade.length));
+    }
+}